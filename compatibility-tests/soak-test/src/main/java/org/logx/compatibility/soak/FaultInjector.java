@@ -0,0 +1,98 @@
+package org.logx.compatibility.soak;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 故障注入器
+ * <p>
+ * 为S3替身的每个请求决定注入的延迟与故障类型：中断窗口内返回503 ServiceUnavailable，
+ * 其余请求按概率返回503 SlowDown或500 InternalError。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class FaultInjector {
+
+    /**
+     * 单次请求注入的故障类型
+     */
+    public enum Fault {
+        NONE(200, null),
+        SERVER_ERROR(500, "InternalError"),
+        SLOW_DOWN(503, "SlowDown"),
+        OUTAGE(503, "ServiceUnavailable");
+
+        private final int status;
+        private final String errorCode;
+
+        Fault(int status, String errorCode) {
+            this.status = status;
+            this.errorCode = errorCode;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getErrorCode() {
+            return errorCode;
+        }
+    }
+
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double errorRate;
+    private final double throttleRate;
+    private final List<SoakConfig.OutageWindow> outages;
+    private volatile long startNanos = System.nanoTime();
+
+    public FaultInjector(SoakConfig config) {
+        this.latencyMs = config.getLatencyMs();
+        this.latencyJitterMs = config.getLatencyJitterMs();
+        this.errorRate = config.getErrorRate();
+        this.throttleRate = config.getThrottleRate();
+        this.outages = config.getOutages();
+    }
+
+    /**
+     * 以当前时刻作为中断窗口的计时起点
+     */
+    public void markStart() {
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * 为一次请求抽取故障类型
+     *
+     * @return 故障类型
+     */
+    public Fault nextFault() {
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000L;
+        for (SoakConfig.OutageWindow window : outages) {
+            if (window.contains(elapsedMs)) {
+                return Fault.OUTAGE;
+            }
+        }
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < throttleRate) {
+            return Fault.SLOW_DOWN;
+        }
+        if (roll < throttleRate + errorRate) {
+            return Fault.SERVER_ERROR;
+        }
+        return Fault.NONE;
+    }
+
+    /**
+     * 为一次请求抽取响应延迟（毫秒），在基础延迟上叠加均匀分布的抖动
+     *
+     * @return 延迟毫秒数
+     */
+    public long nextLatencyMs() {
+        if (latencyJitterMs <= 0) {
+            return latencyMs;
+        }
+        return latencyMs + ThreadLocalRandom.current().nextLong(latencyJitterMs + 1);
+    }
+}
@@ -0,0 +1,74 @@
+package org.logx.compatibility.soak;
+
+/**
+ * 毫秒精度的定长延迟直方图
+ * <p>
+ * 以1ms为桶宽记录0~maxTrackedMs范围内的延迟，超出部分计入溢出桶，
+ * 内存占用固定，适合长时间压测中记录数千万样本。非线程安全，由单个分析线程写入。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class LatencyHistogram {
+
+    private final long[] buckets;
+    private long overflow;
+    private long count;
+    private long max;
+    private long sum;
+
+    public LatencyHistogram(int maxTrackedMs) {
+        this.buckets = new long[maxTrackedMs + 1];
+    }
+
+    public void record(long latencyMs) {
+        long value = Math.max(0, latencyMs);
+        if (value < buckets.length) {
+            buckets[(int) value]++;
+        } else {
+            overflow++;
+        }
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * 计算分位值
+     *
+     * @param percentile 分位（0~100）
+     * @return 对应的延迟毫秒数，超出记录范围时返回最大值
+     */
+    public long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return i;
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getOverflow() {
+        return overflow;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
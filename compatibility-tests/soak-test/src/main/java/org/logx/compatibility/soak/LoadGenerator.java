@@ -0,0 +1,134 @@
+package org.logx.compatibility.soak;
+
+import org.logx.core.AsyncEngine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 压测负载生成器
+ * <p>
+ * 启动固定数量的生产者线程，按目标速率匀速调用 {@link AsyncEngine#put(byte[])}。
+ * 每条日志携带生产者编号、序号和发出时刻，供RecordAnalyzer计算端到端延迟与顺序。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class LoadGenerator {
+
+    private static final int PACING_STRIDE = 64;
+    private static final long SLOW_PUT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AsyncEngine engine;
+    private final int producers;
+    private final long intervalNanos;
+    private final int payloadBytes;
+    private final AtomicLongArray emitted;
+    private final AtomicLongArray slowPuts;
+    private final AtomicLongArray maxPutNanos;
+    private volatile boolean running;
+
+    public LoadGenerator(AsyncEngine engine, SoakConfig config) {
+        this.engine = engine;
+        this.producers = config.getProducers();
+        double perProducerRate = Math.max(1.0, (double) config.getEventsPerSecond() / producers);
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / perProducerRate);
+        this.payloadBytes = config.getPayloadBytes();
+        this.emitted = new AtomicLongArray(producers);
+        this.slowPuts = new AtomicLongArray(producers);
+        this.maxPutNanos = new AtomicLongArray(producers);
+    }
+
+    /**
+     * 运行指定时长后返回
+     *
+     * @param durationSeconds 运行秒数
+     * @throws InterruptedException 等待被中断
+     */
+    public void run(int durationSeconds) throws InterruptedException {
+        running = true;
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            final int producerId = p;
+            Thread t = new Thread(() -> {
+                try {
+                    produce(producerId);
+                } finally {
+                    done.countDown();
+                }
+            }, "soak-producer-" + p);
+            t.setDaemon(true);
+            t.start();
+        }
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+        running = false;
+        done.await();
+    }
+
+    private void produce(int producerId) {
+        char[] padChars = new char[Math.max(0, payloadBytes - 48)];
+        Arrays.fill(padChars, (char) ('a' + producerId % 26));
+        String padding = new String(padChars);
+        String prefix = RecordAnalyzer.RECORD_MARKER + "|" + producerId + "|";
+
+        long start = System.nanoTime();
+        long seq = 0;
+        while (running) {
+            if (seq % PACING_STRIDE == 0) {
+                long due = start + seq * intervalNanos;
+                long ahead = due - System.nanoTime();
+                if (ahead > 0) {
+                    LockSupport.parkNanos(ahead);
+                }
+            }
+            long emitNanos = System.nanoTime();
+            byte[] line = (prefix + seq + "|" + emitNanos + "|" + padding + "\n").getBytes(StandardCharsets.UTF_8);
+            engine.put(line);
+            long putNanos = System.nanoTime() - emitNanos;
+            if (putNanos > SLOW_PUT_NANOS) {
+                slowPuts.incrementAndGet(producerId);
+            }
+            if (putNanos > maxPutNanos.get(producerId)) {
+                maxPutNanos.set(producerId, putNanos);
+            }
+            emitted.incrementAndGet(producerId);
+            seq++;
+        }
+    }
+
+    public int getProducers() {
+        return producers;
+    }
+
+    public long emitted(int producer) {
+        return emitted.get(producer);
+    }
+
+    public long getTotalEmitted() {
+        long total = 0;
+        for (int i = 0; i < producers; i++) {
+            total += emitted.get(i);
+        }
+        return total;
+    }
+
+    public long getSlowPuts() {
+        long total = 0;
+        for (int i = 0; i < producers; i++) {
+            total += slowPuts.get(i);
+        }
+        return total;
+    }
+
+    public long getMaxPutMicros() {
+        long max = 0;
+        for (int i = 0; i < producers; i++) {
+            max = Math.max(max, maxPutNanos.get(i));
+        }
+        return max / 1000L;
+    }
+}
@@ -0,0 +1,178 @@
+package org.logx.compatibility.soak;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 对象内容分析器
+ * <p>
+ * 在独立的单线程中解压并解析S3替身收到的对象，避免分析开销计入PUT响应延迟。
+ * 每条压测日志形如 {@code SOAK|producer|seq|emitNanos|padding}，据此统计端到端延迟、
+ * 重复、乱序（同一生产者的序号在到达顺序上回退）以及无法解析的残缺行。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class RecordAnalyzer implements S3StandInServer.ObjectSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordAnalyzer.class);
+
+    static final String RECORD_MARKER = "SOAK";
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "soak-analyzer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final BitSet[] received;
+    private final long[] maxSeq;
+    private final LatencyHistogram latency = new LatencyHistogram(600_000);
+
+    private long objects;
+    private long records;
+    private long duplicates;
+    private long outOfOrder;
+    private long malformedLines;
+    private long undecodableObjects;
+
+    public RecordAnalyzer(int producers) {
+        this.received = new BitSet[producers];
+        this.maxSeq = new long[producers];
+        for (int i = 0; i < producers; i++) {
+            received[i] = new BitSet();
+            maxSeq[i] = -1;
+        }
+    }
+
+    @Override
+    public void onObject(String key, byte[] body, long arrivalNanos) {
+        worker.execute(() -> analyze(key, body, arrivalNanos));
+    }
+
+    private void analyze(String key, byte[] body, long arrivalNanos) {
+        objects++;
+        boolean gzip = body.length >= 2 && (body[0] & 0xff) == 0x1f && (body[1] & 0xff) == 0x8b;
+        try (InputStream raw = gzip ? new GZIPInputStream(new ByteArrayInputStream(body), 16384)
+                : new ByteArrayInputStream(body);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(raw, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    analyzeLine(line, arrivalNanos);
+                }
+            }
+        } catch (IOException e) {
+            undecodableObjects++;
+            logger.warn("Failed to decode object {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void analyzeLine(String line, long arrivalNanos) {
+        String[] parts = line.split("\\|", 5);
+        if (parts.length < 4 || !RECORD_MARKER.equals(parts[0])) {
+            malformedLines++;
+            return;
+        }
+        int producer;
+        long seq;
+        long emitNanos;
+        try {
+            producer = Integer.parseInt(parts[1]);
+            seq = Long.parseLong(parts[2]);
+            emitNanos = Long.parseLong(parts[3]);
+        } catch (NumberFormatException e) {
+            malformedLines++;
+            return;
+        }
+        if (producer < 0 || producer >= received.length || seq < 0 || seq > Integer.MAX_VALUE) {
+            malformedLines++;
+            return;
+        }
+
+        records++;
+        if (received[producer].get((int) seq)) {
+            duplicates++;
+            return;
+        }
+        received[producer].set((int) seq);
+        if (seq < maxSeq[producer]) {
+            outOfOrder++;
+        } else {
+            maxSeq[producer] = seq;
+        }
+        latency.record((arrivalNanos - emitNanos) / 1_000_000L);
+    }
+
+    /**
+     * 等待已提交的对象全部分析完成，之后不再接受新对象
+     *
+     * @param timeout 超时时间
+     * @param unit 时间单位
+     * @throws InterruptedException 等待被中断
+     */
+    public void awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        worker.shutdown();
+        if (!worker.awaitTermination(timeout, unit)) {
+            logger.warn("Analyzer did not finish within {} {}", timeout, unit);
+        }
+    }
+
+    /**
+     * 某个生产者被完整接收（去重后）的记录数
+     *
+     * @param producer 生产者编号
+     * @return 唯一记录数
+     */
+    public long uniqueRecords(int producer) {
+        return received[producer].cardinality();
+    }
+
+    public long getUniqueRecords() {
+        long total = 0;
+        for (BitSet bits : received) {
+            total += bits.cardinality();
+        }
+        return total;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getObjects() {
+        return objects;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getOutOfOrder() {
+        return outOfOrder;
+    }
+
+    public long getMalformedLines() {
+        return malformedLines;
+    }
+
+    public long getUndecodableObjects() {
+        return undecodableObjects;
+    }
+}
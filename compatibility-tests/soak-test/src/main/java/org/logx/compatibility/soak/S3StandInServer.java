@@ -0,0 +1,266 @@
+package org.logx.compatibility.soak;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内S3替身
+ * <p>
+ * 基于JDK自带HttpServer实现path-style的PutObject，按FaultInjector注入延迟与故障，
+ * 成功写入的对象交给ObjectSink做内容分析。支持SDK在HTTP端点上使用的aws-chunked分块签名编码。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class S3StandInServer implements AutoCloseable {
+
+    /**
+     * 成功写入对象的接收方
+     */
+    public interface ObjectSink {
+        /**
+         * @param key 对象键（不含bucket）
+         * @param body 对象内容
+         * @param arrivalNanos 到达时刻（System.nanoTime）
+         */
+        void onObject(String key, byte[] body, long arrivalNanos);
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final FaultInjector faultInjector;
+    private final ObjectSink sink;
+    private final String bucket;
+
+    private final AtomicLong totalRequests = new AtomicLong();
+    private final AtomicLong storedObjects = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+    private final AtomicLong slowDowns = new AtomicLong();
+    private final AtomicLong outageRejections = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    public S3StandInServer(String bucket, FaultInjector faultInjector, ObjectSink sink, int workerThreads)
+            throws IOException {
+        this.bucket = bucket;
+        this.faultInjector = faultInjector;
+        this.sink = sink;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread t = new Thread(r, "s3-standin-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String getEndpoint() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            totalRequests.incrementAndGet();
+            byte[] body = readBody(exchange);
+            String method = exchange.getRequestMethod();
+            if (!"PUT".equals(method)) {
+                respond(exchange, "HEAD".equals(method) || "GET".equals(method) ? 200 : 405, null);
+                return;
+            }
+
+            long latency = faultInjector.nextLatencyMs();
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+
+            FaultInjector.Fault fault = faultInjector.nextFault();
+            if (fault != FaultInjector.Fault.NONE) {
+                countFault(fault);
+                respond(exchange, fault.getStatus(), errorXml(fault));
+                return;
+            }
+
+            String key = extractKey(exchange.getRequestURI().getRawPath());
+            bytesReceived.addAndGet(body.length);
+            storedObjects.incrementAndGet();
+            sink.onObject(key, body, System.nanoTime());
+            exchange.getResponseHeaders().add("ETag", "\"" + md5Hex(body) + "\"");
+            respond(exchange, 200, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 500, errorXml(FaultInjector.Fault.SERVER_ERROR));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void countFault(FaultInjector.Fault fault) {
+        switch (fault) {
+            case SERVER_ERROR:
+                serverErrors.incrementAndGet();
+                break;
+            case SLOW_DOWN:
+                slowDowns.incrementAndGet();
+                break;
+            case OUTAGE:
+                outageRejections.incrementAndGet();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private String extractKey(String rawPath) {
+        String path = rawPath.startsWith("/") ? rawPath.substring(1) : rawPath;
+        String bucketPrefix = bucket + "/";
+        return path.startsWith(bucketPrefix) ? path.substring(bucketPrefix.length()) : path;
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[16384];
+        try (InputStream in = exchange.getRequestBody()) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+        byte[] raw = out.toByteArray();
+        String contentSha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        boolean awsChunked = (contentSha != null && contentSha.startsWith("STREAMING-"))
+                || (contentEncoding != null && contentEncoding.contains("aws-chunked"));
+        return awsChunked ? decodeAwsChunked(raw) : raw;
+    }
+
+    /**
+     * 解码aws-chunked分块编码：每块为 "hex-size[;chunk-signature=...]\r\n" + 数据 + "\r\n"，以0长度块结束
+     *
+     * @param raw 原始请求体
+     * @return 解码后的对象内容
+     */
+    static byte[] decodeAwsChunked(byte[] raw) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length);
+        int pos = 0;
+        while (pos < raw.length) {
+            int lineEnd = indexOfCrlf(raw, pos);
+            if (lineEnd < 0) {
+                break;
+            }
+            String header = new String(raw, pos, lineEnd - pos, StandardCharsets.US_ASCII);
+            int semicolon = header.indexOf(';');
+            String sizeHex = (semicolon >= 0 ? header.substring(0, semicolon) : header).trim();
+            int size = Integer.parseInt(sizeHex, 16);
+            if (size == 0) {
+                break;
+            }
+            int dataStart = lineEnd + 2;
+            out.write(raw, dataStart, size);
+            pos = dataStart + size + 2;
+        }
+        return out.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] data, int from) {
+        for (int i = from; i < data.length - 1; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * S3的ETag为对象内容的MD5，SDK会据此校验上传完整性
+     */
+    private static String md5Hex(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(body);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
+    private static String errorXml(FaultInjector.Fault fault) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + fault.getErrorCode()
+                + "</Code><Message>Injected by soak test</Message></Error>";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    public long getTotalRequests() {
+        return totalRequests.get();
+    }
+
+    public long getStoredObjects() {
+        return storedObjects.get();
+    }
+
+    public long getServerErrors() {
+        return serverErrors.get();
+    }
+
+    public long getSlowDowns() {
+        return slowDowns.get();
+    }
+
+    public long getOutageRejections() {
+        return outageRejections.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package org.logx.compatibility.soak;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 压测参数
+ * <p>
+ * 所有参数均可通过 -Dsoak.xxx 系统属性覆盖，便于在CI或本地以不同故障组合运行。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class SoakConfig {
+
+    private int durationSeconds = 120;
+    private int producers = 8;
+    private int eventsPerSecond = 50000;
+    private int payloadBytes = 256;
+    private int drainSeconds = 30;
+
+    private long latencyMs = 20;
+    private long latencyJitterMs = 30;
+    private double errorRate = 0.01;
+    private double throttleRate = 0.02;
+    private List<OutageWindow> outages = new ArrayList<>();
+
+    private int queueCapacity = 262144;
+    private boolean blockOnFull = false;
+    private int parallelUploadThreads = 4;
+    private long uploadTimeoutMs = 10000;
+    private long maxMessageAgeMs = 1000;
+    private int fallbackScanIntervalSeconds = 10;
+    private boolean spoolEnabled = false;
+    private String overflowPolicy;
+
+    private double maxLossRatio = -1;
+
+    /**
+     * 从系统属性加载参数，未设置的保持默认值
+     *
+     * @return 压测参数
+     */
+    public static SoakConfig fromSystemProperties() {
+        SoakConfig config = new SoakConfig();
+        config.durationSeconds = intProp("soak.durationSeconds", config.durationSeconds);
+        config.producers = intProp("soak.producers", config.producers);
+        config.eventsPerSecond = intProp("soak.eventsPerSecond", config.eventsPerSecond);
+        config.payloadBytes = intProp("soak.payloadBytes", config.payloadBytes);
+        config.drainSeconds = intProp("soak.drainSeconds", config.drainSeconds);
+        config.latencyMs = longProp("soak.latencyMs", config.latencyMs);
+        config.latencyJitterMs = longProp("soak.latencyJitterMs", config.latencyJitterMs);
+        config.errorRate = doubleProp("soak.errorRate", config.errorRate);
+        config.throttleRate = doubleProp("soak.throttleRate", config.throttleRate);
+        config.outages = OutageWindow.parseList(System.getProperty("soak.outages", "30:10"));
+        config.queueCapacity = intProp("soak.queueCapacity", config.queueCapacity);
+        config.blockOnFull = Boolean.parseBoolean(System.getProperty("soak.blockOnFull",
+                String.valueOf(config.blockOnFull)));
+        config.parallelUploadThreads = intProp("soak.parallelUploadThreads", config.parallelUploadThreads);
+        config.uploadTimeoutMs = longProp("soak.uploadTimeoutMs", config.uploadTimeoutMs);
+        config.maxMessageAgeMs = longProp("soak.maxMessageAgeMs", config.maxMessageAgeMs);
+        config.fallbackScanIntervalSeconds = intProp("soak.fallbackScanIntervalSeconds",
+                config.fallbackScanIntervalSeconds);
+        config.spoolEnabled = Boolean.parseBoolean(System.getProperty("soak.spool",
+                String.valueOf(config.spoolEnabled)));
+        config.overflowPolicy = System.getProperty("soak.overflowPolicy", config.overflowPolicy);
+        config.maxLossRatio = doubleProp("soak.maxLossRatio", config.maxLossRatio);
+        return config;
+    }
+
+    private static int intProp(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    private static long longProp(String key, long defaultValue) {
+        String value = System.getProperty(key);
+        return value != null ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    private static double doubleProp(String key, double defaultValue) {
+        String value = System.getProperty(key);
+        return value != null ? Double.parseDouble(value.trim()) : defaultValue;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public SoakConfig durationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+        return this;
+    }
+
+    public int getProducers() {
+        return producers;
+    }
+
+    public SoakConfig producers(int producers) {
+        this.producers = producers;
+        return this;
+    }
+
+    public int getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    public SoakConfig eventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+        return this;
+    }
+
+    public int getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    public SoakConfig payloadBytes(int payloadBytes) {
+        this.payloadBytes = payloadBytes;
+        return this;
+    }
+
+    public int getDrainSeconds() {
+        return drainSeconds;
+    }
+
+    public SoakConfig drainSeconds(int drainSeconds) {
+        this.drainSeconds = drainSeconds;
+        return this;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public SoakConfig latencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+        return this;
+    }
+
+    public long getLatencyJitterMs() {
+        return latencyJitterMs;
+    }
+
+    public SoakConfig latencyJitterMs(long latencyJitterMs) {
+        this.latencyJitterMs = latencyJitterMs;
+        return this;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public SoakConfig errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public double getThrottleRate() {
+        return throttleRate;
+    }
+
+    public SoakConfig throttleRate(double throttleRate) {
+        this.throttleRate = throttleRate;
+        return this;
+    }
+
+    public List<OutageWindow> getOutages() {
+        return Collections.unmodifiableList(outages);
+    }
+
+    public SoakConfig outages(List<OutageWindow> outages) {
+        this.outages = new ArrayList<>(outages);
+        return this;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public SoakConfig queueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public boolean isBlockOnFull() {
+        return blockOnFull;
+    }
+
+    public SoakConfig blockOnFull(boolean blockOnFull) {
+        this.blockOnFull = blockOnFull;
+        return this;
+    }
+
+    public int getParallelUploadThreads() {
+        return parallelUploadThreads;
+    }
+
+    public SoakConfig parallelUploadThreads(int parallelUploadThreads) {
+        this.parallelUploadThreads = parallelUploadThreads;
+        return this;
+    }
+
+    public long getUploadTimeoutMs() {
+        return uploadTimeoutMs;
+    }
+
+    public SoakConfig uploadTimeoutMs(long uploadTimeoutMs) {
+        this.uploadTimeoutMs = uploadTimeoutMs;
+        return this;
+    }
+
+    public long getMaxMessageAgeMs() {
+        return maxMessageAgeMs;
+    }
+
+    public SoakConfig maxMessageAgeMs(long maxMessageAgeMs) {
+        this.maxMessageAgeMs = maxMessageAgeMs;
+        return this;
+    }
+
+    public int getFallbackScanIntervalSeconds() {
+        return fallbackScanIntervalSeconds;
+    }
+
+    public SoakConfig fallbackScanIntervalSeconds(int fallbackScanIntervalSeconds) {
+        this.fallbackScanIntervalSeconds = fallbackScanIntervalSeconds;
+        return this;
+    }
+
+    public boolean isSpoolEnabled() {
+        return spoolEnabled;
+    }
+
+    public SoakConfig spoolEnabled(boolean spoolEnabled) {
+        this.spoolEnabled = spoolEnabled;
+        return this;
+    }
+
+    public String getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public SoakConfig overflowPolicy(String overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    public double getMaxLossRatio() {
+        return maxLossRatio;
+    }
+
+    public SoakConfig maxLossRatio(double maxLossRatio) {
+        this.maxLossRatio = maxLossRatio;
+        return this;
+    }
+
+    /**
+     * 中断窗口：从压测开始后第startSeconds秒起，持续durationSeconds秒内所有请求返回503
+     */
+    public static final class OutageWindow {
+        private final long startSeconds;
+        private final long durationSeconds;
+
+        public OutageWindow(long startSeconds, long durationSeconds) {
+            this.startSeconds = startSeconds;
+            this.durationSeconds = durationSeconds;
+        }
+
+        /**
+         * 解析 "start:duration,start:duration" 格式的中断窗口列表，空串表示无中断
+         *
+         * @param spec 窗口描述
+         * @return 中断窗口列表
+         */
+        public static List<OutageWindow> parseList(String spec) {
+            List<OutageWindow> windows = new ArrayList<>();
+            if (spec == null || spec.trim().isEmpty()) {
+                return windows;
+            }
+            for (String part : spec.split(",")) {
+                String[] pair = part.trim().split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Invalid outage window: " + part);
+                }
+                windows.add(new OutageWindow(Long.parseLong(pair[0].trim()), Long.parseLong(pair[1].trim())));
+            }
+            return windows;
+        }
+
+        public boolean contains(long elapsedMs) {
+            long startMs = startSeconds * 1000L;
+            return elapsedMs >= startMs && elapsedMs < startMs + durationSeconds * 1000L;
+        }
+
+        @Override
+        public String toString() {
+            return startSeconds + "s+" + durationSeconds + "s";
+        }
+    }
+}
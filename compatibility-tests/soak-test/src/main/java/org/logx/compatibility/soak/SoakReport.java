@@ -0,0 +1,150 @@
+package org.logx.compatibility.soak;
+
+import java.util.Locale;
+
+/**
+ * 压测结果
+ * <p>
+ * 汇总生产端、S3替身与内容分析三方的计数，给出丢失率、乱序与端到端延迟分位。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class SoakReport {
+
+    private final SoakConfig config;
+    private final LoadGenerator load;
+    private final S3StandInServer server;
+    private final RecordAnalyzer analyzer;
+    private final long elapsedMs;
+    private final FallbackVolume fallbackAtLoadEnd;
+    private final FallbackVolume fallbackAtShutdown;
+
+    public SoakReport(SoakConfig config, LoadGenerator load, S3StandInServer server, RecordAnalyzer analyzer,
+            long elapsedMs, FallbackVolume fallbackAtLoadEnd, FallbackVolume fallbackAtShutdown) {
+        this.config = config;
+        this.load = load;
+        this.server = server;
+        this.analyzer = analyzer;
+        this.elapsedMs = elapsedMs;
+        this.fallbackAtLoadEnd = fallbackAtLoadEnd;
+        this.fallbackAtShutdown = fallbackAtShutdown;
+    }
+
+    public long getEmitted() {
+        return load.getTotalEmitted();
+    }
+
+    public long getReceived() {
+        return analyzer.getUniqueRecords();
+    }
+
+    /**
+     * 未到达S3替身的记录数（含仍滞留在兜底目录中的记录）
+     *
+     * @return 丢失记录数
+     */
+    public long getMissing() {
+        return Math.max(0, getEmitted() - getReceived());
+    }
+
+    public double getLossRatio() {
+        long emitted = getEmitted();
+        return emitted == 0 ? 0 : (double) getMissing() / emitted;
+    }
+
+    public long getDuplicates() {
+        return analyzer.getDuplicates();
+    }
+
+    public long getOutOfOrder() {
+        return analyzer.getOutOfOrder();
+    }
+
+    public LatencyHistogram getLatency() {
+        return analyzer.getLatency();
+    }
+
+    public FallbackVolume getFallbackAtShutdown() {
+        return fallbackAtShutdown;
+    }
+
+    /**
+     * 生成可读的报告文本
+     *
+     * @return 报告文本
+     */
+    public String format() {
+        LatencyHistogram latency = analyzer.getLatency();
+        double seconds = Math.max(1, elapsedMs) / 1000.0;
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("==================== LogX Soak Report ====================\n");
+        line(sb, "duration", String.format(Locale.ROOT, "%.1fs (load %ds, drain %ds)",
+                seconds, config.getDurationSeconds(), config.getDrainSeconds()));
+        line(sb, "spool", String.valueOf(config.isSpoolEnabled()));
+        line(sb, "overflow policy", config.getOverflowPolicy() != null
+                ? config.getOverflowPolicy()
+                : (config.isBlockOnFull() ? "BLOCK" : "DROP"));
+        line(sb, "faults", String.format(Locale.ROOT, "latency=%d+%dms error=%.3f slowDown=%.3f outages=%s",
+                config.getLatencyMs(), config.getLatencyJitterMs(), config.getErrorRate(),
+                config.getThrottleRate(), config.getOutages()));
+        sb.append("-- producers\n");
+        line(sb, "emitted", String.format(Locale.ROOT, "%d (%.0f events/min)",
+                getEmitted(), getEmitted() * 60.0 / Math.max(1, config.getDurationSeconds())));
+        line(sb, "slow puts (>1ms)", String.valueOf(load.getSlowPuts()));
+        line(sb, "max put", load.getMaxPutMicros() + "us");
+        sb.append("-- s3 stand-in\n");
+        line(sb, "requests", String.valueOf(server.getTotalRequests()));
+        line(sb, "stored objects", server.getStoredObjects() + " (" + server.getBytesReceived() + " bytes)");
+        line(sb, "500 InternalError", String.valueOf(server.getServerErrors()));
+        line(sb, "503 SlowDown", String.valueOf(server.getSlowDowns()));
+        line(sb, "503 outage", String.valueOf(server.getOutageRejections()));
+        sb.append("-- delivery\n");
+        line(sb, "received (unique)", String.valueOf(getReceived()));
+        line(sb, "missing", String.format(Locale.ROOT, "%d (%.4f%%)", getMissing(), getLossRatio() * 100));
+        line(sb, "duplicates", String.valueOf(getDuplicates()));
+        line(sb, "out of order", String.valueOf(getOutOfOrder()));
+        line(sb, "malformed lines", String.valueOf(analyzer.getMalformedLines()));
+        line(sb, "undecodable objects", String.valueOf(analyzer.getUndecodableObjects()));
+        sb.append("-- fallback\n");
+        line(sb, "at load end", fallbackAtLoadEnd.toString());
+        line(sb, "at shutdown", fallbackAtShutdown.toString());
+        sb.append("-- end-to-end latency (ms)\n");
+        line(sb, "p50 / p90 / p99", latency.percentile(50) + " / " + latency.percentile(90) + " / "
+                + latency.percentile(99));
+        line(sb, "p99.9 / max", latency.percentile(99.9) + " / " + latency.getMax());
+        line(sb, "mean", String.format(Locale.ROOT, "%.1f", latency.getMean()));
+        sb.append("==========================================================\n");
+        return sb.toString();
+    }
+
+    private static void line(StringBuilder sb, String name, String value) {
+        sb.append(String.format(Locale.ROOT, "  %-22s %s%n", name, value));
+    }
+
+    /**
+     * 兜底目录的文件数与字节数快照
+     */
+    public static final class FallbackVolume {
+        private final long files;
+        private final long bytes;
+
+        public FallbackVolume(long files, long bytes) {
+            this.files = files;
+            this.bytes = bytes;
+        }
+
+        public long getFiles() {
+            return files;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return files + " files, " + bytes + " bytes";
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.logx.compatibility.soak;
+
+import org.logx.core.AsyncEngine;
+import org.logx.core.AsyncEngineConfig;
+import org.logx.core.OverflowPolicy;
+import org.logx.storage.StorageConfig;
+import org.logx.storage.StorageService;
+import org.logx.storage.s3.S3StorageServiceAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 长时间压测入口
+ * <p>
+ * 启动进程内S3替身，使用真实的S3StorageServiceAdapter和AsyncEngine对其持续写入，
+ * 期间按配置注入延迟、错误、503 SlowDown和中断窗口。负载结束后保留drainSeconds秒供兜底重传，
+ * 最后停止引擎并输出端到端延迟分位、丢失数、兜底目录体积以及恢复记录的顺序情况。
+ * <p>
+ * 运行方式：{@code mvn -f compatibility-tests/soak-test/pom.xml exec:java -Dsoak.durationSeconds=600}
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class SoakTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SoakTestRunner.class);
+
+    private static final String BUCKET = "soak-bucket";
+
+    public static void main(String[] args) throws Exception {
+        SoakConfig config = SoakConfig.fromSystemProperties();
+        SoakReport report = run(config);
+        System.out.println(report.format());
+
+        if (config.getMaxLossRatio() >= 0 && report.getLossRatio() > config.getMaxLossRatio()) {
+            System.out.println("Loss ratio " + report.getLossRatio() + " exceeds soak.maxLossRatio "
+                    + config.getMaxLossRatio());
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * 执行一次压测
+     *
+     * @param config 压测参数
+     * @return 压测结果
+     * @throws Exception 压测环境搭建失败
+     */
+    public static SoakReport run(SoakConfig config) throws Exception {
+        Path fallbackDir = Files.createTempDirectory("logx-soak-fallback");
+        FaultInjector faultInjector = new FaultInjector(config);
+        RecordAnalyzer analyzer = new RecordAnalyzer(config.getProducers());
+
+        try (S3StandInServer server = new S3StandInServer(BUCKET, faultInjector, analyzer,
+                Math.max(16, config.getParallelUploadThreads() * 4))) {
+            server.start();
+            logger.info("S3 stand-in listening on {}, fallback dir {}", server.getEndpoint(), fallbackDir);
+
+            StorageConfig storageConfig = new StorageConfig();
+            storageConfig.setOssType("S3");
+            storageConfig.setEndpoint(server.getEndpoint());
+            storageConfig.setRegion("us-east-1");
+            storageConfig.setAccessKeyId("soak");
+            storageConfig.setAccessKeySecret("soak-secret");
+            storageConfig.setBucket(BUCKET);
+            storageConfig.setKeyPrefix("soak");
+            storageConfig.setPathStyleAccess(true);
+            if (config.isSpoolEnabled()) {
+                storageConfig.getProperties().getEngine().getSpool().setEnabled(true);
+                storageConfig.getProperties().getEngine().getSpool().setPath(
+                        fallbackDir.resolveSibling(fallbackDir.getFileName() + "-spool").toString());
+            }
+            storageConfig.getProperties().getEngine().getQueue().setSpillPath(
+                    fallbackDir.resolveSibling(fallbackDir.getFileName() + "-spill").toString());
+
+            AsyncEngineConfig engineConfig = AsyncEngineConfig.defaultConfig()
+                    .queueCapacity(config.getQueueCapacity())
+                    .blockOnFull(config.isBlockOnFull())
+                    .overflowPolicy(OverflowPolicy.parse(config.getOverflowPolicy(), null))
+                    .multiProducer(config.getProducers() > 1)
+                    .maxMessageAgeMs(config.getMaxMessageAgeMs())
+                    .parallelUploadThreads(config.getParallelUploadThreads())
+                    .uploadTimeoutMs(config.getUploadTimeoutMs())
+                    .fallbackScanIntervalSeconds(config.getFallbackScanIntervalSeconds())
+                    .logFilePrefix(fallbackDir.toAbsolutePath().toString() + "/");
+            engineConfig.setStorageConfig(storageConfig);
+
+            StorageService storage = new S3StorageServiceAdapter(storageConfig);
+            AsyncEngine engine = AsyncEngine.create(storage, engineConfig);
+            engine.start();
+
+            LoadGenerator load = new LoadGenerator(engine, config);
+            long startNanos = System.nanoTime();
+            faultInjector.markStart();
+            load.run(config.getDurationSeconds());
+            SoakReport.FallbackVolume atLoadEnd = measureFallback(fallbackDir);
+            logger.info("Load finished: emitted={}, fallback={}", load.getTotalEmitted(), atLoadEnd);
+
+            if (config.getDrainSeconds() > 0) {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(config.getDrainSeconds()));
+            }
+            engine.stop(Math.max(30_000L, config.getUploadTimeoutMs() * 2), TimeUnit.MILLISECONDS);
+            storage.close();
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+            analyzer.awaitCompletion(5, TimeUnit.MINUTES);
+            SoakReport.FallbackVolume atShutdown = measureFallback(fallbackDir);
+            return new SoakReport(config, load, server, analyzer, elapsedMs, atLoadEnd, atShutdown);
+        }
+    }
+
+    private static SoakReport.FallbackVolume measureFallback(Path dir) {
+        AtomicLong files = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.filter(Files::isRegularFile).forEach(p -> {
+                files.incrementAndGet();
+                try {
+                    bytes.addAndGet(Files.size(p));
+                } catch (IOException e) {
+                    logger.debug("Fallback file vanished while measuring: {}", p);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Failed to measure fallback dir {}: {}", dir, e.getMessage());
+        }
+        return new SoakReport.FallbackVolume(files.get(), bytes.get());
+    }
+}
@@ -0,0 +1,48 @@
+package org.logx.compatibility.soak;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 压测工具自检：无故障短时运行时应完整送达，分块编码可正确还原
+ */
+class SoakHarnessSmokeTest {
+
+    @Test
+    void shortRunWithoutFaultsDeliversEveryRecord() throws Exception {
+        SoakConfig config = new SoakConfig()
+                .durationSeconds(3)
+                .drainSeconds(0)
+                .producers(2)
+                .eventsPerSecond(2000)
+                .latencyMs(0)
+                .latencyJitterMs(0)
+                .errorRate(0)
+                .throttleRate(0)
+                .outages(Collections.emptyList())
+                .blockOnFull(true)
+                .maxMessageAgeMs(200);
+
+        SoakReport report = SoakTestRunner.run(config);
+
+        assertTrue(report.getEmitted() > 0);
+        assertEquals(report.getEmitted(), report.getReceived());
+        assertEquals(0, report.getDuplicates());
+        assertEquals(0, report.getFallbackAtShutdown().getFiles());
+        assertEquals(report.getEmitted(), report.getLatency().getCount());
+    }
+
+    @Test
+    void decodesAwsChunkedBody() {
+        String encoded = "5;chunk-signature=abc\r\nhello\r\n6;chunk-signature=def\r\n world\r\n"
+                + "0;chunk-signature=fff\r\n\r\n";
+        byte[] decoded = S3StandInServer.decodeAwsChunked(encoded.getBytes(StandardCharsets.US_ASCII));
+        assertArrayEquals("hello world".getBytes(StandardCharsets.US_ASCII), decoded);
+    }
+}
@@ -9,8 +9,12 @@ import org.logx.storage.StorageServiceFactory;
 import org.logx.core.AsyncEngine;
 import org.logx.core.AsyncEngineConfig;
 import org.logx.core.LogPayloadSanitizer;
+import org.logx.core.OutputFormat;
+import org.logx.core.LogRecord;
 import org.apache.log4j.Logger;
 
+import java.util.Map;
+
 
 /**
  * Log4j 1.x 桥接器
@@ -20,6 +24,7 @@ public class Log4j1xBridge extends AbstractUniversalAdapter {
     private static final Logger logger = Logger.getLogger(Log4j1xBridge.class);
     private Layout layout;
     private AsyncEngineConfig engineConfig;
+    private boolean columnar;
     
     public Log4j1xBridge(StorageConfig config) {
         this(config, null);
@@ -27,13 +32,19 @@ public class Log4j1xBridge extends AbstractUniversalAdapter {
     
     public Log4j1xBridge(StorageConfig config, AsyncEngineConfig engineConfig) {
         // 使用存储服务工厂创建存储服务
-        StorageService storageService = StorageServiceFactory.createStorageService(config);
+        this(StorageServiceFactory.createStorageService(config), config, engineConfig);
+    }
 
+    /**
+     * 使用外部提供的存储服务构造桥接器（用于基准测试和嵌入式场景）
+     */
+    public Log4j1xBridge(StorageService storageService, StorageConfig config, AsyncEngineConfig engineConfig) {
         // 从存储服务获取存储接口
         this.s3Storage = storageService;
 
         // 保存引擎配置
         this.engineConfig = engineConfig;
+        this.columnar = config != null && OutputFormat.of(config.getProperties()) == OutputFormat.PARQUET;
 
         // 设置StorageConfig到引擎配置
         if (engineConfig != null) {
@@ -67,6 +78,10 @@ public class Log4j1xBridge extends AbstractUniversalAdapter {
         }
         
         try {
+            if (columnar) {
+                appendStructured(event);
+                return;
+            }
             String logLine = convertEvent(event);
             if (logLine != null) {
                 int maxBytes = engineConfig != null ? engineConfig.getPayloadMaxBytes() : 512 * 1024;
@@ -82,6 +97,38 @@ public class Log4j1xBridge extends AbstractUniversalAdapter {
         }
     }
     
+    /**
+     * 列式输出：直接提取事件字段，不经过Layout
+     */
+    private void appendStructured(Object event) {
+        if (!(event instanceof LoggingEvent)) {
+            return;
+        }
+        LoggingEvent loggingEvent = (LoggingEvent) event;
+        LogRecord record = asyncEngine.acquireRecord();
+        try {
+            record.setTimestampMs(loggingEvent.getTimeStamp())
+                    .setLevel(loggingEvent.getLevel() != null
+                            ? LogRecord.levelOf(loggingEvent.getLevel().toString()) : LogRecord.LEVEL_UNKNOWN)
+                    .setLoggerName(loggingEvent.getLoggerName())
+                    .setThreadName(loggingEvent.getThreadName())
+                    .setMessage(loggingEvent.getRenderedMessage());
+            Map<?, ?> properties = loggingEvent.getProperties();
+            if (properties != null) {
+                for (Map.Entry<?, ?> entry : properties.entrySet()) {
+                    record.putContext(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+                }
+            }
+            if (loggingEvent.getThrowableInformation() != null) {
+                record.setThrown(loggingEvent.getThrowableInformation().getThrowable());
+            }
+        } catch (RuntimeException e) {
+            asyncEngine.releaseRecord(record);
+            throw e;
+        }
+        asyncEngine.put(record);
+    }
+
     /**
      * 将Log4j 1.x事件转换为字符串
      */
@@ -7,6 +7,7 @@ import org.logx.config.ConfigManager;
 import org.logx.config.properties.LogxOssProperties;
 import org.logx.config.validation.ConfigValidationUtils;
 import org.logx.core.AsyncEngineConfig;
+import org.logx.core.ProducerMode;
 import org.logx.storage.StorageConfig;
 
 import java.util.HashMap;
@@ -70,6 +71,10 @@ public class Log4jOSSAppender extends AppenderSkeleton {
             engineConfig.blockOnFull(!properties.getEngine().getQueue().isDropWhenFull());
             engineConfig.uploadTimeoutMs(properties.getStorage().getUploadTimeoutMs());
             engineConfig.payloadMaxBytes(properties.getEngine().getPayloadMaxBytes());
+            engineConfig.producerBatchSize(properties.getEngine().getProducerBatchSize());
+            engineConfig.producerBatchMaxDelayMs(properties.getEngine().getProducerBatchMaxDelayMs());
+            engineConfig.producerMode(ProducerMode.parse(properties.getEngine().getProducerMode(), ProducerMode.AUTO));
+            engineConfig.producerRings(properties.getEngine().getProducerRings());
 
             this.adapter = new Log4j1xBridge(storageConfig, engineConfig);
             this.adapter.setLayout(layout);
@@ -105,6 +110,9 @@ public class Log4jOSSAppender extends AppenderSkeleton {
         if (xmlConfig.containsKey("logx.oss.storage.keyPrefix")) {
             properties.getStorage().setKeyPrefix(xmlConfig.get("logx.oss.storage.keyPrefix"));
         }
+        if (xmlConfig.containsKey("logx.oss.storage.keyTemplate")) {
+            properties.getStorage().setKeyTemplate(xmlConfig.get("logx.oss.storage.keyTemplate"));
+        }
         if (xmlConfig.containsKey("logx.oss.storage.ossType")) {
             properties.getStorage().setOssType(xmlConfig.get("logx.oss.storage.ossType"));
         }
@@ -133,6 +141,30 @@ public class Log4jOSSAppender extends AppenderSkeleton {
         if (xmlConfig.containsKey("logx.oss.engine.queue.dropWhenFull")) {
             properties.getEngine().getQueue().setDropWhenFull(Boolean.parseBoolean(xmlConfig.get("logx.oss.engine.queue.dropWhenFull")));
         }
+        if (xmlConfig.containsKey("logx.oss.engine.queue.overflowPolicy")) {
+            properties.getEngine().getQueue().setOverflowPolicy(xmlConfig.get("logx.oss.engine.queue.overflowPolicy"));
+        }
+
+        // 引擎配置 - 输出格式
+        if (xmlConfig.containsKey("logx.oss.engine.outputFormat")) {
+            properties.getEngine().setOutputFormat(xmlConfig.get("logx.oss.engine.outputFormat"));
+        }
+
+        // 引擎配置 - 生产者线程内微批次
+        if (xmlConfig.containsKey("logx.oss.engine.producerBatchSize")) {
+            properties.getEngine().setProducerBatchSize(Integer.parseInt(xmlConfig.get("logx.oss.engine.producerBatchSize")));
+        }
+        if (xmlConfig.containsKey("logx.oss.engine.producerBatchMaxDelayMs")) {
+            properties.getEngine().setProducerBatchMaxDelayMs(Long.parseLong(xmlConfig.get("logx.oss.engine.producerBatchMaxDelayMs")));
+        }
+
+        // 引擎配置 - 生产者模式
+        if (xmlConfig.containsKey("logx.oss.engine.producerMode")) {
+            properties.getEngine().setProducerMode(xmlConfig.get("logx.oss.engine.producerMode"));
+        }
+        if (xmlConfig.containsKey("logx.oss.engine.producerRings")) {
+            properties.getEngine().setProducerRings(Integer.parseInt(xmlConfig.get("logx.oss.engine.producerRings")));
+        }
 
         // 引擎配置 - 重试
         if (xmlConfig.containsKey("logx.oss.engine.retry.maxRetries")) {
@@ -144,10 +176,22 @@ public class Log4jOSSAppender extends AppenderSkeleton {
         if (xmlConfig.containsKey("logx.oss.engine.retry.maxBackoffMs")) {
             properties.getEngine().getRetry().setMaxBackoffMs(Long.parseLong(xmlConfig.get("logx.oss.engine.retry.maxBackoffMs")));
         }
+        if (xmlConfig.containsKey("logx.oss.engine.retry.hedgePercentile")) {
+            properties.getEngine().getRetry().setHedgePercentile(Integer.parseInt(xmlConfig.get("logx.oss.engine.retry.hedgePercentile")));
+        }
+        if (xmlConfig.containsKey("logx.oss.engine.retry.hedgeMinDelayMs")) {
+            properties.getEngine().getRetry().setHedgeMinDelayMs(Long.parseLong(xmlConfig.get("logx.oss.engine.retry.hedgeMinDelayMs")));
+        }
 
         if (xmlConfig.containsKey("logx.oss.engine.payload.maxBytes")) {
             properties.getEngine().setPayloadMaxBytes(Integer.parseInt(xmlConfig.get("logx.oss.engine.payload.maxBytes")));
         }
+        if (xmlConfig.containsKey("logx.oss.engine.spool.enabled")) {
+            properties.getEngine().getSpool().setEnabled(Boolean.parseBoolean(xmlConfig.get("logx.oss.engine.spool.enabled")));
+        }
+        if (xmlConfig.containsKey("logx.oss.engine.spool.path")) {
+            properties.getEngine().getSpool().setPath(xmlConfig.get("logx.oss.engine.spool.path"));
+        }
     }
 
     @Override
@@ -210,6 +254,10 @@ public class Log4jOSSAppender extends AppenderSkeleton {
         xmlConfig.put("logx.oss.storage.keyPrefix", keyPrefix);
     }
 
+    public void setKeyTemplate(String keyTemplate) {
+        xmlConfig.put("logx.oss.storage.keyTemplate", keyTemplate);
+    }
+
     public void setOssType(String ossType) {
         xmlConfig.put("logx.oss.storage.ossType", ossType);
     }
@@ -234,6 +282,30 @@ public class Log4jOSSAppender extends AppenderSkeleton {
         xmlConfig.put("logx.oss.engine.queue.dropWhenFull", dropWhenQueueFull);
     }
 
+    public void setOverflowPolicy(String overflowPolicy) {
+        xmlConfig.put("logx.oss.engine.queue.overflowPolicy", overflowPolicy);
+    }
+
+    public void setOutputFormat(String outputFormat) {
+        xmlConfig.put("logx.oss.engine.outputFormat", outputFormat);
+    }
+
+    public void setProducerBatchSize(String producerBatchSize) {
+        xmlConfig.put("logx.oss.engine.producerBatchSize", producerBatchSize);
+    }
+
+    public void setProducerBatchMaxDelayMs(String producerBatchMaxDelayMs) {
+        xmlConfig.put("logx.oss.engine.producerBatchMaxDelayMs", producerBatchMaxDelayMs);
+    }
+
+    public void setProducerMode(String producerMode) {
+        xmlConfig.put("logx.oss.engine.producerMode", producerMode);
+    }
+
+    public void setProducerRings(String producerRings) {
+        xmlConfig.put("logx.oss.engine.producerRings", producerRings);
+    }
+
     public void setMaxRetries(String maxRetries) {
         xmlConfig.put("logx.oss.engine.retry.maxRetries", maxRetries);
     }
@@ -246,6 +318,22 @@ public class Log4jOSSAppender extends AppenderSkeleton {
         xmlConfig.put("logx.oss.engine.retry.maxBackoffMs", maxBackoffMs);
     }
 
+    public void setHedgePercentile(String hedgePercentile) {
+        xmlConfig.put("logx.oss.engine.retry.hedgePercentile", hedgePercentile);
+    }
+
+    public void setHedgeMinDelayMs(String hedgeMinDelayMs) {
+        xmlConfig.put("logx.oss.engine.retry.hedgeMinDelayMs", hedgeMinDelayMs);
+    }
+
+    public void setSpoolEnabled(String spoolEnabled) {
+        xmlConfig.put("logx.oss.engine.spool.enabled", spoolEnabled);
+    }
+
+    public void setSpoolPath(String spoolPath) {
+        xmlConfig.put("logx.oss.engine.spool.path", spoolPath);
+    }
+
     public void setPathStyleAccess(String pathStyleAccess) {
         xmlConfig.put("logx.oss.storage.pathStyleAccess", pathStyleAccess);
     }
@@ -8,9 +8,17 @@ import org.logx.core.AsyncEngine;
 import org.logx.core.AsyncEngineConfig;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.logx.core.LogPayloadSanitizer;
+import org.logx.core.OutputFormat;
+import org.logx.core.LogRecord;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.TriConsumer;
 
 import java.io.Serializable;
 
@@ -22,6 +30,32 @@ public class Log4j2Bridge extends AbstractUniversalAdapter {
     private static final Logger logger = LogManager.getLogger(Log4j2Bridge.class);
     private Layout<? extends Serializable> layout;
     private AsyncEngineConfig engineConfig;
+    private boolean columnar;
+    private boolean directEncode;
+    private final ThreadLocal<ReusableByteBufferDestination> destinations =
+            ThreadLocal.withInitial(ReusableByteBufferDestination::new);
+
+    /**
+     * 可复用消息（ReusableMessage等）实现了StringBuilderFormattable，直接写入记录缓冲区
+     */
+    private static final LogRecord.MessageFormatter MESSAGE_FORMATTER = new LogRecord.MessageFormatter() {
+        @Override
+        public void formatTo(Object source, StringBuilder target) {
+            if (source instanceof StringBuilderFormattable) {
+                ((StringBuilderFormattable) source).formatTo(target);
+            } else {
+                target.append(((Message) source).getFormattedMessage());
+            }
+        }
+    };
+
+    private static final TriConsumer<String, Object, LogRecord> CONTEXT_COPIER =
+            new TriConsumer<String, Object, LogRecord>() {
+                @Override
+                public void accept(String key, Object value, LogRecord record) {
+                    record.putContext(key, value != null ? value.toString() : null);
+                }
+            };
     
     public Log4j2Bridge(StorageConfig config) {
         this(config, null);
@@ -29,13 +63,19 @@ public class Log4j2Bridge extends AbstractUniversalAdapter {
     
     public Log4j2Bridge(StorageConfig config, AsyncEngineConfig engineConfig) {
         // 使用存储服务工厂创建存储服务
-        StorageService storageService = StorageServiceFactory.createStorageService(config);
+        this(StorageServiceFactory.createStorageService(config), config, engineConfig);
+    }
 
+    /**
+     * 使用外部提供的存储服务构造桥接器（用于基准测试和嵌入式场景）
+     */
+    public Log4j2Bridge(StorageService storageService, StorageConfig config, AsyncEngineConfig engineConfig) {
         // 从存储服务获取存储接口
         this.s3Storage = storageService;
 
         // 保存引擎配置
         this.engineConfig = engineConfig;
+        this.columnar = config != null && OutputFormat.of(config.getProperties()) == OutputFormat.PARQUET;
 
         // 设置StorageConfig到引擎配置
         if (engineConfig != null) {
@@ -50,6 +90,7 @@ public class Log4j2Bridge extends AbstractUniversalAdapter {
     
     public void setLayout(Layout<? extends Serializable> layout) {
         this.layout = layout;
+        this.directEncode = layout != null && Constants.ENABLE_DIRECT_ENCODERS;
     }
     
     public void setEngineConfig(AsyncEngineConfig engineConfig) {
@@ -69,6 +110,14 @@ public class Log4j2Bridge extends AbstractUniversalAdapter {
         }
         
         try {
+            if (columnar) {
+                appendStructured(event);
+                return;
+            }
+            if (directEncode) {
+                appendEncoded(event);
+                return;
+            }
             String logLine = convertEvent(event);
             if (logLine != null) {
                 int maxBytes = engineConfig != null ? engineConfig.getPayloadMaxBytes() : 512 * 1024;
@@ -84,6 +133,85 @@ public class Log4j2Bridge extends AbstractUniversalAdapter {
         }
     }
     
+    /**
+     * 无垃圾路径：Layout经Encoder协议编码进线程内缓冲区，原位清洗后拷贝入队，
+     * 稳态下不产生String、中间字节数组或载荷数组（后者需引擎开启garbageFree）
+     */
+    private void appendEncoded(Object event) {
+        if (!(event instanceof LogEvent)) {
+            return;
+        }
+        ReusableByteBufferDestination destination = destinations.get();
+        destination.reset();
+        layout.encode((LogEvent) event, destination);
+        byte[] bytes = destination.array();
+        int length = destination.length();
+        int maxBytes = engineConfig != null ? engineConfig.getPayloadMaxBytes() : 512 * 1024;
+        int sanitizedLength = LogPayloadSanitizer.sanitizeInPlace(bytes, 0, length, maxBytes);
+        if (sanitizedLength < length) {
+            logger.warn("Log4j2 payload sanitized or truncated, originalBytes={}, bytes={}", length, sanitizedLength);
+        }
+        if (sanitizedLength > 0) {
+            asyncEngine.put(bytes, 0, sanitizedLength);
+        }
+    }
+
+    /**
+     * 列式输出：直接提取事件字段，不经过Layout
+     * <p>
+     * 只向池化记录写入引用和基本类型，消息通过StringBuilderFormattable延迟格式化，
+     * 上下文通过forEach逐条复制，对MutableLogEvent/RingBufferLogEvent不产生分配。
+     */
+    private void appendStructured(Object event) {
+        if (!(event instanceof LogEvent)) {
+            return;
+        }
+        LogEvent logEvent = (LogEvent) event;
+        LogRecord record = asyncEngine.acquireRecord();
+        try {
+            record.setTimestampMs(logEvent.getTimeMillis())
+                    .setLevel(levelOf(logEvent.getLevel()))
+                    .setLoggerName(logEvent.getLoggerName())
+                    .setThreadName(logEvent.getThreadName())
+                    .setThrown(logEvent.getThrown());
+            Message message = logEvent.getMessage();
+            if (message != null) {
+                record.setMessage(message, MESSAGE_FORMATTER);
+            }
+            ReadOnlyStringMap contextData = logEvent.getContextData();
+            if (contextData != null && !contextData.isEmpty()) {
+                contextData.forEach(CONTEXT_COPIER, record);
+            }
+        } catch (RuntimeException e) {
+            asyncEngine.releaseRecord(record);
+            throw e;
+        }
+        asyncEngine.put(record);
+    }
+
+    static int levelOf(Level level) {
+        if (level == null) {
+            return LogRecord.LEVEL_UNKNOWN;
+        }
+        switch (level.getStandardLevel()) {
+            case TRACE:
+            case ALL:
+                return LogRecord.LEVEL_TRACE;
+            case DEBUG:
+                return LogRecord.LEVEL_DEBUG;
+            case INFO:
+                return LogRecord.LEVEL_INFO;
+            case WARN:
+                return LogRecord.LEVEL_WARN;
+            case ERROR:
+                return LogRecord.LEVEL_ERROR;
+            case FATAL:
+                return LogRecord.LEVEL_FATAL;
+            default:
+                return LogRecord.LEVEL_UNKNOWN;
+        }
+    }
+
     /**
      * 将Log4j2事件转换为字符串
      */
@@ -6,6 +6,7 @@ import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.async.AsyncLoggerContextSelector;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
@@ -14,6 +15,7 @@ import org.logx.config.ConfigManager;
 import org.logx.config.properties.LogxOssProperties;
 import org.logx.config.validation.ConfigValidationUtils;
 import org.logx.core.AsyncEngineConfig;
+import org.logx.core.ProducerMode;
 import org.logx.storage.StorageConfig;
 
 import java.io.Serializable;
@@ -22,6 +24,19 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Log4j2 OSS Appender
+ * <p>
+ * 兼容Log4j2无垃圾模式：Layout通过Encoder协议直接编码进线程内复用的ByteBufferDestination，
+ * 清洗在原缓冲区上完成，配合 {@code logx.oss.engine.garbageFree=true} 时载荷拷贝进队列槽位自有的缓冲区，
+ * 稳态下append不产生分配。列式输出使用池化的结构化记录，同样不依赖事件对象在append返回后保持不变。
+ * <p>
+ * 配合AsyncLogger使用时可开启 {@code logx.oss.engine.directHandoff=true}：appender已在Log4j2的后台线程上被调用，
+ * 事件直接写入批次缓冲，不再经过内部环形队列和消费线程，批次的序列化和压缩也在该后台线程上完成。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
 @Plugin(name = "Log4j2OSSAppender", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE, printObject = true)
 public final class Log4j2OSSAppender extends AbstractAppender {
 
@@ -94,6 +109,16 @@ public final class Log4j2OSSAppender extends AbstractAppender {
             engineConfig.blockOnFull(!properties.getEngine().getQueue().isDropWhenFull());
             engineConfig.uploadTimeoutMs(properties.getStorage().getUploadTimeoutMs());
             engineConfig.payloadMaxBytes(properties.getEngine().getPayloadMaxBytes());
+            engineConfig.producerBatchSize(properties.getEngine().getProducerBatchSize());
+            engineConfig.producerBatchMaxDelayMs(properties.getEngine().getProducerBatchMaxDelayMs());
+            engineConfig.producerMode(ProducerMode.parse(properties.getEngine().getProducerMode(), ProducerMode.AUTO));
+            engineConfig.producerRings(properties.getEngine().getProducerRings());
+            engineConfig.garbageFree(properties.getEngine().isGarbageFree());
+            engineConfig.directHandoff(properties.getEngine().isDirectHandoff());
+            if (!properties.getEngine().isDirectHandoff() && AsyncLoggerContextSelector.isSelected()) {
+                LOGGER.info("All loggers are asynchronous; set directHandoff=true on {} to append on the "
+                        + "AsyncLogger thread without a second ring buffer", getName());
+            }
 
             this.adapter = new Log4j2Bridge(storageConfig, engineConfig);
             this.adapter.setLayout(getLayout());
@@ -116,6 +141,7 @@ public final class Log4j2OSSAppender extends AbstractAppender {
         xmlConfig.computeIfPresent("logx.oss.storage.accessKeySecret", (k, v) -> { properties.getStorage().setAccessKeySecret(v); return v; });
         xmlConfig.computeIfPresent("logx.oss.storage.bucket", (k, v) -> { properties.getStorage().setBucket(v); return v; });
         xmlConfig.computeIfPresent("logx.oss.storage.keyPrefix", (k, v) -> { properties.getStorage().setKeyPrefix(v); return v; });
+        xmlConfig.computeIfPresent("logx.oss.storage.keyTemplate", (k, v) -> { properties.getStorage().setKeyTemplate(v); return v; });
         xmlConfig.computeIfPresent("logx.oss.storage.ossType", (k, v) -> { properties.getStorage().setOssType(v); return v; });
         xmlConfig.computeIfPresent("logx.oss.storage.pathStyleAccess", (k, v) -> { properties.getStorage().setPathStyleAccess(Boolean.parseBoolean(v)); return v; });
         xmlConfig.computeIfPresent("logx.oss.storage.uploadTimeoutMs", (k, v) -> { properties.getStorage().setUploadTimeoutMs(Long.parseLong(v)); return v; });
@@ -128,12 +154,28 @@ public final class Log4j2OSSAppender extends AbstractAppender {
         // Engine Queue Config
         xmlConfig.computeIfPresent("logx.oss.engine.queue.capacity", (k, v) -> { properties.getEngine().getQueue().setCapacity(Integer.parseInt(v)); return v; });
         xmlConfig.computeIfPresent("logx.oss.engine.queue.dropWhenFull", (k, v) -> { properties.getEngine().getQueue().setDropWhenFull(Boolean.parseBoolean(v)); return v; });
+        xmlConfig.computeIfPresent("logx.oss.engine.queue.overflowPolicy", (k, v) -> { properties.getEngine().getQueue().setOverflowPolicy(v); return v; });
+
+        // Engine Output Format
+        xmlConfig.computeIfPresent("logx.oss.engine.outputFormat", (k, v) -> { properties.getEngine().setOutputFormat(v); return v; });
+        xmlConfig.computeIfPresent("logx.oss.engine.garbageFree", (k, v) -> { properties.getEngine().setGarbageFree(Boolean.parseBoolean(v)); return v; });
+        xmlConfig.computeIfPresent("logx.oss.engine.directHandoff", (k, v) -> { properties.getEngine().setDirectHandoff(Boolean.parseBoolean(v)); return v; });
+        xmlConfig.computeIfPresent("logx.oss.engine.producerBatchSize", (k, v) -> { properties.getEngine().setProducerBatchSize(Integer.parseInt(v)); return v; });
+        xmlConfig.computeIfPresent("logx.oss.engine.producerBatchMaxDelayMs", (k, v) -> { properties.getEngine().setProducerBatchMaxDelayMs(Long.parseLong(v)); return v; });
+        xmlConfig.computeIfPresent("logx.oss.engine.producerMode", (k, v) -> { properties.getEngine().setProducerMode(v); return v; });
+        xmlConfig.computeIfPresent("logx.oss.engine.producerRings", (k, v) -> { properties.getEngine().setProducerRings(Integer.parseInt(v)); return v; });
 
         // Engine Retry Config
         xmlConfig.computeIfPresent("logx.oss.engine.retry.maxRetries", (k, v) -> { properties.getEngine().getRetry().setMaxRetries(Integer.parseInt(v)); return v; });
         xmlConfig.computeIfPresent("logx.oss.engine.retry.baseBackoffMs", (k, v) -> { properties.getEngine().getRetry().setBaseBackoffMs(Long.parseLong(v)); return v; });
         xmlConfig.computeIfPresent("logx.oss.engine.retry.maxBackoffMs", (k, v) -> { properties.getEngine().getRetry().setMaxBackoffMs(Long.parseLong(v)); return v; });
+        xmlConfig.computeIfPresent("logx.oss.engine.retry.hedgePercentile", (k, v) -> { properties.getEngine().getRetry().setHedgePercentile(Integer.parseInt(v)); return v; });
+        xmlConfig.computeIfPresent("logx.oss.engine.retry.hedgeMinDelayMs", (k, v) -> { properties.getEngine().getRetry().setHedgeMinDelayMs(Long.parseLong(v)); return v; });
         xmlConfig.computeIfPresent("logx.oss.engine.payload.maxBytes", (k, v) -> { properties.getEngine().setPayloadMaxBytes(Integer.parseInt(v)); return v; });
+
+        // Engine Spool Config
+        xmlConfig.computeIfPresent("logx.oss.engine.spool.enabled", (k, v) -> { properties.getEngine().getSpool().setEnabled(Boolean.parseBoolean(v)); return v; });
+        xmlConfig.computeIfPresent("logx.oss.engine.spool.path", (k, v) -> { properties.getEngine().getSpool().setPath(v); return v; });
     }
 
     @Override
@@ -160,6 +202,7 @@ public final class Log4j2OSSAppender extends AbstractAppender {
     public void setAccessKeySecret(String accessKeySecret) { xmlConfig.put("logx.oss.storage.accessKeySecret", accessKeySecret); }
     public void setBucket(String bucket) { xmlConfig.put("logx.oss.storage.bucket", bucket); }
     public void setKeyPrefix(String keyPrefix) { xmlConfig.put("logx.oss.storage.keyPrefix", keyPrefix); }
+    public void setKeyTemplate(String keyTemplate) { xmlConfig.put("logx.oss.storage.keyTemplate", keyTemplate); }
     public void setOssType(String ossType) { xmlConfig.put("logx.oss.storage.ossType", ossType); }
     public void setPathStyleAccess(String pathStyleAccess) { xmlConfig.put("logx.oss.storage.pathStyleAccess", pathStyleAccess); }
     public void setQueueCapacity(String queueCapacity) { xmlConfig.put("logx.oss.engine.queue.capacity", queueCapacity); }
@@ -167,9 +210,21 @@ public final class Log4j2OSSAppender extends AbstractAppender {
     public void setMaxBatchBytes(String maxBatchBytes) { xmlConfig.put("logx.oss.engine.batch.bytes", maxBatchBytes); }
     public void setMaxMessageAgeMs(String maxMessageAgeMs) { xmlConfig.put("logx.oss.engine.batch.maxAgeMs", maxMessageAgeMs); }
     public void setDropWhenQueueFull(String dropWhenQueueFull) { xmlConfig.put("logx.oss.engine.queue.dropWhenFull", dropWhenQueueFull); }
+    public void setOverflowPolicy(String overflowPolicy) { xmlConfig.put("logx.oss.engine.queue.overflowPolicy", overflowPolicy); }
+    public void setOutputFormat(String outputFormat) { xmlConfig.put("logx.oss.engine.outputFormat", outputFormat); }
+    public void setGarbageFree(String garbageFree) { xmlConfig.put("logx.oss.engine.garbageFree", garbageFree); }
+    public void setDirectHandoff(String directHandoff) { xmlConfig.put("logx.oss.engine.directHandoff", directHandoff); }
+    public void setProducerBatchSize(String producerBatchSize) { xmlConfig.put("logx.oss.engine.producerBatchSize", producerBatchSize); }
+    public void setProducerBatchMaxDelayMs(String producerBatchMaxDelayMs) { xmlConfig.put("logx.oss.engine.producerBatchMaxDelayMs", producerBatchMaxDelayMs); }
+    public void setProducerMode(String producerMode) { xmlConfig.put("logx.oss.engine.producerMode", producerMode); }
+    public void setProducerRings(String producerRings) { xmlConfig.put("logx.oss.engine.producerRings", producerRings); }
     public void setMaxRetries(String maxRetries) { xmlConfig.put("logx.oss.engine.retry.maxRetries", maxRetries); }
     public void setBaseBackoffMs(String baseBackoffMs) { xmlConfig.put("logx.oss.engine.retry.baseBackoffMs", baseBackoffMs); }
     public void setMaxBackoffMs(String maxBackoffMs) { xmlConfig.put("logx.oss.engine.retry.maxBackoffMs", maxBackoffMs); }
+    public void setHedgePercentile(String hedgePercentile) { xmlConfig.put("logx.oss.engine.retry.hedgePercentile", hedgePercentile); }
+    public void setHedgeMinDelayMs(String hedgeMinDelayMs) { xmlConfig.put("logx.oss.engine.retry.hedgeMinDelayMs", hedgeMinDelayMs); }
+    public void setSpoolEnabled(String spoolEnabled) { xmlConfig.put("logx.oss.engine.spool.enabled", spoolEnabled); }
+    public void setSpoolPath(String spoolPath) { xmlConfig.put("logx.oss.engine.spool.path", spoolPath); }
 
     public void setEnabled(String enabled) {
         xmlConfig.put("logx.oss.enabled", enabled);
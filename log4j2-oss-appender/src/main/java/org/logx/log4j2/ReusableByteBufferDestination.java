@@ -0,0 +1,69 @@
+package org.logx.log4j2;
+
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 线程内复用的Layout编码目标
+ * <p>
+ * Layout通过 {@link org.apache.logging.log4j.core.layout.Encoder} 协议直接把事件编码进堆内ByteBuffer，
+ * 一条事件必须完整落在同一个缓冲区中，因此缓冲区写满时扩容而不是提前输出。
+ * 偶发的大事件撑大的缓冲区在下一次 {@link #reset()} 时释放。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+final class ReusableByteBufferDestination implements ByteBufferDestination {
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    private static final int RETAIN_CAPACITY = 1024 * 1024;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+    /**
+     * 开始编码新事件前调用
+     */
+    void reset() {
+        if (buffer.capacity() > RETAIN_CAPACITY) {
+            buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+        }
+        buffer.clear();
+    }
+
+    byte[] array() {
+        return buffer.array();
+    }
+
+    /**
+     * 已编码的字节数，数据位于 {@link #array()} 的[0, length)
+     */
+    int length() {
+        return buffer.position();
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public ByteBuffer drain(ByteBuffer buf) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buf.capacity() * 2, INITIAL_CAPACITY));
+        buf.flip();
+        grown.put(buf);
+        buffer = grown;
+        return grown;
+    }
+
+    @Override
+    public void writeBytes(ByteBuffer data) {
+        ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+    }
+
+    @Override
+    public void writeBytes(byte[] data, int offset, int length) {
+        ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+    }
+}
@@ -0,0 +1,53 @@
+package org.logx.log4j2;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReusableByteBufferDestinationTest {
+
+    private static LogEvent event(String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("test")
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .build();
+    }
+
+    private static String repeat(String unit, int times) {
+        StringBuilder sb = new StringBuilder(unit.length() * times);
+        for (int i = 0; i < times; i++) {
+            sb.append(unit);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void layoutOutputLargerThanInitialBufferGrowsThroughDrain() {
+        PatternLayout layout = PatternLayout.newBuilder().withPattern("%p %c - %m%n").build();
+        ReusableByteBufferDestination destination = new ReusableByteBufferDestination();
+        int initialCapacity = destination.getByteBuffer().capacity();
+
+        // 混入多字节字符，编码器分段写入时也要在扩容后保持完整
+        LogEvent large = event(repeat("0123456789abcdef中文", 1500));
+        destination.reset();
+        layout.encode(large, destination);
+
+        byte[] expected = layout.toByteArray(large);
+        assertTrue(expected.length > initialCapacity * 2, "layout output " + expected.length);
+        assertTrue(destination.getByteBuffer().capacity() > initialCapacity);
+        assertArrayEquals(expected, Arrays.copyOf(destination.array(), destination.length()));
+
+        LogEvent small = event("small");
+        destination.reset();
+        layout.encode(small, destination);
+        assertArrayEquals(layout.toByteArray(small), Arrays.copyOf(destination.array(), destination.length()));
+    }
+}
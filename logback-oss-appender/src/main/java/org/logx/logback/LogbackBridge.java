@@ -7,11 +7,22 @@ import org.logx.storage.StorageServiceFactory;
 import org.logx.core.AsyncEngine;
 import org.logx.core.AsyncEngineConfig;
 import org.logx.core.LogPayloadSanitizer;
+import org.logx.core.OutputFormat;
+import org.logx.core.LogRecord;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.Layout;
 import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 
 /**
  * Logback 桥接器
@@ -21,6 +32,13 @@ public class LogbackBridge extends AbstractUniversalAdapter {
     private static final Logger logger = LoggerFactory.getLogger(LogbackBridge.class);
     private Encoder<ILoggingEvent> encoder;
     private AsyncEngineConfig engineConfig;
+    private boolean columnar;
+    /**
+     * LayoutWrappingEncoder且字符集为UTF-8时直接取其Layout，文本编码进线程内缓冲区
+     */
+    private Layout<ILoggingEvent> utf8Layout;
+    private final ThreadLocal<ReusableByteArrayOutputStream> buffers =
+            ThreadLocal.withInitial(ReusableByteArrayOutputStream::new);
     
     public LogbackBridge(StorageConfig config) {
         this(config, null);
@@ -28,13 +46,19 @@ public class LogbackBridge extends AbstractUniversalAdapter {
     
     public LogbackBridge(StorageConfig config, AsyncEngineConfig engineConfig) {
         // 使用存储服务工厂创建存储服务
-        StorageService storageService = StorageServiceFactory.createStorageService(config);
+        this(StorageServiceFactory.createStorageService(config), config, engineConfig);
+    }
 
+    /**
+     * 使用外部提供的存储服务构造桥接器（用于基准测试和嵌入式场景）
+     */
+    public LogbackBridge(StorageService storageService, StorageConfig config, AsyncEngineConfig engineConfig) {
         // 从存储服务获取存储接口
         this.s3Storage = storageService;
 
         // 保存引擎配置
         this.engineConfig = engineConfig;
+        this.columnar = config != null && OutputFormat.of(config.getProperties()) == OutputFormat.PARQUET;
 
         // 设置StorageConfig到引擎配置
         if (engineConfig != null) {
@@ -49,6 +73,14 @@ public class LogbackBridge extends AbstractUniversalAdapter {
     
     public void setEncoder(Encoder<ILoggingEvent> encoder) {
         this.encoder = encoder;
+        this.utf8Layout = null;
+        if (encoder instanceof LayoutWrappingEncoder) {
+            LayoutWrappingEncoder<ILoggingEvent> wrapping = (LayoutWrappingEncoder<ILoggingEvent>) encoder;
+            Charset charset = wrapping.getCharset() != null ? wrapping.getCharset() : Charset.defaultCharset();
+            if (StandardCharsets.UTF_8.equals(charset)) {
+                this.utf8Layout = wrapping.getLayout();
+            }
+        }
     }
     
     public void setEngineConfig(AsyncEngineConfig engineConfig) {
@@ -68,6 +100,13 @@ public class LogbackBridge extends AbstractUniversalAdapter {
         }
         
         try {
+            if (columnar) {
+                appendStructured(event);
+                return;
+            }
+            if (encoder != null && event instanceof ILoggingEvent && appendEncoded((ILoggingEvent) event)) {
+                return;
+            }
             String logLine = convertEvent(event);
             if (logLine != null) {
                 int maxBytes = engineConfig != null ? engineConfig.getPayloadMaxBytes() : 512 * 1024;
@@ -84,6 +123,78 @@ public class LogbackBridge extends AbstractUniversalAdapter {
         }
     }
     
+    /**
+     * 字节路径：编码结果直接做字节级清洗后入队，不再经过String往返
+     * <p>
+     * UTF-8的LayoutWrappingEncoder由Layout输出文本后直接编码进线程内缓冲区，省去encode返回的数组；
+     * 其他Encoder使用encode返回的数组原位清洗。
+     *
+     * @return Encoder抛出异常时返回false，由调用方按原路径回退为格式化消息
+     */
+    private boolean appendEncoded(ILoggingEvent event) {
+        byte[] bytes;
+        int length;
+        try {
+            if (utf8Layout != null) {
+                ReusableByteArrayOutputStream buffer = buffers.get();
+                buffer.reset();
+                buffer.writeUtf8(utf8Layout.doLayout(event));
+                bytes = buffer.array();
+                length = buffer.length();
+            } else {
+                bytes = encoder.encode(event);
+                length = bytes != null ? bytes.length : 0;
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+        int maxBytes = engineConfig != null ? engineConfig.getPayloadMaxBytes() : 512 * 1024;
+        int sanitizedLength = LogPayloadSanitizer.sanitizeInPlace(bytes, 0, length, maxBytes);
+        if (sanitizedLength < length) {
+            logger.warn("Logback payload sanitized or truncated, originalBytes={}, bytes={}", length, sanitizedLength);
+        }
+        if (sanitizedLength > 0) {
+            asyncEngine.put(bytes, 0, sanitizedLength);
+        }
+        return true;
+    }
+
+    /**
+     * 列式输出：直接提取事件字段，不经过Encoder
+     */
+    private void appendStructured(Object event) {
+        if (!(event instanceof ILoggingEvent)) {
+            return;
+        }
+        ILoggingEvent loggingEvent = (ILoggingEvent) event;
+        LogRecord record = asyncEngine.acquireRecord();
+        try {
+            record.setTimestampMs(loggingEvent.getTimeStamp())
+                    .setLevel(loggingEvent.getLevel() != null
+                            ? LogRecord.levelOf(loggingEvent.getLevel().toString()) : LogRecord.LEVEL_UNKNOWN)
+                    .setLoggerName(loggingEvent.getLoggerName())
+                    .setThreadName(loggingEvent.getThreadName())
+                    .setMessage(loggingEvent.getFormattedMessage());
+            Map<String, String> mdc = loggingEvent.getMDCPropertyMap();
+            if (mdc != null) {
+                for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                    record.putContext(entry.getKey(), entry.getValue());
+                }
+            }
+            IThrowableProxy throwableProxy = loggingEvent.getThrowableProxy();
+            if (throwableProxy instanceof ThrowableProxy) {
+                record.setThrown(((ThrowableProxy) throwableProxy).getThrowable());
+            } else if (throwableProxy != null) {
+                record.setMessage(loggingEvent.getFormattedMessage() + "\n"
+                        + ThrowableProxyUtil.asString(throwableProxy));
+            }
+        } catch (RuntimeException e) {
+            asyncEngine.releaseRecord(record);
+            throw e;
+        }
+        asyncEngine.put(record);
+    }
+
     /**
      * 将Logback事件转换为字符串
      */
@@ -94,14 +205,6 @@ public class LogbackBridge extends AbstractUniversalAdapter {
         
         ILoggingEvent loggingEvent = (ILoggingEvent) event;
         
-        if (encoder != null) {
-            try {
-                byte[] encoded = encoder.encode(loggingEvent);
-                return new String(encoded, java.nio.charset.StandardCharsets.UTF_8);
-            } catch (Exception e) {
-                return loggingEvent.getFormattedMessage() + "\n";
-            }
-        }
         return loggingEvent.getFormattedMessage() + "\n";
     }
 }
@@ -0,0 +1,85 @@
+package org.logx.logback;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * 线程内复用的编码输出流
+ * <p>
+ * 暴露内部数组供原位清洗和入队拷贝，避免 {@link #toByteArray()} 的额外拷贝；
+ * UTF-8文本直接编码进内部数组，不经过 {@link String#getBytes}。
+ * 偶发的大事件撑大的数组在下一次 {@link #reset()} 时释放。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+final class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    private static final int RETAIN_CAPACITY = 1024 * 1024;
+
+    ReusableByteArrayOutputStream() {
+        super(INITIAL_CAPACITY);
+    }
+
+    /**
+     * 开始编码新事件前调用
+     */
+    @Override
+    public void reset() {
+        if (buf.length > RETAIN_CAPACITY) {
+            buf = new byte[INITIAL_CAPACITY];
+        }
+        count = 0;
+    }
+
+    byte[] array() {
+        return buf;
+    }
+
+    /**
+     * 已写入的字节数，数据位于 {@link #array()} 的[0, length)
+     */
+    int length() {
+        return count;
+    }
+
+    /**
+     * 以UTF-8编码追加文本，非法代理对按 {@code ?} 输出，与 {@link String#getBytes} 的替换行为一致
+     */
+    void writeUtf8(CharSequence text) {
+        int length = text.length();
+        ensureCapacity(count + length * 3);
+        byte[] b = buf;
+        int pos = count;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                b[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                b[pos++] = (byte) (0xC0 | (c >> 6));
+                b[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                b[pos++] = (byte) (0xF0 | (cp >> 18));
+                b[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                b[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                b[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                b[pos++] = '?';
+            } else {
+                b[pos++] = (byte) (0xE0 | (c >> 12));
+                b[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        count = pos;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buf.length) {
+            byte[] grown = new byte[Math.max(buf.length * 2, minCapacity)];
+            System.arraycopy(buf, 0, grown, 0, count);
+            buf = grown;
+        }
+    }
+}
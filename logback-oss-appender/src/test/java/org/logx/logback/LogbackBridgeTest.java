@@ -0,0 +1,74 @@
+package org.logx.logback;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
+import org.logx.core.AsyncEngine;
+import org.logx.storage.StorageConfig;
+import org.logx.storage.StorageService;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class LogbackBridgeTest {
+
+    private static PatternLayoutEncoder encoder(LoggerContext context, Charset charset) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%level %logger - %msg%n");
+        encoder.setCharset(charset);
+        encoder.start();
+        return encoder;
+    }
+
+    private static List<byte[]> appendThroughBridge(PatternLayoutEncoder encoder, ILoggingEvent event) {
+        List<byte[]> submitted = new ArrayList<>();
+        AsyncEngine engine = mock(AsyncEngine.class);
+        doAnswer(invocation -> {
+            byte[] data = invocation.getArgument(0);
+            int offset = invocation.getArgument(1);
+            int length = invocation.getArgument(2);
+            submitted.add(Arrays.copyOfRange(data, offset, offset + length));
+            return null;
+        }).when(engine).put(any(byte[].class), anyInt(), anyInt());
+
+        LogbackBridge bridge = new LogbackBridge(mock(StorageService.class), new StorageConfig(), null) {
+            {
+                asyncEngine = engine;
+            }
+        };
+        bridge.setEncoder(encoder);
+        bridge.start();
+        bridge.append(event);
+        bridge.stop();
+        return submitted;
+    }
+
+    @Test
+    public void encodedBytesMatchEncoderOutput() {
+        LoggerContext context = new LoggerContext();
+        Logger logger = context.getLogger("org.logx.test");
+        String message = "ascii é 中文 😀 lone \uD83D end";
+        LoggingEvent event = new LoggingEvent(Logger.FQCN, logger, Level.INFO, message, null, null);
+
+        for (Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1}) {
+            PatternLayoutEncoder encoder = encoder(context, charset);
+            List<byte[]> submitted = appendThroughBridge(encoder, event);
+            assertEquals(1, submitted.size(), charset.name());
+            assertArrayEquals(encoder.encode(event), submitted.get(0), charset.name());
+        }
+    }
+}
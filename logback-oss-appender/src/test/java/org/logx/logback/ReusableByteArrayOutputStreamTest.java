@@ -0,0 +1,58 @@
+package org.logx.logback;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReusableByteArrayOutputStreamTest {
+
+    private static byte[] writeUtf8(ReusableByteArrayOutputStream out, String text) {
+        out.reset();
+        out.writeUtf8(text);
+        return Arrays.copyOf(out.array(), out.length());
+    }
+
+    @Test
+    public void encodesLikeStringGetBytes() {
+        ReusableByteArrayOutputStream out = new ReusableByteArrayOutputStream();
+        String[] samples = {
+                "",
+                "plain ascii\tline\n",
+                "café ñ ß",
+                "中文日志 ＡＢＣ",
+                "emoji 😀 and 𝄞",
+                "lone high \uD83D end",
+                "lone low \uDE00 end",
+                "high at end \uD83D",
+                "reversed \uDE00\uD83D pair",
+                "mixed a é 中 😀 \uD800"
+        };
+        for (String sample : samples) {
+            assertArrayEquals(sample.getBytes(StandardCharsets.UTF_8), writeUtf8(out, sample), sample);
+        }
+    }
+
+    @Test
+    public void growsPastRetainCapacityAndShrinksOnReset() {
+        ReusableByteArrayOutputStream out = new ReusableByteArrayOutputStream();
+        int initialCapacity = out.array().length;
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 600_000) {
+            sb.append("日志😀x");
+        }
+        String large = sb.toString();
+
+        out.write('>');
+        out.writeUtf8(large);
+        byte[] expected = (">" + large).getBytes(StandardCharsets.UTF_8);
+        assertTrue(expected.length > 1024 * 1024);
+        assertArrayEquals(expected, Arrays.copyOf(out.array(), out.length()));
+
+        out.reset();
+        assertEquals(0, out.length());
+        assertEquals(initialCapacity, out.array().length);
+    }
+}
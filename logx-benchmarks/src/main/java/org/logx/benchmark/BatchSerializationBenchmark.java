@@ -0,0 +1,53 @@
+package org.logx.benchmark;
+
+import org.logx.core.BatchCodec;
+import org.logx.core.EnhancedDisruptorBatchingQueue.LogEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批次序列化（事件数组 → Pattern格式字节流）
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchSerializationBenchmark {
+
+    @Param({"1024", "8192"})
+    public int batchSize;
+
+    @Param({"128", "512"})
+    public int payloadBytes;
+
+    private LogEvent[] events;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        events = new LogEvent[batchSize];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < batchSize; i++) {
+            events[i] = new LogEvent(BenchmarkData.logLine(random, payloadBytes), now + i);
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return BatchCodec.serialize(events, 0, batchSize);
+    }
+}
@@ -0,0 +1,49 @@
+package org.logx.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * 基准测试数据生成工具
+ * <p>
+ * 生成接近真实Pattern格式的日志行，保证压缩率与线上数据量级一致。
+ */
+final class BenchmarkData {
+
+    private static final String[] LEVELS = {"INFO", "INFO", "INFO", "DEBUG", "WARN", "ERROR"};
+    private static final String[] LOGGERS = {
+        "com.example.order.OrderService", "com.example.payment.PaymentGateway",
+        "com.example.user.UserController", "org.springframework.web.servlet.DispatcherServlet"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static byte[] logLine(Random random, int targetBytes) {
+        StringBuilder sb = new StringBuilder(targetBytes + 64);
+        sb.append("2025-10-14 14:32:50.").append(100 + random.nextInt(900))
+          .append(" [http-nio-8080-exec-").append(random.nextInt(200)).append("] ")
+          .append(LEVELS[random.nextInt(LEVELS.length)]).append(' ')
+          .append(LOGGERS[random.nextInt(LOGGERS.length)]).append(" - traceId=")
+          .append(Long.toHexString(random.nextLong())).append(" request processed, userId=")
+          .append(random.nextInt(1_000_000)).append(" costMs=").append(random.nextInt(500));
+        while (sb.length() < targetBytes - 1) {
+            sb.append(" k").append(random.nextInt(100)).append('=').append(random.nextInt(10_000));
+        }
+        sb.setLength(Math.max(1, targetBytes - 1));
+        sb.append('\n');
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] batch(Random random, int totalBytes, int lineBytes) {
+        byte[] out = new byte[totalBytes];
+        int pos = 0;
+        while (pos < totalBytes) {
+            byte[] line = logLine(random, lineBytes);
+            int len = Math.min(line.length, totalBytes - pos);
+            System.arraycopy(line, 0, out, pos, len);
+            pos += len;
+        }
+        return out;
+    }
+}
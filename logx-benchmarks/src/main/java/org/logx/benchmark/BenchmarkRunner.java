@@ -0,0 +1,49 @@
+package org.logx.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * <p>
+ * 在JMH命令行参数的基础上固定挂载GC Profiler，并输出JSON结果，便于发布前对比回归：
+ * <pre>
+ * java -jar logx-benchmarks/target/benchmarks.jar                 # 运行全部基准
+ * java -jar logx-benchmarks/target/benchmarks.jar QueueSubmit     # 按正则筛选
+ * </pre>
+ * 每个基准同时以Throughput（ops/s）和SampleTime（p99延迟）模式运行，
+ * GC Profiler给出gc.alloc.rate.norm（每次操作分配字节数）。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(cmdOptions);
+        if (cmdOptions.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+        }
+        builder.addProfiler(GCProfiler.class);
+        if (!cmdOptions.getResult().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON).result(DEFAULT_RESULT_FILE);
+        }
+
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,118 @@
+package org.logx.benchmark;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.logx.core.AsyncEngineConfig;
+import org.logx.log4j2.Log4j2Bridge;
+import org.logx.logback.LogbackBridge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 桥接层 编码 + 清洗 + 入队
+ * <p>
+ * 直接调用各框架Bridge.append，覆盖Layout/Encoder格式化、LogPayloadSanitizer清洗和AsyncEngine.put，
+ * 存储端为模拟实现。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BridgeAppendBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%t] %-5level %logger{36} - %msg%n";
+    private static final String MESSAGE = "request processed, userId=123456 traceId=4bf92f3577b34da6 costMs=42";
+
+    private static AsyncEngineConfig engineConfig() {
+        return AsyncEngineConfig.defaultConfig()
+                .queueCapacity(65536)
+                .maxMessageAgeMs(1000)
+                .blockOnFull(true)
+                .multiProducer(true)
+                .enableDynamicBatching(false);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Log4j2State {
+        Log4j2Bridge bridge;
+        Log4jLogEvent event;
+
+        @Setup
+        public void setUp() {
+            bridge = new Log4j2Bridge(new NoOpStorageService(), null, engineConfig());
+            bridge.setLayout(PatternLayout.newBuilder().withPattern(PATTERN).build());
+            bridge.start();
+            event = Log4jLogEvent.newBuilder()
+                    .setLoggerName("com.example.order.OrderService")
+                    .setLoggerFqcn(BridgeAppendBenchmark.class.getName())
+                    .setLevel(Level.INFO)
+                    .setMessage(new SimpleMessage(MESSAGE))
+                    .setThreadName("http-nio-8080-exec-1")
+                    .setTimeMillis(System.currentTimeMillis())
+                    .build();
+        }
+
+        @TearDown
+        public void tearDown() {
+            bridge.stop();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LogbackState {
+        LogbackBridge bridge;
+        LoggingEvent event;
+        LoggerContext context;
+
+        @Setup
+        public void setUp() {
+            context = new LoggerContext();
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setContext(context);
+            encoder.setPattern(PATTERN);
+            encoder.start();
+
+            bridge = new LogbackBridge(new NoOpStorageService(), null, engineConfig());
+            bridge.setEncoder(encoder);
+            bridge.start();
+
+            ch.qos.logback.classic.Logger logger = context.getLogger("com.example.order.OrderService");
+            event = new LoggingEvent(BridgeAppendBenchmark.class.getName(), logger,
+                    ch.qos.logback.classic.Level.INFO, MESSAGE, null, null);
+            event.setThreadName("http-nio-8080-exec-1");
+        }
+
+        @TearDown
+        public void tearDown() {
+            bridge.stop();
+            context.stop();
+        }
+    }
+
+    @Benchmark
+    public void log4j2Append(Log4j2State state) {
+        state.bridge.append(state.event);
+    }
+
+    @Benchmark
+    public void logbackAppend(LogbackState state) {
+        state.bridge.append(state.event);
+    }
+}
@@ -0,0 +1,66 @@
+package org.logx.benchmark;
+
+import org.logx.util.CoarseClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每条事件读取一次时钟的成本
+ * <p>
+ * {@code system}为入队时原来的System.currentTimeMillis；{@code coarse}为当前队列使用的 {@link CoarseClock}，
+ * 只是一次volatile读。差值即每条事件节省的时间，取决于宿主机的clocksource：
+ * tsc经vDSO读取时差距在数纳秒，xen、hpet、acpi_pm等需要陷入内核的时钟源下可达数百纳秒，
+ * 可通过 /sys/devices/system/clocksource/clocksource0/current_clocksource 确认。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClockBenchmark {
+
+    @Setup
+    public void setUp() {
+        CoarseClock.retain();
+    }
+
+    @TearDown
+    public void tearDown() {
+        CoarseClock.release();
+    }
+
+    @Benchmark
+    public long system() {
+        return System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public long coarse() {
+        return CoarseClock.currentTimeMillis();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long system8Threads() {
+        return System.currentTimeMillis();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long coarse8Threads() {
+        return CoarseClock.currentTimeMillis();
+    }
+}
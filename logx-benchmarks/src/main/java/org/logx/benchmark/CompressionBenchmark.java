@@ -0,0 +1,51 @@
+package org.logx.benchmark;
+
+import org.logx.core.BatchCodec;
+import org.logx.core.SeekableGzipCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批次GZIP压缩：单个GZIP流与64KB分块GZIP
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+    @Param({"65536", "1048576", "10485760"})
+    public int batchBytes;
+
+    private byte[] batch;
+
+    @Setup
+    public void setUp() {
+        batch = BenchmarkData.batch(new Random(42), batchBytes, 256);
+    }
+
+    @Benchmark
+    public byte[] gzip() throws IOException {
+        return BatchCodec.compress(batch);
+    }
+
+    @Benchmark
+    public byte[] seekableGzip() {
+        return SeekableGzipCodec.compress(batch, 0, batch.length, 64 * 1024);
+    }
+}
@@ -0,0 +1,82 @@
+package org.logx.benchmark;
+
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.ReusableSimpleMessage;
+import org.logx.core.AsyncEngineConfig;
+import org.logx.log4j2.Log4j2Bridge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log4j2无垃圾路径的分配量
+ * <p>
+ * 复用同一个MutableLogEvent（与AsyncLogger/ReusableLogEventFactory一致），Layout经Encoder协议编码进线程内缓冲区。
+ * garbageFree=false时每条事件分配一个载荷数组，garbageFree=true时载荷拷贝进队列槽位缓冲区。
+ * <p>
+ * gc.alloc.rate.norm统计的是所有线程，包含消费线程的批次序列化和压缩；
+ * {@link ProducerAllocation#producerBytesPerAppend}只统计调用append的线程，即日志调用方实际承担的分配，garbageFree=true时应为0。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dlog4j2.enableThreadlocals=true", "-Dlog4j2.enableDirectEncoders=true"})
+@State(Scope.Thread)
+public class Log4j2GarbageFreeBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%t] %-5level %logger{36} - %msg%n";
+    private static final String MESSAGE = "request processed, userId=123456 traceId=4bf92f3577b34da6 costMs=42";
+
+    @Param({"false", "true"})
+    public boolean garbageFree;
+
+    private Log4j2Bridge bridge;
+    private MutableLogEvent event;
+
+    @Setup
+    public void setUp() {
+        AsyncEngineConfig config = AsyncEngineConfig.defaultConfig()
+                .queueCapacity(65536)
+                .maxMessageAgeMs(1000)
+                .blockOnFull(true)
+                .enableDynamicBatching(false)
+                .garbageFree(garbageFree);
+        bridge = new Log4j2Bridge(new NoOpStorageService(), null, config);
+        bridge.setLayout(PatternLayout.newBuilder().withPattern(PATTERN).build());
+        bridge.start();
+
+        ReusableSimpleMessage message = new ReusableSimpleMessage();
+        message.set(MESSAGE);
+        event = new MutableLogEvent();
+        event.setLoggerName("com.example.order.OrderService");
+        event.setLoggerFqcn(Log4j2GarbageFreeBenchmark.class.getName());
+        event.setLevel(org.apache.logging.log4j.Level.INFO);
+        event.setMessage(message);
+        event.setThreadName("http-nio-8080-exec-1");
+        event.setTimeMillis(System.currentTimeMillis());
+    }
+
+    @TearDown
+    public void tearDown() {
+        bridge.stop();
+    }
+
+    @Benchmark
+    public void append(ProducerAllocation allocation) {
+        bridge.append(event);
+        allocation.appends++;
+    }
+}
@@ -0,0 +1,130 @@
+package org.logx.benchmark;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.async.AsyncLoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.logx.config.properties.LogxOssProperties;
+import org.logx.core.AsyncEngineConfig;
+import org.logx.log4j2.Log4j2Bridge;
+import org.logx.storage.StorageConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log4j2 AsyncLogger 到批次缓冲的端到端单条成本
+ * <p>
+ * 日志经全异步的AsyncLoggerContext进入Log4j2自身的Disruptor，由其后台线程调用appender：
+ * {@code ring}为默认路径，再经logx环形队列交给logx消费线程；{@code direct}开启directHandoff，
+ * 后台线程直接写入批次缓冲。每次调用写入{@value #EVENTS}条日志并等待全部批次上传到模拟存储，
+ * 结果为每条日志从logger.info到进入已上传批次的平均耗时。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Log4j2HandoffBenchmark {
+
+    static final int EVENTS = 10_000;
+    private static final int BATCH = 1_000;
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%t] %-5level %logger{36} - %msg%n";
+    private static final String MESSAGE = "request processed, userId=123456 traceId=4bf92f3577b34da6 costMs=42";
+
+    @Param({"ring", "direct"})
+    public String handoff;
+
+    private NoOpStorageService storageService;
+    private Log4j2Bridge bridge;
+    private AsyncLoggerContext context;
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+        storageService = new NoOpStorageService();
+        AsyncEngineConfig config = AsyncEngineConfig.defaultConfig()
+                .queueCapacity(65536)
+                .batchMaxMessages(BATCH)
+                .batchMaxBytes(64 * 1024 * 1024)
+                .maxMessageAgeMs(60_000)
+                .blockOnFull(true)
+                .enableDynamicBatching(false)
+                .directHandoff("direct".equals(handoff));
+        // 压缩成本由CompressionBenchmark单独覆盖，这里关闭以突出交接路径本身的差异
+        LogxOssProperties properties = new LogxOssProperties();
+        properties.getEngine().setEnableCompression(false);
+        bridge = new Log4j2Bridge(storageService, new StorageConfig(properties), config);
+        bridge.setLayout(PatternLayout.newBuilder().withPattern(PATTERN).build());
+        bridge.start();
+
+        context = new AsyncLoggerContext("logx-handoff-benchmark");
+        context.start();
+        Configuration configuration = context.getConfiguration();
+        BridgeAppender appender = new BridgeAppender(bridge);
+        appender.start();
+        configuration.addAppender(appender);
+        LoggerConfig root = configuration.getRootLogger();
+        for (String name : new ArrayList<>(root.getAppenders().keySet())) {
+            root.removeAppender(name);
+        }
+        root.addAppender(appender, Level.INFO, null);
+        root.setLevel(Level.INFO);
+        context.updateLoggers();
+        logger = context.getLogger("com.example.order.OrderService");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        bridge.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void logAndUpload() {
+        long target = storageService.getUploads() + EVENTS / BATCH;
+        for (int i = 0; i < EVENTS; i++) {
+            logger.info(MESSAGE);
+        }
+        while (storageService.getUploads() < target) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * 与Log4j2OSSAppender.append相同，直接委托给桥接器，存储端为模拟实现
+     */
+    private static final class BridgeAppender extends AbstractAppender {
+        private final Log4j2Bridge bridge;
+
+        BridgeAppender(Log4j2Bridge bridge) {
+            super("logx-benchmark", null, null, true, Property.EMPTY_ARRAY);
+            this.bridge = bridge;
+        }
+
+        @Override
+        public void append(LogEvent event) {
+            bridge.append(event);
+        }
+    }
+}
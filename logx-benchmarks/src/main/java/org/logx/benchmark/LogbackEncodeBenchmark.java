@@ -0,0 +1,109 @@
+package org.logx.benchmark;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.logx.core.AsyncEngine;
+import org.logx.core.AsyncEngineConfig;
+import org.logx.core.LogPayloadSanitizer;
+import org.logx.logback.LogbackBridge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logback编码路径的分配量
+ * <p>
+ * {@code string}复现原LogbackBridge：encoder.encode得到字节后转成String，清洗时再编码回字节；
+ * {@code bytes}为当前LogbackBridge：Layout输出的文本直接编码进线程内缓冲区，字节级原位清洗后拷贝入队。
+ * 两者都开启garbageFree，载荷拷贝进队列槽位缓冲区，差异只来自桥接层本身。
+ * {@link ProducerAllocation#producerBytesPerAppend}为调用线程每次append的分配字节数。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LogbackEncodeBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} [%t] %-5level %logger{36} - %msg%n";
+    private static final String MESSAGE = "request processed, userId=123456 traceId=4bf92f3577b34da6 costMs=42";
+    private static final int MAX_BYTES = 512 * 1024;
+
+    @Param({"string", "bytes"})
+    public String path;
+
+    private LoggerContext context;
+    private PatternLayoutEncoder encoder;
+    private LogbackBridge bridge;
+    private AsyncEngine engine;
+    private LoggingEvent event;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+
+        if ("bytes".equals(path)) {
+            bridge = new LogbackBridge(new NoOpStorageService(), null, engineConfig());
+            bridge.setEncoder(encoder);
+            bridge.start();
+        } else {
+            engine = AsyncEngine.create(new NoOpStorageService(), engineConfig());
+            engine.start();
+        }
+
+        ch.qos.logback.classic.Logger logger = context.getLogger("com.example.order.OrderService");
+        event = new LoggingEvent(LogbackEncodeBenchmark.class.getName(), logger,
+                ch.qos.logback.classic.Level.INFO, MESSAGE, null, null);
+        event.setThreadName("http-nio-8080-exec-1");
+    }
+
+    private static AsyncEngineConfig engineConfig() {
+        return AsyncEngineConfig.defaultConfig()
+                .queueCapacity(65536)
+                .maxMessageAgeMs(1000)
+                .blockOnFull(true)
+                .enableDynamicBatching(false)
+                .garbageFree(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (bridge != null) {
+            bridge.stop();
+        }
+        if (engine != null) {
+            engine.stop(5, TimeUnit.SECONDS);
+        }
+        context.stop();
+    }
+
+    @Benchmark
+    public void append(ProducerAllocation allocation) {
+        if (bridge != null) {
+            bridge.append(event);
+        } else {
+            String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+            engine.put(LogPayloadSanitizer.sanitize(line, MAX_BYTES).bytes);
+        }
+        allocation.appends++;
+    }
+}
@@ -0,0 +1,73 @@
+package org.logx.benchmark;
+
+import org.logx.storage.ProtocolType;
+import org.logx.storage.StorageService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 基准测试使用的模拟存储服务
+ * <p>
+ * 不发起任何网络请求，只记录上传次数和字节数，可选地模拟固定的上传耗时。
+ */
+public final class NoOpStorageService implements StorageService {
+
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    private final long latencyNanos;
+    private final AtomicLong uploads = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+
+    public NoOpStorageService() {
+        this(0L);
+    }
+
+    public NoOpStorageService(long latencyMicros) {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+    }
+
+    @Override
+    public CompletableFuture<Void> putObject(String key, byte[] data) {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        uploads.incrementAndGet();
+        uploadedBytes.addAndGet(data.length);
+        return DONE;
+    }
+
+    @Override
+    public ProtocolType getProtocolType() {
+        return ProtocolType.S3;
+    }
+
+    @Override
+    public String getBucketName() {
+        return "benchmark-bucket";
+    }
+
+    @Override
+    public String getKeyPrefix() {
+        return "logx";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean supportsProtocol(ProtocolType protocol) {
+        return protocol == ProtocolType.S3;
+    }
+
+    public long getUploads() {
+        return uploads.get();
+    }
+
+    public long getUploadedBytes() {
+        return uploadedBytes.get();
+    }
+}
@@ -0,0 +1,59 @@
+package org.logx.benchmark;
+
+import org.logx.fallback.ObjectNameGenerator;
+import org.logx.util.IPUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对象名生成
+ * <p>
+ * {@code legacy}：原实现，每次调用解析本机IP、格式化四次时间、生成UUID并对前缀做正则替换；
+ * {@code cached}：当前 {@link ObjectNameGenerator}，IP和日期目录缓存，时间按毫秒数直接计算。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ObjectNameBenchmark {
+
+    private static final DateTimeFormatter YEAR_FORMATTER = DateTimeFormatter.ofPattern("yyyy");
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MM");
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("dd");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HHmmssSSS");
+
+    private final String keyPrefix = "logx/";
+
+    @Benchmark
+    public String legacy() {
+        String prefix = keyPrefix.replaceAll("^/+|/+$", "");
+        String ip = IPUtil.getLocalIP();
+        LocalDateTime nowTime = LocalDateTime.now();
+        String year = nowTime.format(YEAR_FORMATTER);
+        String month = nowTime.format(MONTH_FORMATTER);
+        String day = nowTime.format(DAY_FORMATTER);
+        String time = nowTime.format(TIME_FORMATTER);
+        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
+        return prefix + "/" + year + "/" + month + "/" + day + "/" + time + "-applogx-" + ip + "-" + uniqueId
+                + ".log.gz";
+    }
+
+    @Benchmark
+    public String cached() {
+        return ObjectNameGenerator.generateObjectName(keyPrefix);
+    }
+}
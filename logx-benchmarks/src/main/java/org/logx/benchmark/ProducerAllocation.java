@@ -0,0 +1,48 @@
+package org.logx.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 调用线程在每次迭代内的分配字节数，按append次数折算
+ * <p>
+ * gc.alloc.rate.norm统计的是所有线程，包含消费线程的批次序列化和压缩；该计数器只统计调用append的线程。
+ * EVENTS计数器在各测量迭代间求和，因此每次迭代的值先除以迭代次数，输出即为平均值。
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class ProducerAllocation {
+    public double producerBytesPerAppend;
+    long appends;
+    private long startBytes;
+    private int measurementIterations = 1;
+
+    @Setup(Level.Trial)
+    public void init(BenchmarkParams params) {
+        measurementIterations = Math.max(1, params.getMeasurement().getCount());
+    }
+
+    @Setup(Level.Iteration)
+    public void start() {
+        appends = 0;
+        startBytes = allocatedBytes();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        producerBytesPerAppend = appends > 0
+                ? (double) (allocatedBytes() - startBytes) / appends / measurementIterations : 0;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,93 @@
+package org.logx.benchmark;
+
+import org.logx.core.EnhancedDisruptorBatchingQueue;
+import org.logx.core.ProducerMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EnhancedDisruptorBatchingQueue.submit 在1/8/64个生产者线程下的吞吐与延迟
+ * <p>
+ * 消费端使用空实现的BatchConsumer，测量的是入队、批次聚合与压缩的组合开销。
+ * producerBatchSize大于1时事件先在生产者线程内攒批，再一次认领连续序列批量发布；
+ * producerMode=sharded时每个生产者线程独占一个单生产者分片，由合并线程汇总；
+ * 分片模式与微批次互斥，producerBatchSize大于1时队列按multi运行，该组合的结果与multi相同。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueueSubmitBenchmark {
+
+    @Param({"256"})
+    public int payloadBytes;
+
+    @Param({"true"})
+    public boolean enableCompression;
+
+    @Param({"1", "32"})
+    public int producerBatchSize;
+
+    @Param({"multi", "sharded"})
+    public String producerMode;
+
+    private EnhancedDisruptorBatchingQueue queue;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = BenchmarkData.logLine(new Random(42), payloadBytes);
+        EnhancedDisruptorBatchingQueue.Config config = new EnhancedDisruptorBatchingQueue.Config()
+                .queueCapacity(65536)
+                .batchMaxMessages(8192)
+                .batchMaxBytes(10 * 1024 * 1024)
+                .maxMessageAgeMs(1000)
+                .blockOnFull(true)
+                .producerMode(ProducerMode.parse(producerMode, ProducerMode.MULTI))
+                .enableCompression(enableCompression)
+                .producerBatchSize(producerBatchSize)
+                .enableSharding(false);
+        queue = new EnhancedDisruptorBatchingQueue(config, (data, originalSize, compressed, count) -> true,
+                new NoOpStorageService());
+        queue.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        queue.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean submit1Producer() {
+        return queue.submit(payload);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean submit8Producers() {
+        return queue.submit(payload);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean submit64Producers() {
+        return queue.submit(payload);
+    }
+}
@@ -0,0 +1,77 @@
+package org.logx.benchmark;
+
+import org.logx.core.BatchCodec;
+import org.logx.core.SeekableGzipCodec;
+import org.logx.core.SeekableGzipReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 读取10MB批次对象末尾64KB：单个GZIP流需要从头解压，分块GZIP只解压覆盖目标范围的块
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SeekableReadBenchmark {
+
+    private static final int BATCH_BYTES = 10 * 1024 * 1024;
+    private static final int TAIL_BYTES = 64 * 1024;
+
+    @Param({"65536", "262144"})
+    public int blockBytes;
+
+    private byte[] singleStream;
+    private byte[] seekable;
+    private byte[] buffer;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] batch = BenchmarkData.batch(new Random(42), BATCH_BYTES, 256);
+        singleStream = BatchCodec.compress(batch);
+        seekable = SeekableGzipCodec.compress(batch, 0, batch.length, blockBytes);
+        buffer = new byte[TAIL_BYTES];
+    }
+
+    @Benchmark
+    public byte[] singleStreamTail() throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(singleStream), 8192)) {
+            long skipped = 0;
+            while (skipped < BATCH_BYTES - TAIL_BYTES) {
+                skipped += in.skip(BATCH_BYTES - TAIL_BYTES - skipped);
+            }
+            int n = 0;
+            while (n < TAIL_BYTES) {
+                int read = in.read(buffer, n, TAIL_BYTES - n);
+                if (read < 0) {
+                    break;
+                }
+                n += read;
+            }
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    public byte[] seekableTail() throws IOException {
+        SeekableGzipReader reader = SeekableGzipReader.open(seekable);
+        return reader.read(reader.getUncompressedLength() - TAIL_BYTES, TAIL_BYTES);
+    }
+}
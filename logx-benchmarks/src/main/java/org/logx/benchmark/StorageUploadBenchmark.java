@@ -0,0 +1,82 @@
+package org.logx.benchmark;
+
+import org.logx.core.AsyncEngine;
+import org.logx.core.AsyncEngineConfig;
+import org.logx.core.BatchCodec;
+import org.logx.fallback.ObjectNameGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上传路径（模拟StorageService）
+ * <p>
+ * {@code uploadBatch}：消费端单批次的 压缩 + 对象名生成 + putObject；
+ * {@code enginePut}：经AsyncEngine完整链路投递单条日志，后台上传到模拟存储。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorageUploadBenchmark {
+
+    @Param({"0", "2000"})
+    public long uploadLatencyMicros;
+
+    private NoOpStorageService storageService;
+    private AsyncEngine engine;
+    private byte[] batch;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        batch = BenchmarkData.batch(random, 1024 * 1024, 256);
+        payload = BenchmarkData.logLine(random, 256);
+        storageService = new NoOpStorageService(uploadLatencyMicros);
+
+        AsyncEngineConfig config = AsyncEngineConfig.defaultConfig()
+                .queueCapacity(65536)
+                .batchMaxMessages(8192)
+                .maxMessageAgeMs(1000)
+                .blockOnFull(true)
+                .multiProducer(true)
+                .enableDynamicBatching(false);
+        engine = AsyncEngine.create(storageService, config);
+        engine.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.stop(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public boolean uploadBatch() throws Exception {
+        byte[] compressed = BatchCodec.compress(batch);
+        String key = ObjectNameGenerator.generateObjectName(storageService.getKeyPrefix());
+        storageService.putObject(key, compressed).get();
+        return true;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void enginePut() {
+        engine.put(payload);
+    }
+}
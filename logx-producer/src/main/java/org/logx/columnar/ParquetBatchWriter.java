@@ -0,0 +1,423 @@
+package org.logx.columnar;
+
+import org.logx.core.EnhancedDisruptorBatchingQueue.LogEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 将一个批次写成Parquet文件
+ * <p>
+ * 每个批次一个行组、每列一个数据页，页面使用GZIP压缩，Athena、Presto、Spark等引擎可直接查询。
+ * 列结构：
+ * <pre>
+ * required int64  timestamp (TIMESTAMP_MILLIS)
+ * required binary level     (UTF8)
+ * required binary logger    (UTF8)
+ * required binary thread    (UTF8)
+ * required binary message   (UTF8)
+ * optional binary mdc       (UTF8，JSON对象)
+ * optional binary throwable (UTF8)
+ * </pre>
+ * 字符串列在不同值较少时使用字典编码（level、logger、thread几乎总是命中），
+ * 不同值超过非空值一半或字典超过1MB时退回PLAIN编码。
+ * 未提取到的level、logger、thread写为空字符串；MDC编码为JSON字符串，可用json_extract查询。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class ParquetBatchWriter {
+
+    private static final byte[] MAGIC = {'P', 'A', 'R', '1'};
+    private static final String CREATED_BY = "logx-oss-appender";
+    private static final int MAX_DICTIONARY_BYTES = 1024 * 1024;
+
+    private static final int TYPE_INT64 = 2;
+    private static final int TYPE_BYTE_ARRAY = 6;
+    private static final int REQUIRED = 0;
+    private static final int OPTIONAL = 1;
+    private static final int CONVERTED_UTF8 = 0;
+    private static final int CONVERTED_TIMESTAMP_MILLIS = 9;
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_PLAIN_DICTIONARY = 2;
+    private static final int ENCODING_RLE = 3;
+    private static final int CODEC_GZIP = 2;
+    private static final int PAGE_DATA = 0;
+    private static final int PAGE_DICTIONARY = 2;
+
+    private ParquetBatchWriter() {
+    }
+
+    /**
+     * 将环形缓冲中的事件写成Parquet文件
+     *
+     * @param events 事件环形数组
+     * @param head 起始下标
+     * @param count 事件数量
+     * @return Parquet文件内容
+     * @throws IOException 压缩失败
+     */
+    public static byte[] write(LogEvent[] events, int head, int count) throws IOException {
+        long[] timestamps = new long[count];
+        StringColumn level = new StringColumn("level", false, count);
+        StringColumn logger = new StringColumn("logger", false, count);
+        StringColumn thread = new StringColumn("thread", false, count);
+        StringColumn message = new StringColumn("message", false, count);
+        StringColumn mdc = new StringColumn("mdc", true, count);
+        StringColumn throwable = new StringColumn("throwable", true, count);
+
+        for (int i = 0; i < count; i++) {
+            LogEvent event = events[(head + i) % events.length];
+            StructuredEvent decoded = StructuredEventCodec.decode(event.payload, event.timestampMs);
+            timestamps[i] = decoded.getTimestampMs();
+            level.add(decoded.getLevel());
+            logger.add(decoded.getLogger());
+            thread.add(decoded.getThread());
+            message.add(decoded.getMessage());
+            mdc.add(decoded.getMdc().isEmpty() ? null : toJson(decoded.getMdc()));
+            throwable.add(decoded.getThrowable());
+        }
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream(Math.max(1024, count * 32));
+        file.write(MAGIC, 0, MAGIC.length);
+        ColumnChunk[] chunks = {
+                writeTimestamps(file, timestamps, count),
+                level.write(file), logger.write(file), thread.write(file), message.write(file),
+                mdc.write(file), throwable.write(file)
+        };
+
+        ByteArrayOutputStream footer = new ByteArrayOutputStream(1024);
+        writeFileMetaData(new ThriftCompactWriter(footer), chunks, count);
+        footer.writeTo(file);
+        int footerLength = footer.size();
+        for (int i = 0; i < 4; i++) {
+            file.write(footerLength >>> (8 * i));
+        }
+        file.write(MAGIC, 0, MAGIC.length);
+        return file.toByteArray();
+    }
+
+    private static ColumnChunk writeTimestamps(ByteArrayOutputStream file, long[] timestamps, int count)
+            throws IOException {
+        ByteArrayOutputStream page = new ByteArrayOutputStream(count * 8);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            writeLongLE(page, timestamps[i]);
+            min = Math.min(min, timestamps[i]);
+            max = Math.max(max, timestamps[i]);
+        }
+        ColumnChunk chunk = new ColumnChunk("timestamp", TYPE_INT64, REQUIRED, CONVERTED_TIMESTAMP_MILLIS, count,
+                ENCODING_PLAIN);
+        chunk.dataPageOffset = file.size();
+        chunk.addPage(writePage(file, PAGE_DATA, page, count, ENCODING_PLAIN));
+        if (count > 0) {
+            ByteArrayOutputStream minBytes = new ByteArrayOutputStream(8);
+            ByteArrayOutputStream maxBytes = new ByteArrayOutputStream(8);
+            writeLongLE(minBytes, min);
+            writeLongLE(maxBytes, max);
+            chunk.minValue = minBytes.toByteArray();
+            chunk.maxValue = maxBytes.toByteArray();
+        }
+        return chunk;
+    }
+
+    /**
+     * 写一个压缩页（页头+GZIP内容）
+     *
+     * @return 页头和压缩内容的{未压缩大小, 压缩后大小}
+     */
+    private static long[] writePage(ByteArrayOutputStream file, int pageType, ByteArrayOutputStream page,
+            int numValues, int encoding) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, page.size() / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 8192)) {
+            page.writeTo(gzip);
+        }
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream(32);
+        ThriftCompactWriter thrift = new ThriftCompactWriter(header);
+        thrift.structBegin();
+        thrift.fieldI32(1, pageType);
+        thrift.fieldI32(2, page.size());
+        thrift.fieldI32(3, compressed.size());
+        if (pageType == PAGE_DATA) {
+            thrift.fieldStructBegin(5);
+            thrift.fieldI32(1, numValues);
+            thrift.fieldI32(2, encoding);
+            thrift.fieldI32(3, ENCODING_RLE);
+            thrift.fieldI32(4, ENCODING_RLE);
+            thrift.structEnd();
+        } else {
+            thrift.fieldStructBegin(7);
+            thrift.fieldI32(1, numValues);
+            thrift.fieldI32(2, encoding);
+            thrift.structEnd();
+        }
+        thrift.structEnd();
+
+        header.writeTo(file);
+        compressed.writeTo(file);
+        return new long[]{header.size() + page.size(), header.size() + compressed.size()};
+    }
+
+    private static void writeFileMetaData(ThriftCompactWriter thrift, ColumnChunk[] chunks, int numRows) {
+        thrift.structBegin();
+        thrift.fieldI32(1, 1);
+
+        thrift.fieldListBegin(2, ThriftCompactWriter.TYPE_STRUCT, chunks.length + 1);
+        thrift.structBegin();
+        thrift.fieldString(4, "schema");
+        thrift.fieldI32(5, chunks.length);
+        thrift.structEnd();
+        for (ColumnChunk chunk : chunks) {
+            thrift.structBegin();
+            thrift.fieldI32(1, chunk.type);
+            thrift.fieldI32(3, chunk.repetition);
+            thrift.fieldString(4, chunk.name);
+            thrift.fieldI32(6, chunk.convertedType);
+            thrift.structEnd();
+        }
+
+        thrift.fieldI64(3, numRows);
+
+        long totalUncompressed = 0;
+        long totalCompressed = 0;
+        for (ColumnChunk chunk : chunks) {
+            totalUncompressed += chunk.uncompressedSize;
+            totalCompressed += chunk.compressedSize;
+        }
+        thrift.fieldListBegin(4, ThriftCompactWriter.TYPE_STRUCT, 1);
+        thrift.structBegin();
+        thrift.fieldListBegin(1, ThriftCompactWriter.TYPE_STRUCT, chunks.length);
+        for (ColumnChunk chunk : chunks) {
+            writeColumnChunk(thrift, chunk);
+        }
+        thrift.fieldI64(2, totalUncompressed);
+        thrift.fieldI64(3, numRows);
+        thrift.fieldI64(5, chunks[0].startOffset());
+        thrift.fieldI64(6, totalCompressed);
+        thrift.structEnd();
+
+        thrift.fieldString(6, CREATED_BY);
+        thrift.structEnd();
+    }
+
+    private static void writeColumnChunk(ThriftCompactWriter thrift, ColumnChunk chunk) {
+        thrift.structBegin();
+        thrift.fieldI64(2, chunk.startOffset());
+        thrift.fieldStructBegin(3);
+        thrift.fieldI32(1, chunk.type);
+        thrift.fieldListBegin(2, ThriftCompactWriter.TYPE_I32, 2);
+        thrift.writeI32(ENCODING_RLE);
+        thrift.writeI32(chunk.valueEncoding);
+        thrift.fieldListBegin(3, ThriftCompactWriter.TYPE_BINARY, 1);
+        thrift.writeString(chunk.name);
+        thrift.fieldI32(4, CODEC_GZIP);
+        thrift.fieldI64(5, chunk.numValues);
+        thrift.fieldI64(6, chunk.uncompressedSize);
+        thrift.fieldI64(7, chunk.compressedSize);
+        thrift.fieldI64(9, chunk.dataPageOffset);
+        if (chunk.dictionaryPageOffset >= 0) {
+            thrift.fieldI64(11, chunk.dictionaryPageOffset);
+        }
+        thrift.fieldStructBegin(12);
+        thrift.fieldI64(3, chunk.nullCount);
+        if (chunk.maxValue != null) {
+            thrift.fieldBinary(5, chunk.maxValue);
+            thrift.fieldBinary(6, chunk.minValue);
+        }
+        thrift.structEnd();
+        thrift.structEnd();
+        thrift.structEnd();
+    }
+
+    static String toJson(Map<String, String> map) {
+        StringBuilder sb = new StringBuilder(map.size() * 32);
+        sb.append('{');
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            appendJsonString(sb, entry.getKey());
+            sb.append(':');
+            if (entry.getValue() == null) {
+                sb.append("null");
+            } else {
+                appendJsonString(sb, entry.getValue());
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private static void writeLongLE(ByteArrayOutputStream out, long value) {
+        writeIntLE(out, (int) value);
+        writeIntLE(out, (int) (value >>> 32));
+    }
+
+    /**
+     * 已写入文件的列块元数据
+     */
+    private static final class ColumnChunk {
+        final String name;
+        final int type;
+        final int repetition;
+        final int convertedType;
+        final int numValues;
+        final int valueEncoding;
+        long dictionaryPageOffset = -1;
+        long dataPageOffset;
+        long uncompressedSize;
+        long compressedSize;
+        long nullCount;
+        byte[] minValue;
+        byte[] maxValue;
+
+        ColumnChunk(String name, int type, int repetition, int convertedType, int numValues, int valueEncoding) {
+            this.name = name;
+            this.type = type;
+            this.repetition = repetition;
+            this.convertedType = convertedType;
+            this.numValues = numValues;
+            this.valueEncoding = valueEncoding;
+        }
+
+        void addPage(long[] sizes) {
+            uncompressedSize += sizes[0];
+            compressedSize += sizes[1];
+        }
+
+        long startOffset() {
+            return dictionaryPageOffset >= 0 ? dictionaryPageOffset : dataPageOffset;
+        }
+    }
+
+    /**
+     * 字符串列，按首次出现顺序收集不同值，写出时选择字典或PLAIN编码
+     */
+    private static final class StringColumn {
+        private final String name;
+        private final boolean optional;
+        private final boolean[] present;
+        private final int[] indices;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<byte[]> distinct = new ArrayList<>();
+        private int count;
+        private int nonNull;
+        private long dictionaryBytes;
+
+        StringColumn(String name, boolean optional, int capacity) {
+            this.name = name;
+            this.optional = optional;
+            this.present = new boolean[capacity];
+            this.indices = new int[capacity];
+        }
+
+        void add(String value) {
+            if (value == null && !optional) {
+                value = "";
+            }
+            if (value != null) {
+                Integer index = dictionary.get(value);
+                if (index == null) {
+                    index = distinct.size();
+                    dictionary.put(value, index);
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    distinct.add(bytes);
+                    dictionaryBytes += bytes.length + 4;
+                }
+                indices[nonNull++] = index;
+                present[count] = true;
+            }
+            count++;
+        }
+
+        ColumnChunk write(ByteArrayOutputStream file) throws IOException {
+            boolean useDictionary = nonNull > 0 && distinct.size() * 2 <= nonNull + 1
+                    && dictionaryBytes <= MAX_DICTIONARY_BYTES;
+            ColumnChunk chunk = new ColumnChunk(name, TYPE_BYTE_ARRAY, optional ? OPTIONAL : REQUIRED,
+                    CONVERTED_UTF8, count, useDictionary ? ENCODING_PLAIN_DICTIONARY : ENCODING_PLAIN);
+            chunk.nullCount = count - nonNull;
+
+            ByteArrayOutputStream page = new ByteArrayOutputStream(64 + (useDictionary ? nonNull
+                    : (int) Math.min(Integer.MAX_VALUE / 2, dictionaryBytes * 2)));
+            if (optional) {
+                int[] definitionLevels = new int[count];
+                for (int i = 0; i < count; i++) {
+                    definitionLevels[i] = present[i] ? 1 : 0;
+                }
+                ByteArrayOutputStream levels = new ByteArrayOutputStream(16 + count / 8);
+                RleBitPackedEncoder.encode(definitionLevels, count, 1, levels);
+                writeIntLE(page, levels.size());
+                levels.writeTo(page);
+            }
+
+            if (useDictionary) {
+                ByteArrayOutputStream dictionaryPage = new ByteArrayOutputStream((int) dictionaryBytes);
+                for (byte[] value : distinct) {
+                    writeIntLE(dictionaryPage, value.length);
+                    dictionaryPage.write(value, 0, value.length);
+                }
+                chunk.dictionaryPageOffset = file.size();
+                chunk.addPage(writePage(file, PAGE_DICTIONARY, dictionaryPage, distinct.size(),
+                        ENCODING_PLAIN_DICTIONARY));
+
+                int bitWidth = RleBitPackedEncoder.bitWidth(distinct.size() - 1);
+                page.write(bitWidth);
+                RleBitPackedEncoder.encode(indices, nonNull, bitWidth, page);
+            } else {
+                for (int i = 0; i < nonNull; i++) {
+                    byte[] value = distinct.get(indices[i]);
+                    writeIntLE(page, value.length);
+                    page.write(value, 0, value.length);
+                }
+            }
+            chunk.dataPageOffset = file.size();
+            chunk.addPage(writePage(file, PAGE_DATA, page, count, chunk.valueEncoding));
+            return chunk;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.logx.columnar;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Parquet的RLE/Bit-Packing混合编码，用于定义级别和字典索引
+ * <p>
+ * 连续8个以上相同的值写成RLE段，其余按8个一组写成位打包段，位打包段只在末尾补齐。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+final class RleBitPackedEncoder {
+
+    private static final int GROUP = 8;
+
+    private RleBitPackedEncoder() {
+    }
+
+    /**
+     * 取值范围所需的位宽，至少为1
+     */
+    static int bitWidth(int maxValue) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(maxValue));
+    }
+
+    static void encode(int[] values, int count, int bitWidth, ByteArrayOutputStream out) {
+        int i = 0;
+        while (i < count) {
+            int run = runLength(values, i, count);
+            if (run >= GROUP) {
+                writeVarint(out, run << 1);
+                int value = values[i];
+                for (int b = 0; b < (bitWidth + 7) / 8; b++) {
+                    out.write(value >>> (8 * b));
+                }
+                i += run;
+                continue;
+            }
+            int start = i;
+            int groups = 0;
+            do {
+                i += GROUP;
+                groups++;
+            } while (i < count && runLength(values, i, count) < GROUP);
+            writeVarint(out, groups << 1 | 1);
+            writeBitPacked(values, start, Math.min(i, count), groups * GROUP, bitWidth, out);
+        }
+    }
+
+    private static int runLength(int[] values, int start, int count) {
+        int end = start + 1;
+        while (end < count && values[end] == values[start]) {
+            end++;
+        }
+        return end - start;
+    }
+
+    /**
+     * 按LSB优先写入[start, end)的值，不足total个时以0补齐
+     */
+    private static void writeBitPacked(int[] values, int start, int end, int total, int bitWidth,
+            ByteArrayOutputStream out) {
+        long buffer = 0;
+        int bits = 0;
+        for (int n = 0; n < total; n++) {
+            int value = start + n < end ? values[start + n] : 0;
+            buffer |= (long) value << bits;
+            bits += bitWidth;
+            while (bits >= 8) {
+                out.write((int) buffer);
+                buffer >>>= 8;
+                bits -= 8;
+            }
+        }
+        if (bits > 0) {
+            out.write((int) buffer);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
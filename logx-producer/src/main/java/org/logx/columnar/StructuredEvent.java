@@ -0,0 +1,86 @@
+package org.logx.columnar;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 结构化日志事件
+ * <p>
+ * 列式输出模式下桥接器提取的字段，经 {@link StructuredEventCodec} 编码后与文本日志走同一条队列，
+ * 批次处理时解码并写入 {@link ParquetBatchWriter}。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class StructuredEvent {
+
+    private final long timestampMs;
+    private final String level;
+    private final String logger;
+    private final String thread;
+    private final String message;
+    private final Map<String, String> mdc;
+    private final String throwable;
+
+    public StructuredEvent(long timestampMs, String level, String logger, String thread, String message,
+            Map<String, String> mdc, String throwable) {
+        this.timestampMs = timestampMs;
+        this.level = level;
+        this.logger = logger;
+        this.thread = thread;
+        this.message = message;
+        this.mdc = mdc != null ? mdc : Collections.<String, String>emptyMap();
+        this.throwable = throwable;
+    }
+
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public String getLogger() {
+        return logger;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * MDC上下文，没有时为空Map
+     */
+    public Map<String, String> getMdc() {
+        return mdc;
+    }
+
+    /**
+     * 异常堆栈文本，没有异常时为null
+     */
+    public String getThrowable() {
+        return throwable;
+    }
+
+    /**
+     * 异常堆栈文本，供桥接器填充throwable列
+     *
+     * @param throwable 异常，可为null
+     * @return 堆栈文本，异常为null时返回null
+     */
+    public static String stackTrace(Throwable throwable) {
+        if (throwable == null) {
+            return null;
+        }
+        StringWriter writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+}
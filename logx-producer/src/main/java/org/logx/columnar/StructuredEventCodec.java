@@ -0,0 +1,296 @@
+package org.logx.columnar;
+
+import org.logx.core.LogRecord;
+import org.logx.core.Utf8Buffer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 结构化日志事件的二进制编解码
+ * <p>
+ * 编码结果作为普通载荷进入队列，溢出缓冲、预写日志和兜底文件无需感知格式。
+ * <pre>
+ * MAGIC(1) | VERSION(1) | timestampMs(8，大端) | level | logger | thread | message | throwable | mdcCount(varint) | (key value)*
+ * </pre>
+ * 字符串为varint(UTF-8长度+1)加内容，0表示null。
+ * 不以MAGIC开头的载荷按文本日志处理，整条作为message，便于同一批次中混入的文本事件不丢失。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class StructuredEventCodec {
+
+    /**
+     * ASCII记录分隔符，格式化文本日志不会以它开头
+     */
+    static final byte MAGIC = 0x1E;
+    static final byte VERSION = 1;
+
+    private static final String TRUNCATED_SUFFIX = "...[truncated]";
+    private static final byte[] TRUNCATED_SUFFIX_BYTES = TRUNCATED_SUFFIX.getBytes(StandardCharsets.UTF_8);
+
+    private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    private StructuredEventCodec() {
+    }
+
+    /**
+     * 编码结构化事件
+     *
+     * @param event 事件
+     * @param maxBytes 编码结果上限，超出时依次截断异常堆栈和消息
+     * @return 编码后的载荷
+     */
+    public static byte[] encode(StructuredEvent event, int maxBytes) {
+        byte[] level = utf8(event.getLevel());
+        byte[] logger = utf8(event.getLogger());
+        byte[] thread = utf8(event.getThread());
+        byte[] message = utf8(event.getMessage());
+        byte[] throwable = utf8(event.getThrowable());
+        byte[][] mdc = new byte[event.getMdc().size() * 2][];
+        int i = 0;
+        int fixed = 10 + 5 * 5 + 5 + length(level) + length(logger) + length(thread);
+        for (Map.Entry<String, String> entry : event.getMdc().entrySet()) {
+            mdc[i] = utf8(entry.getKey());
+            mdc[i + 1] = utf8(entry.getValue());
+            fixed += 10 + length(mdc[i]) + length(mdc[i + 1]);
+            i += 2;
+        }
+
+        int budget = maxBytes - fixed;
+        if (budget > 0 && length(message) + length(throwable) > budget) {
+            throwable = truncate(throwable, Math.max(0, budget - length(message)));
+            message = truncate(message, budget - length(throwable));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(fixed + length(message) + length(throwable));
+        out.write(MAGIC);
+        out.write(VERSION);
+        long ts = event.getTimestampMs();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (ts >>> shift));
+        }
+        writeString(out, level);
+        writeString(out, logger);
+        writeString(out, thread);
+        writeString(out, message);
+        writeString(out, throwable);
+        writeVarint(out, event.getMdc().size());
+        for (byte[] value : mdc) {
+            writeString(out, value);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 直接编码可复用记录，字段经线程内缓冲区编码，除返回的数组外不产生分配（异常堆栈除外）
+     *
+     * @param record 记录
+     * @param maxBytes 编码结果上限，超出时依次截断异常堆栈和消息
+     * @return 编码后的载荷
+     */
+    public static byte[] encode(LogRecord record, int maxBytes) {
+        return encodeTo(record, maxBytes).toByteArray();
+    }
+
+    /**
+     * 编码到线程内缓冲区，不分配载荷数组；结果位于 {@link Utf8Buffer#array()} 的[0, size)，
+     * 在当前线程下一次编码前有效，供拷贝入队使用
+     *
+     * @param record 记录
+     * @param maxBytes 编码结果上限，超出时依次截断异常堆栈和消息
+     * @return 线程内缓冲区
+     */
+    public static Utf8Buffer encodeTo(LogRecord record, int maxBytes) {
+        Scratch scratch = SCRATCH.get();
+        Utf8Buffer out = scratch.out.reset();
+        out.append(MAGIC).append(VERSION);
+        long ts = record.getTimestampMs();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.append((int) (ts >>> shift));
+        }
+        writeField(out, scratch.field, LogRecord.levelName(record.getLevel()));
+        writeField(out, scratch.field, record.getLoggerName());
+        writeField(out, scratch.field, record.getThreadName());
+
+        Utf8Buffer context = scratch.context.reset();
+        context.appendVarint(record.getContextSize());
+        for (int i = 0; i < record.getContextSize(); i++) {
+            writeField(context, scratch.field, record.getContextKey(i));
+            writeField(context, scratch.field, record.getContextValue(i));
+        }
+
+        CharSequence messageChars = record.formatMessage();
+        Utf8Buffer message = scratch.message.reset();
+        message.appendUtf8(messageChars, false);
+        String stackTrace = StructuredEvent.stackTrace(record.getThrown());
+        Utf8Buffer throwable = scratch.throwable.reset();
+        throwable.appendUtf8(stackTrace, false);
+
+        int budget = maxBytes - out.size() - context.size() - 10;
+        if (budget > 0 && message.size() + throwable.size() > budget) {
+            throwable.truncate(Math.max(0, budget - message.size()), TRUNCATED_SUFFIX_BYTES);
+            message.truncate(budget - throwable.size(), TRUNCATED_SUFFIX_BYTES);
+        }
+        writeField(out, messageChars != null ? message : null);
+        writeField(out, stackTrace != null ? throwable : null);
+        out.append(context);
+        return out;
+    }
+
+    /**
+     * 判断载荷是否为结构化事件
+     */
+    public static boolean isStructured(byte[] payload) {
+        return payload.length >= 10 && payload[0] == MAGIC && payload[1] == VERSION;
+    }
+
+    /**
+     * 解码载荷，非结构化载荷按文本日志处理
+     *
+     * @param payload 载荷
+     * @param fallbackTimestampMs 文本日志使用的时间（入队时间）
+     * @return 结构化事件
+     */
+    public static StructuredEvent decode(byte[] payload, long fallbackTimestampMs) {
+        if (!isStructured(payload)) {
+            return textEvent(payload, fallbackTimestampMs);
+        }
+        int[] pos = {2};
+        long ts = 0;
+        for (int i = 0; i < 8; i++) {
+            ts = (ts << 8) | (payload[pos[0]++] & 0xFF);
+        }
+        try {
+            String level = readString(payload, pos);
+            String logger = readString(payload, pos);
+            String thread = readString(payload, pos);
+            String message = readString(payload, pos);
+            String throwable = readString(payload, pos);
+            int mdcCount = readVarint(payload, pos);
+            Map<String, String> mdc = mdcCount == 0 ? Collections.<String, String>emptyMap()
+                    : new LinkedHashMap<String, String>(mdcCount * 2);
+            for (int i = 0; i < mdcCount; i++) {
+                mdc.put(readString(payload, pos), readString(payload, pos));
+            }
+            return new StructuredEvent(ts, level, logger, thread, message, mdc, throwable);
+        } catch (IndexOutOfBoundsException e) {
+            return textEvent(payload, fallbackTimestampMs);
+        }
+    }
+
+    private static StructuredEvent textEvent(byte[] payload, long timestampMs) {
+        int length = payload.length;
+        while (length > 0 && (payload[length - 1] == '\n' || payload[length - 1] == '\r')) {
+            length--;
+        }
+        return new StructuredEvent(timestampMs, null, null, null,
+                new String(payload, 0, length, StandardCharsets.UTF_8), null, null);
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+
+    /**
+     * 按字节截断并追加标记，截断点回退到UTF-8字符边界
+     */
+    private static byte[] truncate(byte[] value, int maxBytes) {
+        if (value == null || value.length <= maxBytes) {
+            return value;
+        }
+        byte[] suffix = TRUNCATED_SUFFIX.getBytes(StandardCharsets.UTF_8);
+        int keep = Math.max(0, maxBytes - suffix.length);
+        while (keep > 0 && (value[keep] & 0xC0) == 0x80) {
+            keep--;
+        }
+        byte[] result = new byte[keep + suffix.length];
+        System.arraycopy(value, 0, result, 0, keep);
+        System.arraycopy(suffix, 0, result, keep, suffix.length);
+        return result;
+    }
+
+    private static void writeField(Utf8Buffer out, Utf8Buffer field, String value) {
+        if (value == null) {
+            out.append(0);
+            return;
+        }
+        field.reset().appendUtf8(value, false);
+        writeField(out, field);
+    }
+
+    private static void writeField(Utf8Buffer out, Utf8Buffer value) {
+        if (value == null) {
+            out.append(0);
+            return;
+        }
+        out.appendVarint(value.size() + 1);
+        out.append(value);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, byte[] value) {
+        if (value == null) {
+            out.write(0);
+            return;
+        }
+        writeVarint(out, value.length + 1);
+        out.write(value, 0, value.length);
+    }
+
+    private static String readString(byte[] data, int[] pos) {
+        int length = readVarint(data, pos) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (pos[0] + length > data.length) {
+            throw new IndexOutOfBoundsException("Truncated structured event");
+        }
+        String value = new String(data, pos[0], length, StandardCharsets.UTF_8);
+        pos[0] += length;
+        return value;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] data, int[] pos) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = data[pos[0]++] & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IndexOutOfBoundsException("Malformed varint in structured event");
+    }
+
+    /**
+     * 线程内复用的编码缓冲区
+     */
+    private static final class Scratch {
+        final Utf8Buffer out = new Utf8Buffer(1024);
+        final Utf8Buffer field = new Utf8Buffer(256);
+        final Utf8Buffer message = new Utf8Buffer(1024);
+        final Utf8Buffer throwable = new Utf8Buffer(256);
+        final Utf8Buffer context = new Utf8Buffer(256);
+    }
+}
@@ -0,0 +1,114 @@
+package org.logx.columnar;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Thrift Compact Protocol的最小写实现，只覆盖Parquet文件元数据用到的类型
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+final class ThriftCompactWriter {
+
+    static final int TYPE_BOOLEAN_TRUE = 1;
+    static final int TYPE_BOOLEAN_FALSE = 2;
+    static final int TYPE_I32 = 5;
+    static final int TYPE_I64 = 6;
+    static final int TYPE_BINARY = 8;
+    static final int TYPE_LIST = 9;
+    static final int TYPE_STRUCT = 12;
+
+    private final ByteArrayOutputStream out;
+    private final short[] lastFieldIds = new short[16];
+    private int depth;
+
+    ThriftCompactWriter(ByteArrayOutputStream out) {
+        this.out = out;
+    }
+
+    void structBegin() {
+        lastFieldIds[++depth] = 0;
+    }
+
+    void structEnd() {
+        out.write(0);
+        depth--;
+    }
+
+    void fieldI32(int id, int value) {
+        fieldHeader(id, TYPE_I32);
+        writeI32(value);
+    }
+
+    void fieldI64(int id, long value) {
+        fieldHeader(id, TYPE_I64);
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void fieldBool(int id, boolean value) {
+        fieldHeader(id, value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE);
+    }
+
+    void fieldBinary(int id, byte[] value) {
+        fieldHeader(id, TYPE_BINARY);
+        writeBinary(value);
+    }
+
+    void fieldString(int id, String value) {
+        fieldBinary(id, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 写结构体字段头并进入结构体，结束时调用 {@link #structEnd()}
+     */
+    void fieldStructBegin(int id) {
+        fieldHeader(id, TYPE_STRUCT);
+        structBegin();
+    }
+
+    /**
+     * 写列表字段头，随后依次写入size个元素
+     */
+    void fieldListBegin(int id, int elementType, int size) {
+        fieldHeader(id, TYPE_LIST);
+        if (size < 15) {
+            out.write(size << 4 | elementType);
+        } else {
+            out.write(0xF0 | elementType);
+            writeVarLong(size);
+        }
+    }
+
+    void writeI32(int value) {
+        writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    void writeString(String value) {
+        writeBinary(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBinary(byte[] value) {
+        writeVarLong(value.length);
+        out.write(value, 0, value.length);
+    }
+
+    private void fieldHeader(int id, int type) {
+        int delta = id - lastFieldIds[depth];
+        if (delta > 0 && delta <= 15) {
+            out.write(delta << 4 | type);
+        } else {
+            out.write(type);
+            writeI32(id);
+        }
+        lastFieldIds[depth] = (short) id;
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
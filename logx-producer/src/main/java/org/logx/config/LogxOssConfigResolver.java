@@ -35,6 +35,7 @@ public class LogxOssConfigResolver {
         storage.setBucket(resolve(configManager.getProperty("logx.oss.storage.bucket")));
         storage.setKeyPrefix(resolve(configManager.getProperty("logx.oss.storage.keyPrefix", storage.getKeyPrefix())));
         storage.setPathStyleAccess(configManager.getBooleanProperty("logx.oss.storage.pathStyleAccess", storage.isPathStyleAccess()));
+        storage.setKeyTemplate(resolve(configManager.getProperty("logx.oss.storage.keyTemplate", storage.getKeyTemplate())));
         // Default values
         if(storage.getOssType() == null) {
             storage.setOssType("sf_s3");
@@ -58,6 +59,10 @@ public class LogxOssConfigResolver {
         resolveQueue(engine.getQueue());
         resolveFallback(engine.getFallback());
         resolveThreadPool(engine.getThreadPool());
+        resolveSpool(engine.getSpool());
+        resolveCircuitBreaker(engine.getCircuitBreaker());
+        resolveAdaptiveConcurrency(engine.getAdaptiveConcurrency());
+        resolveRateLimit(engine.getRateLimit());
         resolveOtherEngineConfigs(engine);
     }
 
@@ -71,17 +76,27 @@ public class LogxOssConfigResolver {
         retry.setMaxRetries(configManager.getIntProperty("logx.oss.engine.retry.maxRetries", retry.getMaxRetries()));
         retry.setBaseBackoffMs(configManager.getLongProperty("logx.oss.engine.retry.baseBackoffMs", retry.getBaseBackoffMs()));
         retry.setMaxBackoffMs(configManager.getLongProperty("logx.oss.engine.retry.maxBackoffMs", retry.getMaxBackoffMs()));
+        retry.setHedgePercentile(configManager.getIntProperty("logx.oss.engine.retry.hedgePercentile", retry.getHedgePercentile()));
+        retry.setHedgeMinDelayMs(configManager.getLongProperty("logx.oss.engine.retry.hedgeMinDelayMs", retry.getHedgeMinDelayMs()));
     }
 
     private void resolveQueue(LogxOssProperties.Queue queue) {
         queue.setCapacity(configManager.getIntProperty("logx.oss.engine.queue.capacity", queue.getCapacity()));
         queue.setDropWhenFull(configManager.getBooleanProperty("logx.oss.engine.queue.dropWhenFull", queue.isDropWhenFull()));
+        queue.setOverflowPolicy(resolve(configManager.getProperty("logx.oss.engine.queue.overflowPolicy", queue.getOverflowPolicy())));
+        queue.setSpillPath(resolve(configManager.getProperty("logx.oss.engine.queue.spillPath", queue.getSpillPath())));
+        queue.setSpillMaxMb(configManager.getLongProperty("logx.oss.engine.queue.spillMaxMb", queue.getSpillMaxMb()));
     }
 
     private void resolveFallback(LogxOssProperties.Fallback fallback) {
         fallback.setPath(resolve(configManager.getProperty("logx.oss.engine.fallback.path", fallback.getPath())));
         fallback.setRetentionDays(configManager.getIntProperty("logx.oss.engine.fallback.retentionDays", fallback.getRetentionDays()));
         fallback.setScanIntervalSeconds(configManager.getIntProperty("logx.oss.engine.fallback.scanIntervalSeconds", fallback.getScanIntervalSeconds()));
+        fallback.setSegmentSizeMb(configManager.getIntProperty("logx.oss.engine.fallback.segmentSizeMb", fallback.getSegmentSizeMb()));
+        fallback.setUploadConcurrency(configManager.getIntProperty("logx.oss.engine.fallback.uploadConcurrency", fallback.getUploadConcurrency()));
+        fallback.setMaxBytesPerSecond(configManager.getLongProperty("logx.oss.engine.fallback.maxBytesPerSecond", fallback.getMaxBytesPerSecond()));
+        fallback.setMaxDiskMb(configManager.getLongProperty("logx.oss.engine.fallback.maxDiskMb", fallback.getMaxDiskMb()));
+        fallback.setMinFreeDiskMb(configManager.getLongProperty("logx.oss.engine.fallback.minFreeDiskMb", fallback.getMinFreeDiskMb()));
     }
 
     private void resolveThreadPool(LogxOssProperties.ThreadPool threadPool) {
@@ -89,6 +104,36 @@ public class LogxOssConfigResolver {
         threadPool.setMaximumPoolSize(configManager.getIntProperty("logx.oss.engine.threadPool.maximumPoolSize", threadPool.getMaximumPoolSize()));
     }
 
+    private void resolveSpool(LogxOssProperties.Spool spool) {
+        spool.setEnabled(configManager.getBooleanProperty("logx.oss.engine.spool.enabled", spool.isEnabled()));
+        spool.setPath(resolve(configManager.getProperty("logx.oss.engine.spool.path", spool.getPath())));
+        spool.setSegmentSizeMb(configManager.getIntProperty("logx.oss.engine.spool.segmentSizeMb", spool.getSegmentSizeMb()));
+        spool.setFsyncIntervalMs(configManager.getLongProperty("logx.oss.engine.spool.fsyncIntervalMs", spool.getFsyncIntervalMs()));
+    }
+
+    private void resolveCircuitBreaker(LogxOssProperties.CircuitBreaker circuitBreaker) {
+        circuitBreaker.setEnabled(configManager.getBooleanProperty("logx.oss.engine.circuitBreaker.enabled", circuitBreaker.isEnabled()));
+        circuitBreaker.setWindowSize(configManager.getIntProperty("logx.oss.engine.circuitBreaker.windowSize", circuitBreaker.getWindowSize()));
+        circuitBreaker.setMinimumCalls(configManager.getIntProperty("logx.oss.engine.circuitBreaker.minimumCalls", circuitBreaker.getMinimumCalls()));
+        circuitBreaker.setFailureRatePercent(configManager.getIntProperty("logx.oss.engine.circuitBreaker.failureRatePercent", circuitBreaker.getFailureRatePercent()));
+        circuitBreaker.setSlowCallMs(configManager.getLongProperty("logx.oss.engine.circuitBreaker.slowCallMs", circuitBreaker.getSlowCallMs()));
+        circuitBreaker.setOpenDurationMs(configManager.getLongProperty("logx.oss.engine.circuitBreaker.openDurationMs", circuitBreaker.getOpenDurationMs()));
+    }
+
+    private void resolveAdaptiveConcurrency(LogxOssProperties.AdaptiveConcurrency concurrency) {
+        concurrency.setEnabled(configManager.getBooleanProperty("logx.oss.engine.adaptiveConcurrency.enabled", concurrency.isEnabled()));
+        concurrency.setMinLimit(configManager.getIntProperty("logx.oss.engine.adaptiveConcurrency.minLimit", concurrency.getMinLimit()));
+        concurrency.setMaxLimit(configManager.getIntProperty("logx.oss.engine.adaptiveConcurrency.maxLimit", concurrency.getMaxLimit()));
+        concurrency.setLatencyTolerancePercent(configManager.getIntProperty("logx.oss.engine.adaptiveConcurrency.latencyTolerancePercent", concurrency.getLatencyTolerancePercent()));
+        concurrency.setBackoffPercent(configManager.getIntProperty("logx.oss.engine.adaptiveConcurrency.backoffPercent", concurrency.getBackoffPercent()));
+    }
+
+    private void resolveRateLimit(LogxOssProperties.RateLimit rateLimit) {
+        rateLimit.setMaxBytesPerSecond(configManager.getLongProperty("logx.oss.engine.rateLimit.maxBytesPerSecond", rateLimit.getMaxBytesPerSecond()));
+        rateLimit.setMaxPutsPerSecond(configManager.getLongProperty("logx.oss.engine.rateLimit.maxPutsPerSecond", rateLimit.getMaxPutsPerSecond()));
+        rateLimit.setBurstMs(configManager.getLongProperty("logx.oss.engine.rateLimit.burstMs", rateLimit.getBurstMs()));
+    }
+
     private void resolveOtherEngineConfigs(LogxOssProperties.Engine engine) {
         engine.setMultiProducer(configManager.getBooleanProperty("logx.oss.engine.multiProducer", engine.isMultiProducer()));
         engine.setEnableCpuYield(configManager.getBooleanProperty("logx.oss.engine.enableCpuYield", engine.isEnableCpuYield()));
@@ -98,7 +143,16 @@ public class LogxOssConfigResolver {
         engine.setEmergencyMemoryThresholdMb(configManager.getIntProperty("logx.oss.engine.emergencyMemoryThresholdMb", engine.getEmergencyMemoryThresholdMb()));
         engine.setEnableCompression(configManager.getBooleanProperty("logx.oss.engine.enableCompression", engine.isEnableCompression()));
         engine.setCompressionThreshold(configManager.getIntProperty("logx.oss.engine.compressionThreshold", engine.getCompressionThreshold()));
+        engine.setCompressionBlockKb(configManager.getIntProperty("logx.oss.engine.compressionBlockKb", engine.getCompressionBlockKb()));
+        engine.setOutputFormat(resolve(configManager.getProperty("logx.oss.engine.outputFormat", engine.getOutputFormat())));
+        engine.setGarbageFree(configManager.getBooleanProperty("logx.oss.engine.garbageFree", engine.isGarbageFree()));
+        engine.setDirectHandoff(configManager.getBooleanProperty("logx.oss.engine.directHandoff", engine.isDirectHandoff()));
+        engine.setProducerBatchSize(configManager.getIntProperty("logx.oss.engine.producerBatchSize", engine.getProducerBatchSize()));
+        engine.setProducerBatchMaxDelayMs(configManager.getLongProperty("logx.oss.engine.producerBatchMaxDelayMs", engine.getProducerBatchMaxDelayMs()));
+        engine.setProducerMode(resolve(configManager.getProperty("logx.oss.engine.producerMode", engine.getProducerMode())));
+        engine.setProducerRings(configManager.getIntProperty("logx.oss.engine.producerRings", engine.getProducerRings()));
         engine.setEnableSharding(configManager.getBooleanProperty("logx.oss.engine.enableSharding", engine.isEnableSharding()));
+        engine.setEnableSidecarIndex(configManager.getBooleanProperty("logx.oss.engine.enableSidecarIndex", engine.isEnableSidecarIndex()));
         engine.setMaxUploadSizeMb(configManager.getIntProperty("logx.oss.engine.maxUploadSizeMb", engine.getMaxUploadSizeMb()));
     }
 }
\ No newline at end of file
@@ -40,6 +40,7 @@ public class LogxOssProperties {
         private String ossType = "SF_S3";
         private boolean pathStyleAccess;
         private long uploadTimeoutMs = 30000L;
+        private String keyTemplate;
 
         public String getEndpoint() {
             return endpoint;
@@ -112,6 +113,17 @@ public class LogxOssProperties {
         public void setUploadTimeoutMs(long uploadTimeoutMs) {
             this.uploadTimeoutMs = uploadTimeoutMs;
         }
+
+        /**
+         * 对象键模板，如 {prefix}/{service}/{yyyy}/{MM}/{dd}/{HH}/{host}-{seq}.{ext}，为空时使用默认布局
+         */
+        public String getKeyTemplate() {
+            return keyTemplate;
+        }
+
+        public void setKeyTemplate(String keyTemplate) {
+            this.keyTemplate = keyTemplate;
+        }
     }
 
     public static class Batch {
@@ -148,6 +160,8 @@ public class LogxOssProperties {
         private int maxRetries = 3;
         private long baseBackoffMs = 200L;
         private long maxBackoffMs = 10000L;
+        private int hedgePercentile = 0;
+        private long hedgeMinDelayMs = 200L;
 
         public int getMaxRetries() {
             return maxRetries;
@@ -172,11 +186,33 @@ public class LogxOssProperties {
         public void setMaxBackoffMs(long maxBackoffMs) {
             this.maxBackoffMs = maxBackoffMs;
         }
+
+        /**
+         * 触发对冲请求的上传耗时百分位，小于等于0表示不发出对冲请求
+         */
+        public int getHedgePercentile() {
+            return hedgePercentile;
+        }
+
+        public void setHedgePercentile(int hedgePercentile) {
+            this.hedgePercentile = hedgePercentile;
+        }
+
+        public long getHedgeMinDelayMs() {
+            return hedgeMinDelayMs;
+        }
+
+        public void setHedgeMinDelayMs(long hedgeMinDelayMs) {
+            this.hedgeMinDelayMs = hedgeMinDelayMs;
+        }
     }
 
     public static class Queue {
         private int capacity = 524288;
         private boolean dropWhenFull = false;
+        private String overflowPolicy;
+        private String spillPath = "logx-spill";
+        private long spillMaxMb = 1024L;
 
         public int getCapacity() {
             return capacity;
@@ -193,6 +229,33 @@ public class LogxOssProperties {
         public void setDropWhenFull(boolean dropWhenFull) {
             this.dropWhenFull = dropWhenFull;
         }
+
+        /**
+         * 队列满时的策略：BLOCK、DROP或SPILL，未设置时由dropWhenFull决定
+         */
+        public String getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(String overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public String getSpillPath() {
+            return spillPath;
+        }
+
+        public void setSpillPath(String spillPath) {
+            this.spillPath = spillPath;
+        }
+
+        public long getSpillMaxMb() {
+            return spillMaxMb;
+        }
+
+        public void setSpillMaxMb(long spillMaxMb) {
+            this.spillMaxMb = spillMaxMb;
+        }
     }
 
     /**
@@ -206,6 +269,10 @@ public class LogxOssProperties {
         private Queue queue = new Queue();
         private Fallback fallback = new Fallback();
         private ThreadPool threadPool = new ThreadPool();
+        private Spool spool = new Spool();
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+        private AdaptiveConcurrency adaptiveConcurrency = new AdaptiveConcurrency();
+        private RateLimit rateLimit = new RateLimit();
 
         // 其他引擎配置
         private boolean multiProducer = false;
@@ -216,9 +283,18 @@ public class LogxOssProperties {
         private int emergencyMemoryThresholdMb = 512;
         private boolean enableCompression = true;
         private int compressionThreshold = 1024;
+        private int compressionBlockKb = 0;
+        private String outputFormat = "text";
         private boolean enableSharding = true;
+        private boolean enableSidecarIndex = false;
         private int maxUploadSizeMb = 10;
         private int payloadMaxBytes = 512 * 1024;
+        private boolean garbageFree = false;
+        private boolean directHandoff = false;
+        private int producerBatchSize = 1;
+        private long producerBatchMaxDelayMs = 5L;
+        private String producerMode = "auto";
+        private int producerRings = 0;
 
         public Batch getBatch() {
             return batch;
@@ -260,6 +336,38 @@ public class LogxOssProperties {
             this.threadPool = threadPool;
         }
 
+        public Spool getSpool() {
+            return spool;
+        }
+
+        public void setSpool(Spool spool) {
+            this.spool = spool;
+        }
+
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        public AdaptiveConcurrency getAdaptiveConcurrency() {
+            return adaptiveConcurrency;
+        }
+
+        public void setAdaptiveConcurrency(AdaptiveConcurrency adaptiveConcurrency) {
+            this.adaptiveConcurrency = adaptiveConcurrency;
+        }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        public void setRateLimit(RateLimit rateLimit) {
+            this.rateLimit = rateLimit;
+        }
+
         public boolean isMultiProducer() {
             return multiProducer;
         }
@@ -324,6 +432,97 @@ public class LogxOssProperties {
             this.compressionThreshold = compressionThreshold;
         }
 
+        /**
+         * 分块压缩的块大小（KB），大于0时上传可按块随机读取的多成员GZIP，0表示单个GZIP流
+         */
+        public int getCompressionBlockKb() {
+            return compressionBlockKb;
+        }
+
+        public void setCompressionBlockKb(int compressionBlockKb) {
+            this.compressionBlockKb = compressionBlockKb;
+        }
+
+        /**
+         * 批次输出格式：text（Layout文本，默认）或parquet（结构化字段的列式文件）
+         */
+        public String getOutputFormat() {
+            return outputFormat;
+        }
+
+        public void setOutputFormat(String outputFormat) {
+            this.outputFormat = outputFormat;
+        }
+
+        /**
+         * 是否让队列槽位持有可复用的载荷缓冲区，生产者线程入队时不再分配载荷数组。
+         * 每个槽位常驻约一条日志大小的内存，开启时应按日志大小评估队列容量
+         */
+        public boolean isGarbageFree() {
+            return garbageFree;
+        }
+
+        public void setGarbageFree(boolean garbageFree) {
+            this.garbageFree = garbageFree;
+        }
+
+        /**
+         * 是否跳过内部环形队列，由调用线程直接写入批次缓冲。
+         * 适用于日志框架已在单个后台线程上调用appender的场景（如Log4j2 AsyncLogger、AsyncAppender）
+         */
+        public boolean isDirectHandoff() {
+            return directHandoff;
+        }
+
+        public void setDirectHandoff(boolean directHandoff) {
+            this.directHandoff = directHandoff;
+        }
+
+        /**
+         * 生产者线程内微批次的条数，大于1时多个业务线程高并发写日志只需按批竞争队列序列，1表示逐条发布
+         */
+        public int getProducerBatchSize() {
+            return producerBatchSize;
+        }
+
+        public void setProducerBatchSize(int producerBatchSize) {
+            this.producerBatchSize = producerBatchSize;
+        }
+
+        /**
+         * 事件在线程内微批次中的最长停留时间（毫秒），线程不再写日志时也会在该时间内发布
+         */
+        public long getProducerBatchMaxDelayMs() {
+            return producerBatchMaxDelayMs;
+        }
+
+        public void setProducerBatchMaxDelayMs(long producerBatchMaxDelayMs) {
+            this.producerBatchMaxDelayMs = producerBatchMaxDelayMs;
+        }
+
+        /**
+         * 环形队列的生产者模式：auto（默认，多线程安全）、single（调用方保证单线程入队）、multi、
+         * sharded（每个生产者线程独占一个单生产者小队列，由一个消费线程合并）
+         */
+        public String getProducerMode() {
+            return producerMode;
+        }
+
+        public void setProducerMode(String producerMode) {
+            this.producerMode = producerMode;
+        }
+
+        /**
+         * sharded模式下的分片数，0表示按CPU核数
+         */
+        public int getProducerRings() {
+            return producerRings;
+        }
+
+        public void setProducerRings(int producerRings) {
+            this.producerRings = producerRings;
+        }
+
         public boolean isEnableSharding() {
             return enableSharding;
         }
@@ -332,6 +531,17 @@ public class LogxOssProperties {
             this.enableSharding = enableSharding;
         }
 
+        /**
+         * 是否为每个上传的批次生成侧边索引对象（对象键加.idx后缀）
+         */
+        public boolean isEnableSidecarIndex() {
+            return enableSidecarIndex;
+        }
+
+        public void setEnableSidecarIndex(boolean enableSidecarIndex) {
+            this.enableSidecarIndex = enableSidecarIndex;
+        }
+
         public int getMaxUploadSizeMb() {
             return maxUploadSizeMb;
         }
@@ -356,6 +566,11 @@ public class LogxOssProperties {
         private String path = "fallback/logs";
         private int retentionDays = 7;
         private int scanIntervalSeconds = 60;
+        private int segmentSizeMb = 64;
+        private int uploadConcurrency = 2;
+        private long maxBytesPerSecond = 0L;
+        private long maxDiskMb = 0L;
+        private long minFreeDiskMb = 100L;
 
         public String getPath() {
             return path;
@@ -380,6 +595,259 @@ public class LogxOssProperties {
         public void setScanIntervalSeconds(int scanIntervalSeconds) {
             this.scanIntervalSeconds = scanIntervalSeconds;
         }
+
+        public int getSegmentSizeMb() {
+            return segmentSizeMb;
+        }
+
+        public void setSegmentSizeMb(int segmentSizeMb) {
+            this.segmentSizeMb = segmentSizeMb;
+        }
+
+        public int getUploadConcurrency() {
+            return uploadConcurrency;
+        }
+
+        public void setUploadConcurrency(int uploadConcurrency) {
+            this.uploadConcurrency = uploadConcurrency;
+        }
+
+        /**
+         * 兜底重传的字节速率上限，小于等于0表示不限速
+         */
+        public long getMaxBytesPerSecond() {
+            return maxBytesPerSecond;
+        }
+
+        public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+            this.maxBytesPerSecond = maxBytesPerSecond;
+        }
+
+        /**
+         * 兜底数据占用的磁盘上限，小于等于0表示不限制
+         */
+        public long getMaxDiskMb() {
+            return maxDiskMb;
+        }
+
+        public void setMaxDiskMb(long maxDiskMb) {
+            this.maxDiskMb = maxDiskMb;
+        }
+
+        /**
+         * 兜底目录所在文件系统需保留的最低可用空间，小于等于0表示不检查
+         */
+        public long getMinFreeDiskMb() {
+            return minFreeDiskMb;
+        }
+
+        public void setMinFreeDiskMb(long minFreeDiskMb) {
+            this.minFreeDiskMb = minFreeDiskMb;
+        }
+    }
+
+    /**
+     * 预写日志（持久化队列）配置
+     */
+    public static class Spool {
+        private boolean enabled = false;
+        private String path = "logx-spool";
+        private int segmentSizeMb = 64;
+        private long fsyncIntervalMs = 100L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getSegmentSizeMb() {
+            return segmentSizeMb;
+        }
+
+        public void setSegmentSizeMb(int segmentSizeMb) {
+            this.segmentSizeMb = segmentSizeMb;
+        }
+
+        public long getFsyncIntervalMs() {
+            return fsyncIntervalMs;
+        }
+
+        public void setFsyncIntervalMs(long fsyncIntervalMs) {
+            this.fsyncIntervalMs = fsyncIntervalMs;
+        }
+    }
+
+    /**
+     * 存储熔断器配置
+     */
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        private int windowSize = 20;
+        private int minimumCalls = 5;
+        private int failureRatePercent = 50;
+        private long slowCallMs = 10000L;
+        private long openDurationMs = 10000L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public int getFailureRatePercent() {
+            return failureRatePercent;
+        }
+
+        public void setFailureRatePercent(int failureRatePercent) {
+            this.failureRatePercent = failureRatePercent;
+        }
+
+        /**
+         * 慢调用阈值，耗时超过该值的上传计为失败，小于等于0表示不检查
+         */
+        public long getSlowCallMs() {
+            return slowCallMs;
+        }
+
+        public void setSlowCallMs(long slowCallMs) {
+            this.slowCallMs = slowCallMs;
+        }
+
+        public long getOpenDurationMs() {
+            return openDurationMs;
+        }
+
+        public void setOpenDurationMs(long openDurationMs) {
+            this.openDurationMs = openDurationMs;
+        }
+    }
+
+    /**
+     * 自适应上传并发配置，初始并发数取parallelUploadThreads
+     */
+    public static class AdaptiveConcurrency {
+        private boolean enabled = true;
+        private int minLimit = 1;
+        private int maxLimit = 16;
+        private int latencyTolerancePercent = 200;
+        private int backoffPercent = 70;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        /**
+         * 上传耗时超过基线的百分比时视为拥塞，200表示两倍
+         */
+        public int getLatencyTolerancePercent() {
+            return latencyTolerancePercent;
+        }
+
+        public void setLatencyTolerancePercent(int latencyTolerancePercent) {
+            this.latencyTolerancePercent = latencyTolerancePercent;
+        }
+
+        /**
+         * 拥塞时并发数缩减到的百分比
+         */
+        public int getBackoffPercent() {
+            return backoffPercent;
+        }
+
+        public void setBackoffPercent(int backoffPercent) {
+            this.backoffPercent = backoffPercent;
+        }
+    }
+
+    /**
+     * 上传限速配置，作用于实时上传、分片上传和兜底重传
+     */
+    public static class RateLimit {
+        private long maxBytesPerSecond = 0L;
+        private long maxPutsPerSecond = 0L;
+        private long burstMs = 1000L;
+
+        /**
+         * 每秒上传字节数上限，0表示不限制
+         */
+        public long getMaxBytesPerSecond() {
+            return maxBytesPerSecond;
+        }
+
+        public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+            this.maxBytesPerSecond = maxBytesPerSecond;
+        }
+
+        /**
+         * 每秒PUT请求数上限，0表示不限制
+         */
+        public long getMaxPutsPerSecond() {
+            return maxPutsPerSecond;
+        }
+
+        public void setMaxPutsPerSecond(long maxPutsPerSecond) {
+            this.maxPutsPerSecond = maxPutsPerSecond;
+        }
+
+        /**
+         * 允许突发的配额对应的时长
+         */
+        public long getBurstMs() {
+            return burstMs;
+        }
+
+        public void setBurstMs(long burstMs) {
+            this.burstMs = burstMs;
+        }
     }
 
     /**
@@ -38,6 +38,59 @@ public interface AsyncEngine {
      */
     void put(byte[] data);
 
+    /**
+     * 将数组中的一段日志数据放入处理队列，调用返回后调用方即可复用该数组
+     * <p>
+     * 供在线程内缓冲区中编码日志的桥接器使用，引擎开启garbageFree时入队不分配。
+     *
+     * @param data
+     *            日志数据所在数组
+     * @param offset
+     *            起始位置
+     * @param length
+     *            字节数
+     */
+    default void put(byte[] data, int offset, int length) {
+        put(java.util.Arrays.copyOfRange(data, offset, offset + length));
+    }
+
+    /**
+     * 获取一条可复用的结构化记录，填充后通过 {@link #put(LogRecord)} 提交
+     *
+     * @return 已清空的记录
+     */
+    default LogRecord acquireRecord() {
+        return new LogRecord();
+    }
+
+    /**
+     * 归还未提交的记录，填充过程中出错时调用，避免池中的槽位泄漏
+     *
+     * @param record
+     *            由 {@link #acquireRecord()} 获取、尚未提交的记录
+     */
+    default void releaseRecord(LogRecord record) {
+        record.clear();
+    }
+
+    /**
+     * 提交结构化记录
+     * <p>
+     * 引擎按输出格式编码记录后将其归还池，调用返回后记录不得再使用。
+     * 默认实现编码为文本行并走 {@link #put(byte[], int, int)}。
+     *
+     * @param record
+     *            由 {@link #acquireRecord()} 获取并填充的记录
+     */
+    default void put(LogRecord record) {
+        try {
+            Utf8Buffer encoded = LogRecordTextEncoder.encodeTo(record, Integer.MAX_VALUE);
+            put(encoded.array(), 0, encoded.size());
+        } finally {
+            record.clear();
+        }
+    }
+
     /**
      * 创建并返回一个AsyncEngine的实例
      *
@@ -8,6 +8,7 @@ public class AsyncEngineConfig {
     private int batchMaxBytes = 10 * 1024 * 1024;
     private long maxMessageAgeMs = 60000L;
     private boolean blockOnFull = false;
+    private OverflowPolicy overflowPolicy;
     private boolean multiProducer = false;
     private int corePoolSize = 1;
     private int maximumPoolSize = 1;
@@ -27,6 +28,12 @@ public class AsyncEngineConfig {
     private double highPressureThreshold = 0.8;
     private double lowPressureThreshold = 0.3;
     private int payloadMaxBytes = 512 * 1024;
+    private boolean garbageFree = false;
+    private boolean directHandoff = false;
+    private int producerBatchSize = 1;
+    private long producerBatchMaxDelayMs = 5L;
+    private ProducerMode producerMode = ProducerMode.AUTO;
+    private int producerRings = 0;
 
     public static AsyncEngineConfig defaultConfig() {
         return new AsyncEngineConfig();
@@ -86,15 +93,54 @@ public class AsyncEngineConfig {
         return this;
     }
 
+    /**
+     * 显式指定的溢出策略，为null时由配置文件或blockOnFull决定
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public AsyncEngineConfig overflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
     public boolean isMultiProducer() {
         return multiProducer;
     }
 
+    /**
+     * 兼容旧配置：true等同于 {@link ProducerMode#MULTI}；false不再意味着单生产者，按 {@link #producerMode} 选择
+     */
     public AsyncEngineConfig multiProducer(boolean multiProducer) {
         this.multiProducer = multiProducer;
         return this;
     }
 
+    public ProducerMode getProducerMode() {
+        return producerMode;
+    }
+
+    /**
+     * 环形队列的生产者模式，默认AUTO；SINGLE仅在调用方保证单线程入队时使用
+     */
+    public AsyncEngineConfig producerMode(ProducerMode producerMode) {
+        this.producerMode = producerMode != null ? producerMode : ProducerMode.AUTO;
+        return this;
+    }
+
+    public int getProducerRings() {
+        return producerRings;
+    }
+
+    /**
+     * SHARDED模式下的分片数，0表示按CPU核数
+     */
+    public AsyncEngineConfig producerRings(int producerRings) {
+        this.producerRings = producerRings;
+        return this;
+    }
+
     public int getCorePoolSize() {
         return corePoolSize;
     }
@@ -257,6 +303,54 @@ public class AsyncEngineConfig {
         return this;
     }
 
+    public boolean isGarbageFree() {
+        return garbageFree;
+    }
+
+    /**
+     * 队列槽位持有可复用缓冲区，{@link AsyncEngine#put(byte[], int, int)} 入队时只做拷贝不分配
+     */
+    public AsyncEngineConfig garbageFree(boolean garbageFree) {
+        this.garbageFree = garbageFree;
+        return this;
+    }
+
+    public boolean isDirectHandoff() {
+        return directHandoff;
+    }
+
+    /**
+     * 跳过内部环形队列，put在调用线程上直接写入批次缓冲
+     */
+    public AsyncEngineConfig directHandoff(boolean directHandoff) {
+        this.directHandoff = directHandoff;
+        return this;
+    }
+
+    public int getProducerBatchSize() {
+        return producerBatchSize;
+    }
+
+    /**
+     * 生产者线程内微批次的条数，大于1时事件先在线程内攒批，再一次认领连续序列批量发布到环形队列
+     */
+    public AsyncEngineConfig producerBatchSize(int producerBatchSize) {
+        this.producerBatchSize = producerBatchSize;
+        return this;
+    }
+
+    public long getProducerBatchMaxDelayMs() {
+        return producerBatchMaxDelayMs;
+    }
+
+    /**
+     * 事件在线程内微批次中的最长停留时间
+     */
+    public AsyncEngineConfig producerBatchMaxDelayMs(long producerBatchMaxDelayMs) {
+        this.producerBatchMaxDelayMs = producerBatchMaxDelayMs;
+        return this;
+    }
+
     private org.logx.storage.StorageConfig storageConfig;
 
     public org.logx.storage.StorageConfig getStorageConfig() {
@@ -1,15 +1,37 @@
 package org.logx.core;
 
+import org.logx.core.EnhancedDisruptorBatchingQueue.BatchConsumer;
+import org.logx.core.EnhancedDisruptorBatchingQueue.BatchSummary;
 import org.logx.core.EnhancedDisruptorBatchingQueue.LogEvent;
+import org.logx.columnar.StructuredEventCodec;
+import org.logx.config.properties.LogxOssProperties;
 import org.logx.fallback.FallbackManager;
+import org.logx.fallback.FallbackPathResolver;
 import org.logx.fallback.FallbackUploaderTask;
-import org.logx.fallback.ObjectNameGenerator;
+import org.logx.fallback.ObjectKeyTemplate;
+import org.logx.index.BatchIndex;
+import org.logx.index.BatchIndexBuilder;
+import org.logx.reliability.AdaptiveConcurrencyLimiter;
+import org.logx.reliability.CircuitBreaker;
 import org.logx.reliability.ShutdownHookHandler;
+import org.logx.reliability.UploadRateLimiter;
+import org.logx.retry.ExponentialBackoffRetry;
+import org.logx.retry.RetryStrategy;
+import org.logx.retry.UploadRetryScheduler;
+import org.logx.spool.SpoolRecord;
+import org.logx.spool.WriteAheadSpool;
+import org.logx.storage.CircuitBreakingStorageService;
+import org.logx.storage.ConcurrencyLimitedStorageService;
+import org.logx.storage.RateLimitedStorageService;
 import org.logx.storage.StorageService;
 import org.logx.storage.StorageServiceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -27,7 +49,14 @@ public class AsyncEngineImpl implements AsyncEngine, AutoCloseable {
     private final EnhancedDisruptorBatchingQueue batchingQueue;
     private final AsyncEngineConfig config;
     private final FallbackManager fallbackManager;
+    private final WriteAheadSpool spool;
+    private final ObjectKeyTemplate keyTemplate;
+    private final UploadRetryScheduler retryScheduler;
+    private final OutputFormat outputFormat;
+    private final boolean directHandoff;
+    private final LogRecordPool recordPool = new LogRecordPool();
     private ScheduledExecutorService fallbackScheduler;
+    private FallbackUploaderTask fallbackUploaderTask;
     private java.util.concurrent.ExecutorService uploadExecutor;
     private ScheduledExecutorService queueMonitor;
     private final AtomicBoolean started = new AtomicBoolean(false);
@@ -41,10 +70,17 @@ public class AsyncEngineImpl implements AsyncEngine, AutoCloseable {
     // 包级别可见的测试构造函数，允许传入Mock的StorageService
     AsyncEngineImpl(AsyncEngineConfig config, StorageService storageService) {
         this.config = Objects.requireNonNull(config, "config cannot be null");
-        this.storageService = Objects.requireNonNull(storageService, "storageService cannot be null");
+        this.storageService = wrapWithRateLimit(wrapWithConcurrencyLimit(wrapWithCircuitBreaker(
+                Objects.requireNonNull(storageService, "storageService cannot be null"))));
         this.emergencyMemoryThreshold = (long) config.getEmergencyMemoryThresholdMb() * 1024 * 1024;
-        this.fallbackManager = new FallbackManager(config.getLogFilePrefix(), this.storageService.getKeyPrefix());
+        this.outputFormat = OutputFormat.of(configuredProperties());
+        this.directHandoff = config.isDirectHandoff() || engineProperties().isDirectHandoff();
+        this.keyTemplate = createKeyTemplate();
+        this.fallbackManager = createFallbackManager();
+        this.fallbackManager.setKeyTemplate(keyTemplate);
+        this.retryScheduler = createRetryScheduler();
         this.shutdownHandler = new ShutdownHookHandler();
+        this.spool = createSpool();
         this.batchingQueue = createQueue();
         registerShutdownHook();
     }
@@ -52,14 +88,55 @@ public class AsyncEngineImpl implements AsyncEngine, AutoCloseable {
     private EnhancedDisruptorBatchingQueue createQueue() {
         int maxUploadSizeMb = 10;
         boolean enableSharding = true;
+        boolean sidecarIndex = false;
         boolean enableCompression = true;
-        org.logx.config.properties.LogxOssProperties props = config.getStorageConfig() != null
-                ? config.getStorageConfig().getProperties()
-                : null;
+        int compressionBlockKb = 0;
+        boolean garbageFree = config.isGarbageFree();
+        int producerBatchSize = config.getProducerBatchSize();
+        long producerBatchMaxDelayMs = config.getProducerBatchMaxDelayMs();
+        ProducerMode producerMode = config.getProducerMode();
+        int producerRings = config.getProducerRings();
+        OverflowPolicy overflowPolicy = config.getOverflowPolicy();
+        String spillPath = null;
+        long spillMaxMb = 1024L;
+        LogxOssProperties props = configuredProperties();
         if (props != null) {
             enableSharding = props.getEngine().isEnableSharding();
+            sidecarIndex = props.getEngine().isEnableSidecarIndex();
             enableCompression = props.getEngine().isEnableCompression();
+            compressionBlockKb = props.getEngine().getCompressionBlockKb();
+            garbageFree = garbageFree || props.getEngine().isGarbageFree();
+            if (producerBatchSize <= 1) {
+                producerBatchSize = props.getEngine().getProducerBatchSize();
+                producerBatchMaxDelayMs = props.getEngine().getProducerBatchMaxDelayMs();
+            }
+            if (producerMode == ProducerMode.AUTO) {
+                producerMode = ProducerMode.parse(props.getEngine().getProducerMode(), ProducerMode.AUTO);
+            }
+            if (producerRings <= 0) {
+                producerRings = props.getEngine().getProducerRings();
+            }
+            if (producerMode == ProducerMode.AUTO && props.getEngine().isMultiProducer()) {
+                producerMode = ProducerMode.MULTI;
+            }
             maxUploadSizeMb = props.getEngine().getMaxUploadSizeMb();
+            LogxOssProperties.Queue queueProps = props.getEngine().getQueue();
+            if (overflowPolicy == null) {
+                overflowPolicy = OverflowPolicy.parse(queueProps.getOverflowPolicy(), null);
+            }
+            spillPath = queueProps.getSpillPath();
+            spillMaxMb = queueProps.getSpillMaxMb();
+        }
+        if (overflowPolicy == null) {
+            overflowPolicy = config.isBlockOnFull() ? OverflowPolicy.BLOCK : OverflowPolicy.DROP;
+        }
+        if (spillPath == null) {
+            spillPath = "logx-spill";
+        }
+        // multiProducer默认false曾直接映射为单生产者序列，而appender会被任意线程调用；
+        // 现在false只表示未显式声明，由队列按AUTO选择
+        if (producerMode == ProducerMode.AUTO && config.isMultiProducer()) {
+            producerMode = ProducerMode.MULTI;
         }
 
         EnhancedDisruptorBatchingQueue.Config queueConfig = new EnhancedDisruptorBatchingQueue.Config()
@@ -67,14 +144,151 @@ public class AsyncEngineImpl implements AsyncEngine, AutoCloseable {
                 .batchMaxMessages(config.getBatchMaxMessages())
                 .batchMaxBytes(config.getBatchMaxBytes())
                 .maxMessageAgeMs(config.getMaxMessageAgeMs())
-                .blockOnFull(config.isBlockOnFull())
-                .multiProducer(config.isMultiProducer())
+                .overflowPolicy(overflowPolicy)
+                .spillDirectory(Paths.get(FallbackPathResolver.resolveAbsolutePath(spillPath)))
+                .spillMaxBytes(spillMaxMb * 1024 * 1024)
+                .producerMode(producerMode)
                 .enableCompression(enableCompression)
+                .compressionBlockBytes(compressionBlockKb * 1024)
+                .outputFormat(outputFormat)
+                .garbageFree(garbageFree)
+                .producerBatchSize(producerBatchSize)
+                .producerBatchMaxDelayMs(producerBatchMaxDelayMs)
+                // 微批次中的事件在put时已计入内存用量，冲刷时被丢弃需回退
+                .bufferedDropListener(bytes -> currentMemoryUsage.addAndGet(-bytes))
                 .enableSharding(enableSharding)
+                .sidecarIndex(sidecarIndex)
                 .maxUploadSizeMb(maxUploadSizeMb)
-                .uploadTimeoutMs(config.getUploadTimeoutMs());
+                .uploadTimeoutMs(config.getUploadTimeoutMs())
+                .keyTemplate(keyTemplate);
+        if (producerRings > 0) {
+            queueConfig.producerRings(producerRings);
+        }
+
+        BatchConsumer consumer = new BatchConsumer() {
+            @Override
+            public boolean processBatch(byte[] batchData, int originalSize, boolean compressed, int messageCount) {
+                return onBatch(batchData, originalSize, compressed, messageCount, null);
+            }
+
+            @Override
+            public boolean processBatch(byte[] batchData, int originalSize, boolean compressed, int messageCount,
+                    BatchSummary summary) {
+                return onBatch(batchData, originalSize, compressed, messageCount, summary);
+            }
+        };
+        return new EnhancedDisruptorBatchingQueue(queueConfig, consumer, storageService);
+    }
+
+    /**
+     * 存储配置携带的属性，未通过属性配置时返回null
+     */
+    private LogxOssProperties configuredProperties() {
+        return config.getStorageConfig() != null ? config.getStorageConfig().getProperties() : null;
+    }
+
+    /**
+     * 引擎属性，未通过属性配置时返回默认值
+     */
+    private LogxOssProperties.Engine engineProperties() {
+        LogxOssProperties props = configuredProperties();
+        return props != null ? props.getEngine() : new LogxOssProperties.Engine();
+    }
+
+    /**
+     * 按配置为存储服务加上熔断，存储不可用时批次立即转入兜底而不是逐个等待上传超时
+     */
+    private StorageService wrapWithCircuitBreaker(StorageService service) {
+        LogxOssProperties.CircuitBreaker breakerProps = engineProperties().getCircuitBreaker();
+        if (!breakerProps.isEnabled()) {
+            return service;
+        }
+        CircuitBreaker breaker = new CircuitBreaker(String.valueOf(service.getBucketName()),
+                breakerProps.getWindowSize(), breakerProps.getMinimumCalls(), breakerProps.getFailureRatePercent(),
+                breakerProps.getSlowCallMs(), breakerProps.getOpenDurationMs());
+        return new CircuitBreakingStorageService(service, breaker);
+    }
+
+    /**
+     * 按配置为存储服务加上自适应并发限制，放在熔断之外，熔断拒绝的上传不占用并发名额
+     */
+    private StorageService wrapWithConcurrencyLimit(StorageService service) {
+        LogxOssProperties.AdaptiveConcurrency concurrencyProps = engineProperties().getAdaptiveConcurrency();
+        if (!concurrencyProps.isEnabled()) {
+            return service;
+        }
+        int minLimit = Math.max(1, concurrencyProps.getMinLimit());
+        int maxLimit = Math.max(minLimit, concurrencyProps.getMaxLimit());
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config.getParallelUploadThreads(),
+                minLimit, maxLimit, concurrencyProps.getLatencyTolerancePercent() / 100.0,
+                Math.max(1, Math.min(99, concurrencyProps.getBackoffPercent())) / 100.0);
+        return new ConcurrencyLimitedStorageService(service, limiter, config.getUploadTimeoutMs());
+    }
+
+    /**
+     * 按配置为存储服务加上限速，放在最外层，限速等待不占用并发名额
+     */
+    private StorageService wrapWithRateLimit(StorageService service) {
+        LogxOssProperties.RateLimit rateProps = engineProperties().getRateLimit();
+        UploadRateLimiter rateLimiter = new UploadRateLimiter(rateProps.getMaxBytesPerSecond(),
+                rateProps.getMaxPutsPerSecond(), rateProps.getBurstMs());
+        return rateLimiter.isUnlimited() ? service : new RateLimitedStorageService(service, rateLimiter);
+    }
+
+    /**
+     * 编译对象键模板，模板无效时记录错误并使用默认布局，不影响日志上传
+     */
+    private ObjectKeyTemplate createKeyTemplate() {
+        LogxOssProperties props = configuredProperties();
+        String template = props != null ? props.getStorage().getKeyTemplate() : null;
+        String service = props != null ? props.getEngine().getLogFileName() : config.getLogFileName();
+        ObjectKeyTemplate compiled;
+        try {
+            compiled = ObjectKeyTemplate.compile(template, service);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid object key template, using default layout {}: {}",
+                    ObjectKeyTemplate.DEFAULT_TEMPLATE, e.getMessage());
+            compiled = ObjectKeyTemplate.compile(null, service);
+        }
+        return outputFormat == OutputFormat.PARQUET ? compiled.withExtension("parquet") : compiled;
+    }
+
+    private UploadRetryScheduler createRetryScheduler() {
+        LogxOssProperties.Retry retryProps = engineProperties().getRetry();
+        long baseBackoffMs = Math.max(1L, retryProps.getBaseBackoffMs());
+        RetryStrategy strategy = new ExponentialBackoffRetry(Math.max(0, retryProps.getMaxRetries()),
+                Duration.ofMillis(baseBackoffMs), 2.0,
+                Duration.ofMillis(Math.max(baseBackoffMs, retryProps.getMaxBackoffMs())), 0.1);
+        return new UploadRetryScheduler(strategy, retryProps.getHedgePercentile(), retryProps.getHedgeMinDelayMs());
+    }
 
-        return new EnhancedDisruptorBatchingQueue(queueConfig, this::onBatch, storageService);
+    private FallbackManager createFallbackManager() {
+        LogxOssProperties props = configuredProperties();
+        if (props == null) {
+            return new FallbackManager(config.getLogFilePrefix(), storageService.getKeyPrefix());
+        }
+        LogxOssProperties.Fallback fallbackProps = props.getEngine().getFallback();
+        return new FallbackManager(config.getLogFilePrefix(), storageService.getKeyPrefix(),
+                fallbackProps.getSegmentSizeMb() * 1024L * 1024L, fallbackProps.getMaxDiskMb() * 1024L * 1024L,
+                fallbackProps.getMinFreeDiskMb() * 1024L * 1024L);
+    }
+
+    private WriteAheadSpool createSpool() {
+        LogxOssProperties.Spool spoolProps = engineProperties().getSpool();
+        if (!spoolProps.isEnabled()) {
+            return null;
+        }
+        String spoolPath = FallbackPathResolver.resolveAbsolutePath(spoolProps.getPath());
+        try {
+            WriteAheadSpool opened = WriteAheadSpool.open(Paths.get(spoolPath),
+                    spoolProps.getSegmentSizeMb() * 1024 * 1024, spoolProps.getFsyncIntervalMs());
+            logger.info("Write-ahead spool enabled at {}, segment size {} MB, fsync interval {} ms",
+                    spoolPath, spoolProps.getSegmentSizeMb(), spoolProps.getFsyncIntervalMs());
+            return opened;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to open write-ahead spool at {}, continuing without it: {}", spoolPath, e.getMessage(), e);
+            return null;
+        }
     }
 
     private void registerShutdownHook() {
@@ -108,6 +322,7 @@ public class AsyncEngineImpl implements AsyncEngine, AutoCloseable {
         startFallbackScheduler();
         startUploadExecutor();
         batchingQueue.setShardExecutor(uploadExecutor, config.getUploadTimeoutMs());
+        replaySpool();
 
         if (config.isEnableDynamicBatching()) {
             startQueuePressureMonitor();
@@ -146,6 +361,9 @@ public class AsyncEngineImpl implements AsyncEngine, AutoCloseable {
 
             if (fallbackScheduler != null) {
                 fallbackScheduler.shutdown();
+                if (fallbackUploaderTask != null) {
+                    fallbackUploaderTask.close();
+                }
                 try {
                     if (!fallbackScheduler.awaitTermination(30, TimeUnit.SECONDS)) {
                         fallbackScheduler.shutdownNow();
@@ -158,6 +376,9 @@ public class AsyncEngineImpl implements AsyncEngine, AutoCloseable {
 
             batchingQueue.close();
 
+            // 不再等待退避中的重试，在途失败的批次直接转入兜底
+            retryScheduler.close();
+
             if (uploadExecutor != null) {
                 uploadExecutor.shutdown();
                 try {
@@ -172,6 +393,12 @@ public class AsyncEngineImpl implements AsyncEngine, AutoCloseable {
                 }
             }
 
+            if (spool != null) {
+                spool.close();
+            }
+
+            fallbackManager.close();
+
             if (storageService != null) {
                 try {
                     storageService.close();
@@ -206,59 +433,306 @@ public class AsyncEngineImpl implements AsyncEngine, AutoCloseable {
             return;
         }
 
-        if (batchingQueue.submit(data)) {
+        if (directHandoff ? batchingQueue.submitDirect(data) : batchingQueue.submit(data)) {
             currentMemoryUsage.addAndGet(data.length);
         }
     }
 
-    private boolean onBatch(byte[] batchData, int originalSize, boolean compressed, int messageCount) {
-        String key = ObjectNameGenerator.generateObjectName(storageService.getKeyPrefix());
+    @Override
+    public void put(byte[] data, int offset, int length) {
+        if (!started.get() || stopped.get() || data == null || length <= 0) {
+            return;
+        }
+
+        if (currentMemoryUsage.get() > emergencyMemoryThreshold) {
+            put(Arrays.copyOfRange(data, offset, offset + length));
+            return;
+        }
+
+        boolean accepted = directHandoff
+                ? batchingQueue.submitDirect(Arrays.copyOfRange(data, offset, offset + length))
+                : batchingQueue.submit(data, offset, length);
+        if (accepted) {
+            currentMemoryUsage.addAndGet(length);
+        }
+    }
+
+    @Override
+    public LogRecord acquireRecord() {
+        return recordPool.acquire();
+    }
+
+    @Override
+    public void releaseRecord(LogRecord record) {
+        recordPool.release(record);
+    }
+
+    /**
+     * 按输出格式编码记录：PARQUET编码为结构化载荷，TEXT编码为默认行格式，之后与字节载荷走同一路径
+     */
+    @Override
+    public void put(LogRecord record) {
+        try {
+            if (!started.get() || stopped.get()) {
+                return;
+            }
+            int maxBytes = config.getPayloadMaxBytes();
+            // 编码结果留在线程内缓冲区，经拷贝入队路径进入槽位缓冲区，稳态下不分配载荷数组
+            Utf8Buffer encoded = outputFormat == OutputFormat.PARQUET
+                    ? StructuredEventCodec.encodeTo(record, maxBytes)
+                    : LogRecordTextEncoder.encodeTo(record, maxBytes);
+            put(encoded.array(), 0, encoded.size());
+        } finally {
+            recordPool.release(record);
+        }
+    }
+
+    /**
+     * 结构化记录池，供监控和测试读取溢出分配次数
+     */
+    LogRecordPool getRecordPool() {
+        return recordPool;
+    }
+
+    private boolean onBatch(byte[] batchData, int originalSize, boolean compressed, int messageCount,
+            BatchSummary summary) {
+        String key = keyTemplate.render(storageService.getKeyPrefix());
+        SpoolRecord spoolRecord = appendToSpool(key, batchData, originalSize, compressed, messageCount);
 
         if (uploadExecutor != null && !uploadExecutor.isShutdown()) {
-            uploadExecutor.submit(() -> {
-                try {
-                    storageService.putObject(key, batchData).get(config.getUploadTimeoutMs(), TimeUnit.MILLISECONDS);
-                } catch (Exception e) {
-                    logger.error("Parallel upload failed for {}: {}", key, e.getMessage(), e);
-                    boolean fallbackSuccess = false;
-                    try {
-                        fallbackSuccess = fallbackManager.writeFallbackFile(batchData);
-                    } catch (Exception fallbackEx) {
-                        logger.error("Fallback write failed with exception for key {}: {}", key, fallbackEx.getMessage(), fallbackEx);
-                    }
-                    if (!fallbackSuccess) {
-                        logger.error("Fallback write failed for key {}", key);
-                    }
-                } finally {
-                    currentMemoryUsage.addAndGet(-originalSize);
-                }
-            });
+            // 失败的上传由重试调度器按退避时间重新派发，重试耗尽或不可重试时转入兜底
+            retryScheduler.submit(key, () -> storageService.putObject(key, batchData)
+                    .get(config.getUploadTimeoutMs(), TimeUnit.MILLISECONDS), uploadExecutor)
+                    .whenComplete((ignored, error) -> {
+                        try {
+                            if (error == null) {
+                                acknowledgeSpool(spoolRecord);
+                                uploadIndex(key, summary);
+                            } else {
+                                logUploadFailure("Parallel upload", key, error);
+                                writeFallback(key, batchData, spoolRecord);
+                            }
+                        } finally {
+                            currentMemoryUsage.addAndGet(-originalSize);
+                        }
+                    });
             return true;
         } else {
-            return onBatchSync(batchData, originalSize, compressed, messageCount, key);
+            return onBatchSync(batchData, originalSize, compressed, messageCount, key, spoolRecord, summary);
         }
     }
 
-    private boolean onBatchSync(byte[] batchData, int originalSize, boolean compressed, int messageCount, String key) {
+    private boolean onBatchSync(byte[] batchData, int originalSize, boolean compressed, int messageCount, String key,
+            SpoolRecord spoolRecord, BatchSummary summary) {
         try {
             storageService.putObject(key, batchData).get(config.getUploadTimeoutMs(), TimeUnit.MILLISECONDS);
+            acknowledgeSpool(spoolRecord);
+            uploadIndex(key, summary);
             return true;
         } catch (Exception e) {
-            logger.error("Sync upload failed for {}: {}", key, e.getMessage(), e);
-            try {
-                if (fallbackManager.writeFallbackFile(batchData)) {
-                    return true;
-                }
-                logger.error("Fallback write failed for key {}", key);
-            } catch (Exception fallbackEx) {
-                logger.error("Fallback write failed with exception for key {}: {}", key, fallbackEx.getMessage(), fallbackEx);
-            }
-            return false;
+            logUploadFailure("Sync upload", key, e);
+            return writeFallback(key, batchData, spoolRecord);
         } finally {
             currentMemoryUsage.addAndGet(-originalSize);
         }
     }
 
+    /**
+     * 数据对象上传成功后上传其侧边索引
+     * <p>
+     * 在上传线程上解析批次文本，不占用队列消费线程；索引只是查询加速手段，失败仅记录日志，不进入重试和兜底。
+     */
+    private void uploadIndex(String key, BatchSummary summary) {
+        if (summary == null) {
+            return;
+        }
+        String indexKey = key + BatchIndex.KEY_SUFFIX;
+        try {
+            byte[] index = BatchIndexBuilder.build(summary.getData(), summary.getEventOffsets(),
+                    summary.getMinTimestampMs(), summary.getMaxTimestampMs()).encode();
+            storageService.putObject(indexKey, index).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    logger.warn("Failed to upload batch index {}: {}", indexKey, error.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Failed to build batch index {}: {}", indexKey, e.getMessage());
+        }
+    }
+
+    private boolean writeFallback(String key, byte[] batchData, SpoolRecord spoolRecord) {
+        try {
+            if (fallbackManager.writeFallbackFile(key, batchData)) {
+                acknowledgeSpool(spoolRecord);
+                return true;
+            }
+            logger.error("Fallback write failed for key {}", key);
+        } catch (Exception fallbackEx) {
+            logger.error("Fallback write failed with exception for key {}: {}", key, fallbackEx.getMessage(), fallbackEx);
+        }
+        return false;
+    }
+
+    private void logUploadFailure(String path, String key, Throwable e) {
+        if (CircuitBreakingStorageService.isCircuitOpen(e)) {
+            logger.debug("{} skipped for {}: circuit breaker open, writing to fallback", path, key);
+        } else {
+            logger.error("{} failed for {}: {}", path, key, e.getMessage(), e);
+        }
+    }
+
+    private SpoolRecord appendToSpool(String key, byte[] batchData, int originalSize, boolean compressed, int messageCount) {
+        if (spool == null) {
+            return null;
+        }
+        try {
+            return spool.append(key, batchData, originalSize, compressed, messageCount);
+        } catch (IOException e) {
+            logger.warn("Failed to append batch {} to write-ahead spool: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void acknowledgeSpool(SpoolRecord spoolRecord) {
+        if (spool != null && spoolRecord != null) {
+            spool.acknowledge(spoolRecord);
+        }
+    }
+
+    /**
+     * 重新上传上次运行未确认的批次，沿用原对象键，失败时与实时路径一样转入兜底文件
+     */
+    private void replaySpool() {
+        if (spool == null || spool.getRecoveredRecords().isEmpty()) {
+            return;
+        }
+        logger.info("Replaying {} batches from write-ahead spool", spool.getRecoveredRecords().size());
+        for (SpoolRecord record : spool.getRecoveredRecords()) {
+            retryScheduler.submit(record.getKey(), () -> storageService.putObject(record.getKey(), record.readPayload())
+                    .get(config.getUploadTimeoutMs(), TimeUnit.MILLISECONDS), uploadExecutor)
+                    .whenComplete((ignored, error) -> {
+                        if (error == null) {
+                            spool.acknowledge(record);
+                            return;
+                        }
+                        logUploadFailure("Replay upload", record.getKey(), error);
+                        try {
+                            if (fallbackManager.writeFallbackFile(record.getKey(), record.readPayload())) {
+                                spool.acknowledge(record);
+                            }
+                        } catch (IOException e) {
+                            logger.error("Failed to read spooled batch {}: {}", record.getKey(), e.getMessage());
+                        }
+                    });
+        }
+    }
+
+    /**
+     * 预写日志统计指标
+     *
+     * @return 统计指标，未启用预写日志时返回null
+     */
+    public WriteAheadSpool.SpoolMetrics getSpoolMetrics() {
+        return spool != null ? spool.getMetrics() : null;
+    }
+
+    /**
+     * 队列溢出缓冲统计指标
+     *
+     * @return 统计指标，未启用SPILL策略时返回null
+     */
+    public org.logx.spool.OverflowSpill.SpillMetrics getSpillMetrics() {
+        return batchingQueue.getSpillMetrics();
+    }
+
+    /**
+     * 兜底重传统计指标
+     *
+     * @return 统计指标，引擎未启动时返回null
+     */
+    public FallbackUploaderTask.RecoveryMetrics getFallbackRecoveryMetrics() {
+        return fallbackUploaderTask != null ? fallbackUploaderTask.getMetrics() : null;
+    }
+
+    /**
+     * 兜底段存储统计指标
+     *
+     * @return 统计指标，段存储不可用时返回null
+     */
+    public org.logx.fallback.FallbackSegmentStore.StoreMetrics getFallbackStoreMetrics() {
+        return fallbackManager.getSegmentStore() != null ? fallbackManager.getSegmentStore().getMetrics() : null;
+    }
+
+    /**
+     * 兜底目录磁盘配额统计指标
+     *
+     * @return 统计指标
+     */
+    public org.logx.fallback.FallbackDiskBudget.DiskBudgetMetrics getFallbackDiskMetrics() {
+        return fallbackManager.getDiskBudget().getMetrics();
+    }
+
+    /**
+     * 实时上传重试统计指标
+     *
+     * @return 统计指标
+     */
+    public UploadRetryScheduler.UploadRetryMetrics getUploadRetryMetrics() {
+        return retryScheduler.getMetrics();
+    }
+
+    /**
+     * 存储熔断器统计指标
+     *
+     * @return 统计指标，未启用熔断时返回null
+     */
+    public CircuitBreaker.CircuitBreakerMetrics getCircuitBreakerMetrics() {
+        CircuitBreakingStorageService service = findStorageLayer(CircuitBreakingStorageService.class);
+        return service != null ? service.getCircuitBreaker().getMetrics() : null;
+    }
+
+    /**
+     * 自适应上传并发统计指标，包含当前并发上限
+     *
+     * @return 统计指标，未启用自适应并发时返回null
+     */
+    public AdaptiveConcurrencyLimiter.ConcurrencyMetrics getConcurrencyMetrics() {
+        ConcurrencyLimitedStorageService service = findStorageLayer(ConcurrencyLimitedStorageService.class);
+        return service != null ? service.getLimiter().getMetrics() : null;
+    }
+
+    /**
+     * 上传限速统计指标，包含因限速等待的时间
+     *
+     * @return 统计指标，未配置限速时返回null
+     */
+    public UploadRateLimiter.RateLimitMetrics getRateLimitMetrics() {
+        RateLimitedStorageService service = findStorageLayer(RateLimitedStorageService.class);
+        return service != null ? service.getRateLimiter().getMetrics() : null;
+    }
+
+    /**
+     * 在存储服务的装饰链中查找指定类型的一层
+     */
+    private <T extends StorageService> T findStorageLayer(Class<T> type) {
+        StorageService service = storageService;
+        while (service != null) {
+            if (type.isInstance(service)) {
+                return type.cast(service);
+            }
+            if (service instanceof RateLimitedStorageService) {
+                service = ((RateLimitedStorageService) service).getDelegate();
+            } else if (service instanceof ConcurrencyLimitedStorageService) {
+                service = ((ConcurrencyLimitedStorageService) service).getDelegate();
+            } else if (service instanceof CircuitBreakingStorageService) {
+                service = ((CircuitBreakingStorageService) service).getDelegate();
+            } else {
+                service = null;
+            }
+        }
+        return null;
+    }
+
     private void startFallbackScheduler() {
         fallbackScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "fallback-uploader");
@@ -269,15 +743,24 @@ public class AsyncEngineImpl implements AsyncEngine, AutoCloseable {
 
         int fallbackRetentionDays = config.getFallbackRetentionDays();
         int fallbackScanIntervalSeconds = config.getFallbackScanIntervalSeconds();
+        LogxOssProperties.Fallback recoveryProps = engineProperties().getFallback();
+        int recoveryConcurrency = recoveryProps.getUploadConcurrency();
+        long recoveryMaxBytesPerSecond = recoveryProps.getMaxBytesPerSecond();
 
+        fallbackUploaderTask = new FallbackUploaderTask(storageService, fallbackManager, fallbackRetentionDays,
+                recoveryConcurrency, recoveryMaxBytesPerSecond, config.getUploadTimeoutMs());
         fallbackScheduler.scheduleWithFixedDelay(
-                new FallbackUploaderTask(storageService, config.getLogFilePrefix(), config.getLogFileName(), fallbackRetentionDays),
+                fallbackUploaderTask,
                 1, fallbackScanIntervalSeconds, TimeUnit.SECONDS
         );
     }
 
     private void startUploadExecutor() {
-        int threads = config.getParallelUploadThreads();
+        // 启用自适应并发时线程数按并发上限准备，实际在途上传数由限制器控制
+        ConcurrencyLimitedStorageService limited = findStorageLayer(ConcurrencyLimitedStorageService.class);
+        int threads = limited != null
+                ? Math.max(config.getParallelUploadThreads(), limited.getLimiter().getMaxLimit())
+                : config.getParallelUploadThreads();
         this.uploadExecutor = Executors.newFixedThreadPool(threads, r -> {
             Thread t = new Thread(r, "parallel-uploader-" + System.currentTimeMillis());
             t.setDaemon(true);
@@ -0,0 +1,91 @@
+package org.logx.core;
+
+import org.logx.core.EnhancedDisruptorBatchingQueue.LogEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 批次编解码工具
+ * <p>
+ * 负责将批次内的日志事件序列化为Pattern格式文本，以及对批次数据进行GZIP压缩。
+ * 从EnhancedDisruptorBatchingQueue中抽取出来，便于兜底重传和基准测试复用同一套实现。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class BatchCodec {
+
+    private BatchCodec() {
+    }
+
+    /**
+     * 将环形缓冲中的日志事件序列化为Pattern格式，每条事件保证以换行结尾
+     *
+     * @param events 事件环形数组
+     * @param head 起始下标
+     * @param count 事件数量
+     * @return 序列化后的字节数组
+     */
+    public static byte[] serialize(LogEvent[] events, int head, int count) {
+        return serialize(events, head, count, null);
+    }
+
+    /**
+     * 序列化的同时记录每条事件在结果中的起始偏移，供批次索引定位单条日志
+     *
+     * @param events 事件环形数组
+     * @param head 起始下标
+     * @param count 事件数量
+     * @param eventOffsets 长度不小于count的数组，用于接收偏移，为null时不记录
+     * @return 序列化后的字节数组
+     */
+    public static byte[] serialize(LogEvent[] events, int head, int count, int[] eventOffsets) {
+        int estimated = 0;
+        for (int i = 0; i < count; i++) {
+            estimated += events[(head + i) % events.length].payload.length + 1;
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(Math.max(32, estimated));
+        for (int i = 0; i < count; i++) {
+            byte[] payload = events[(head + i) % events.length].payload;
+            if (eventOffsets != null) {
+                eventOffsets[i] = baos.size();
+            }
+            baos.write(payload, 0, payload.length);
+            if (payload.length > 0 && payload[payload.length - 1] != '\n') {
+                baos.write('\n');
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * GZIP压缩
+     *
+     * @param data 原始数据
+     * @return 压缩后的数据
+     * @throws IOException 压缩失败
+     */
+    public static byte[] compress(byte[] data) throws IOException {
+        return compress(data, 0, data.length);
+    }
+
+    /**
+     * GZIP压缩数组中的一段数据
+     *
+     * @param data 原始数据
+     * @param offset 起始偏移
+     * @param length 长度
+     * @return 压缩后的数据
+     * @throws IOException 压缩失败
+     */
+    public static byte[] compress(byte[] data, int offset, int length) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(Math.max(64, length / 4));
+        try (GZIPOutputStream gzos = new GZIPOutputStream(baos, 8192)) {
+            gzos.write(data, offset, length);
+        }
+        return baos.toByteArray();
+    }
+}
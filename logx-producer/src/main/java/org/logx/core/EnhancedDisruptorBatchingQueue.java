@@ -2,20 +2,24 @@ package org.logx.core;
 
 import com.lmax.disruptor.EventFactory;
 import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.BlockingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
-import org.logx.fallback.ObjectNameGenerator;
+import org.logx.columnar.ParquetBatchWriter;
+import org.logx.fallback.ObjectKeyTemplate;
+import org.logx.spool.OverflowSpill;
 import org.logx.storage.StorageService;
+import org.logx.util.CoarseClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -23,13 +27,18 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.zip.GZIPOutputStream;
+import java.util.function.IntConsumer;
 import java.util.zip.CRC32;
 
 public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(EnhancedDisruptorBatchingQueue.class);
 
+    /**
+     * SHARDED模式下单个分片的最小槽位数
+     */
+    private static final int MIN_RING_CAPACITY = 1024;
+
     public static class LogEvent {
         public final byte[] payload;
         public final long timestampMs;
@@ -42,20 +51,109 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
 
     public interface BatchConsumer {
         boolean processBatch(byte[] batchData, int originalSize, boolean compressed, int messageCount);
+
+        /**
+         * 附带批次摘要的回调，开启批次索引时调用，默认忽略摘要
+         *
+         * @param summary 批次摘要，未开启索引时为null
+         */
+        default boolean processBatch(byte[] batchData, int originalSize, boolean compressed, int messageCount,
+                BatchSummary summary) {
+            return processBatch(batchData, originalSize, compressed, messageCount);
+        }
     }
 
-    private static final class LogEventHolder {
+    /**
+     * 批次摘要
+     * <p>
+     * 只包含序列化时顺带得到的信息：未压缩数据、每条事件的起始偏移和时间范围。
+     * 级别、logger等需要解析文本的统计留给消费方在上传线程上完成，不占用消费线程。
+     */
+    public static class BatchSummary {
+        private final byte[] data;
+        private final int[] eventOffsets;
+        private final long minTimestampMs;
+        private final long maxTimestampMs;
+
+        public BatchSummary(byte[] data, int[] eventOffsets, long minTimestampMs, long maxTimestampMs) {
+            this.data = data;
+            this.eventOffsets = eventOffsets;
+            this.minTimestampMs = minTimestampMs;
+            this.maxTimestampMs = maxTimestampMs;
+        }
+
+        /**
+         * 未压缩的批次数据
+         */
+        public byte[] getData() {
+            return data;
+        }
+
+        /**
+         * 每条事件在未压缩数据中的起始偏移
+         */
+        public int[] getEventOffsets() {
+            return eventOffsets;
+        }
+
+        public long getMinTimestampMs() {
+            return minTimestampMs;
+        }
+
+        public long getMaxTimestampMs() {
+            return maxTimestampMs;
+        }
+    }
+
+    static final class LogEventHolder {
+        /**
+         * 超过该大小的槽位缓冲区在消费后释放，偶发的大日志不会长期占用槽位内存
+         */
+        private static final int SLOT_RETAIN_BYTES = 4096;
+
         byte[] payload;
         long timestampMs;
+        private byte[] slotBuffer;
+        private int slotLength = -1;
 
         void set(byte[] p, long ts) {
             this.payload = p;
             this.timestampMs = ts;
         }
 
+        /**
+         * 将载荷拷贝到槽位自有的缓冲区，缓冲区容量足够时不分配
+         */
+        void copy(byte[] src, int offset, int length, long ts) {
+            if (slotBuffer == null || slotBuffer.length < length) {
+                slotBuffer = new byte[Math.max(length, 256)];
+            }
+            System.arraycopy(src, offset, slotBuffer, 0, length);
+            this.slotLength = length;
+            this.timestampMs = ts;
+        }
+
+        boolean hasData() {
+            return payload != null || slotLength >= 0;
+        }
+
+        /**
+         * 取出载荷，拷贝入队的事件在此复制出独立数组，槽位缓冲区随即可被生产者复用
+         */
+        byte[] takePayload() {
+            if (payload != null) {
+                return payload;
+            }
+            return slotLength >= 0 ? Arrays.copyOf(slotBuffer, slotLength) : null;
+        }
+
         void clear() {
             this.payload = null;
             this.timestampMs = 0L;
+            this.slotLength = -1;
+            if (slotBuffer != null && slotBuffer.length > SLOT_RETAIN_BYTES) {
+                slotBuffer = null;
+            }
         }
     }
 
@@ -69,6 +167,10 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
     private final ScheduledExecutorService scheduler;
 
     private volatile boolean started = false;
+    /**
+     * close()开始排空后置位，此后生产者入口一律拒绝，避免事件写入已停止消费的分片或线程缓冲
+     */
+    private volatile boolean closing = false;
 
     private final AtomicLong totalBatchesProcessed = new AtomicLong(0);
     private final AtomicLong totalMessagesProcessed = new AtomicLong(0);
@@ -81,6 +183,10 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
     private volatile java.util.concurrent.ExecutorService shardExecutor;
     private volatile long uploadTimeoutMs = 30000L;
     private final Object capacityMonitor = new Object();
+    private final OverflowPolicy overflowPolicy;
+    private final OverflowSpill spill;
+    private final ProducerMicroBatcher microBatcher;
+    private final ProducerRingSet producerRings;
 
     public EnhancedDisruptorBatchingQueue(Config config, BatchConsumer consumer, StorageService storageService) {
         this.config = config;
@@ -93,11 +199,44 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
                 config.queueCapacity, config.batchMaxMessages, config.batchMaxBytes, config.maxMessageAgeMs);
 
         EventFactory<LogEventHolder> factory = LogEventHolder::new;
-        ProducerType type = config.multiProducer ? ProducerType.MULTI : ProducerType.SINGLE;
+        this.spill = config.overflowPolicy == OverflowPolicy.SPILL ? openSpill(config) : null;
+        this.overflowPolicy = config.overflowPolicy == OverflowPolicy.SPILL && spill == null
+                ? OverflowPolicy.BLOCK
+                : config.overflowPolicy;
+        // 只有显式声明SINGLE时才使用单生产者序列；回灌线程、微批次冲刷线程与业务线程同时发布，
+        // 溢出模式和微批次模式仍必须使用多生产者序列
+        ProducerType type = config.producerMode != ProducerMode.SINGLE || spill != null || config.producerBatchSize > 1
+                ? ProducerType.MULTI : ProducerType.SINGLE;
+        int sharedCapacity = config.queueCapacity;
+        int ringCapacity = 0;
+        int ringCount = 0;
+        boolean sharded = config.producerMode == ProducerMode.SHARDED;
+        if (sharded && config.producerBatchSize > 1) {
+            // 微批次从生产者线程或调度线程整批发布到共享队列，不经过分片；分片只会占用容量
+            logger.warn("producerMode SHARDED is ignored when producerBatchSize > 1, "
+                    + "micro-batches are published to the shared ring");
+            sharded = false;
+        }
+        if (sharded) {
+            // 总容量按分片均分，共享队列只承接未分到分片的线程；
+            // 分片不小于MIN_RING_CAPACITY，容量不够时减少分片数，保证分片与共享队列合计不超过queueCapacity
+            ringCount = Math.min(config.producerRings, config.queueCapacity / MIN_RING_CAPACITY - 1);
+            if (ringCount < 1) {
+                logger.warn("queueCapacity {} is too small for sharded producer rings of at least {} slots, "
+                        + "using the shared ring only", config.queueCapacity, MIN_RING_CAPACITY);
+            } else {
+                if (ringCount < config.producerRings) {
+                    logger.warn("queueCapacity {} fits only {} of {} producer rings", config.queueCapacity, ringCount,
+                            config.producerRings);
+                }
+                ringCapacity = Integer.highestOneBit(config.queueCapacity / (ringCount + 1));
+                sharedCapacity = ringCapacity;
+            }
+        }
 
         this.disruptor = new Disruptor<>(
                 factory,
-                config.queueCapacity,
+                sharedCapacity,
                 r -> {
                     Thread t = new Thread(r, "enhanced-disruptor-consumer");
                     t.setDaemon(true);
@@ -109,6 +248,9 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
 
         this.batchEventHandler = new BatchEventHandler();
         disruptor.handleEventsWith(batchEventHandler);
+        this.producerRings = ringCapacity > 0
+                ? new ProducerRingSet(ringCount, ringCapacity, batchEventHandler::append)
+                : null;
 
         disruptor.setDefaultExceptionHandler(new com.lmax.disruptor.ExceptionHandler<LogEventHolder>() {
             @Override
@@ -134,24 +276,83 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
             t.setDaemon(true);
             return t;
         });
+        this.microBatcher = config.producerBatchSize > 1
+                ? new ProducerMicroBatcher(this, config.producerBatchSize, config.producerBatchMaxDelayMs)
+                : null;
+    }
+
+    private OverflowSpill openSpill(Config config) {
+        if (config.spillDirectory == null) {
+            logger.error("Overflow policy SPILL requires a spill directory, falling back to BLOCK");
+            return null;
+        }
+        try {
+            return OverflowSpill.open(config.spillDirectory, config.spillSegmentBytes, config.spillMaxBytes,
+                    this::tryPublish);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to open spill directory {}, falling back to BLOCK: {}", config.spillDirectory,
+                    e.getMessage());
+            return null;
+        }
     }
 
     public synchronized void start() {
         if (started) {
             return;
         }
+        CoarseClock.retain();
         disruptor.start();
+        if (producerRings != null) {
+            producerRings.start();
+        }
+        if (spill != null) {
+            spill.start();
+        }
         long checkInterval = Math.max(100, config.maxMessageAgeMs / 10);
         scheduler.scheduleAtFixedRate(batchEventHandler::checkAndProcessBatch, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+        if (microBatcher != null) {
+            long delay = microBatcher.getMaxDelayMs();
+            scheduler.scheduleAtFixedRate(microBatcher::flushStale, delay, delay, TimeUnit.MILLISECONDS);
+        }
         started = true;
     }
 
+    /**
+     * 入队一条事件
+     * <p>
+     * 开启线程内微批次时返回true表示事件已缓冲在当前线程的批次中，而不是已进入队列；
+     * 冲刷时在DROP策略下被丢弃的事件通过 {@link Config#bufferedDropListener} 回报，调用方据此回退已计入的内存用量。
+     *
+     * @param payload 载荷，调用后不得再修改
+     * @return 是否入队（含写入溢出缓冲），开启微批次时为是否已缓冲
+     */
     public boolean submit(byte[] payload) {
-        if (!started) {
+        if (!started || closing) {
             return false;
         }
 
-        long ts = System.currentTimeMillis();
+        long ts = CoarseClock.currentTimeMillis();
+        if (microBatcher != null) {
+            return microBatcher.add(payload, ts);
+        }
+        return submitAt(payload, ts);
+    }
+
+    private boolean submitAt(byte[] payload, long ts) {
+        if (producerRings != null) {
+            // 持有分片的线程只写自己的分片，满时等待或丢弃，不越过分片写入溢出缓冲或共享队列
+            ProducerRingSet.Outcome outcome = producerRings.publish(payload, ts, overflowPolicy != OverflowPolicy.DROP);
+            if (outcome == ProducerRingSet.Outcome.PUBLISHED) {
+                return true;
+            }
+            if (outcome == ProducerRingSet.Outcome.REJECTED) {
+                recordDrop(payload);
+                return false;
+            }
+        }
+        if (spill != null && spill.hasBacklog()) {
+            return spillOrDrop(payload, ts);
+        }
         while (true) {
             if (ringBuffer.hasAvailableCapacity(1)) {
                 long seq = ringBuffer.next();
@@ -164,19 +365,72 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
                 return true;
             }
 
-            if (!config.blockOnFull) {
-                long drops = totalDroppedMessages.incrementAndGet();
-                long now = System.currentTimeMillis();
-                long lastLog = lastDropLogTimeMs.get();
-                if (now - lastLog > 1000 && lastDropLogTimeMs.compareAndSet(lastLog, now)) {
-                    double usage = getQueueUsageRatio();
-                    long fingerprint = fingerprintPayload(payload);
-                    logger.warn("[DATA_LOSS_ALERT] Queue drop detected. totalDropped={}, queueUsage={}%, payloadFingerprint={}",
-                            drops, String.format("%.2f", usage * 100), fingerprint);
+            if (spill != null) {
+                return spillOrDrop(payload, ts);
+            }
+
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                recordDrop(payload);
+                return false;
+            }
+
+            try {
+                synchronized (capacityMonitor) {
+                    capacityMonitor.wait(5L);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 return false;
             }
+        }
+    }
 
+    /**
+     * 拷贝入队：开启garbageFree时载荷拷贝进槽位缓冲区，调用返回后调用方即可复用src；
+     * 未开启或启用了线程内微批次时复制为独立数组后走 {@link #submit(byte[])}
+     *
+     * @param src 载荷所在数组
+     * @param offset 起始位置
+     * @param length 字节数
+     * @return 是否入队（含写入溢出缓冲），开启微批次时为是否已缓冲，见 {@link #submit(byte[])}
+     */
+    public boolean submit(byte[] src, int offset, int length) {
+        if (!config.garbageFree || microBatcher != null) {
+            return submit(Arrays.copyOfRange(src, offset, offset + length));
+        }
+        if (!started || closing) {
+            return false;
+        }
+
+        long ts = CoarseClock.currentTimeMillis();
+        if (producerRings != null) {
+            ProducerRingSet.Outcome outcome = producerRings.copy(src, offset, length, ts,
+                    overflowPolicy != OverflowPolicy.DROP);
+            if (outcome == ProducerRingSet.Outcome.PUBLISHED) {
+                return true;
+            }
+            if (outcome == ProducerRingSet.Outcome.REJECTED) {
+                recordDrop(Arrays.copyOfRange(src, offset, offset + length));
+                return false;
+            }
+        }
+        while (true) {
+            if (spill != null && spill.hasBacklog()) {
+                return spillOrDrop(Arrays.copyOfRange(src, offset, offset + length), ts);
+            }
+            if (ringBuffer.hasAvailableCapacity(1)) {
+                long seq = ringBuffer.next();
+                try {
+                    ringBuffer.get(seq).copy(src, offset, length, ts);
+                } finally {
+                    ringBuffer.publish(seq);
+                }
+                return true;
+            }
+            if (spill != null || overflowPolicy == OverflowPolicy.DROP) {
+                // 溢出和丢弃都需要独立数组，交给字节数组路径统一处理
+                return submit(Arrays.copyOfRange(src, offset, offset + length));
+            }
             try {
                 synchronized (capacityMonitor) {
                     capacityMonitor.wait(5L);
@@ -188,6 +442,135 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
         }
     }
 
+    /**
+     * 批量发布：一次next(n)认领n个连续序列，填充后publish(lo, hi)，多生产者模式下n条事件只竞争一次共享序列。
+     * 剩余容量不足或存在溢出积压时逐条入队，沿用单条入队的阻塞、溢出和丢弃语义。
+     * 这些事件此前已按已缓冲返回给调用方，未能入队的逐条通过 {@link Config#bufferedDropListener} 回报
+     *
+     * @return 入队（含写入溢出缓冲）的条数
+     */
+    int submitBatch(byte[][] payloads, long[] timestamps, int count) {
+        if (!started) {
+            for (int i = 0; i < count; i++) {
+                recordDrop(payloads[i]);
+                reportBufferedDrop(payloads[i]);
+            }
+            return 0;
+        }
+        int accepted = 0;
+        int index = 0;
+        while (index < count) {
+            int n = Math.min(count - index, ringBuffer.getBufferSize());
+            if ((spill == null || !spill.hasBacklog()) && ringBuffer.hasAvailableCapacity(n)) {
+                long hi = ringBuffer.next(n);
+                long lo = hi - n + 1;
+                try {
+                    for (long seq = lo; seq <= hi; seq++, index++) {
+                        ringBuffer.get(seq).set(payloads[index], timestamps[index]);
+                    }
+                } finally {
+                    ringBuffer.publish(lo, hi);
+                }
+                accepted += n;
+            } else {
+                if (submitAt(payloads[index], timestamps[index])) {
+                    accepted++;
+                } else {
+                    reportBufferedDrop(payloads[index]);
+                }
+                index++;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * 直接交接：跳过环形队列，在调用线程上追加到批次缓冲，批次满时也在调用线程上序列化、压缩并派发上传
+     * <p>
+     * 适用于调用方本身已经是异步框架的单个后台线程（如Log4j2 AsyncLogger），
+     * 省去一次环形队列拷贝和线程切换；批次缓冲有锁保护，多线程调用仍然正确，只是互相串行。
+     *
+     * @param payload 载荷，调用后不得再修改
+     * @return 是否已追加
+     */
+    public boolean submitDirect(byte[] payload) {
+        if (!started || closing) {
+            return false;
+        }
+        batchEventHandler.append(payload, CoarseClock.currentTimeMillis());
+        return true;
+    }
+
+    private boolean spillOrDrop(byte[] payload, long ts) {
+        if (spill.append(payload, ts)) {
+            return true;
+        }
+        recordDrop(payload);
+        return false;
+    }
+
+    /**
+     * 供溢出回灌线程使用的非阻塞发布，队列已满时返回false
+     */
+    private boolean tryPublish(byte[] payload, long ts) {
+        long seq;
+        try {
+            seq = ringBuffer.tryNext();
+        } catch (InsufficientCapacityException e) {
+            return false;
+        }
+        try {
+            ringBuffer.get(seq).set(payload, ts);
+        } finally {
+            ringBuffer.publish(seq);
+        }
+        return true;
+    }
+
+    private void reportBufferedDrop(byte[] payload) {
+        IntConsumer listener = config.bufferedDropListener;
+        if (listener != null) {
+            listener.accept(payload.length);
+        }
+    }
+
+    private void recordDrop(byte[] payload) {
+        long drops = totalDroppedMessages.incrementAndGet();
+        long now = CoarseClock.currentTimeMillis();
+        long lastLog = lastDropLogTimeMs.get();
+        if (now - lastLog > 1000 && lastDropLogTimeMs.compareAndSet(lastLog, now)) {
+            double usage = getQueueUsageRatio();
+            long fingerprint = fingerprintPayload(payload);
+            logger.warn("[DATA_LOSS_ALERT] Queue drop detected. totalDropped={}, queueUsage={}%, payloadFingerprint={}",
+                    drops, String.format("%.2f", usage * 100), fingerprint);
+        }
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * 实际创建的分片数，容量不足时可能少于配置值，未启用SHARDED时为0
+     */
+    int getProducerRingCount() {
+        return producerRings != null ? producerRings.getRingCount() : 0;
+    }
+
+    /**
+     * 共享队列与全部分片的槽位总数
+     */
+    long getTotalCapacity() {
+        return ringBuffer.getBufferSize() + (producerRings != null ? producerRings.getCapacity() : 0L);
+    }
+
+    /**
+     * 溢出缓冲指标，未启用SPILL策略时返回null
+     */
+    public OverflowSpill.SpillMetrics getSpillMetrics() {
+        return spill != null ? spill.getMetrics() : null;
+    }
+
     public BatchMetrics getMetrics() {
         return new BatchMetrics(
                 totalBatchesProcessed.get(),
@@ -222,8 +605,22 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
         }
 
         logger.info("Closing queue, forcing processing of all remaining events");
+        closing = true;
 
         try {
+            if (microBatcher != null) {
+                microBatcher.flushAll();
+            }
+            if (spill != null) {
+                logger.info("Step 0: Draining overflow spill back into the ring buffer");
+                spill.close(config.spillDrainTimeoutMs);
+            }
+
+            if (producerRings != null) {
+                // 合并线程退出前把各分片中已发布的事件交给批次缓冲
+                producerRings.close(5000L);
+            }
+
             logger.info("Step 1: Forcing flush of BatchEventHandler buffer");
             batchEventHandler.forceFlushBuffer();
 
@@ -235,6 +632,9 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
                 scheduler.shutdownNow();
             }
 
+            // disruptor.shutdown()会先消费完已发布的事件，这些事件落在处理器缓冲中，需再冲刷一次
+            batchEventHandler.forceFlushBuffer();
+
             synchronized (this) {
                 wait(100);
             }
@@ -247,6 +647,7 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
         } finally {
             flushRequested.set(false);
             started = false;
+            CoarseClock.release();
             logger.info("Queue closed");
         }
     }
@@ -264,8 +665,8 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
                 for (long seq = nextSequence; seq <= cursor; seq++) {
                     try {
                         LogEventHolder holder = ringBuffer.get(seq);
-                        if (holder != null && holder.payload != null) {
-                            remainingEvents.add(new LogEvent(holder.payload, holder.timestampMs));
+                        if (holder != null && holder.hasData()) {
+                            remainingEvents.add(new LogEvent(holder.takePayload(), holder.timestampMs));
                         }
                     } catch (Exception e) {
                         logger.warn("Error processing remaining event at sequence {}: {}", seq, e.getMessage());
@@ -287,22 +688,28 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
     }
 
     private void processRemainingEvents(List<LogEvent> events) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        if (config.outputFormat == OutputFormat.PARQUET) {
             int totalBytes = 0;
-
             for (LogEvent event : events) {
-                if (event.payload != null) {
-                    baos.write(event.payload);
-                    if (event.payload.length > 0 && event.payload[event.payload.length - 1] != '\n') {
-                        baos.write('\n');
-                    }
-                    totalBytes += event.payload.length;
-                }
+                totalBytes += event.payload.length;
+            }
+            processColumnarBatch(events.toArray(new LogEvent[0]), 0, events.size(), totalBytes);
+            return;
+        }
+        try {
+            LogEvent[] remaining = events.toArray(new LogEvent[0]);
+            int[] eventOffsets = config.sidecarIndex ? new int[remaining.length] : null;
+            byte[] batchData = BatchCodec.serialize(remaining, 0, remaining.length, eventOffsets);
+            int totalBytes = 0;
+            long minTs = Long.MAX_VALUE;
+            long maxTs = Long.MIN_VALUE;
+            for (LogEvent event : remaining) {
+                totalBytes += event.payload.length;
+                minTs = Math.min(minTs, event.timestampMs);
+                maxTs = Math.max(maxTs, event.timestampMs);
             }
 
-            if (baos.size() > 0) {
-                byte[] batchData = baos.toByteArray();
+            if (batchData.length > 0) {
                 byte[] finalData = batchData;
                 boolean compressed = false;
                 if (config.enableCompression && batchData.length > 1024) {
@@ -310,11 +717,15 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
                     compressed = true;
                 }
 
-                boolean success = consumer.processBatch(finalData, totalBytes, compressed, events.size());
+                // 与常规批次一致，开启批次索引时附带偏移和时间范围
+                boolean success = eventOffsets != null
+                        ? consumer.processBatch(finalData, totalBytes, compressed, remaining.length,
+                                new BatchSummary(batchData, eventOffsets, minTs, maxTs))
+                        : consumer.processBatch(finalData, totalBytes, compressed, remaining.length);
 
                 if (success) {
                     totalBatchesProcessed.incrementAndGet();
-                    totalMessagesProcessed.addAndGet(events.size());
+                    totalMessagesProcessed.addAndGet(remaining.length);
                     totalBytesProcessed.addAndGet(totalBytes);
                 }
             }
@@ -335,13 +746,16 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
             this.eventBuffer = new LogEvent[config.batchMaxMessages];
         }
 
+        /**
+         * 与定时的age检查共用同一把锁，避免追加与清空缓冲并发交错导致事件丢失
+         */
         @Override
-        public void onEvent(LogEventHolder ev, long sequence, boolean endOfBatch) {
+        public synchronized void onEvent(LogEventHolder ev, long sequence, boolean endOfBatch) {
             if (ev == null) {
                 return;
             }
 
-            if (ev.payload == null) {
+            if (!ev.hasData()) {
                 if (flushRequested.get() && bufferCount > 0) {
                     processBatch();
                     clearBuffer();
@@ -355,7 +769,20 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
                 return;
             }
 
-            LogEvent event = new LogEvent(ev.payload, ev.timestampMs);
+            byte[] payload = ev.takePayload();
+            long timestampMs = ev.timestampMs;
+            ev.clear();
+            signalCapacityAvailable();
+
+            append(payload, timestampMs);
+        }
+
+        /**
+         * 追加到批次缓冲，达到条数或字节阈值时在当前线程完成批次处理。
+         * 环形队列消费线程和直接交接的调用线程共用此入口
+         */
+        synchronized void append(byte[] payload, long timestampMs) {
+            LogEvent event = new LogEvent(payload, timestampMs);
             eventBuffer[bufferTail] = event;
             bufferTail = (bufferTail + 1) % eventBuffer.length;
             bufferCount++;
@@ -365,15 +792,17 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
             }
             totalBytes += event.payload.length;
 
-            ev.clear();
-            signalCapacityAvailable();
-
             checkAndProcessBatchByCountAndSize();
         }
 
         private void processBatch() {
+            if (config.outputFormat == OutputFormat.PARQUET) {
+                processColumnarBatch(eventBuffer, bufferHead, bufferCount, totalBytes);
+                return;
+            }
             try {
-                byte[] serializedData = serializeToPatternFormat(eventBuffer, bufferHead, bufferCount);
+                int[] eventOffsets = config.sidecarIndex ? new int[bufferCount] : null;
+                byte[] serializedData = BatchCodec.serialize(eventBuffer, bufferHead, bufferCount, eventOffsets);
                 int originalSize = serializedData.length;
 
                 boolean shouldCompress = config.enableCompression;
@@ -388,6 +817,9 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
                 boolean success;
                 if (config.enableSharding && originalSize > config.getShardingThreshold()) {
                     success = processSharding(serializedData);
+                } else if (eventOffsets != null) {
+                    success = consumer.processBatch(finalData, originalSize, shouldCompress, bufferCount,
+                            summarize(serializedData, eventOffsets));
                 } else {
                     success = consumer.processBatch(finalData, originalSize, shouldCompress, bufferCount);
                 }
@@ -403,6 +835,17 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
             }
         }
 
+        private BatchSummary summarize(byte[] data, int[] eventOffsets) {
+            long minTs = Long.MAX_VALUE;
+            long maxTs = Long.MIN_VALUE;
+            for (int i = 0; i < bufferCount; i++) {
+                long ts = eventBuffer[(bufferHead + i) % eventBuffer.length].timestampMs;
+                minTs = Math.min(minTs, ts);
+                maxTs = Math.max(maxTs, ts);
+            }
+            return new BatchSummary(data, eventOffsets, minTs, maxTs);
+        }
+
         private void clearBuffer() {
             for (int i = 0; i < bufferCount; i++) {
                 int index = (bufferHead + i) % eventBuffer.length;
@@ -437,7 +880,7 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
 
         public synchronized void checkAndProcessBatch() {
             if (bufferCount > 0) {
-                long currentTime = System.currentTimeMillis();
+                long currentTime = CoarseClock.currentTimeMillis();
                 long age = currentTime - oldestTimestamp;
                 if (age >= config.maxMessageAgeMs) {
                     logger.info("Triggering batch upload - message age timeout: {}ms >= {}ms", age, config.maxMessageAgeMs);
@@ -447,7 +890,7 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
             }
         }
 
-        public void forceFlushBuffer() {
+        public synchronized void forceFlushBuffer() {
             if (bufferCount > 0) {
                 logger.info("Forcing flush of BatchEventHandler buffer with {} events", bufferCount);
                 try {
@@ -466,46 +909,29 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
         }
     }
 
-    private byte[] serializeToPatternFormat(LogEvent[] events, int head, int count) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    /**
+     * 列式批次：一个批次写成一个Parquet文件，页面已在文件内压缩
+     *
+     * @param payloadBytes 批次内载荷总字节数，作为原始大小上报，与入队时的内存计数一致
+     */
+    private void processColumnarBatch(LogEvent[] events, int head, int count, int payloadBytes) {
         try {
-            for (int i = 0; i < count; i++) {
-                int index = (head + i) % events.length;
-                LogEvent event = events[index];
-                byte[] payload = event.payload;
-
-                if (payload.length > 0 && payload[payload.length - 1] != '\n') {
-                    baos.write(payload);
-                    baos.write('\n');
-                } else {
-                    baos.write(payload);
-                }
-            }
-            return baos.toByteArray();
-        } catch (IOException e) {
-            logger.warn("IO exception during serialization, falling back to string-based method: {}", e.getMessage());
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < count; i++) {
-                int index = (head + i) % events.length;
-                LogEvent event = events[index];
-                String logLine = new String(event.payload, StandardCharsets.UTF_8);
-
-                if (!logLine.endsWith("\n")) {
-                    sb.append(logLine).append("\n");
-                } else {
-                    sb.append(logLine);
-                }
+            byte[] file = ParquetBatchWriter.write(events, head, count);
+            if (consumer.processBatch(file, payloadBytes, false, count)) {
+                totalBatchesProcessed.incrementAndGet();
+                totalMessagesProcessed.addAndGet(count);
+                totalBytesProcessed.addAndGet(payloadBytes);
             }
-            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Columnar batch processing failed: {}", e.getMessage(), e);
         }
     }
 
     private byte[] compressData(byte[] data) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzos = new GZIPOutputStream(baos)) {
-            gzos.write(data);
+        if (config.compressionBlockBytes > 0) {
+            return SeekableGzipCodec.compress(data, 0, data.length, config.compressionBlockBytes);
         }
-        return baos.toByteArray();
+        return BatchCodec.compress(data);
     }
 
     private boolean processSharding(byte[] data) {
@@ -530,7 +956,7 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
                 System.arraycopy(data, start, shardData, 0, length);
 
                 byte[] finalShardData = config.enableCompression ? compressData(shardData) : shardData;
-                String shardKey = ObjectNameGenerator.generateObjectName(storageService.getKeyPrefix());
+                String shardKey = config.getKeyTemplate().render(storageService.getKeyPrefix());
                 totalShardsCreated.incrementAndGet();
 
                 java.util.concurrent.Executor executor = shardExecutor != null
@@ -597,14 +1023,27 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
         private int batchMaxMessages = 8192;
         private int batchMaxBytes = 10 * 1024 * 1024;
         private long maxMessageAgeMs = 60000L;
-        private boolean blockOnFull = true;
-        private boolean multiProducer = true;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private ProducerMode producerMode = ProducerMode.AUTO;
+        private int producerRings = Math.max(2, Runtime.getRuntime().availableProcessors());
         private boolean enableCompression = true;
         private boolean enableSharding = true;
+        private boolean sidecarIndex = false;
+        private int compressionBlockBytes = 0;
+        private OutputFormat outputFormat = OutputFormat.TEXT;
+        private boolean garbageFree = false;
+        private int producerBatchSize = 1;
+        private long producerBatchMaxDelayMs = 5L;
+        private IntConsumer bufferedDropListener;
         private int maxUploadSizeMb = 10;
         private int consumerThreadCount = 1;
         private java.util.concurrent.ExecutorService shardExecutor;
         private long uploadTimeoutMs = 30000L;
+        private Path spillDirectory;
+        private int spillSegmentBytes = 64 * 1024 * 1024;
+        private long spillMaxBytes = 1024L * 1024 * 1024;
+        private long spillDrainTimeoutMs = 5000L;
+        private ObjectKeyTemplate keyTemplate = ObjectKeyTemplate.defaultTemplate();
 
         public static Config defaultConfig() {
             return new Config();
@@ -631,12 +1070,54 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
         }
 
         public Config blockOnFull(boolean blockOnFull) {
-            this.blockOnFull = blockOnFull;
+            this.overflowPolicy = blockOnFull ? OverflowPolicy.BLOCK : OverflowPolicy.DROP;
+            return this;
+        }
+
+        public Config overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy != null ? overflowPolicy : OverflowPolicy.BLOCK;
             return this;
         }
 
+        public Config spillDirectory(Path spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        public Config spillSegmentBytes(int spillSegmentBytes) {
+            this.spillSegmentBytes = spillSegmentBytes;
+            return this;
+        }
+
+        public Config spillMaxBytes(long spillMaxBytes) {
+            this.spillMaxBytes = spillMaxBytes;
+            return this;
+        }
+
+        public Config spillDrainTimeoutMs(long spillDrainTimeoutMs) {
+            this.spillDrainTimeoutMs = spillDrainTimeoutMs;
+            return this;
+        }
+
+        /**
+         * 兼容旧配置：true对应MULTI，false对应SINGLE
+         */
         public Config multiProducer(boolean multiProducer) {
-            this.multiProducer = multiProducer;
+            this.producerMode = multiProducer ? ProducerMode.MULTI : ProducerMode.SINGLE;
+            return this;
+        }
+
+        public Config producerMode(ProducerMode producerMode) {
+            this.producerMode = producerMode != null ? producerMode : ProducerMode.AUTO;
+            return this;
+        }
+
+        /**
+         * SHARDED模式下的分片数，超出分片数的生产者线程回退到共享队列；
+         * 分片与共享队列合计不超过queueCapacity，容量不足时实际分片数少于该值
+         */
+        public Config producerRings(int producerRings) {
+            this.producerRings = Math.max(1, producerRings);
             return this;
         }
 
@@ -650,6 +1131,59 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
             return this;
         }
 
+        /**
+         * 分块压缩的块大小，大于0时输出可随机访问的分块GZIP（见 {@link SeekableGzipCodec}），0表示单个GZIP流
+         */
+        public Config compressionBlockBytes(int compressionBlockBytes) {
+            this.compressionBlockBytes = Math.max(0, compressionBlockBytes);
+            return this;
+        }
+
+        /**
+         * 批次输出格式，PARQUET时批次写成列式文件，不再压缩、分片和生成侧边索引
+         */
+        public Config outputFormat(OutputFormat outputFormat) {
+            this.outputFormat = outputFormat != null ? outputFormat : OutputFormat.TEXT;
+            return this;
+        }
+
+        /**
+         * 槽位持有可复用载荷缓冲区，{@link #submit(byte[], int, int)} 在生产者线程上不分配
+         */
+        public Config garbageFree(boolean garbageFree) {
+            this.garbageFree = garbageFree;
+            return this;
+        }
+
+        /**
+         * 生产者线程内微批次的条数，大于1时事件先在线程内攒批再批量发布，1表示逐条发布
+         */
+        public Config producerBatchSize(int producerBatchSize) {
+            this.producerBatchSize = Math.max(1, producerBatchSize);
+            return this;
+        }
+
+        /**
+         * 事件在线程内微批次中的最长停留时间
+         */
+        public Config producerBatchMaxDelayMs(long producerBatchMaxDelayMs) {
+            this.producerBatchMaxDelayMs = producerBatchMaxDelayMs;
+            return this;
+        }
+
+        /**
+         * 已缓冲在线程内微批次、冲刷时未能入队的事件回调，参数为载荷字节数
+         */
+        public Config bufferedDropListener(IntConsumer bufferedDropListener) {
+            this.bufferedDropListener = bufferedDropListener;
+            return this;
+        }
+
+        public Config sidecarIndex(boolean sidecarIndex) {
+            this.sidecarIndex = sidecarIndex;
+            return this;
+        }
+
         public Config maxUploadSizeMb(int maxUploadSizeMb) {
             this.maxUploadSizeMb = maxUploadSizeMb;
             return this;
@@ -670,6 +1204,11 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
             return this;
         }
 
+        public Config keyTemplate(ObjectKeyTemplate keyTemplate) {
+            this.keyTemplate = keyTemplate != null ? keyTemplate : ObjectKeyTemplate.defaultTemplate();
+            return this;
+        }
+
         public int getQueueCapacity() {
             return queueCapacity;
         }
@@ -687,11 +1226,39 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
         }
 
         public boolean isBlockOnFull() {
-            return blockOnFull;
+            return overflowPolicy == OverflowPolicy.BLOCK;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public Path getSpillDirectory() {
+            return spillDirectory;
+        }
+
+        public int getSpillSegmentBytes() {
+            return spillSegmentBytes;
+        }
+
+        public long getSpillMaxBytes() {
+            return spillMaxBytes;
+        }
+
+        public long getSpillDrainTimeoutMs() {
+            return spillDrainTimeoutMs;
         }
 
         public boolean isMultiProducer() {
-            return multiProducer;
+            return producerMode != ProducerMode.SINGLE;
+        }
+
+        public ProducerMode getProducerMode() {
+            return producerMode;
+        }
+
+        public int getProducerRings() {
+            return producerRings;
         }
 
         public boolean isEnableCompression() {
@@ -702,6 +1269,30 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
             return enableSharding;
         }
 
+        public int getCompressionBlockBytes() {
+            return compressionBlockBytes;
+        }
+
+        public OutputFormat getOutputFormat() {
+            return outputFormat;
+        }
+
+        public boolean isGarbageFree() {
+            return garbageFree;
+        }
+
+        public int getProducerBatchSize() {
+            return producerBatchSize;
+        }
+
+        public long getProducerBatchMaxDelayMs() {
+            return producerBatchMaxDelayMs;
+        }
+
+        public boolean isSidecarIndex() {
+            return sidecarIndex;
+        }
+
         public int getMaxUploadSizeMb() {
             return maxUploadSizeMb;
         }
@@ -725,6 +1316,10 @@ public final class EnhancedDisruptorBatchingQueue implements AutoCloseable {
         public long getUploadTimeoutMs() {
             return uploadTimeoutMs;
         }
+
+        public ObjectKeyTemplate getKeyTemplate() {
+            return keyTemplate;
+        }
     }
 
     public static class BatchMetrics {
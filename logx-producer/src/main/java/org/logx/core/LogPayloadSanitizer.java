@@ -53,6 +53,50 @@ public final class LogPayloadSanitizer {
         return new SanitizedPayload(bytes, sanitized, truncated, originalBytes);
     }
 
+    /**
+     * 在原数组上清洗UTF-8载荷，规则与 {@link #sanitize(String, int)} 一致，不产生分配
+     * <p>
+     * 控制字符（C0、DEL以及编码为0xC2 0x80-0x9F的C1）在UTF-8中不会出现在多字节序列内部，
+     * 因此可以按字节扫描；超限时截断点回退到字符边界。
+     *
+     * @param buf 载荷所在数组，清洗结果写回原位置
+     * @param offset 起始位置
+     * @param length 字节数
+     * @param maxBytes 最大字节数
+     * @return 清洗后的字节数，小于length表示发生了清洗或截断
+     */
+    public static int sanitizeInPlace(byte[] buf, int offset, int length, int maxBytes) {
+        int end = offset + length;
+        int write = offset;
+        boolean sanitized = false;
+        for (int read = offset; read < end; read++) {
+            int b = buf[read] & 0xFF;
+            if (b < 0x20 && b != '\n' && b != '\t' || b == 0x7F) {
+                sanitized = true;
+                continue;
+            }
+            if (b == 0xC2 && read + 1 < end && (buf[read + 1] & 0xFF) >= 0x80 && (buf[read + 1] & 0xFF) <= 0x9F) {
+                sanitized = true;
+                read++;
+                continue;
+            }
+            buf[write++] = (byte) b;
+        }
+
+        int newLength = write - offset;
+        if (newLength > maxBytes) {
+            newLength = maxBytes;
+            while (newLength > 0 && (buf[offset + newLength] & 0xC0) == 0x80) {
+                newLength--;
+            }
+            truncatedCount.incrementAndGet();
+        }
+        if (sanitized) {
+            sanitizedCount.incrementAndGet();
+        }
+        return newLength;
+    }
+
     public static final class SanitizedPayload {
         public final byte[] bytes;
         public final boolean sanitized;
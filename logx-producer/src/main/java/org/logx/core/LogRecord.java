@@ -0,0 +1,234 @@
+package org.logx.core;
+
+import java.util.Arrays;
+
+/**
+ * 可复用的结构化日志记录
+ * <p>
+ * 由 {@link AsyncEngine#acquireRecord()} 从预分配池中取得，桥接器填充字段后调用
+ * {@link AsyncEngine#put(LogRecord)} 交给引擎，引擎编码后立即归还池，调用方此后不得再使用该记录。
+ * <p>
+ * 字段只保存引用和基本类型：消息通过 {@link MessageFormatter} 延迟格式化，
+ * 直到引擎确认接收时才写入记录自带的可复用缓冲区；上下文使用可增长的数组而不是Map。
+ * 因此在框架复用事件对象（如Log4j2的MutableLogEvent）时，填充记录本身不产生任何分配。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class LogRecord {
+
+    public static final int LEVEL_TRACE = 0;
+    public static final int LEVEL_DEBUG = 1;
+    public static final int LEVEL_INFO = 2;
+    public static final int LEVEL_WARN = 3;
+    public static final int LEVEL_ERROR = 4;
+    public static final int LEVEL_FATAL = 5;
+    public static final int LEVEL_UNKNOWN = 6;
+
+    private static final String[] LEVEL_NAMES = {"TRACE", "DEBUG", "INFO", "WARN", "ERROR", "FATAL", null};
+
+    /**
+     * 延迟格式化消息的策略，实现应为无状态单例
+     */
+    public interface MessageFormatter {
+        /**
+         * 将消息源格式化追加到目标缓冲区
+         *
+         * @param source 消息源，即 {@link #setMessage(Object, MessageFormatter)} 传入的对象
+         * @param target 目标缓冲区
+         */
+        void formatTo(Object source, StringBuilder target);
+    }
+
+    /**
+     * 按 {@link Object#toString()} 格式化，适用于String等普通对象
+     */
+    public static final MessageFormatter TO_STRING = new MessageFormatter() {
+        @Override
+        public void formatTo(Object source, StringBuilder target) {
+            if (source instanceof CharSequence) {
+                target.append((CharSequence) source);
+            } else {
+                target.append(source);
+            }
+        }
+    };
+
+    private long timestampMs;
+    private int level = LEVEL_UNKNOWN;
+    private String loggerName;
+    private String threadName;
+    private Object messageSource;
+    private MessageFormatter messageFormatter;
+    private final StringBuilder messageBuffer = new StringBuilder(256);
+    private boolean messageFormatted;
+    private String[] contextKeys = new String[8];
+    private String[] contextValues = new String[8];
+    private int contextSize;
+    private Throwable thrown;
+
+    /**
+     * 所属池中的槽位，-1表示不属于池
+     */
+    final int poolSlot;
+
+    public LogRecord() {
+        this(-1);
+    }
+
+    LogRecord(int poolSlot) {
+        this.poolSlot = poolSlot;
+    }
+
+    /**
+     * 级别名称转换为级别常量，忽略大小写，无法识别时为 {@link #LEVEL_UNKNOWN}
+     */
+    public static int levelOf(String name) {
+        if (name != null) {
+            for (int i = 0; i < LEVEL_UNKNOWN; i++) {
+                if (LEVEL_NAMES[i].equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+        }
+        return LEVEL_UNKNOWN;
+    }
+
+    /**
+     * 级别常量对应的名称，未知级别返回null
+     */
+    public static String levelName(int level) {
+        return level >= 0 && level < LEVEL_NAMES.length ? LEVEL_NAMES[level] : null;
+    }
+
+    public LogRecord setTimestampMs(long timestampMs) {
+        this.timestampMs = timestampMs;
+        return this;
+    }
+
+    public LogRecord setLevel(int level) {
+        this.level = level;
+        return this;
+    }
+
+    public LogRecord setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+        return this;
+    }
+
+    public LogRecord setThreadName(String threadName) {
+        this.threadName = threadName;
+        return this;
+    }
+
+    /**
+     * 设置消息源，格式化推迟到 {@link #formatMessage()}
+     *
+     * @param source 消息源
+     * @param formatter 格式化策略
+     * @return 当前记录
+     */
+    public LogRecord setMessage(Object source, MessageFormatter formatter) {
+        this.messageSource = source;
+        this.messageFormatter = formatter;
+        this.messageFormatted = false;
+        return this;
+    }
+
+    public LogRecord setMessage(CharSequence message) {
+        return setMessage(message, TO_STRING);
+    }
+
+    /**
+     * 追加一条上下文（MDC），null值会被忽略
+     */
+    public LogRecord putContext(String key, String value) {
+        if (key == null || value == null) {
+            return this;
+        }
+        if (contextSize == contextKeys.length) {
+            contextKeys = Arrays.copyOf(contextKeys, contextSize * 2);
+            contextValues = Arrays.copyOf(contextValues, contextSize * 2);
+        }
+        contextKeys[contextSize] = key;
+        contextValues[contextSize] = value;
+        contextSize++;
+        return this;
+    }
+
+    public LogRecord setThrown(Throwable thrown) {
+        this.thrown = thrown;
+        return this;
+    }
+
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * 格式化消息，结果缓存在记录内的缓冲区中，下次填充前有效
+     *
+     * @return 格式化后的消息，没有消息时为null
+     */
+    public CharSequence formatMessage() {
+        if (messageFormatter == null) {
+            return null;
+        }
+        if (!messageFormatted) {
+            messageBuffer.setLength(0);
+            messageFormatter.formatTo(messageSource, messageBuffer);
+            messageFormatted = true;
+        }
+        return messageBuffer;
+    }
+
+    public int getContextSize() {
+        return contextSize;
+    }
+
+    public String getContextKey(int index) {
+        return contextKeys[index];
+    }
+
+    public String getContextValue(int index) {
+        return contextValues[index];
+    }
+
+    public Throwable getThrown() {
+        return thrown;
+    }
+
+    /**
+     * 清空字段引用，保留缓冲区容量
+     */
+    public void clear() {
+        timestampMs = 0L;
+        level = LEVEL_UNKNOWN;
+        loggerName = null;
+        threadName = null;
+        messageSource = null;
+        messageFormatter = null;
+        messageFormatted = false;
+        if (messageBuffer.capacity() > 64 * 1024) {
+            messageBuffer.setLength(256);
+            messageBuffer.trimToSize();
+        }
+        messageBuffer.setLength(0);
+        Arrays.fill(contextKeys, 0, contextSize, null);
+        Arrays.fill(contextValues, 0, contextSize, null);
+        contextSize = 0;
+        thrown = null;
+    }
+}
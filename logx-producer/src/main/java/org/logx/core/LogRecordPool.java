@@ -0,0 +1,81 @@
+package org.logx.core;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 预分配的 {@link LogRecord} 池
+ * <p>
+ * 记录只在桥接器填充到引擎编码之间被占用，持有时间很短，因此池的大小只需覆盖同时写日志的线程数。
+ * 获取时从按线程散列的槽位开始CAS占用，减少线程间争用；池耗尽时临时分配一个不归还的记录并计数，
+ * 不会阻塞调用方。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class LogRecordPool {
+
+    public static final int DEFAULT_SIZE = 256;
+
+    private final LogRecord[] records;
+    private final AtomicIntegerArray inUse;
+    private final int mask;
+    private final AtomicLong overflowAllocations = new AtomicLong(0);
+
+    public LogRecordPool() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * @param size 池大小，向上取整到2的幂
+     */
+    public LogRecordPool(int size) {
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.records = new LogRecord[capacity];
+        for (int i = 0; i < capacity; i++) {
+            records[i] = new LogRecord(i);
+        }
+        this.inUse = new AtomicIntegerArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 获取一个已清空的记录
+     *
+     * @return 记录，池耗尽时为新分配的记录
+     */
+    @SuppressWarnings("deprecation")
+    public LogRecord acquire() {
+        int start = (int) Thread.currentThread().getId();
+        for (int i = 0; i <= mask; i++) {
+            int slot = (start + i) & mask;
+            if (inUse.get(slot) == 0 && inUse.compareAndSet(slot, 0, 1)) {
+                return records[slot];
+            }
+        }
+        overflowAllocations.incrementAndGet();
+        return new LogRecord();
+    }
+
+    /**
+     * 归还记录，不属于本池的记录只清空
+     */
+    public void release(LogRecord record) {
+        record.clear();
+        int slot = record.poolSlot;
+        if (slot >= 0 && slot < records.length && records[slot] == record) {
+            inUse.lazySet(slot, 0);
+        }
+    }
+
+    public int getCapacity() {
+        return records.length;
+    }
+
+    /**
+     * 池耗尽时临时分配的记录数
+     */
+    public long getOverflowAllocations() {
+        return overflowAllocations.get();
+    }
+}
@@ -0,0 +1,98 @@
+package org.logx.core;
+
+import org.logx.columnar.StructuredEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * 文本输出模式下 {@link LogRecord} 的默认行格式
+ * <pre>
+ * yyyy-MM-dd HH:mm:ss.SSS [thread] LEVEL logger - message
+ * 异常堆栈（如有）
+ * </pre>
+ * 与 {@link LogPayloadSanitizer} 一致去除换行和制表符以外的控制字符并限制字节数，
+ * 但直接编码到线程内缓冲区，不产生中间String；日期前缀按秒缓存。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class LogRecordTextEncoder {
+
+    private static final byte[] NO_SUFFIX = new byte[0];
+
+    private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    private LogRecordTextEncoder() {
+    }
+
+    /**
+     * 编码为一行文本日志
+     *
+     * @param record 记录
+     * @param maxBytes 最大字节数，超出时在字符边界截断
+     * @return UTF-8载荷
+     */
+    public static byte[] encode(LogRecord record, int maxBytes) {
+        return encodeTo(record, maxBytes).toByteArray();
+    }
+
+    /**
+     * 编码到线程内缓冲区，不分配载荷数组；结果位于 {@link Utf8Buffer#array()} 的[0, size)，
+     * 在当前线程下一次编码前有效，供拷贝入队使用
+     *
+     * @param record 记录
+     * @param maxBytes 最大字节数，超出时在字符边界截断
+     * @return 线程内缓冲区
+     */
+    public static Utf8Buffer encodeTo(LogRecord record, int maxBytes) {
+        Scratch scratch = SCRATCH.get();
+        Utf8Buffer out = scratch.out.reset();
+        scratch.appendTimestamp(record.getTimestampMs());
+        out.append(' ').append('[');
+        out.appendUtf8(record.getThreadName(), true);
+        out.append(']').append(' ');
+        String level = LogRecord.levelName(record.getLevel());
+        out.appendUtf8(level != null ? level : "-", false);
+        for (int i = level != null ? level.length() : 1; i < 5; i++) {
+            out.append(' ');
+        }
+        out.append(' ');
+        out.appendUtf8(record.getLoggerName(), true);
+        out.append(' ').append('-').append(' ');
+        out.appendUtf8(record.formatMessage(), true);
+        out.append('\n');
+        Throwable thrown = record.getThrown();
+        if (thrown != null) {
+            out.appendUtf8(StructuredEvent.stackTrace(thrown), true);
+        }
+        out.truncate(maxBytes, NO_SUFFIX);
+        return out;
+    }
+
+    /**
+     * 线程内复用的缓冲区和按秒缓存的日期前缀
+     */
+    private static final class Scratch {
+        final Utf8Buffer out = new Utf8Buffer(512);
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.");
+        long cachedSecond = Long.MIN_VALUE;
+        byte[] cachedPrefix;
+
+        void appendTimestamp(long timestampMs) {
+            long second = Math.floorDiv(timestampMs, 1000L);
+            if (second != cachedSecond) {
+                cachedPrefix = format.format(new Date(second * 1000L)).getBytes(StandardCharsets.US_ASCII);
+                cachedSecond = second;
+            }
+            out.append(cachedPrefix, 0, cachedPrefix.length);
+            out.appendPadded((int) Math.floorMod(timestampMs, 1000L), 3);
+        }
+    }
+}
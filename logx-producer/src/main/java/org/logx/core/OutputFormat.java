@@ -0,0 +1,52 @@
+package org.logx.core;
+
+import org.logx.config.properties.LogxOssProperties;
+
+import java.util.Locale;
+
+/**
+ * 批次对象的输出格式，按appender配置
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public enum OutputFormat {
+
+    /**
+     * Layout格式化的文本，按行拼接后GZIP压缩
+     */
+    TEXT,
+
+    /**
+     * 桥接器提取结构化字段，每个批次写成一个Parquet文件
+     */
+    PARQUET;
+
+    /**
+     * 解析格式名称（忽略大小写），为空或无法识别时返回默认值
+     *
+     * @param value 格式名称
+     * @param defaultFormat 默认格式
+     * @return 输出格式
+     */
+    public static OutputFormat parse(String value, OutputFormat defaultFormat) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultFormat;
+        }
+        try {
+            return OutputFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultFormat;
+        }
+    }
+
+    /**
+     * 从配置中读取输出格式
+     *
+     * @param properties 配置，可为null
+     * @return 输出格式，未配置时为TEXT
+     */
+    public static OutputFormat of(LogxOssProperties properties) {
+        return properties != null ? parse(properties.getEngine().getOutputFormat(), TEXT) : TEXT;
+    }
+}
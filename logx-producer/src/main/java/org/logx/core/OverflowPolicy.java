@@ -0,0 +1,45 @@
+package org.logx.core;
+
+import java.util.Locale;
+
+/**
+ * 环形队列满时的溢出策略
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public enum OverflowPolicy {
+
+    /**
+     * 阻塞生产线程直到队列有空位
+     */
+    BLOCK,
+
+    /**
+     * 丢弃当前事件并输出DATA_LOSS_ALERT
+     */
+    DROP,
+
+    /**
+     * 写入内存映射的溢出文件，由后台线程在队列恢复容量后按原顺序回灌
+     */
+    SPILL;
+
+    /**
+     * 解析策略名称（忽略大小写），为空或无法识别时返回默认值
+     *
+     * @param value 策略名称
+     * @param defaultPolicy 默认策略
+     * @return 溢出策略
+     */
+    public static OverflowPolicy parse(String value, OverflowPolicy defaultPolicy) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultPolicy;
+        }
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultPolicy;
+        }
+    }
+}
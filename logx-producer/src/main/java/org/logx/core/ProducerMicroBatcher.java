@@ -0,0 +1,123 @@
+package org.logx.core;
+
+import org.logx.util.CoarseClock;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 生产者线程内的微批次
+ * <p>
+ * 每个线程先把事件攒在自己的小缓冲区中，攒满或最早一条超过最大延迟后一次认领n个连续序列并批量发布，
+ * 多生产者模式下n条事件只竞争一次共享序列。安静下来的线程由队列调度线程按最大延迟定期冲刷，
+ * 事件不会滞留在线程缓冲中。
+ * <p>
+ * 同一线程的事件保持顺序；不同线程之间的先后只在最大延迟范围内保证。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+final class ProducerMicroBatcher {
+
+    private final EnhancedDisruptorBatchingQueue queue;
+    private final int batchSize;
+    private final long maxDelayMs;
+    private final Set<Buffer> buffers = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Buffer> localBuffer = ThreadLocal.withInitial(this::register);
+    private volatile boolean closed;
+
+    ProducerMicroBatcher(EnhancedDisruptorBatchingQueue queue, int batchSize, long maxDelayMs) {
+        this.queue = queue;
+        this.batchSize = batchSize;
+        this.maxDelayMs = Math.max(1L, maxDelayMs);
+    }
+
+    long getMaxDelayMs() {
+        return maxDelayMs;
+    }
+
+    /**
+     * 追加到当前线程的缓冲区，攒满或最早一条超过最大延迟时在调用线程上批量发布；
+     * 发布时未能入队的事件由队列逐条回报
+     *
+     * @return 是否已缓冲，{@link #flushAll()} 之后返回false
+     */
+    boolean add(byte[] payload, long timestampMs) {
+        Buffer buffer = localBuffer.get();
+        synchronized (buffer) {
+            // 在缓冲区锁内检查，flushAll逐个持锁冲刷，之后追加的事件不会滞留在无人冲刷的缓冲区中
+            if (closed) {
+                return false;
+            }
+            buffer.payloads[buffer.count] = payload;
+            buffer.timestamps[buffer.count] = timestampMs;
+            buffer.count++;
+            if (buffer.count == batchSize || timestampMs - buffer.timestamps[0] >= maxDelayMs) {
+                flush(buffer);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 冲刷超过最大延迟的缓冲区，并移除所属线程已结束的空缓冲区，由队列调度线程定期调用
+     */
+    void flushStale() {
+        long now = CoarseClock.currentTimeMillis();
+        for (Iterator<Buffer> it = buffers.iterator(); it.hasNext(); ) {
+            Buffer buffer = it.next();
+            synchronized (buffer) {
+                if (buffer.count > 0 && now - buffer.timestamps[0] >= maxDelayMs) {
+                    flush(buffer);
+                }
+                Thread owner = buffer.owner.get();
+                if (buffer.count == 0 && (owner == null || !owner.isAlive())) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 冲刷全部缓冲区并拒绝后续追加，队列关闭前调用
+     */
+    void flushAll() {
+        closed = true;
+        for (Buffer buffer : buffers) {
+            synchronized (buffer) {
+                flush(buffer);
+            }
+        }
+    }
+
+    private void flush(Buffer buffer) {
+        if (buffer.count == 0) {
+            return;
+        }
+        queue.submitBatch(buffer.payloads, buffer.timestamps, buffer.count);
+        Arrays.fill(buffer.payloads, 0, buffer.count, null);
+        buffer.count = 0;
+    }
+
+    private Buffer register() {
+        Buffer buffer = new Buffer(Thread.currentThread(), batchSize);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private static final class Buffer {
+        final WeakReference<Thread> owner;
+        final byte[][] payloads;
+        final long[] timestamps;
+        int count;
+
+        Buffer(Thread owner, int capacity) {
+            this.owner = new WeakReference<>(owner);
+            this.payloads = new byte[capacity][];
+            this.timestamps = new long[capacity];
+        }
+    }
+}
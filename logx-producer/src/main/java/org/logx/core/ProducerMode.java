@@ -0,0 +1,53 @@
+package org.logx.core;
+
+import java.util.Locale;
+
+/**
+ * 环形队列的生产者模式
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public enum ProducerMode {
+
+    /**
+     * 按队列自身的写入方确定：appender可能被任意线程调用，共享队列使用多生产者序列；
+     * 不会隐式选择SINGLE
+     */
+    AUTO,
+
+    /**
+     * 单生产者序列，调用方必须保证只有一个线程入队，否则会覆盖未消费的事件
+     */
+    SINGLE,
+
+    /**
+     * 多生产者序列，每条事件对共享序列做一次CAS
+     */
+    MULTI,
+
+    /**
+     * 分片环形队列：每个生产者线程独占一个单生产者小队列，由一个消费线程合并，
+     * 线程数超过分片数时多出的线程使用多生产者的共享队列（与上传分片无关）；
+     * 所属分片已满时按溢出策略等待或丢弃。开启线程内微批次时不生效，按MULTI处理
+     */
+    SHARDED;
+
+    /**
+     * 解析模式名称（忽略大小写），为空或无法识别时返回默认值
+     *
+     * @param value 模式名称
+     * @param defaultMode 默认模式
+     * @return 生产者模式
+     */
+    public static ProducerMode parse(String value, ProducerMode defaultMode) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultMode;
+        }
+        try {
+            return ProducerMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultMode;
+        }
+    }
+}
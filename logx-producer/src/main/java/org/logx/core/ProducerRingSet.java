@@ -0,0 +1,269 @@
+package org.logx.core;
+
+import com.lmax.disruptor.EventPoller;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 分片环形队列：一组单生产者小队列，由一个消费线程轮询合并
+ * <p>
+ * 生产者线程首次入队时独占一个空闲分片，之后只有该线程向其发布，序列推进不需要CAS；
+ * 所属线程结束后分片可被之后首次入队的线程接管。首次入队时没有分到分片的线程始终使用共享队列，
+ * 分到分片的线程始终只写自己的分片，分片已满时等待或丢弃而不回退到共享队列，
+ * 因此同一线程的事件只经过一条队列，顺序不会被打乱。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+final class ProducerRingSet {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProducerRingSet.class);
+
+    private static final int SPIN_TRIES = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /**
+     * 所属分片已满时生产者等待合并线程腾出空间的间隔
+     */
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * 发布结果
+     */
+    enum Outcome {
+        /**
+         * 当前线程没有分片，由调用方写入共享队列
+         */
+        NO_RING,
+        PUBLISHED,
+        /**
+         * 分片已满且不等待，或等待期间分片集合关闭、线程被中断
+         */
+        REJECTED
+    }
+
+    interface Sink {
+        void accept(byte[] payload, long timestampMs);
+    }
+
+    private final Ring[] rings;
+    private final Sink sink;
+    private final ThreadLocal<Claim> claims = ThreadLocal.withInitial(Claim::new);
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    ProducerRingSet(int ringCount, int ringCapacity, Sink sink) {
+        this.sink = sink;
+        this.rings = new Ring[ringCount];
+        for (int i = 0; i < ringCount; i++) {
+            rings[i] = new Ring(ringCapacity);
+        }
+        this.consumer = new Thread(this::consume, "enhanced-disruptor-ring-merger");
+        this.consumer.setDaemon(true);
+        this.consumer.setPriority(Thread.MIN_PRIORITY);
+    }
+
+    void start() {
+        consumer.start();
+    }
+
+    int getRingCount() {
+        return rings.length;
+    }
+
+    long getCapacity() {
+        long capacity = 0;
+        for (Ring ring : rings) {
+            capacity += ring.buffer.getBufferSize();
+        }
+        return capacity;
+    }
+
+    /**
+     * 发布到当前线程独占的分片
+     *
+     * @param block 分片已满时是否等待
+     */
+    Outcome publish(byte[] payload, long timestampMs, boolean block) {
+        Ring ring = running ? ringForCurrentThread() : null;
+        if (ring == null) {
+            return Outcome.NO_RING;
+        }
+        long seq = claimSlot(ring, block);
+        if (seq < 0) {
+            return Outcome.REJECTED;
+        }
+        try {
+            ring.buffer.get(seq).set(payload, timestampMs);
+        } finally {
+            ring.buffer.publish(seq);
+        }
+        drainIfClosed(ring);
+        return Outcome.PUBLISHED;
+    }
+
+    /**
+     * 拷贝进当前线程独占分片的槽位缓冲区
+     *
+     * @param block 分片已满时是否等待
+     */
+    Outcome copy(byte[] src, int offset, int length, long timestampMs, boolean block) {
+        Ring ring = running ? ringForCurrentThread() : null;
+        if (ring == null) {
+            return Outcome.NO_RING;
+        }
+        long seq = claimSlot(ring, block);
+        if (seq < 0) {
+            return Outcome.REJECTED;
+        }
+        try {
+            ring.buffer.get(seq).copy(src, offset, length, timestampMs);
+        } finally {
+            ring.buffer.publish(seq);
+        }
+        drainIfClosed(ring);
+        return Outcome.PUBLISHED;
+    }
+
+    /**
+     * 认领所属分片的下一个序列，分片已满且不等待、已关闭或线程被中断时返回-1
+     */
+    private long claimSlot(Ring ring, boolean block) {
+        while (true) {
+            try {
+                return ring.buffer.tryNext();
+            } catch (InsufficientCapacityException e) {
+                if (!block || !running || Thread.currentThread().isInterrupted()) {
+                    return -1L;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * 停止消费线程，返回前已发布的事件全部交给sink
+     * <p>
+     * 合并线程退出后在调用线程上再排空一次各分片；关闭前已通过检查、关闭后才发布的生产者
+     * 发布后看到已关闭，自行排空所在分片。
+     */
+    void close(long timeoutMs) {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (consumer.isAlive()) {
+            logger.warn("Ring merger did not stop within {} ms", timeoutMs);
+        }
+        for (Ring ring : rings) {
+            while (ring.drain() > 0) {
+                // 排空至分片为空
+            }
+        }
+    }
+
+    private void drainIfClosed(Ring ring) {
+        if (!running) {
+            ring.drain();
+        }
+    }
+
+    /**
+     * 线程只在首次入队时尝试认领分片，结果此后不再改变：已写入共享队列的线程如果再切换到分片，
+     * 分片中的新事件可能先于共享队列中的旧事件被合并
+     */
+    private Ring ringForCurrentThread() {
+        Claim claim = claims.get();
+        if (claim.attempted) {
+            return claim.ring;
+        }
+        claim.attempted = true;
+        Thread current = Thread.currentThread();
+        for (Ring ring : rings) {
+            Thread owner = ring.owner.get();
+            // 线程结束后isAlive返回false，其之前的发布对接管线程可见
+            if ((owner == null || !owner.isAlive()) && ring.owner.compareAndSet(owner, current)) {
+                claim.ring = ring;
+                return ring;
+            }
+        }
+        return null;
+    }
+
+    private void consume() {
+        int idle = 0;
+        while (true) {
+            boolean stopping = !running;
+            int drained = 0;
+            for (Ring ring : rings) {
+                drained += ring.drain();
+            }
+            if (drained > 0) {
+                idle = 0;
+                continue;
+            }
+            // 先读停止标志再做最后一轮排空，确保停止前发布的事件都已交出
+            if (stopping) {
+                return;
+            }
+            if (++idle < SPIN_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private final class Ring implements EventPoller.Handler<EnhancedDisruptorBatchingQueue.LogEventHolder> {
+        final RingBuffer<EnhancedDisruptorBatchingQueue.LogEventHolder> buffer;
+        final EventPoller<EnhancedDisruptorBatchingQueue.LogEventHolder> poller;
+        final AtomicReference<Thread> owner = new AtomicReference<>();
+        private int drained;
+
+        Ring(int capacity) {
+            this.buffer = RingBuffer.createSingleProducer(EnhancedDisruptorBatchingQueue.LogEventHolder::new, capacity);
+            this.poller = buffer.newPoller();
+            buffer.addGatingSequences(poller.getSequence());
+        }
+
+        /**
+         * 合并线程、关闭线程和关闭后发布的生产者都可能调用，加锁串行化轮询
+         */
+        synchronized int drain() {
+            drained = 0;
+            try {
+                poller.poll(this);
+            } catch (Exception e) {
+                logger.error("Error while merging producer ring: {}", e.getMessage(), e);
+            }
+            return drained;
+        }
+
+        @Override
+        public boolean onEvent(EnhancedDisruptorBatchingQueue.LogEventHolder event, long sequence, boolean endOfBatch) {
+            if (event.hasData()) {
+                byte[] payload = event.takePayload();
+                long timestampMs = event.timestampMs;
+                event.clear();
+                sink.accept(payload, timestampMs);
+            } else {
+                event.clear();
+            }
+            drained++;
+            return true;
+        }
+    }
+
+    private static final class Claim {
+        Ring ring;
+        boolean attempted;
+    }
+}
@@ -0,0 +1,155 @@
+package org.logx.core;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 可随机访问的分块GZIP格式
+ * <p>
+ * 批次按固定大小切块，每块单独压缩为一个完整的GZIP成员，各成员首尾相接，
+ * gzip、zcat以及 {@link java.util.zip.GZIPInputStream} 都按多成员GZIP解压出原始数据。
+ * 数据块之后追加不含数据的元数据成员，偏移表放在成员头的FEXTRA扩展字段里，标准工具解压时不产生任何输出：
+ * <pre>
+ * [数据块0][数据块1]...[数据块n-1][偏移表成员...][尾部成员]
+ * </pre>
+ * <ul>
+ * <li>偏移表成员：扩展子字段'LX'，内容为varint格式的 版本、块大小、块数、原始总长度 以及各块压缩后的长度；
+ * 单个扩展字段最多64KB，偏移表较大时顺序拆成多个成员</li>
+ * <li>尾部成员：固定 {@link #FOOTER_SIZE} 字节，扩展子字段'LF'为偏移表起始位置（小端8字节）</li>
+ * </ul>
+ * 读取时先取对象末尾的尾部成员定位偏移表，再按需只读取和解压目标块，见 {@link SeekableGzipReader}。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class SeekableGzipCodec {
+
+    /**
+     * 尾部成员长度
+     */
+    public static final int FOOTER_SIZE = 34;
+
+    static final int VERSION = 1;
+    static final byte TABLE_SI1 = 'L';
+    static final byte TABLE_SI2 = 'X';
+    static final byte FOOTER_SI1 = 'L';
+    static final byte FOOTER_SI2 = 'F';
+    static final int FLAG_EXTRA = 0x04;
+    static final int MAX_SUBFIELD_BYTES = 65535 - 4;
+
+    private static final int MIN_BLOCK_SIZE = 4 * 1024;
+
+    /**
+     * 不含扩展字段的GZIP成员头：ID1 ID2 CM=deflate FLG=0 MTIME=0 XFL=0 OS=unknown
+     */
+    private static final byte[] BLOCK_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    /**
+     * 空的deflate流（仅含结束标记的固定哈夫曼末块）加上CRC32=0、ISIZE=0
+     */
+    private static final byte[] EMPTY_BODY = {3, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+
+    private SeekableGzipCodec() {
+    }
+
+    /**
+     * 按块压缩
+     *
+     * @param data 原始数据
+     * @param offset 起始偏移
+     * @param length 长度
+     * @param blockSize 每块原始数据大小，小于4KB时按4KB处理
+     * @return 分块GZIP数据
+     */
+    public static byte[] compress(byte[] data, int offset, int length, int blockSize) {
+        int block = Math.max(MIN_BLOCK_SIZE, blockSize);
+        int blockCount = (length + block - 1) / block;
+        int[] compressedSizes = new int[blockCount];
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 4));
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        try {
+            for (int i = 0; i < blockCount; i++) {
+                int start = out.size();
+                int pos = offset + i * block;
+                int n = Math.min(block, offset + length - pos);
+
+                out.write(BLOCK_HEADER, 0, BLOCK_HEADER.length);
+                deflater.reset();
+                deflater.setInput(data, pos, n);
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int written = deflater.deflate(buffer);
+                    out.write(buffer, 0, written);
+                }
+                crc.reset();
+                crc.update(data, pos, n);
+                writeIntLE(out, (int) crc.getValue());
+                writeIntLE(out, n);
+                compressedSizes[i] = out.size() - start;
+            }
+        } finally {
+            deflater.end();
+        }
+
+        ByteArrayOutputStream table = new ByteArrayOutputStream(16 + blockCount * 3);
+        writeVarLong(table, VERSION);
+        writeVarLong(table, block);
+        writeVarLong(table, blockCount);
+        writeVarLong(table, length);
+        for (int size : compressedSizes) {
+            writeVarLong(table, size);
+        }
+        long tableOffset = out.size();
+        byte[] tableBytes = table.toByteArray();
+        for (int pos = 0; pos < tableBytes.length; pos += MAX_SUBFIELD_BYTES) {
+            writeMetadataMember(out, TABLE_SI1, TABLE_SI2, tableBytes, pos,
+                    Math.min(MAX_SUBFIELD_BYTES, tableBytes.length - pos));
+        }
+
+        byte[] footer = new byte[8];
+        for (int i = 0; i < 8; i++) {
+            footer[i] = (byte) (tableOffset >>> (8 * i));
+        }
+        writeMetadataMember(out, FOOTER_SI1, FOOTER_SI2, footer, 0, footer.length);
+        return out.toByteArray();
+    }
+
+    private static void writeMetadataMember(ByteArrayOutputStream out, byte si1, byte si2, byte[] payload, int offset,
+            int length) {
+        out.write(0x1f);
+        out.write(0x8b);
+        out.write(8);
+        out.write(FLAG_EXTRA);
+        writeIntLE(out, 0);
+        out.write(0);
+        out.write(0xff);
+        writeShortLE(out, length + 4);
+        out.write(si1);
+        out.write(si2);
+        writeShortLE(out, length);
+        out.write(payload, offset, length);
+        out.write(EMPTY_BODY, 0, EMPTY_BODY.length);
+    }
+
+    private static void writeShortLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        writeShortLE(out, value);
+        writeShortLE(out, value >>> 16);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
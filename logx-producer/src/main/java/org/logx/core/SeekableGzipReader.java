@@ -0,0 +1,339 @@
+package org.logx.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 分块GZIP对象的随机读取工具
+ * <p>
+ * 打开时只读取尾部成员和偏移表，之后按块读取和解压，读取量与实际需要的数据成正比。
+ * 数据来源抽象为 {@link Source}，本地文件和内存数组已内置，对象存储可用Range GET实现。
+ * 结合批次侧边索引中的事件偏移，{@link #blockForOffset} 可直接定位某条日志所在的块。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class SeekableGzipReader implements Closeable {
+
+    /**
+     * 支持按位置读取的数据来源
+     */
+    public interface Source extends Closeable {
+
+        long size() throws IOException;
+
+        /**
+         * 从position处读满length字节
+         */
+        void readFully(long position, byte[] buffer, int offset, int length) throws IOException;
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    private final Source source;
+    private final int blockSize;
+    private final long uncompressedLength;
+    private final long[] blockOffsets;
+
+    private SeekableGzipReader(Source source, int blockSize, long uncompressedLength, long[] blockOffsets) {
+        this.source = source;
+        this.blockSize = blockSize;
+        this.uncompressedLength = uncompressedLength;
+        this.blockOffsets = blockOffsets;
+    }
+
+    /**
+     * 打开本地文件
+     *
+     * @param file 分块GZIP文件
+     * @return 读取器，使用完毕后需关闭
+     * @throws IOException 读取失败或不是分块GZIP格式
+     */
+    public static SeekableGzipReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return open(new Source() {
+                @Override
+                public long size() throws IOException {
+                    return channel.size();
+                }
+
+                @Override
+                public void readFully(long position, byte[] buffer, int offset, int length) throws IOException {
+                    ByteBuffer target = ByteBuffer.wrap(buffer, offset, length);
+                    while (target.hasRemaining()) {
+                        if (channel.read(target, position + target.position() - offset) < 0) {
+                            throw new EOFException("Unexpected end of file " + file);
+                        }
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    channel.close();
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 打开内存中的对象
+     *
+     * @param data 分块GZIP数据
+     * @return 读取器
+     * @throws IOException 不是分块GZIP格式
+     */
+    public static SeekableGzipReader open(byte[] data) throws IOException {
+        return open(new Source() {
+            @Override
+            public long size() {
+                return data.length;
+            }
+
+            @Override
+            public void readFully(long position, byte[] buffer, int offset, int length) throws IOException {
+                if (position < 0 || position + length > data.length) {
+                    throw new EOFException("Read beyond end of data: " + position + "+" + length);
+                }
+                System.arraycopy(data, (int) position, buffer, offset, length);
+            }
+        });
+    }
+
+    /**
+     * 打开任意数据来源，读取尾部成员与偏移表
+     *
+     * @param source 数据来源
+     * @return 读取器
+     * @throws IOException 读取失败或不是分块GZIP格式
+     */
+    public static SeekableGzipReader open(Source source) throws IOException {
+        long size = source.size();
+        if (size < SeekableGzipCodec.FOOTER_SIZE) {
+            throw new IOException("Not a seekable gzip object: too short");
+        }
+        byte[] footer = new byte[SeekableGzipCodec.FOOTER_SIZE];
+        source.readFully(size - footer.length, footer, 0, footer.length);
+        ByteArrayOutputStream footerPayload = new ByteArrayOutputStream(8);
+        if (readMetadataMember(footer, 0, SeekableGzipCodec.FOOTER_SI1, SeekableGzipCodec.FOOTER_SI2,
+                footerPayload) != footer.length || footerPayload.size() != 8) {
+            throw new IOException("Not a seekable gzip object: missing footer");
+        }
+        long tableOffset = 0;
+        byte[] offsetBytes = footerPayload.toByteArray();
+        for (int i = 7; i >= 0; i--) {
+            tableOffset = (tableOffset << 8) | (offsetBytes[i] & 0xFF);
+        }
+        long tableLength = size - footer.length - tableOffset;
+        if (tableOffset < 0 || tableLength <= 0 || tableLength > Integer.MAX_VALUE) {
+            throw new IOException("Corrupted seekable gzip object: bad table offset " + tableOffset);
+        }
+
+        byte[] tableMembers = new byte[(int) tableLength];
+        source.readFully(tableOffset, tableMembers, 0, tableMembers.length);
+        ByteArrayOutputStream table = new ByteArrayOutputStream(tableMembers.length);
+        for (int pos = 0; pos < tableMembers.length; ) {
+            pos = readMetadataMember(tableMembers, pos, SeekableGzipCodec.TABLE_SI1, SeekableGzipCodec.TABLE_SI2,
+                    table);
+        }
+
+        int[] cursor = {0};
+        byte[] tableBytes = table.toByteArray();
+        long version = readVarLong(tableBytes, cursor);
+        if (version != SeekableGzipCodec.VERSION) {
+            throw new IOException("Unsupported seekable gzip version: " + version);
+        }
+        int blockSize = (int) readVarLong(tableBytes, cursor);
+        int blockCount = (int) readVarLong(tableBytes, cursor);
+        long uncompressedLength = readVarLong(tableBytes, cursor);
+        if (blockSize <= 0 || blockCount < 0 || (long) blockCount * blockSize < uncompressedLength) {
+            throw new IOException("Corrupted seekable gzip table");
+        }
+        long[] blockOffsets = new long[blockCount + 1];
+        for (int i = 0; i < blockCount; i++) {
+            blockOffsets[i + 1] = blockOffsets[i] + readVarLong(tableBytes, cursor);
+        }
+        if (blockOffsets[blockCount] != tableOffset) {
+            throw new IOException("Corrupted seekable gzip table: block sizes do not match table offset");
+        }
+        return new SeekableGzipReader(source, blockSize, uncompressedLength, blockOffsets);
+    }
+
+    public int getBlockCount() {
+        return blockOffsets.length - 1;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public long getUncompressedLength() {
+        return uncompressedLength;
+    }
+
+    /**
+     * 原始数据偏移所在的块
+     *
+     * @param uncompressedOffset 原始数据中的偏移
+     * @return 块序号
+     */
+    public int blockForOffset(long uncompressedOffset) {
+        if (uncompressedOffset < 0 || uncompressedOffset >= uncompressedLength) {
+            throw new IndexOutOfBoundsException("Offset " + uncompressedOffset + " outside [0, "
+                    + uncompressedLength + ")");
+        }
+        return (int) (uncompressedOffset / blockSize);
+    }
+
+    /**
+     * 读取并解压一个块
+     *
+     * @param block 块序号
+     * @return 块的原始数据
+     * @throws IOException 读取失败或数据损坏
+     */
+    public byte[] readBlock(int block) throws IOException {
+        if (block < 0 || block >= getBlockCount()) {
+            throw new IndexOutOfBoundsException("Block " + block + " outside [0, " + getBlockCount() + ")");
+        }
+        byte[] member = new byte[(int) (blockOffsets[block + 1] - blockOffsets[block])];
+        source.readFully(blockOffsets[block], member, 0, member.length);
+        if (member.length < 18 || (member[0] & 0xFF) != 0x1f || (member[1] & 0xFF) != 0x8b || member[2] != 8
+                || member[3] != 0) {
+            throw new IOException("Corrupted seekable gzip block " + block);
+        }
+        int expectedLength = readIntLE(member, member.length - 4);
+        int expectedCrc = readIntLE(member, member.length - 8);
+
+        byte[] result = new byte[expectedLength];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(member, 10, member.length - 18);
+            int n = 0;
+            while (n < result.length && !inflater.finished()) {
+                int read = inflater.inflate(result, n, result.length - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += read;
+            }
+            if (n != result.length || !inflater.finished()) {
+                throw new IOException("Corrupted seekable gzip block " + block + ": length mismatch");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted seekable gzip block " + block + ": " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(result, 0, result.length);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Corrupted seekable gzip block " + block + ": CRC mismatch");
+        }
+        return result;
+    }
+
+    /**
+     * 读取原始数据中的一段，只解压覆盖该范围的块
+     *
+     * @param uncompressedOffset 原始数据中的偏移
+     * @param length 长度，超出末尾的部分被截断
+     * @return 原始数据
+     * @throws IOException 读取失败或数据损坏
+     */
+    public byte[] read(long uncompressedOffset, int length) throws IOException {
+        int available = (int) Math.min(length, uncompressedLength - uncompressedOffset);
+        if (available <= 0) {
+            return new byte[0];
+        }
+        byte[] result = new byte[available];
+        int filled = 0;
+        long position = uncompressedOffset;
+        while (filled < available) {
+            int block = blockForOffset(position);
+            byte[] data = readBlock(block);
+            int inBlock = (int) (position - (long) block * blockSize);
+            int n = Math.min(data.length - inBlock, available - filled);
+            System.arraycopy(data, inBlock, result, filled, n);
+            filled += n;
+            position += n;
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * 解析一个元数据成员，把指定子字段的内容追加到payload
+     *
+     * @return 成员结束位置
+     */
+    private static int readMetadataMember(byte[] data, int pos, byte si1, byte si2, ByteArrayOutputStream payload)
+            throws IOException {
+        if (pos + 12 > data.length || (data[pos] & 0xFF) != 0x1f || (data[pos + 1] & 0xFF) != 0x8b
+                || data[pos + 2] != 8 || data[pos + 3] != SeekableGzipCodec.FLAG_EXTRA) {
+            throw new IOException("Not a seekable gzip object: bad metadata member");
+        }
+        int xlen = readShortLE(data, pos + 10);
+        int extraStart = pos + 12;
+        int extraEnd = extraStart + xlen;
+        int end = extraEnd + 10;
+        if (end > data.length) {
+            throw new IOException("Not a seekable gzip object: truncated metadata member");
+        }
+        for (int field = extraStart; field + 4 <= extraEnd; ) {
+            int len = readShortLE(data, field + 2);
+            if (field + 4 + len > extraEnd) {
+                throw new IOException("Not a seekable gzip object: bad extra field");
+            }
+            if (data[field] == si1 && data[field + 1] == si2) {
+                payload.write(data, field + 4, len);
+            }
+            field += 4 + len;
+        }
+        if (data[extraEnd] != 3 || data[extraEnd + 1] != 0) {
+            throw new IOException("Not a seekable gzip object: metadata member is not empty");
+        }
+        return end;
+    }
+
+    private static long readVarLong(byte[] data, int[] cursor) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (cursor[0] >= data.length) {
+                throw new IOException("Corrupted seekable gzip table: truncated");
+            }
+            int b = data[cursor[0]++] & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted seekable gzip table: varint too long");
+    }
+
+    private static int readShortLE(byte[] data, int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8;
+    }
+
+    private static int readIntLE(byte[] data, int pos) {
+        return readShortLE(data, pos) | readShortLE(data, pos + 2) << 16;
+    }
+}
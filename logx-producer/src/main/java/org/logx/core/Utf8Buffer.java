@@ -0,0 +1,173 @@
+package org.logx.core;
+
+import java.util.Arrays;
+
+/**
+ * 可复用的UTF-8字节缓冲区
+ * <p>
+ * 直接把CharSequence编码进内部数组，不经过中间String，用于结构化记录的编码。
+ * 非线程安全，通常按线程缓存复用。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class Utf8Buffer {
+
+    /**
+     * reset时超过该容量的数组会被丢弃，避免偶发的大消息长期占用内存
+     */
+    private static final int RETAIN_LIMIT = 1024 * 1024;
+
+    private final int initialCapacity;
+    private byte[] buf;
+    private int size;
+
+    public Utf8Buffer(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.buf = new byte[initialCapacity];
+    }
+
+    public Utf8Buffer reset() {
+        if (buf.length > RETAIN_LIMIT) {
+            buf = new byte[initialCapacity];
+        }
+        size = 0;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] array() {
+        return buf;
+    }
+
+    public Utf8Buffer append(int b) {
+        ensure(1);
+        buf[size++] = (byte) b;
+        return this;
+    }
+
+    public Utf8Buffer append(byte[] src, int offset, int length) {
+        ensure(length);
+        System.arraycopy(src, offset, buf, size, length);
+        size += length;
+        return this;
+    }
+
+    public Utf8Buffer append(Utf8Buffer other) {
+        return append(other.buf, 0, other.size);
+    }
+
+    public Utf8Buffer appendVarint(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            buf[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[size++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * 追加非负整数，左侧补0到指定宽度
+     */
+    public Utf8Buffer appendPadded(int value, int width) {
+        ensure(width + 10);
+        int digits = 1;
+        for (int v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < width; i++) {
+            buf[size++] = '0';
+        }
+        int end = size + digits;
+        for (int pos = end - 1; pos >= size; pos--) {
+            buf[pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size = end;
+        return this;
+    }
+
+    /**
+     * 按UTF-8追加字符序列
+     *
+     * @param chars 字符序列，null时不追加
+     * @param stripControls 是否去除换行和制表符以外的控制字符
+     * @return 是否去除了控制字符
+     */
+    public boolean appendUtf8(CharSequence chars, boolean stripControls) {
+        if (chars == null) {
+            return false;
+        }
+        boolean stripped = false;
+        int length = chars.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                if (stripControls && c < 0x20 && c != '\n' && c != '\t' || stripControls && c == 0x7F) {
+                    stripped = true;
+                    continue;
+                }
+                ensure(1);
+                buf[size++] = (byte) c;
+            } else if (c < 0x800) {
+                if (stripControls && c < 0xA0) {
+                    stripped = true;
+                    continue;
+                }
+                ensure(2);
+                buf[size++] = (byte) (0xC0 | (c >> 6));
+                buf[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, chars.charAt(++i));
+                ensure(4);
+                buf[size++] = (byte) (0xF0 | (cp >> 18));
+                buf[size++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[size++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[size++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 不成对的代理字符与String.getBytes一致替换为'?'
+                ensure(1);
+                buf[size++] = '?';
+            } else {
+                ensure(3);
+                buf[size++] = (byte) (0xE0 | (c >> 12));
+                buf[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return stripped;
+    }
+
+    /**
+     * 超过maxBytes时截断到UTF-8字符边界并追加后缀，结果不超过maxBytes
+     *
+     * @return 是否发生截断
+     */
+    public boolean truncate(int maxBytes, byte[] suffix) {
+        if (size <= maxBytes) {
+            return false;
+        }
+        int keep = Math.max(0, maxBytes - suffix.length);
+        while (keep > 0 && (buf[keep] & 0xC0) == 0x80) {
+            keep--;
+        }
+        size = keep;
+        append(suffix, 0, Math.min(suffix.length, maxBytes));
+        return true;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, size);
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+        }
+    }
+}
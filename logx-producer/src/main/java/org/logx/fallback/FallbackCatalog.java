@@ -0,0 +1,267 @@
+package org.logx.fallback;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 单文件兜底数据的内存目录
+ * <p>
+ * 启动时扫描一次兜底目录完成对账，之后由 {@link FallbackManager} 在写入时登记、由重传和清理在删除时注销，
+ * 定时任务只需读取内存中的条目，不再每轮递归遍历目录和逐个读取文件属性。
+ * 条目按写入时间从旧到新排列，过期清理从队首取出，单次操作为常数时间。
+ * 运行期间由外部直接放入目录的文件不会被登记，下次启动时对账纳入。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class FallbackCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackCatalog.class);
+
+    private final Path root;
+    private final Predicate<Path> fallbackFile;
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>();
+    private long totalBytes;
+
+    private FallbackCatalog(Path root, List<String> suffixes) {
+        this.root = root;
+        this.fallbackFile = suffixFilter(suffixes);
+    }
+
+    /**
+     * 扫描兜底目录建立目录
+     *
+     * @param root 兜底根目录
+     * @param suffix 兜底文件后缀
+     * @return 已完成对账的目录
+     */
+    public static FallbackCatalog scan(Path root, String suffix) {
+        return scan(root, Collections.singletonList(suffix));
+    }
+
+    /**
+     * 扫描兜底目录建立目录，匹配任一后缀的文件都会登记
+     *
+     * @param root 兜底根目录
+     * @param suffixes 兜底文件后缀
+     * @return 已完成对账的目录
+     */
+    public static FallbackCatalog scan(Path root, List<String> suffixes) {
+        FallbackCatalog catalog = new FallbackCatalog(root, suffixes);
+        catalog.reconcile();
+        return catalog;
+    }
+
+    /**
+     * 按文件名后缀识别兜底文件
+     */
+    static Predicate<Path> suffixFilter(List<String> suffixes) {
+        List<String> copy = new ArrayList<>(suffixes);
+        return path -> {
+            String name = path.toString();
+            for (String suffix : copy) {
+                if (name.endsWith(suffix)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * 重新扫描磁盘，以磁盘上的实际文件为准重建目录
+     */
+    public void reconcile() {
+        List<Entry> found = new ArrayList<>();
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : files.filter(fallbackFile).collect(Collectors.toList())) {
+                    try {
+                        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                        if (attrs.isRegularFile()) {
+                            found.add(new Entry(file, toKey(file), attrs.size(), attrs.lastModifiedTime().toMillis()));
+                        }
+                    } catch (IOException e) {
+                        logger.debug("Skipping fallback file that vanished during scan: {}", file);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to scan fallback directory: {}", root, e);
+                return;
+            }
+        }
+        found.sort(Comparator.comparingLong(Entry::getCreatedMs));
+        synchronized (this) {
+            entries.clear();
+            totalBytes = 0;
+            for (Entry entry : found) {
+                put(entry);
+            }
+        }
+        if (!found.isEmpty()) {
+            logger.info("Found {} fallback files in {}", found.size(), root);
+        }
+    }
+
+    /**
+     * 登记新写入的兜底文件
+     *
+     * @param file 文件路径
+     * @param size 文件大小
+     */
+    public synchronized void add(Path file, long size) {
+        Entry previous = entries.remove(file);
+        if (previous != null) {
+            totalBytes -= previous.size;
+        }
+        put(new Entry(file, toKey(file), size, System.currentTimeMillis()));
+    }
+
+    /**
+     * 注销已删除的兜底文件
+     *
+     * @param file 文件路径
+     * @return 是否存在该条目
+     */
+    public synchronized boolean remove(Path file) {
+        Entry entry = entries.remove(file);
+        if (entry == null) {
+            return false;
+        }
+        totalBytes -= entry.size;
+        return true;
+    }
+
+    /**
+     * 从队首取出并注销写入时间早于截止时间的条目
+     *
+     * @param cutoffMs 截止时间戳
+     * @return 过期条目，从旧到新
+     */
+    public synchronized List<Entry> pollExpired(long cutoffMs) {
+        List<Entry> expired = new ArrayList<>();
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.createdMs >= cutoffMs) {
+                break;
+            }
+            it.remove();
+            totalBytes -= entry.size;
+            expired.add(entry);
+        }
+        return expired;
+    }
+
+    /**
+     * 从队首取出并注销最早的条目
+     *
+     * @return 最早的条目，目录为空时返回null
+     */
+    public synchronized Entry pollOldest() {
+        Iterator<Entry> it = entries.values().iterator();
+        if (!it.hasNext()) {
+            return null;
+        }
+        Entry entry = it.next();
+        it.remove();
+        totalBytes -= entry.size;
+        return entry;
+    }
+
+    /**
+     * 最早条目的写入时间
+     *
+     * @return 时间戳，目录为空时返回 {@link Long#MAX_VALUE}
+     */
+    public synchronized long getOldestCreatedMs() {
+        Iterator<Entry> it = entries.values().iterator();
+        return it.hasNext() ? it.next().createdMs : Long.MAX_VALUE;
+    }
+
+    /**
+     * 当前条目的快照，从旧到新
+     *
+     * @return 条目列表
+     */
+    public synchronized List<Entry> snapshot() {
+        return new ArrayList<>(entries.values());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private void put(Entry entry) {
+        entries.put(entry.file, entry);
+        totalBytes += entry.size;
+    }
+
+    /**
+     * 以兜底根目录下的相对路径作为对象键，即写入兜底时的原始对象键
+     */
+    private String toKey(Path file) {
+        return ObjectNameGenerator.toObjectKey(root, file);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "FallbackCatalog{files=" + entries.size() + ", bytes=" + totalBytes + "}";
+    }
+
+    /**
+     * 目录中的一个兜底文件
+     */
+    public static final class Entry {
+        private final Path file;
+        private final String key;
+        private final long size;
+        private final long createdMs;
+
+        Entry(Path file, String key, long size, long createdMs) {
+            this.file = file;
+            this.key = key;
+            this.size = size;
+            this.createdMs = createdMs;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getCreatedMs() {
+            return createdMs;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{key=" + key + ", size=" + size + "}";
+        }
+    }
+}
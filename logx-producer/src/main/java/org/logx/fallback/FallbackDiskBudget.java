@@ -0,0 +1,245 @@
+package org.logx.fallback;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 兜底目录的磁盘配额
+ * <p>
+ * 限制兜底数据占用的总字节数，并保证所在文件系统保留最低可用空间。写入前先申请配额，
+ * 超出时按写入时间从旧到新淘汰段存储中的段和单文件兜底数据，淘汰后仍不足则拒绝本次写入，
+ * 长时间中断时丢弃最旧的日志而不是写满磁盘拖垮应用。
+ * <p>
+ * 已用字节数由 {@link FallbackSegmentStore} 和 {@link FallbackCatalog} 增量维护，
+ * 文件系统可用空间按固定间隔刷新、期间按已写入字节数扣减估算，每次申请的开销为常数，不遍历目录。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class FallbackDiskBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackDiskBudget.class);
+
+    private static final long FREE_SPACE_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long maxBytes;
+    private final long minFreeBytes;
+    private final FallbackSegmentStore segmentStore;
+    private final FallbackCatalog catalog;
+    private final FileStore fileStore;
+
+    private long usableBytes = Long.MAX_VALUE;
+    private long usableRefreshedNanos;
+    private boolean usableKnown;
+
+    private final AtomicLong evictedSegments = new AtomicLong();
+    private final AtomicLong evictedFiles = new AtomicLong();
+    private final AtomicLong evictedBytes = new AtomicLong();
+    private final AtomicLong rejectedWrites = new AtomicLong();
+
+    /**
+     * @param directory 兜底目录
+     * @param maxBytes 兜底数据总字节数上限，小于等于0表示不限制
+     * @param minFreeBytes 文件系统最低可用字节数，小于等于0表示不检查
+     * @param segmentStore 段存储，可为null
+     * @param catalog 单文件兜底目录
+     */
+    public FallbackDiskBudget(Path directory, long maxBytes, long minFreeBytes, FallbackSegmentStore segmentStore,
+            FallbackCatalog catalog) {
+        this.maxBytes = maxBytes;
+        this.minFreeBytes = minFreeBytes;
+        this.segmentStore = segmentStore;
+        this.catalog = catalog;
+        this.fileStore = minFreeBytes > 0 ? openFileStore(directory) : null;
+    }
+
+    private static FileStore openFileStore(Path directory) {
+        try {
+            return Files.getFileStore(directory);
+        } catch (IOException e) {
+            logger.warn("Cannot determine file store of {}, free-space watermark disabled: {}", directory,
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0 || fileStore != null;
+    }
+
+    /**
+     * 为即将写入的字节申请配额，必要时从最旧的数据开始淘汰
+     *
+     * @param bytes 即将写入的字节数
+     * @return 是否允许写入
+     */
+    public synchronized boolean reserve(long bytes) {
+        if (!isEnabled()) {
+            return true;
+        }
+        boolean fits = maxBytes <= 0 || bytes <= maxBytes;
+        while (exceeds(bytes)) {
+            if (!fits || !evictOldest()) {
+                rejectedWrites.incrementAndGet();
+                logger.warn("Fallback disk budget exhausted, rejecting {} bytes (used: {}, max: {}, usable: {})",
+                        bytes, getUsedBytes(), maxBytes, usableBytes);
+                return false;
+            }
+        }
+        if (usableKnown) {
+            usableBytes -= bytes;
+        }
+        return true;
+    }
+
+    private boolean exceeds(long bytes) {
+        if (maxBytes > 0 && getUsedBytes() + bytes > maxBytes) {
+            return true;
+        }
+        if (fileStore == null) {
+            return false;
+        }
+        refreshUsableBytes();
+        return usableKnown && usableBytes - bytes < minFreeBytes;
+    }
+
+    private void refreshUsableBytes() {
+        long now = System.nanoTime();
+        if (usableKnown && now - usableRefreshedNanos < FREE_SPACE_REFRESH_NANOS) {
+            return;
+        }
+        try {
+            usableBytes = fileStore.getUsableSpace();
+            usableKnown = true;
+        } catch (IOException e) {
+            usableKnown = false;
+            logger.debug("Failed to read usable space of {}: {}", fileStore, e.getMessage());
+        }
+        usableRefreshedNanos = now;
+    }
+
+    /**
+     * 淘汰段存储或单文件目录中写入时间最早的一项
+     */
+    private boolean evictOldest() {
+        long segmentOldest = segmentStore != null ? segmentStore.getOldestTimestampMs() : Long.MAX_VALUE;
+        long fileOldest = catalog.getOldestCreatedMs();
+        if (segmentOldest == Long.MAX_VALUE && fileOldest == Long.MAX_VALUE) {
+            return false;
+        }
+        long freed;
+        if (segmentOldest <= fileOldest) {
+            freed = segmentStore.evictOldestSegment();
+            evictedSegments.incrementAndGet();
+        } else {
+            FallbackCatalog.Entry entry = catalog.pollOldest();
+            if (entry == null) {
+                return false;
+            }
+            freed = entry.getSize();
+            try {
+                Files.deleteIfExists(entry.getFile());
+            } catch (IOException e) {
+                logger.warn("Failed to delete evicted fallback file {}: {}", entry.getFile(), e.getMessage());
+            }
+            logger.warn("Evicted fallback file {} to stay within the disk budget", entry.getKey());
+            evictedFiles.incrementAndGet();
+        }
+        evictedBytes.addAndGet(freed);
+        if (usableKnown) {
+            usableBytes += freed;
+        }
+        return true;
+    }
+
+    /**
+     * 兜底数据当前占用的字节数
+     *
+     * @return 字节数
+     */
+    public long getUsedBytes() {
+        return (segmentStore != null ? segmentStore.getDiskBytes() : 0L) + catalog.getTotalBytes();
+    }
+
+    public synchronized DiskBudgetMetrics getMetrics() {
+        return new DiskBudgetMetrics(maxBytes, minFreeBytes, getUsedBytes(), usableKnown ? usableBytes : -1L,
+                evictedSegments.get(), evictedFiles.get(), evictedBytes.get(), rejectedWrites.get());
+    }
+
+    /**
+     * 磁盘配额统计指标
+     */
+    public static class DiskBudgetMetrics {
+        private final long maxBytes;
+        private final long minFreeBytes;
+        private final long usedBytes;
+        private final long usableBytes;
+        private final long evictedSegments;
+        private final long evictedFiles;
+        private final long evictedBytes;
+        private final long rejectedWrites;
+
+        public DiskBudgetMetrics(long maxBytes, long minFreeBytes, long usedBytes, long usableBytes,
+                long evictedSegments, long evictedFiles, long evictedBytes, long rejectedWrites) {
+            this.maxBytes = maxBytes;
+            this.minFreeBytes = minFreeBytes;
+            this.usedBytes = usedBytes;
+            this.usableBytes = usableBytes;
+            this.evictedSegments = evictedSegments;
+            this.evictedFiles = evictedFiles;
+            this.evictedBytes = evictedBytes;
+            this.rejectedWrites = rejectedWrites;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public long getMinFreeBytes() {
+            return minFreeBytes;
+        }
+
+        public long getUsedBytes() {
+            return usedBytes;
+        }
+
+        /**
+         * 最近一次估算的文件系统可用字节数，未启用水位检查时为-1
+         */
+        public long getUsableBytes() {
+            return usableBytes;
+        }
+
+        public long getEvictedSegments() {
+            return evictedSegments;
+        }
+
+        public long getEvictedFiles() {
+            return evictedFiles;
+        }
+
+        public long getEvictedBytes() {
+            return evictedBytes;
+        }
+
+        public long getRejectedWrites() {
+            return rejectedWrites;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "DiskBudgetMetrics{used=%d, max=%d, usable=%d, minFree=%d, evictedSegments=%d, evictedFiles=%d, "
+                            + "evictedBytes=%d, rejected=%d}",
+                    usedBytes, maxBytes, usableBytes, minFreeBytes, evictedSegments, evictedFiles, evictedBytes,
+                    rejectedWrites);
+        }
+    }
+}
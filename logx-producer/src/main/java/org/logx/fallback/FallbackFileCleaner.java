@@ -10,6 +10,7 @@ import java.nio.file.Paths;
 import java.nio.file.attribute.FileTime;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
@@ -48,6 +49,7 @@ public class FallbackFileCleaner {
             AtomicInteger deletedCount = new AtomicInteger(0);
             try (Stream<Path> files = Files.walk(fallbackDir)) {
                 files.filter(Files::isRegularFile)
+                     .filter(file -> !isSegmentFile(file))
                      .filter(file -> isFileExpired(file, expiryTime))
                      .forEach(file -> {
                          if (deleteFile(file)) {
@@ -63,6 +65,35 @@ public class FallbackFileCleaner {
         }
     }
     
+    /**
+     * 按目录清理过期的兜底文件，只处理目录队首已过期的条目，不遍历磁盘
+     *
+     * @param catalog 兜底文件目录
+     * @param retentionDays 保留天数
+     * @return 删除的文件数
+     */
+    public static int cleanupExpiredFiles(FallbackCatalog catalog, int retentionDays) {
+        long cutoffMs = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays);
+        int deletedCount = 0;
+        for (FallbackCatalog.Entry entry : catalog.pollExpired(cutoffMs)) {
+            if (deleteFile(entry.getFile())) {
+                deletedCount++;
+            }
+        }
+        if (deletedCount > 0) {
+            logger.info("Cleanup completed. Deleted {} expired fallback files", deletedCount);
+        }
+        return deletedCount;
+    }
+
+    /**
+     * 段文件由 {@link FallbackSegmentStore} 自行按保留期清理
+     */
+    private static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(FallbackSegmentStore.SEGMENT_SUFFIX) || name.endsWith(FallbackSegmentStore.INDEX_SUFFIX);
+    }
+
     /**
      * 检查文件是否过期
      * 
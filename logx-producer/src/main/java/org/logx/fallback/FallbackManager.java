@@ -7,22 +7,41 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * 兜底文件管理器
  * <p>
- * 负责兜底文件的存储和管理
+ * 负责兜底文件的存储和管理。失败批次默认追加到 {@link FallbackSegmentStore} 的段文件中，
+ * 段存储不可用时退回到每个批次一个文件的旧方式，这些文件登记在 {@link FallbackCatalog} 中供重传和清理使用。
+ * 每次写入前向 {@link FallbackDiskBudget} 申请配额，超出时淘汰最旧的兜底数据或拒绝写入。
  *
  * @author OSS Appender Team
  * @since 1.0.0
  */
-public class FallbackManager {
+public class FallbackManager implements AutoCloseable {
 
     private static final Logger logger = LoggerFactory.getLogger(FallbackManager.class);
 
+    /**
+     * 默认段文件大小
+     */
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * 单文件兜底数据的后缀，覆盖对象键模板可能产生的全部扩展名：文本批次为.log.gz，列式批次为.parquet
+     */
+    static final List<String> FALLBACK_FILE_SUFFIXES = Collections.unmodifiableList(Arrays.asList(".log.gz", ".parquet"));
+
     private final String fallbackPath;
     private final String absoluteFallbackPath;
     private final String keyPrefix;
+    private volatile ObjectKeyTemplate keyTemplate = ObjectKeyTemplate.defaultTemplate();
+    private final FallbackSegmentStore segmentStore;
+    private final FallbackCatalog catalog;
+    private final FallbackDiskBudget diskBudget;
 
     /**
      * 构造兜底文件管理器
@@ -32,6 +51,33 @@ public class FallbackManager {
      * @throws IllegalArgumentException 如果参数为null或空
      */
     public FallbackManager(String fallbackPath, String keyPrefix) {
+        this(fallbackPath, keyPrefix, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * 构造兜底文件管理器
+     *
+     * @param fallbackPath 兜底文件存储路径
+     * @param keyPrefix 对象键前缀
+     * @param segmentBytes 兜底段文件的滚动阈值
+     * @throws IllegalArgumentException 如果参数为null或空
+     */
+    public FallbackManager(String fallbackPath, String keyPrefix, long segmentBytes) {
+        this(fallbackPath, keyPrefix, segmentBytes, 0L, 0L);
+    }
+
+    /**
+     * 构造兜底文件管理器
+     *
+     * @param fallbackPath 兜底文件存储路径
+     * @param keyPrefix 对象键前缀
+     * @param segmentBytes 兜底段文件的滚动阈值
+     * @param maxDiskBytes 兜底数据占用的磁盘字节数上限，小于等于0表示不限制
+     * @param minFreeDiskBytes 兜底目录所在文件系统需保留的最低可用字节数，小于等于0表示不检查
+     * @throws IllegalArgumentException 如果参数为null或空
+     */
+    public FallbackManager(String fallbackPath, String keyPrefix, long segmentBytes, long maxDiskBytes,
+            long minFreeDiskBytes) {
         if (fallbackPath == null || fallbackPath.trim().isEmpty()) {
             throw new IllegalArgumentException("Fallback path cannot be null or empty");
         }
@@ -40,6 +86,20 @@ public class FallbackManager {
         this.absoluteFallbackPath = FallbackPathResolver.resolveAbsolutePath(this.fallbackPath);
         this.keyPrefix = keyPrefix;
         FallbackPathResolver.ensureFallbackDirectoryExists(this.fallbackPath);
+        this.segmentStore = openSegmentStore(segmentBytes);
+        this.catalog = FallbackCatalog.scan(Paths.get(absoluteFallbackPath), FALLBACK_FILE_SUFFIXES);
+        this.diskBudget = new FallbackDiskBudget(Paths.get(absoluteFallbackPath), maxDiskBytes, minFreeDiskBytes,
+                segmentStore, catalog);
+    }
+
+    private FallbackSegmentStore openSegmentStore(long segmentBytes) {
+        try {
+            return FallbackSegmentStore.open(Paths.get(absoluteFallbackPath), segmentBytes);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to open fallback segment store in {}, using one file per batch: {}",
+                    absoluteFallbackPath, e.getMessage(), e);
+            return null;
+        }
     }
     
     /**
@@ -48,6 +108,24 @@ public class FallbackManager {
      * @return 是否写入成功
      */
     public boolean writeFallbackFile(byte[] data) {
+        return writeFallbackFile(keyTemplate.render(keyPrefix), data);
+    }
+
+    /**
+     * 设置生成对象键的模板，与实时上传使用同一布局
+     * @param keyTemplate 对象键模板
+     */
+    public void setKeyTemplate(ObjectKeyTemplate keyTemplate) {
+        this.keyTemplate = keyTemplate != null ? keyTemplate : ObjectKeyTemplate.defaultTemplate();
+    }
+
+    /**
+     * 写入兜底文件，重传时沿用给定的对象键
+     * @param objectName 对象键
+     * @param data 日志数据
+     * @return 是否写入成功
+     */
+    public boolean writeFallbackFile(String objectName, byte[] data) {
         if (data == null) {
             logger.warn("Attempted to write null data to fallback file");
             return false;
@@ -57,10 +135,27 @@ public class FallbackManager {
             logger.warn("Attempted to write empty data to fallback file");
             return false;
         }
-        
+
+        if (!diskBudget.reserve(data.length)) {
+            logger.error("Dropping fallback batch {} ({} bytes): fallback disk budget exhausted", objectName,
+                    data.length);
+            return false;
+        }
+
+        if (segmentStore != null) {
+            try {
+                segmentStore.append(objectName, data);
+                logger.info("Appended fallback record: {} (size: {} bytes)", objectName, data.length);
+                return true;
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to append fallback record {}, writing a standalone file instead: {}",
+                        objectName, e.getMessage());
+            }
+        }
+
         try {
-            String fallbackObjectName = ObjectNameGenerator.generateObjectName(keyPrefix);
-            Path fallbackFile = Paths.get(absoluteFallbackPath, fallbackObjectName);
+            String fallbackObjectName = objectName;
+            Path fallbackFile = ObjectNameGenerator.toFallbackFile(Paths.get(absoluteFallbackPath), fallbackObjectName);
             
             // 确保目录存在
             Path parentDir = fallbackFile.getParent();
@@ -69,6 +164,7 @@ public class FallbackManager {
             }
             
             Files.write(fallbackFile, data);
+            catalog.add(fallbackFile, data.length);
             
             logger.info("Wrote fallback file: {} (size: {} bytes)", fallbackObjectName, data.length);
             return true;
@@ -81,6 +177,37 @@ public class FallbackManager {
         }
     }
     
+    /**
+     * 获取兜底段存储
+     * @return 段存储，打开失败时返回null
+     */
+    public FallbackSegmentStore getSegmentStore() {
+        return segmentStore;
+    }
+
+    /**
+     * 获取兜底目录的磁盘配额
+     * @return 磁盘配额
+     */
+    public FallbackDiskBudget getDiskBudget() {
+        return diskBudget;
+    }
+
+    /**
+     * 获取单文件兜底数据的目录
+     * @return 兜底文件目录
+     */
+    public FallbackCatalog getCatalog() {
+        return catalog;
+    }
+
+    @Override
+    public void close() {
+        if (segmentStore != null) {
+            segmentStore.close();
+        }
+    }
+
     /**
      * 获取兜底路径
      * @return 兜底路径
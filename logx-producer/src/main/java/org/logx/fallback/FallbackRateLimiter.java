@@ -0,0 +1,54 @@
+package org.logx.fallback;
+
+import org.logx.reliability.TokenBucket;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 兜底重传的字节速率限制器
+ * <p>
+ * 基于 {@link TokenBucket}，桶容量为一秒的配额，单次申请超过剩余令牌时允许透支。
+ * 兜底重传同时受全局上传限速约束，这里的上限只用于进一步压低恢复流量。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class FallbackRateLimiter {
+
+    private final TokenBucket bucket;
+    private final AtomicLong throttledNanos = new AtomicLong();
+
+    /**
+     * @param bytesPerSecond 每秒字节数上限，小于等于0表示不限速
+     */
+    public FallbackRateLimiter(long bytesPerSecond) {
+        this.bucket = bytesPerSecond > 0 ? new TokenBucket(bytesPerSecond, bytesPerSecond) : null;
+    }
+
+    public boolean isUnlimited() {
+        return bucket == null;
+    }
+
+    /**
+     * 申请发送指定字节数，必要时阻塞等待
+     *
+     * @param bytes 字节数
+     * @throws InterruptedException 等待期间被中断
+     */
+    public void acquire(long bytes) throws InterruptedException {
+        if (isUnlimited()) {
+            return;
+        }
+        throttledNanos.addAndGet(bucket.acquire(bytes));
+    }
+
+    /**
+     * 累计因限速等待的时间
+     *
+     * @return 毫秒数
+     */
+    public long getThrottledMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(throttledNanos.get());
+    }
+}
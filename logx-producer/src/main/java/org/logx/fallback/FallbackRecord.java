@@ -0,0 +1,95 @@
+package org.logx.fallback;
+
+/**
+ * 兜底段文件中的一条批次记录
+ * <p>
+ * 只保存定位信息与对象键，数据本身由 {@link FallbackSegmentStore#read(FallbackRecord)} 按偏移读取。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class FallbackRecord {
+
+    private final long segmentId;
+    private final long offset;
+    private final int bodyLength;
+    private final String key;
+    private final int keyByteLength;
+    private final long timestampMs;
+    private volatile boolean acknowledged;
+
+    FallbackRecord(long segmentId, long offset, int bodyLength, String key, int keyByteLength, long timestampMs,
+            boolean acknowledged) {
+        this.segmentId = segmentId;
+        this.offset = offset;
+        this.bodyLength = bodyLength;
+        this.key = key;
+        this.keyByteLength = keyByteLength;
+        this.timestampMs = timestampMs;
+        this.acknowledged = acknowledged;
+    }
+
+    public long getSegmentId() {
+        return segmentId;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * 记录在段文件中占用的总字节数
+     *
+     * @return 记录长度（含记录头）
+     */
+    public int getRecordLength() {
+        return FallbackSegmentStore.RECORD_HEADER_BYTES + bodyLength;
+    }
+
+    int getBodyLength() {
+        return bodyLength;
+    }
+
+    /**
+     * 批次数据在段文件中的起始偏移
+     */
+    long getPayloadOffset() {
+        return offset + FallbackSegmentStore.RECORD_HEADER_BYTES + FallbackSegmentStore.BODY_FIXED_BYTES
+                + keyByteLength;
+    }
+
+    /**
+     * 批次数据长度
+     *
+     * @return 字节数
+     */
+    public int getPayloadLength() {
+        return bodyLength - FallbackSegmentStore.BODY_FIXED_BYTES - keyByteLength;
+    }
+
+    /**
+     * 写入兜底时生成的对象键，重传时沿用
+     *
+     * @return 对象键
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    public boolean isAcknowledged() {
+        return acknowledged;
+    }
+
+    void markAcknowledged() {
+        this.acknowledged = true;
+    }
+
+    @Override
+    public String toString() {
+        return "FallbackRecord{segment=" + segmentId + ", offset=" + offset + ", key=" + key + "}";
+    }
+}
@@ -0,0 +1,804 @@
+package org.logx.fallback;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * 分段追加的兜底存储
+ * <p>
+ * 上传失败的批次以带长度前缀和CRC校验的记录追加到滚动的段文件中，取代"每个失败批次一个文件"的做法，
+ * 目录中的文件数从O(批次数)降为O(段数)。每个段配有一个索引文件记录各条记录的偏移，
+ * 重传时按偏移读取记录，成功后原地把记录状态标记为已确认，段内记录全部确认后删除整个段。
+ * <p>
+ * 记录状态字节同时充当持久化的重传进度：待重传(0) → 重传中(2) → 已确认(1)。
+ * 重启后已确认的记录不会再次上传；处于重传中的记录无法确定是否已到达存储端，
+ * 会按待重传处理（同一对象键重复上传是幂等的）。
+ * <p>
+ * 段文件布局：
+ * <pre>
+ * int magic | int version
+ * 记录: int bodyLength | int crc32(body) | byte state | body
+ * body: long timestampMs | short keyLength | key(UTF-8) | data
+ * </pre>
+ * 索引文件为连续的 long offset。进程异常退出导致的不完整尾部记录在恢复时被忽略，
+ * 内容损坏的记录在读取时由CRC校验发现。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class FallbackSegmentStore implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackSegmentStore.class);
+
+    static final int MAGIC = 0x4C584642;
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 8;
+    static final int RECORD_HEADER_BYTES = 9;
+    static final int BODY_FIXED_BYTES = 10;
+    static final int INDEX_ENTRY_BYTES = 8;
+    static final byte STATE_PENDING = 0;
+    static final byte STATE_ACKNOWLEDGED = 1;
+    static final byte STATE_IN_PROGRESS = 2;
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+    private static final String SEGMENT_PREFIX = "fallback-";
+    private static final int VERIFY_CHUNK_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private long nextSegmentId;
+    private long diskBytes;
+    private boolean closed;
+
+    private final AtomicLong appendedRecords = new AtomicLong();
+    private final AtomicLong acknowledgedRecords = new AtomicLong();
+    private final AtomicLong corruptedRecords = new AtomicLong();
+    private final AtomicLong expiredRecords = new AtomicLong();
+    private final AtomicLong interruptedRecords = new AtomicLong();
+    private final AtomicLong evictedRecords = new AtomicLong();
+
+    private FallbackSegmentStore(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        this.nextSegmentId = recoverSegments() + 1;
+    }
+
+    /**
+     * 打开兜底段目录，恢复其中尚未确认的记录
+     *
+     * @param directory 段文件目录
+     * @param segmentBytes 单个段的滚动阈值
+     * @return 兜底存储
+     * @throws IOException 目录不可用
+     */
+    public static FallbackSegmentStore open(Path directory, long segmentBytes) throws IOException {
+        Objects.requireNonNull(directory, "directory cannot be null");
+        if (segmentBytes <= SEGMENT_HEADER_BYTES) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        return new FallbackSegmentStore(directory, segmentBytes);
+    }
+
+    private long recoverSegments() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                long id = parseId(file);
+                if (id >= 0) {
+                    ids.add(id);
+                }
+            }
+        }
+        Collections.sort(ids);
+
+        long maxId = -1;
+        int pending = 0;
+        for (long id : ids) {
+            maxId = Math.max(maxId, id);
+            try {
+                Segment segment = Segment.recover(id, segmentPath(id), indexPath(id));
+                interruptedRecords.addAndGet(segment.interruptedRecords);
+                if (segment.pendingRecords == 0) {
+                    segment.delete();
+                } else {
+                    segments.put(id, segment);
+                    diskBytes += segment.diskBytes();
+                    pending += segment.pendingRecords;
+                }
+            } catch (IOException e) {
+                logger.error("Skipping unreadable fallback segment {}: {}", segmentPath(id), e.getMessage());
+            }
+        }
+        if (pending > 0) {
+            logger.info("Recovered {} pending fallback records ({} interrupted mid-upload) from {} segments in {}",
+                    pending, interruptedRecords.get(), segments.size(), directory);
+        }
+        return maxId;
+    }
+
+    private static long parseId(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private Path indexPath(long id) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, INDEX_SUFFIX));
+    }
+
+    /**
+     * 追加一个批次
+     *
+     * @param key 对象键，重传时沿用
+     * @param data 批次数据（与实时上传的字节完全一致）
+     * @return 新记录
+     * @throws IOException 写入失败
+     */
+    public synchronized FallbackRecord append(String key, byte[] data) throws IOException {
+        if (closed) {
+            throw new IOException("Fallback segment store is closed");
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("key too long: " + keyBytes.length);
+        }
+        int bodyLength = BODY_FIXED_BYTES + keyBytes.length + data.length;
+        int recordLength = RECORD_HEADER_BYTES + bodyLength;
+        if (active == null || (active.size + recordLength > segmentBytes && active.size > SEGMENT_HEADER_BYTES)) {
+            roll();
+        }
+
+        long timestampMs = System.currentTimeMillis();
+        ByteBuffer record = ByteBuffer.allocate(recordLength);
+        record.putInt(bodyLength);
+        record.putInt(0);
+        record.put(STATE_PENDING);
+        record.putLong(timestampMs);
+        record.putShort((short) keyBytes.length);
+        record.put(keyBytes);
+        record.put(data);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER_BYTES, bodyLength);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+
+        FallbackRecord appended = active.append(record, bodyLength, key, keyBytes.length, timestampMs);
+        diskBytes += recordLength + INDEX_ENTRY_BYTES;
+        appendedRecords.incrementAndGet();
+        return appended;
+    }
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.seal();
+        }
+        long id = nextSegmentId++;
+        active = Segment.create(id, segmentPath(id), indexPath(id));
+        segments.put(id, active);
+        diskBytes += active.diskBytes();
+    }
+
+    /**
+     * 所有尚未确认的记录，按写入顺序排列
+     *
+     * @return 待重传记录的快照
+     */
+    public synchronized List<FallbackRecord> getPendingRecords() {
+        List<FallbackRecord> pending = new ArrayList<>();
+        for (Segment segment : segments.values()) {
+            for (FallbackRecord record : segment.records) {
+                if (!record.isAcknowledged()) {
+                    pending.add(record);
+                }
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * 按偏移读取记录中的批次数据并校验CRC
+     *
+     * @param record 记录
+     * @return 批次数据
+     * @throws UnreadableRecordException 段已删除或CRC校验不通过
+     * @throws IOException 读取失败
+     */
+    public byte[] read(FallbackRecord record) throws IOException {
+        Segment segment;
+        synchronized (this) {
+            segment = segments.get(record.getSegmentId());
+        }
+        if (segment == null) {
+            throw new UnreadableRecordException("Segment " + record.getSegmentId() + " no longer exists");
+        }
+        ByteBuffer body = ByteBuffer.allocate(record.getBodyLength());
+        segment.readFully(body, record.getOffset() + RECORD_HEADER_BYTES);
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        segment.readFully(header, record.getOffset());
+
+        CRC32 crc = new CRC32();
+        crc.update(body.array(), 0, body.capacity());
+        if (header.getInt(0) != record.getBodyLength() || header.getInt(4) != (int) crc.getValue()) {
+            corruptedRecords.incrementAndGet();
+            throw new UnreadableRecordException("CRC mismatch for fallback record " + record);
+        }
+        int keyLength = body.getShort(8);
+        return Arrays.copyOfRange(body.array(), BODY_FIXED_BYTES + keyLength, body.capacity());
+    }
+
+    /**
+     * 校验记录的CRC并返回批次数据在段文件中的位置，供直接从文件流式上传
+     * <p>
+     * 校验时以固定大小的缓冲区顺序读取记录体，不会把整条记录读入堆内存。
+     *
+     * @param record 记录
+     * @return 批次数据所在的文件区间
+     * @throws UnreadableRecordException 段已删除、长度或CRC校验不通过
+     * @throws IOException 读取失败
+     */
+    public PayloadRegion locatePayload(FallbackRecord record) throws IOException {
+        Segment segment;
+        synchronized (this) {
+            segment = segments.get(record.getSegmentId());
+        }
+        if (segment == null) {
+            throw new UnreadableRecordException("Segment " + record.getSegmentId() + " no longer exists");
+        }
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        segment.readFully(header, record.getOffset());
+        if (header.getInt(0) != record.getBodyLength()) {
+            corruptedRecords.incrementAndGet();
+            throw new UnreadableRecordException("Length mismatch for fallback record " + record);
+        }
+
+        CRC32 crc = new CRC32();
+        ByteBuffer chunk = ByteBuffer.allocate(VERIFY_CHUNK_BYTES);
+        long position = record.getOffset() + RECORD_HEADER_BYTES;
+        long remaining = record.getBodyLength();
+        while (remaining > 0) {
+            chunk.clear();
+            chunk.limit((int) Math.min(chunk.capacity(), remaining));
+            segment.readFully(chunk, position);
+            crc.update(chunk.array(), 0, chunk.limit());
+            position += chunk.limit();
+            remaining -= chunk.limit();
+        }
+        if (header.getInt(4) != (int) crc.getValue()) {
+            corruptedRecords.incrementAndGet();
+            throw new UnreadableRecordException("CRC mismatch for fallback record " + record);
+        }
+        return new PayloadRegion(segment.path, record.getPayloadOffset(), record.getPayloadLength());
+    }
+
+    /**
+     * 在开始上传前持久化"重传中"状态
+     *
+     * @param record 记录
+     */
+    public synchronized void markInProgress(FallbackRecord record) {
+        Segment segment = segments.get(record.getSegmentId());
+        if (segment == null || record.isAcknowledged()) {
+            return;
+        }
+        try {
+            segment.writeState(record, STATE_IN_PROGRESS);
+        } catch (IOException e) {
+            logger.warn("Failed to persist in-progress state for {}: {}", record, e.getMessage());
+        }
+    }
+
+    /**
+     * 上传失败后把记录恢复为待重传状态
+     *
+     * @param record 记录
+     */
+    public synchronized void markPending(FallbackRecord record) {
+        Segment segment = segments.get(record.getSegmentId());
+        if (segment == null || record.isAcknowledged()) {
+            return;
+        }
+        try {
+            segment.writeState(record, STATE_PENDING);
+        } catch (IOException e) {
+            logger.warn("Failed to persist pending state for {}: {}", record, e.getMessage());
+        }
+    }
+
+    /**
+     * 确认记录已重传成功（或已放弃），段内记录全部确认后删除段文件
+     *
+     * @param record 记录
+     */
+    public synchronized void acknowledge(FallbackRecord record) {
+        if (record.isAcknowledged()) {
+            return;
+        }
+        Segment segment = segments.get(record.getSegmentId());
+        record.markAcknowledged();
+        if (segment == null) {
+            return;
+        }
+        acknowledgedRecords.incrementAndGet();
+        try {
+            segment.markAcknowledged(record);
+        } catch (IOException e) {
+            logger.warn("Failed to persist acknowledgement for {}: {}", record, e.getMessage());
+        }
+        if (segment.pendingRecords == 0) {
+            removeSegment(segment);
+        }
+    }
+
+    private void removeSegment(Segment segment) {
+        segments.remove(segment.id);
+        diskBytes -= segment.diskBytes();
+        if (segment == active) {
+            active = null;
+        }
+        segment.delete();
+    }
+
+    /**
+     * 删除最后写入时间早于保留期限的段，其中未确认的记录随之丢弃
+     *
+     * @param retentionDays 保留天数
+     * @return 删除的段数
+     */
+    public synchronized int deleteExpiredSegments(int retentionDays) {
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays);
+        int deleted = 0;
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment.lastAppendMs < cutoff) {
+                if (segment.pendingRecords > 0) {
+                    logger.warn("Discarding {} fallback records in expired segment {}", segment.pendingRecords,
+                            segment.path);
+                    expiredRecords.addAndGet(segment.pendingRecords);
+                }
+                for (FallbackRecord record : segment.records) {
+                    record.markAcknowledged();
+                }
+                removeSegment(segment);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 淘汰最早的段，其中未确认的记录随之丢弃，供磁盘配额不足时腾出空间
+     *
+     * @return 释放的磁盘字节数，没有可淘汰的段时返回0
+     */
+    public synchronized long evictOldestSegment() {
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        Segment segment = segments.firstEntry().getValue();
+        long freed = segment.diskBytes();
+        if (segment.pendingRecords > 0) {
+            logger.warn("Evicting {} fallback records in segment {} to stay within the disk budget",
+                    segment.pendingRecords, segment.path);
+            evictedRecords.addAndGet(segment.pendingRecords);
+        }
+        for (FallbackRecord record : segment.records) {
+            record.markAcknowledged();
+        }
+        removeSegment(segment);
+        return freed;
+    }
+
+    /**
+     * 最早一个段的首条记录的写入时间
+     *
+     * @return 时间戳，没有段时返回 {@link Long#MAX_VALUE}
+     */
+    public synchronized long getOldestTimestampMs() {
+        for (Segment segment : segments.values()) {
+            if (!segment.records.isEmpty()) {
+                return segment.records.get(0).getTimestampMs();
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * 段文件与索引文件占用的磁盘字节数，随写入和删除增量维护
+     *
+     * @return 字节数
+     */
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        segments.clear();
+        active = null;
+        diskBytes = 0;
+    }
+
+    public synchronized StoreMetrics getMetrics() {
+        long pendingRecords = 0;
+        long pendingBytes = 0;
+        for (Segment segment : segments.values()) {
+            pendingRecords += segment.pendingRecords;
+            pendingBytes += segment.pendingBytes;
+        }
+        return new StoreMetrics(segments.size(), pendingRecords, pendingBytes, appendedRecords.get(),
+                acknowledgedRecords.get(), corruptedRecords.get(), expiredRecords.get(), interruptedRecords.get(),
+                evictedRecords.get());
+    }
+
+    /**
+     * 单个段文件及其索引
+     */
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final Path indexPath;
+        private final FileChannel channel;
+        private final FileChannel index;
+        private final List<FallbackRecord> records = new ArrayList<>();
+        private long size;
+        private int pendingRecords;
+        private long pendingBytes;
+        private long lastAppendMs;
+        private int interruptedRecords;
+
+        private Segment(long id, Path path, Path indexPath, FileChannel channel, FileChannel index) {
+            this.id = id;
+            this.path = path;
+            this.indexPath = indexPath;
+            this.channel = channel;
+            this.index = index;
+        }
+
+        static Segment create(long id, Path path, Path indexPath) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            FileChannel index;
+            try {
+                index = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                channel.close();
+                Files.deleteIfExists(path);
+                throw e;
+            }
+            Segment segment = new Segment(id, path, indexPath, channel, index);
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(channel, header, 0);
+            segment.size = SEGMENT_HEADER_BYTES;
+            segment.lastAppendMs = System.currentTimeMillis();
+            return segment;
+        }
+
+        /**
+         * 依据索引定位记录，索引缺失或落后于段文件时顺序扫描补齐；只读取记录头与对象键
+         */
+        static Segment recover(long id, Path path, Path indexPath) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(id, path, indexPath, channel, null);
+            try {
+                long fileSize = channel.size();
+                ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+                if (fileSize < SEGMENT_HEADER_BYTES) {
+                    throw new IOException("Truncated fallback segment");
+                }
+                segment.readFully(header, 0);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                    throw new IOException("Not a fallback segment");
+                }
+
+                segment.size = SEGMENT_HEADER_BYTES;
+                for (long offset : readIndex(indexPath)) {
+                    if (offset != segment.size || !segment.recoverRecord(offset, fileSize)) {
+                        break;
+                    }
+                }
+                boolean recovered;
+                do {
+                    recovered = segment.recoverRecord(segment.size, fileSize);
+                } while (recovered);
+                segment.lastAppendMs = Files.getLastModifiedTime(path).toMillis();
+                return segment;
+            } catch (IOException e) {
+                segment.close();
+                throw e;
+            }
+        }
+
+        private static long[] readIndex(Path indexPath) {
+            try {
+                if (!Files.exists(indexPath)) {
+                    return new long[0];
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+                long[] offsets = new long[buffer.remaining() / INDEX_ENTRY_BYTES];
+                for (int i = 0; i < offsets.length; i++) {
+                    offsets[i] = buffer.getLong();
+                }
+                return offsets;
+            } catch (IOException e) {
+                logger.warn("Failed to read fallback index {}, scanning segment instead: {}", indexPath,
+                        e.getMessage());
+                return new long[0];
+            }
+        }
+
+        private boolean recoverRecord(long offset, long fileSize) throws IOException {
+            if (offset + RECORD_HEADER_BYTES + BODY_FIXED_BYTES > fileSize) {
+                return false;
+            }
+            ByteBuffer head = ByteBuffer.allocate(RECORD_HEADER_BYTES + BODY_FIXED_BYTES);
+            readFully(head, offset);
+            int bodyLength = head.getInt(0);
+            byte state = head.get(8);
+            long timestampMs = head.getLong(9);
+            int keyLength = head.getShort(17);
+            if (bodyLength < BODY_FIXED_BYTES || keyLength < 0 || keyLength > bodyLength - BODY_FIXED_BYTES
+                    || offset + RECORD_HEADER_BYTES + bodyLength > fileSize) {
+                return false;
+            }
+            ByteBuffer keyBuffer = ByteBuffer.allocate(keyLength);
+            readFully(keyBuffer, offset + RECORD_HEADER_BYTES + BODY_FIXED_BYTES);
+            String key = new String(keyBuffer.array(), StandardCharsets.UTF_8);
+
+            FallbackRecord record = new FallbackRecord(id, offset, bodyLength, key, keyLength, timestampMs,
+                    state == STATE_ACKNOWLEDGED);
+            records.add(record);
+            if (state == STATE_IN_PROGRESS) {
+                interruptedRecords++;
+            }
+            if (!record.isAcknowledged()) {
+                pendingRecords++;
+                pendingBytes += record.getRecordLength();
+            }
+            size = offset + record.getRecordLength();
+            return true;
+        }
+
+        FallbackRecord append(ByteBuffer record, int bodyLength, String key, int keyByteLength, long timestampMs)
+                throws IOException {
+            long offset = size;
+            writeFully(channel, record, offset);
+            ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+            entry.putLong(offset).flip();
+            writeFully(index, entry, (long) records.size() * INDEX_ENTRY_BYTES);
+
+            FallbackRecord appended = new FallbackRecord(id, offset, bodyLength, key, keyByteLength, timestampMs,
+                    false);
+            records.add(appended);
+            size = offset + appended.getRecordLength();
+            pendingRecords++;
+            pendingBytes += appended.getRecordLength();
+            lastAppendMs = timestampMs;
+            return appended;
+        }
+
+        long diskBytes() {
+            return size + (long) records.size() * INDEX_ENTRY_BYTES;
+        }
+
+        void markAcknowledged(FallbackRecord record) throws IOException {
+            pendingRecords--;
+            pendingBytes -= record.getRecordLength();
+            writeState(record, STATE_ACKNOWLEDGED);
+        }
+
+        void writeState(FallbackRecord record, byte value) throws IOException {
+            ByteBuffer state = ByteBuffer.allocate(1);
+            state.put(value).flip();
+            writeFully(channel, state, record.getOffset() + 8);
+        }
+
+        void seal() {
+            try {
+                channel.force(false);
+                if (index != null) {
+                    index.force(false);
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to sync fallback segment {}: {}", path, e.getMessage());
+            }
+        }
+
+        void readFully(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of fallback segment " + path);
+                }
+            }
+        }
+
+        private static void writeFully(FileChannel target, ByteBuffer buffer, long position) throws IOException {
+            long written = 0;
+            while (buffer.hasRemaining()) {
+                written += target.write(buffer, position + written);
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+                if (index != null) {
+                    index.close();
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to close fallback segment {}: {}", path, e.getMessage());
+            }
+        }
+
+        void delete() {
+            close();
+            try {
+                Files.deleteIfExists(path);
+                Files.deleteIfExists(indexPath);
+            } catch (IOException e) {
+                logger.warn("Failed to delete fallback segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 记录已无法恢复：所在段已删除，或长度、CRC校验不通过，重试也不会成功
+     * <p>
+     * 其他 {@link IOException} 视为读取时的临时故障，记录应保留待下一轮重传。
+     */
+    public static final class UnreadableRecordException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        UnreadableRecordException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 批次数据在段文件中的区间
+     */
+    public static final class PayloadRegion {
+        private final Path file;
+        private final long offset;
+        private final long length;
+
+        PayloadRegion(Path file, long offset, long length) {
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getLength() {
+            return length;
+        }
+    }
+
+    /**
+     * 兜底存储统计指标
+     */
+    public static class StoreMetrics {
+        private final int segments;
+        private final long pendingRecords;
+        private final long pendingBytes;
+        private final long appendedRecords;
+        private final long acknowledgedRecords;
+        private final long corruptedRecords;
+        private final long expiredRecords;
+        private final long interruptedRecords;
+        private final long evictedRecords;
+
+        public StoreMetrics(int segments, long pendingRecords, long pendingBytes, long appendedRecords,
+                long acknowledgedRecords, long corruptedRecords, long expiredRecords, long interruptedRecords,
+                long evictedRecords) {
+            this.segments = segments;
+            this.pendingRecords = pendingRecords;
+            this.pendingBytes = pendingBytes;
+            this.appendedRecords = appendedRecords;
+            this.acknowledgedRecords = acknowledgedRecords;
+            this.corruptedRecords = corruptedRecords;
+            this.expiredRecords = expiredRecords;
+            this.interruptedRecords = interruptedRecords;
+            this.evictedRecords = evictedRecords;
+        }
+
+        public int getSegments() {
+            return segments;
+        }
+
+        public long getPendingRecords() {
+            return pendingRecords;
+        }
+
+        public long getPendingBytes() {
+            return pendingBytes;
+        }
+
+        public long getAppendedRecords() {
+            return appendedRecords;
+        }
+
+        public long getAcknowledgedRecords() {
+            return acknowledgedRecords;
+        }
+
+        public long getCorruptedRecords() {
+            return corruptedRecords;
+        }
+
+        public long getExpiredRecords() {
+            return expiredRecords;
+        }
+
+        /**
+         * 启动恢复时发现的、上次运行中断在上传途中的记录数
+         */
+        public long getInterruptedRecords() {
+            return interruptedRecords;
+        }
+
+        /**
+         * 因磁盘配额不足被淘汰的未确认记录数
+         */
+        public long getEvictedRecords() {
+            return evictedRecords;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "StoreMetrics{segments=%d, pending=%d (%d bytes), appended=%d, acknowledged=%d, corrupted=%d, "
+                            + "expired=%d, interrupted=%d, evicted=%d}",
+                    segments, pendingRecords, pendingBytes, appendedRecords, acknowledgedRecords, corruptedRecords,
+                    expiredRecords, interruptedRecords, evictedRecords);
+        }
+    }
+}
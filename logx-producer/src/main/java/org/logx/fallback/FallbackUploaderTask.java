@@ -1,40 +1,95 @@
 package org.logx.fallback;
 
-import org.logx.core.EnhancedDisruptorBatchingQueue;
 import org.logx.storage.StorageService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 /**
  * 兜底文件上传任务
  * <p>
- * 负责定时扫描兜底目录并重新上传文件到云存储
+ * 负责定时扫描兜底目录并重新上传文件到云存储。段存储中的记录沿用写入时的对象键，
+ * 由独立的线程池按配置的并发度并行重传，并受字节速率上限约束，避免长时间中断后的恢复流量挤占实时上传。
+ * 重传进度持久化在段存储的记录状态中，重启后不会重复上传已完成的记录。
+ * 单文件兜底数据从 {@link FallbackCatalog} 中取出重传，定时任务不再遍历兜底目录。两种数据都按字节原样从磁盘流式上传，不做解码或重新格式化。
  *
  * @author OSS Appender Team
  * @since 1.0.0
  */
-public class FallbackUploaderTask implements Runnable {
+public class FallbackUploaderTask implements Runnable, AutoCloseable {
     
     private static final Logger logger = LoggerFactory.getLogger(FallbackUploaderTask.class);
 
-    // 兜底文件后缀（统一使用.log.gz格式）
-    private static final String FALLBACK_FILE_SUFFIX = ".log.gz";
     private static final int UPLOAD_TIMEOUT_SECONDS = 30;
+    private static final int DEFAULT_CONCURRENCY = 2;
     
     private final StorageService storageService;
     private final String fallbackPath;
     private final String absoluteFallbackPath;
     private final int retentionDays;
+    private final FallbackSegmentStore segmentStore;
+    private final FallbackCatalog catalog;
+    private final int concurrency;
+    private final long uploadTimeoutMs;
+    private final FallbackRateLimiter rateLimiter;
+    private final ExecutorService recoveryExecutor;
+
+    private final AtomicLong uploadedRecords = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    private final AtomicLong failedUploads = new AtomicLong();
+
+    /**
+     * @param storageService 存储服务
+     * @param fallbackManager 兜底文件管理器，提供兜底路径与段存储
+     * @param retentionDays 保留天数
+     */
+    public FallbackUploaderTask(StorageService storageService, FallbackManager fallbackManager, int retentionDays) {
+        this(storageService, fallbackManager, retentionDays, DEFAULT_CONCURRENCY, 0L,
+                TimeUnit.SECONDS.toMillis(UPLOAD_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * @param storageService 存储服务
+     * @param fallbackManager 兜底文件管理器，提供兜底路径与段存储
+     * @param retentionDays 保留天数
+     * @param concurrency 并行重传的记录数
+     * @param maxBytesPerSecond 重传字节速率上限，小于等于0表示不限速
+     * @param uploadTimeoutMs 单条记录的上传超时
+     */
+    public FallbackUploaderTask(StorageService storageService, FallbackManager fallbackManager, int retentionDays,
+            int concurrency, long maxBytesPerSecond, long uploadTimeoutMs) {
+        this.storageService = storageService;
+        this.fallbackPath = fallbackManager.getFallbackPath();
+        this.absoluteFallbackPath = fallbackManager.getAbsoluteFallbackPath();
+        this.retentionDays = retentionDays;
+        this.segmentStore = fallbackManager.getSegmentStore();
+        this.catalog = fallbackManager.getCatalog();
+        this.concurrency = Math.max(1, concurrency);
+        this.uploadTimeoutMs = uploadTimeoutMs;
+        this.rateLimiter = new FallbackRateLimiter(maxBytesPerSecond);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.recoveryExecutor = segmentStore == null ? null : Executors.newFixedThreadPool(this.concurrency, r -> {
+            Thread t = new Thread(r, "fallback-recovery-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
 
     /**
      * @deprecated fileName参数已废弃，ObjectNameGenerator使用固定默认值
@@ -45,6 +100,12 @@ public class FallbackUploaderTask implements Runnable {
         this.fallbackPath = fallbackPath;
         this.absoluteFallbackPath = FallbackPathResolver.resolveAbsolutePath(fallbackPath);
         this.retentionDays = retentionDays;
+        this.segmentStore = null;
+        this.catalog = null;
+        this.concurrency = 1;
+        this.uploadTimeoutMs = TimeUnit.SECONDS.toMillis(UPLOAD_TIMEOUT_SECONDS);
+        this.rateLimiter = new FallbackRateLimiter(0L);
+        this.recoveryExecutor = null;
     }
     
     @Override
@@ -53,7 +114,8 @@ public class FallbackUploaderTask implements Runnable {
             // 首先清理过期文件
             cleanupExpiredFiles();
             
-            // 然后重传现有的兜底文件
+            // 然后重传段存储中的记录和遗留的兜底文件
+            retryUploadSegmentRecords();
             retryUploadFiles();
         } catch (Exception e) {
             logger.error("Failed to execute fallback upload task", e);
@@ -65,16 +127,131 @@ public class FallbackUploaderTask implements Runnable {
      */
     private void cleanupExpiredFiles() {
         try {
-            FallbackFileCleaner.cleanupExpiredFiles(fallbackPath, retentionDays);
+            if (catalog != null) {
+                FallbackFileCleaner.cleanupExpiredFiles(catalog, retentionDays);
+            } else {
+                FallbackFileCleaner.cleanupExpiredFiles(fallbackPath, retentionDays);
+            }
+            if (segmentStore != null) {
+                segmentStore.deleteExpiredSegments(retentionDays);
+            }
         } catch (Exception e) {
             logger.warn("Failed to cleanup expired fallback files", e);
         }
     }
     
+    /**
+     * 并行重传段存储中的记录
+     * <p>
+     * 同时在途的记录数不超过并发度；任一上传失败后不再派发新记录，等在途记录结束后退出本轮，
+     * 由下次调度继续，避免存储端仍不可用时持续空转。
+     */
+    private void retryUploadSegmentRecords() {
+        if (segmentStore == null || recoveryExecutor == null || recoveryExecutor.isShutdown()) {
+            return;
+        }
+        List<FallbackRecord> pending = segmentStore.getPendingRecords();
+        if (pending.isEmpty()) {
+            return;
+        }
+        logger.info("Retrying {} fallback records from segment store with concurrency {}", pending.size(), concurrency);
+
+        Semaphore permits = new Semaphore(concurrency);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        try {
+            for (FallbackRecord record : pending) {
+                permits.acquire();
+                if (failed.get()) {
+                    permits.release();
+                    break;
+                }
+                rateLimiter.acquire(record.getRecordLength());
+                try {
+                    recoveryExecutor.execute(() -> {
+                        try {
+                            if (!uploadRecord(record)) {
+                                failed.set(true);
+                            }
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    break;
+                }
+            }
+            permits.acquire(concurrency);
+            permits.release(concurrency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean uploadRecord(FallbackRecord record) {
+        FallbackSegmentStore.PayloadRegion payload;
+        try {
+            payload = segmentStore.locatePayload(record);
+        } catch (FallbackSegmentStore.UnreadableRecordException e) {
+            logger.error("Discarding unreadable fallback record {}: {}", record, e.getMessage());
+            segmentStore.acknowledge(record);
+            return true;
+        } catch (IOException e) {
+            segmentStore.markPending(record);
+            failedUploads.incrementAndGet();
+            logger.warn("Failed to read fallback record {}, will retry later: {}", record, e.getMessage());
+            return false;
+        }
+        segmentStore.markInProgress(record);
+        try {
+            storageService.putObject(record.getKey(), payload.getFile(), payload.getOffset(), payload.getLength())
+                    .get(uploadTimeoutMs, TimeUnit.MILLISECONDS);
+            segmentStore.acknowledge(record);
+            uploadedRecords.incrementAndGet();
+            uploadedBytes.addAndGet(payload.getLength());
+            logger.debug("Successfully resent fallback record as: {}", record.getKey());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            segmentStore.markPending(record);
+            failedUploads.incrementAndGet();
+            logger.warn("Failed to retry upload for fallback record {}, will retry later: {}", record.getKey(),
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 停止重传线程池，在途的上传会被中断，其记录保持"重传中"状态并在下次启动时重传
+     */
+    @Override
+    public void close() {
+        if (recoveryExecutor != null) {
+            recoveryExecutor.shutdownNow();
+        }
+    }
+
+    public RecoveryMetrics getMetrics() {
+        return new RecoveryMetrics(uploadedRecords.get(), uploadedBytes.get(), failedUploads.get(),
+                rateLimiter.getThrottledMillis());
+    }
+
     /**
      * 重传兜底文件
+     * <p>
+     * 有目录时直接取目录中的条目，首个失败即结束本轮；否则退回到扫描兜底目录。
      */
     private void retryUploadFiles() {
+        if (catalog != null) {
+            for (FallbackCatalog.Entry entry : catalog.snapshot()) {
+                if (!retryUpload(entry.getFile(), entry.getKey(), entry.getSize())) {
+                    break;
+                }
+            }
+            return;
+        }
         try {
             Path fallbackDir = Paths.get(absoluteFallbackPath);
             
@@ -86,141 +263,92 @@ public class FallbackUploaderTask implements Runnable {
             // 遍历兜底目录中的所有文件
             try (Stream<Path> files = Files.walk(fallbackDir)) {
                 files.filter(Files::isRegularFile)
-                     .filter(path -> path.toString().endsWith(FALLBACK_FILE_SUFFIX))
-                     .forEach(this::retryUpload);
+                     .filter(FallbackCatalog.suffixFilter(FallbackManager.FALLBACK_FILE_SUFFIXES))
+                     .forEach(file -> retryUpload(file, getRelativePath(file), -1L));
             }
         } catch (IOException e) {
             logger.error("Failed to scan fallback directory: {}", absoluteFallbackPath, e);
         }
     }
     
-    private void retryUpload(Path file) {
+    /**
+     * 把遗留的单文件兜底数据按字节原样从磁盘流式上传，压缩内容保持原编码
+     */
+    private boolean retryUpload(Path file, String retryObjectName, long knownSize) {
         try {
-            // 使用源文件的相对路径作为对象名，保留原有的日期和时间信息
-            String retryObjectName = getRelativePath(file);
-
-            byte[] rawData = Files.readAllBytes(file);
-
-            // 将原始数据转换为格式化的日志数据
-            byte[] formattedData = formatLogData(rawData);
-
-            // 上传到存储服务
-            CompletableFuture<Void> future = storageService.putObject(retryObjectName, formattedData);
-
-            // 30秒超时
-            future.get(UPLOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            long size = knownSize >= 0 ? knownSize : Files.size(file);
+            storageService.putObject(retryObjectName, file, 0L, size).get(uploadTimeoutMs, TimeUnit.MILLISECONDS);
 
             // 上传成功后删除本地文件
             Files.delete(file);
+            forget(file);
             logger.info("Successfully resent fallback file as: {}", retryObjectName);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         } catch (Exception e) {
+            if (e instanceof NoSuchFileException || e.getCause() instanceof NoSuchFileException) {
+                forget(file);
+                logger.warn("Fallback file disappeared before retry: {}", file);
+                return true;
+            }
             logger.error("Failed to retry upload for file: {}", file.getFileName(), e);
+            return false;
         }
     }
-    
-    /**
-     * 将原始日志数据格式化为友好的pattern格式
-     * 
-     * @param rawData 原始日志数据
-     * @return 格式化后的日志数据
-     */
-    private byte[] formatLogData(byte[] rawData) {
+
+    private void forget(Path file) {
+        if (catalog != null) {
+            catalog.remove(file);
+        }
+    }
+
+    private String getRelativePath(Path file) {
         try {
-            // 将原始数据转换为字符串
-            String rawContent = new String(rawData, java.nio.charset.StandardCharsets.UTF_8);
-            
-            // 如果已经是格式化的日志内容（包含换行符且不包含明显的二进制数据特征），直接返回
-            if (rawContent.contains("\n") && !isBinaryData(rawContent)) {
-                return rawData;
-            }
-            
-            // 创建一个模拟的日志事件列表
-            List<EnhancedDisruptorBatchingQueue.LogEvent> events = new ArrayList<>();
-            long timestamp = System.currentTimeMillis();
-            
-            // 如果是二进制数据，尝试以友好的方式显示
-            if (isBinaryData(rawContent)) {
-                String formattedLine = String.format("[%s] [INFO] FallbackRetry - 重试上传兜底文件，原始大小: %d 字节%n", 
-                    java.time.LocalDateTime.now().toString(), rawData.length);
-                events.add(new EnhancedDisruptorBatchingQueue.LogEvent(
-                    formattedLine.getBytes(java.nio.charset.StandardCharsets.UTF_8), timestamp));
-            } else {
-                // 对于文本数据，按行分割并格式化
-                String[] lines = rawContent.split("\n");
-                for (String line : lines) {
-                    if (!line.trim().isEmpty()) {
-                        String formattedLine = line + "\n";
-                        events.add(new EnhancedDisruptorBatchingQueue.LogEvent(
-                            formattedLine.getBytes(java.nio.charset.StandardCharsets.UTF_8), timestamp));
-                    }
-                }
-            }
-            
-            // 使用与正常处理相同的序列化方法
-            List<EnhancedDisruptorBatchingQueue.LogEvent> eventList = new ArrayList<>(events);
-            byte[] formattedData = serializeToPatternFormat(eventList);
-            
-            return formattedData;
+            return ObjectNameGenerator.toObjectKey(Paths.get(absoluteFallbackPath), file);
         } catch (Exception e) {
-            logger.warn("Failed to format log data, using raw data", e);
-            return rawData;
+            logger.warn("Failed to extract relative path for file: {}", file.getFileName(), e);
         }
+        return file.getFileName().toString();
     }
-    
+
     /**
-     * 判断是否为二进制数据
-     * 
-     * @param content 内容
-     * @return 是否为二进制数据
+     * 兜底重传统计指标
      */
-    private boolean isBinaryData(String content) {
-        // 简单判断：如果包含大量不可打印字符，可能是二进制数据
-        int printableCount = 0;
-        int totalCount = Math.min(content.length(), 1000); // 只检查前1000个字符
-        
-        for (int i = 0; i < totalCount; i++) {
-            char c = content.charAt(i);
-            if (c >= 32 && c <= 126 || c == '\n' || c == '\r' || c == '\t') {
-                printableCount++;
-            }
+    public static class RecoveryMetrics {
+        private final long uploadedRecords;
+        private final long uploadedBytes;
+        private final long failedUploads;
+        private final long throttledMillis;
+
+        public RecoveryMetrics(long uploadedRecords, long uploadedBytes, long failedUploads, long throttledMillis) {
+            this.uploadedRecords = uploadedRecords;
+            this.uploadedBytes = uploadedBytes;
+            this.failedUploads = failedUploads;
+            this.throttledMillis = throttledMillis;
         }
-        
-        // 如果可打印字符比例小于70%，认为是二进制数据
-        return totalCount > 0 && ((double) printableCount / totalCount) < 0.7;
-    }
-    
-    /**
-     * 序列化为Pattern格式（与EnhancedDisruptorBatchingQueue中的方法保持一致）
-     * 
-     * @param events 日志事件列表
-     * @return 格式化后的字节数组
-     */
-    private byte[] serializeToPatternFormat(List<EnhancedDisruptorBatchingQueue.LogEvent> events) {
-        StringBuilder sb = new StringBuilder();
-        for (EnhancedDisruptorBatchingQueue.LogEvent event : events) {
-            // 使用标准的日志格式: timestamp [level] logger - message
-            String logLine = new String(event.payload, java.nio.charset.StandardCharsets.UTF_8);
-            
-            // 如果日志行不以换行符结尾，添加换行符
-            if (!logLine.endsWith("\n")) {
-                sb.append(logLine).append("\n");
-            } else {
-                sb.append(logLine);
-            }
+
+        public long getUploadedRecords() {
+            return uploadedRecords;
         }
-        return sb.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
-    }
-    
-    private String getRelativePath(Path file) {
-        try {
-            String fullPath = file.toString();
-            
-            if (fullPath.startsWith(absoluteFallbackPath)) {
-                return fullPath.substring(absoluteFallbackPath.length() + 1) + "/logx/";
-            }
-        } catch (Exception e) {
-            logger.warn("Failed to extract relative path for file: {}", file.getFileName(), e);
+
+        public long getUploadedBytes() {
+            return uploadedBytes;
+        }
+
+        public long getFailedUploads() {
+            return failedUploads;
+        }
+
+        public long getThrottledMillis() {
+            return throttledMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RecoveryMetrics{uploaded=%d (%d bytes), failed=%d, throttled=%dms}",
+                    uploadedRecords, uploadedBytes, failedUploads, throttledMillis);
         }
-        return file.getFileName().toString();
     }
-}
\ No newline at end of file
+}
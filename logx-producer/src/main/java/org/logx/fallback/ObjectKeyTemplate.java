@@ -0,0 +1,357 @@
+package org.logx.fallback;
+
+import org.logx.util.CoarseClock;
+import org.logx.util.IPUtil;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对象键模板
+ * <p>
+ * 模板在配置时编译一次，得到字面量与占位符交替的片段数组，生成对象键时按片段顺序直接追加到一个
+ * {@link StringBuilder}，不做解析、正则或日期格式化。支持的占位符：
+ * <ul>
+ * <li>{prefix}：去掉首尾斜杠的对象键前缀，为空时为logx</li>
+ * <li>{service}：服务名（logFileName，默认applogx）</li>
+ * <li>{host}：本机IP（缓存值）</li>
+ * <li>{yyyy} {MM} {dd} {HH} {mm} {ss} {SSS}：本地时间的各字段，{HHmmssSSS}为紧凑时间戳</li>
+ * <li>{seq}：16位十六进制唯一标识，进程级64位随机起点加单调递增的long序号，不依赖时间字段，进程内不会回绕重复</li>
+ * <li>{ext}：扩展名，文本批次为log.gz，列式批次为parquet</li>
+ * </ul>
+ * 模板必须包含{seq}以保证对象键唯一。兜底文件以对象键作为兜底目录下的相对路径，
+ * 重传时再由路径还原对象键，因此兜底目录与对象存储使用同一布局。
+ * <p>
+ * 按小时或服务分区的布局便于下游查询引擎按前缀裁剪列举范围，例如：
+ * <pre>
+ * {prefix}/{service}/{yyyy}/{MM}/{dd}/{HH}/{host}-{seq}.{ext}
+ * </pre>
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class ObjectKeyTemplate {
+
+    /**
+     * 默认模板，与历史版本的对象键格式一致
+     */
+    public static final String DEFAULT_TEMPLATE = "{prefix}/{yyyy}/{MM}/{dd}/{HHmmssSSS}-{service}-{host}-{seq}.{ext}";
+
+    static final String DEFAULT_KEY_PREFIX = "logx";
+    static final String DEFAULT_SERVICE = "applogx";
+    private static final String UNKNOWN_HOST = "unknown-host";
+    private static final String DEFAULT_EXTENSION = "log.gz";
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int LITERAL = 0;
+    private static final int PREFIX = 1;
+    private static final int SERVICE = 2;
+    private static final int HOST = 3;
+    private static final int YEAR = 4;
+    private static final int MONTH = 5;
+    private static final int DAY = 6;
+    private static final int HOUR = 7;
+    private static final int MINUTE = 8;
+    private static final int SECOND = 9;
+    private static final int MILLIS = 10;
+    private static final int TIME = 11;
+    private static final int SEQ = 12;
+    private static final int EXT = 13;
+
+    private static final String[] TOKEN_NAMES = {
+            null, "prefix", "service", "host", "yyyy", "MM", "dd", "HH", "mm", "ss", "SSS", "HHmmssSSS", "seq", "ext"
+    };
+
+    /**
+     * 进程级随机标识，区分同一主机上同一毫秒内生成对象键的不同进程
+     */
+    private static final long PROCESS_NONCE = ThreadLocalRandom.current().nextLong();
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static volatile LocalDay localDay;
+
+    private static final ObjectKeyTemplate DEFAULT = compile(DEFAULT_TEMPLATE, DEFAULT_SERVICE);
+
+    private final String template;
+    private final int[] tokens;
+    private final String[] literals;
+    private final String service;
+    private final String extension;
+    private final int estimatedLength;
+    private volatile Prefix prefix = new Prefix(null, DEFAULT_KEY_PREFIX);
+
+    private ObjectKeyTemplate(String template, int[] tokens, String[] literals, String service, String extension) {
+        this.template = template;
+        this.tokens = tokens;
+        this.literals = literals;
+        this.service = service;
+        this.extension = extension;
+        int length = 48;
+        for (String literal : literals) {
+            length += literal != null ? literal.length() : 0;
+        }
+        this.estimatedLength = length;
+    }
+
+    /**
+     * 默认模板
+     *
+     * @return 默认模板实例
+     */
+    public static ObjectKeyTemplate defaultTemplate() {
+        return DEFAULT;
+    }
+
+    /**
+     * 编译模板
+     *
+     * @param template 模板，为空时使用 {@link #DEFAULT_TEMPLATE}
+     * @param service {service}占位符的取值，为空时为applogx
+     * @return 编译后的模板
+     * @throws IllegalArgumentException 模板包含未知占位符、括号不匹配、以斜杠开头或缺少{seq}
+     */
+    public static ObjectKeyTemplate compile(String template, String service) {
+        String source = template == null || template.trim().isEmpty() ? DEFAULT_TEMPLATE : template.trim();
+        if (source.startsWith("/")) {
+            throw new IllegalArgumentException("Key template must not start with '/': " + source);
+        }
+        List<Integer> tokens = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        boolean hasSeq = false;
+        int pos = 0;
+        while (pos < source.length()) {
+            int open = source.indexOf('{', pos);
+            int close = source.indexOf('}', pos);
+            if (close >= 0 && (open < 0 || close < open)) {
+                throw new IllegalArgumentException("Unbalanced '}' at " + close + " in key template: " + source);
+            }
+            if (open < 0) {
+                tokens.add(LITERAL);
+                literals.add(source.substring(pos));
+                break;
+            }
+            if (open > pos) {
+                tokens.add(LITERAL);
+                literals.add(source.substring(pos, open));
+            }
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed '{' at " + open + " in key template: " + source);
+            }
+            int token = tokenOf(source.substring(open + 1, close));
+            if (token < 0) {
+                throw new IllegalArgumentException("Unknown placeholder {" + source.substring(open + 1, close)
+                        + "} in key template: " + source);
+            }
+            hasSeq |= token == SEQ;
+            tokens.add(token);
+            literals.add(null);
+            pos = close + 1;
+        }
+        if (!hasSeq) {
+            throw new IllegalArgumentException("Key template must contain {seq} to keep keys unique: " + source);
+        }
+        int[] tokenArray = new int[tokens.size()];
+        for (int i = 0; i < tokenArray.length; i++) {
+            tokenArray[i] = tokens.get(i);
+        }
+        String serviceName = service == null || service.trim().isEmpty() ? DEFAULT_SERVICE : service.trim();
+        return new ObjectKeyTemplate(source, tokenArray, literals.toArray(new String[0]), serviceName,
+                DEFAULT_EXTENSION);
+    }
+
+    /**
+     * 使用其他{ext}取值的同布局模板
+     *
+     * @param extension 扩展名，不含开头的'.'
+     * @return 新模板
+     */
+    public ObjectKeyTemplate withExtension(String extension) {
+        return new ObjectKeyTemplate(template, tokens, literals, service, extension);
+    }
+
+    private static int tokenOf(String name) {
+        for (int i = 1; i < TOKEN_NAMES.length; i++) {
+            if (TOKEN_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 按当前时间生成对象键
+     *
+     * @param keyPrefix 对象键前缀
+     * @return 对象键
+     */
+    public String render(String keyPrefix) {
+        return render(keyPrefix, CoarseClock.currentTimeMillis());
+    }
+
+    String render(String keyPrefix, long nowMillis) {
+        LocalDay day = localDay;
+        if (day == null || !day.covers(nowMillis)) {
+            day = LocalDay.create(nowMillis);
+            localDay = day;
+        }
+        int millisOfDay = (int) Math.floorMod(nowMillis + day.offsetMillis, MILLIS_PER_DAY);
+
+        StringBuilder sb = new StringBuilder(estimatedLength);
+        for (int i = 0; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case LITERAL:
+                    sb.append(literals[i]);
+                    break;
+                case PREFIX:
+                    sb.append(normalizedPrefix(keyPrefix));
+                    break;
+                case SERVICE:
+                    sb.append(service);
+                    break;
+                case HOST:
+                    sb.append(host());
+                    break;
+                case YEAR:
+                    sb.append(day.year);
+                    break;
+                case MONTH:
+                    appendDigits(sb, day.month, 2);
+                    break;
+                case DAY:
+                    appendDigits(sb, day.dayOfMonth, 2);
+                    break;
+                case HOUR:
+                    appendDigits(sb, millisOfDay / 3_600_000, 2);
+                    break;
+                case MINUTE:
+                    appendDigits(sb, millisOfDay / 60_000 % 60, 2);
+                    break;
+                case SECOND:
+                    appendDigits(sb, millisOfDay / 1000 % 60, 2);
+                    break;
+                case MILLIS:
+                    appendDigits(sb, millisOfDay % 1000, 3);
+                    break;
+                case TIME:
+                    appendDigits(sb, millisOfDay / 3_600_000, 2);
+                    appendDigits(sb, millisOfDay / 60_000 % 60, 2);
+                    appendDigits(sb, millisOfDay / 1000 % 60, 2);
+                    appendDigits(sb, millisOfDay % 1000, 3);
+                    break;
+                case SEQ:
+                    appendHex(sb, PROCESS_NONCE + SEQUENCE.getAndIncrement());
+                    break;
+                default:
+                    sb.append(extension);
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 规范化的前缀按最近一次的原始值缓存，同一引擎的前缀通常不变
+     */
+    private String normalizedPrefix(String keyPrefix) {
+        Prefix cached = prefix;
+        if (cached.raw == null ? keyPrefix == null : cached.raw.equals(keyPrefix)) {
+            return cached.normalized;
+        }
+        String normalized = keyPrefix == null || keyPrefix.trim().isEmpty()
+                ? DEFAULT_KEY_PREFIX
+                : keyPrefix.replaceAll("^/+|/+$", "");
+        prefix = new Prefix(keyPrefix, normalized);
+        return normalized;
+    }
+
+    private static String host() {
+        String ip = IPUtil.getCachedLocalIP();
+        return ip == null || ip.trim().isEmpty() ? UNKNOWN_HOST : ip.trim();
+    }
+
+    private static void appendDigits(StringBuilder sb, int value, int width) {
+        if (width == 3) {
+            sb.append((char) ('0' + value / 100));
+        }
+        sb.append((char) ('0' + value / 10 % 10)).append((char) ('0' + value % 10));
+    }
+
+    private static void appendHex(StringBuilder sb, long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            sb.append(HEX[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    private static final class Prefix {
+        private final String raw;
+        private final String normalized;
+
+        Prefix(String raw, String normalized) {
+            this.raw = raw;
+            this.normalized = normalized;
+        }
+    }
+
+    /**
+     * 按天缓存的本地日期
+     * <p>
+     * 在当天结束或本地时区偏移变化（夏令时切换）前有效，期间本地时间等于UTC毫秒数加固定偏移。
+     */
+    private static final class LocalDay {
+        private final int year;
+        private final int month;
+        private final int dayOfMonth;
+        private final long offsetMillis;
+        private final long validFromMillis;
+        private final long validUntilMillis;
+
+        private LocalDay(LocalDate date, long offsetMillis, long validFromMillis, long validUntilMillis) {
+            this.year = date.getYear();
+            this.month = date.getMonthValue();
+            this.dayOfMonth = date.getDayOfMonth();
+            this.offsetMillis = offsetMillis;
+            this.validFromMillis = validFromMillis;
+            this.validUntilMillis = validUntilMillis;
+        }
+
+        boolean covers(long now) {
+            return now >= validFromMillis && now < validUntilMillis;
+        }
+
+        static LocalDay create(long now) {
+            ZoneRules rules = ZoneId.systemDefault().getRules();
+            Instant instant = Instant.ofEpochMilli(now);
+            ZoneOffset offset = rules.getOffset(instant);
+            long offsetMillis = TimeUnit.SECONDS.toMillis(offset.getTotalSeconds());
+            long epochDay = Math.floorDiv(now + offsetMillis, MILLIS_PER_DAY);
+            long dayStart = epochDay * MILLIS_PER_DAY - offsetMillis;
+            long validUntil = dayStart + MILLIS_PER_DAY;
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            if (next != null) {
+                validUntil = Math.min(validUntil, next.toEpochSecond() * 1000);
+            }
+            ZoneOffsetTransition previous = rules.previousTransition(instant);
+            long validFrom = previous != null ? Math.max(dayStart, previous.toEpochSecond() * 1000) : dayStart;
+            return new LocalDay(LocalDate.ofEpochDay(epochDay), offsetMillis, validFrom, validUntil);
+        }
+    }
+}
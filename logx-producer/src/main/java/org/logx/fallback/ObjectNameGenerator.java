@@ -1,12 +1,6 @@
 package org.logx.fallback;
 
-import org.logx.util.IPUtil;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.UUID;
+import java.nio.file.Path;
 
 /**
  * 对象名生成器（静态工具类）
@@ -24,23 +18,15 @@ import java.util.UUID;
  * yyyy/MM/dd/HHmmssSSS-{fileName}-IP-uniqueId.log.gz
  * 示例：2025/10/14/143250200-applogx-100.119.145.245-abc12345.log.gz
  * </pre>
+ * <p>
+ * 以上为 {@link ObjectKeyTemplate#DEFAULT_TEMPLATE} 的布局，可通过 logx.oss.storage.keyTemplate 配置其他布局。
+ * 兜底文件以对象键作为兜底目录下的相对路径，{@link #toFallbackFile} 与 {@link #toObjectKey} 负责两者互相转换。
  *
  * @author OSS Appender Team
  * @since 1.0.0
  */
 public final class ObjectNameGenerator {
 
-    private static final Logger logger = LoggerFactory.getLogger(ObjectNameGenerator.class);
-
-    private static final DateTimeFormatter YEAR_FORMATTER = DateTimeFormatter.ofPattern("yyyy");
-    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MM");
-    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("dd");
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HHmmssSSS");
-    private static final String DEFAULT_KEY_PREFIX = "logx";
-    private static final String DEFAULT_FILE_NAME_PREFIX = "applogx";
-    private static final String UNKNOWN_HOST = "unknown-host";
-    private static final String FILE_SUFFIX = ".log.gz";
-
     /**
      * 私有构造器，防止实例化
      */
@@ -49,47 +35,42 @@ public final class ObjectNameGenerator {
     }
 
     /**
-     * 生成对象名（静态方法）
+     * 按默认模板生成对象名（静态方法）
      * <p>
      * 格式：yyyy/MM/dd/HHmmssSSS-applogx-IP-uniqueId.log.gz
      *
      * @return 对象名
      */
     public static String generateObjectName(String keyPrefix) {
-        if (keyPrefix == null || keyPrefix.trim().isEmpty()) {
-            keyPrefix = DEFAULT_KEY_PREFIX;
-        } else {
-            keyPrefix = keyPrefix.replaceAll("^/+|/+$", "");
-        }
-        
+        return ObjectKeyTemplate.defaultTemplate().render(keyPrefix);
+    }
 
-        String ip = getLocalIPForGeneration();
-        LocalDateTime nowTime = LocalDateTime.now();
-        String year = nowTime.format(YEAR_FORMATTER);
-        String month = nowTime.format(MONTH_FORMATTER);
-        String day = nowTime.format(DAY_FORMATTER);
-        String time = nowTime.format(TIME_FORMATTER);
-        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
-        return keyPrefix + "/" + year + "/" + month + "/" + day + "/" + time + "-" + DEFAULT_FILE_NAME_PREFIX + "-" + ip + "-" + uniqueId + FILE_SUFFIX;
+    /**
+     * 对象键在兜底目录下对应的文件
+     *
+     * @param root 兜底目录
+     * @param objectKey 对象键
+     * @return 兜底文件路径
+     */
+    public static Path toFallbackFile(Path root, String objectKey) {
+        return root.resolve(objectKey);
     }
 
     /**
-     * 获取本地IP用于生成对象名（静态方法）
+     * 由兜底文件还原对象键，即文件相对兜底目录的路径，分隔符统一为'/'
      *
-     * @return 本地IP地址或默认值
+     * @param root 兜底目录
+     * @param file 兜底文件
+     * @return 对象键
      */
-    private static String getLocalIPForGeneration() {
-        try {
-            String ip = IPUtil.getLocalIP();
-            if (ip == null || ip.trim().isEmpty()) {
-                logger.warn("IPUtil returned null or empty IP, using default");
-                return UNKNOWN_HOST;
+    public static String toObjectKey(Path root, Path file) {
+        StringBuilder key = new StringBuilder();
+        for (Path part : root.relativize(file)) {
+            if (key.length() > 0) {
+                key.append('/');
             }
-            return ip.trim();
-        } catch (Exception e) {
-            logger.warn("Failed to get local IP, using default", e);
-            return UNKNOWN_HOST + "-" + UUID.randomUUID().toString().substring(0, 8);
+            key.append(part.toString());
         }
+        return key.toString();
     }
-
 }
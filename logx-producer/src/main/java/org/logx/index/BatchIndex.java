@@ -0,0 +1,202 @@
+package org.logx.index;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 批次侧边索引
+ * <p>
+ * 与数据对象一同上传，对象键为数据对象键加 {@link #KEY_SUFFIX}。查询工具先读取体积很小的索引，
+ * 按时间范围、级别计数和布隆过滤器判断是否需要下载数据对象，命中后按事件偏移定位解压后的单条日志。
+ * <p>
+ * <b>二进制格式（大端序）</b>：
+ * <pre>
+ * magic "LXI1" | version(1) | minTimestampMs(8) | maxTimestampMs(8) | eventCount(4)
+ * levelCount(1) | levelCounts(8 * levelCount)
+ * traceIdBloom: numHashes(1) | wordCount(4) | words(8 * wordCount)
+ * loggerBloom:  numHashes(1) | wordCount(4) | words(8 * wordCount)
+ * eventOffsets: eventCount个varint，首个为偏移本身，其后为与前一条的差值
+ * </pre>
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class BatchIndex {
+
+    /**
+     * 索引对象键后缀
+     */
+    public static final String KEY_SUFFIX = ".idx";
+
+    private static final int MAGIC = 0x4C584931;
+    private static final int VERSION = 1;
+
+    private final long minTimestampMs;
+    private final long maxTimestampMs;
+    private final long[] levelCounts;
+    private final BloomFilter traceIds;
+    private final BloomFilter loggers;
+    private final int[] eventOffsets;
+
+    BatchIndex(long minTimestampMs, long maxTimestampMs, long[] levelCounts, BloomFilter traceIds,
+            BloomFilter loggers, int[] eventOffsets) {
+        this.minTimestampMs = minTimestampMs;
+        this.maxTimestampMs = maxTimestampMs;
+        this.levelCounts = levelCounts;
+        this.traceIds = traceIds;
+        this.loggers = loggers;
+        this.eventOffsets = eventOffsets;
+    }
+
+    public long getMinTimestampMs() {
+        return minTimestampMs;
+    }
+
+    public long getMaxTimestampMs() {
+        return maxTimestampMs;
+    }
+
+    public int getEventCount() {
+        return eventOffsets.length;
+    }
+
+    /**
+     * 某一级别的事件数
+     *
+     * @param level 级别
+     * @return 事件数
+     */
+    public long getLevelCount(LogLevel level) {
+        return level.ordinal() < levelCounts.length ? levelCounts[level.ordinal()] : 0L;
+    }
+
+    /**
+     * 第i条事件在解压后数据中的起始偏移
+     */
+    public int getEventOffset(int i) {
+        return eventOffsets[i];
+    }
+
+    public boolean mightContainTraceId(String traceId) {
+        return traceIds.mightContain(traceId);
+    }
+
+    public boolean mightContainLogger(String loggerName) {
+        return loggers.mightContain(loggerName);
+    }
+
+    /**
+     * 编码为二进制格式
+     *
+     * @return 索引字节
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(64 + eventOffsets.length * 2
+                + (traceIds.getWords().length + loggers.getWords().length) * 8);
+        try (DataOutputStream out = new DataOutputStream(baos)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(minTimestampMs);
+            out.writeLong(maxTimestampMs);
+            out.writeInt(eventOffsets.length);
+            out.writeByte(levelCounts.length);
+            for (long count : levelCounts) {
+                out.writeLong(count);
+            }
+            writeBloom(out, traceIds);
+            writeBloom(out, loggers);
+            int previous = 0;
+            for (int offset : eventOffsets) {
+                writeVarint(out, offset - previous);
+                previous = offset;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode batch index", e);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * 解码索引
+     *
+     * @param data 索引字节
+     * @return 索引
+     * @throws IOException 格式不正确
+     */
+    public static BatchIndex decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a batch index: bad magic");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported batch index version: " + version);
+        }
+        long minTs = in.readLong();
+        long maxTs = in.readLong();
+        int eventCount = in.readInt();
+        long[] levelCounts = new long[in.readUnsignedByte()];
+        for (int i = 0; i < levelCounts.length; i++) {
+            levelCounts[i] = in.readLong();
+        }
+        BloomFilter traceIds = readBloom(in);
+        BloomFilter loggers = readBloom(in);
+        int[] offsets = new int[eventCount];
+        int previous = 0;
+        for (int i = 0; i < eventCount; i++) {
+            previous += readVarint(in);
+            offsets[i] = previous;
+        }
+        return new BatchIndex(minTs, maxTs, levelCounts, traceIds, loggers, offsets);
+    }
+
+    private static void writeBloom(DataOutputStream out, BloomFilter bloom) throws IOException {
+        out.writeByte(bloom.getNumHashes());
+        out.writeInt(bloom.getWords().length);
+        for (long word : bloom.getWords()) {
+            out.writeLong(word);
+        }
+    }
+
+    private static BloomFilter readBloom(DataInputStream in) throws IOException {
+        int numHashes = in.readUnsignedByte();
+        long[] words = new long[in.readInt()];
+        if (words.length == 0) {
+            throw new IOException("Corrupted batch index: empty bloom filter");
+        }
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        return new BloomFilter(words, numHashes);
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted batch index: varint too long");
+    }
+
+    /**
+     * 索引统计的日志级别，无法识别级别的事件计入UNKNOWN
+     */
+    public enum LogLevel {
+        TRACE, DEBUG, INFO, WARN, ERROR, FATAL, UNKNOWN
+    }
+}
@@ -0,0 +1,242 @@
+package org.logx.index;
+
+import org.logx.index.BatchIndex.LogLevel;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 批次索引构建器
+ * <p>
+ * 批次内容是各框架布局输出的文本，没有结构化字段，这里按常见布局启发式提取：
+ * <ul>
+ * <li>级别：事件开头256字节内第一个独立的级别单词（TRACE/DEBUG/INFO/WARN/WARNING/ERROR/FATAL）</li>
+ * <li>logger：JSON布局取"logger"或"loggerName"字段，Pattern布局取级别之后的下一个单词</li>
+ * <li>traceId：事件开头2KB内的traceId=、trace_id=或"traceId":"形式</li>
+ * </ul>
+ * 识别不到的字段直接跳过，不影响时间范围和偏移等精确信息。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class BatchIndexBuilder {
+
+    private static final int LEVEL_SCAN_BYTES = 256;
+    private static final int TRACE_SCAN_BYTES = 2048;
+    private static final int MAX_TOKEN_LENGTH = 256;
+
+    private BatchIndexBuilder() {
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param data 未压缩的批次数据
+     * @param eventOffsets 每条事件的起始偏移
+     * @param minTimestampMs 最早事件时间
+     * @param maxTimestampMs 最晚事件时间
+     * @return 索引
+     */
+    public static BatchIndex build(byte[] data, int[] eventOffsets, long minTimestampMs, long maxTimestampMs) {
+        long[] levelCounts = new long[LogLevel.values().length];
+        BloomFilter traceIds = BloomFilter.forEntries(eventOffsets.length);
+        BloomFilter loggers = BloomFilter.forEntries(Math.max(16, eventOffsets.length / 8));
+
+        for (int i = 0; i < eventOffsets.length; i++) {
+            int start = eventOffsets[i];
+            int end = i + 1 < eventOffsets.length ? eventOffsets[i + 1] : data.length;
+            scanEvent(data, start, end, levelCounts, traceIds, loggers);
+        }
+        return new BatchIndex(minTimestampMs, maxTimestampMs, levelCounts, traceIds, loggers, eventOffsets);
+    }
+
+    private static void scanEvent(byte[] data, int start, int end, long[] levelCounts, BloomFilter traceIds,
+            BloomFilter loggers) {
+        LogLevel level = LogLevel.UNKNOWN;
+        int levelEnd = -1;
+        int levelLimit = Math.min(end, start + LEVEL_SCAN_BYTES);
+        for (int pos = start; pos < levelLimit; pos++) {
+            if (!isUpper(data[pos]) || (pos > start && isLetter(data[pos - 1]))) {
+                continue;
+            }
+            int wordEnd = pos;
+            while (wordEnd < levelLimit && isUpper(data[wordEnd])) {
+                wordEnd++;
+            }
+            if (wordEnd < levelLimit && isLetter(data[wordEnd])) {
+                pos = wordEnd;
+                continue;
+            }
+            LogLevel parsed = parseLevel(data, pos, wordEnd - pos);
+            if (parsed != null) {
+                level = parsed;
+                levelEnd = wordEnd;
+                break;
+            }
+            pos = wordEnd;
+        }
+        levelCounts[level.ordinal()]++;
+
+        String logger = jsonField(data, start, end, "\"logger\":\"");
+        if (logger == null) {
+            logger = jsonField(data, start, end, "\"loggerName\":\"");
+        }
+        if (logger == null && levelEnd > 0) {
+            logger = patternLogger(data, levelEnd, end);
+        }
+        if (logger != null) {
+            loggers.add(logger);
+        }
+
+        String traceId = traceId(data, start, Math.min(end, start + TRACE_SCAN_BYTES));
+        if (traceId != null) {
+            traceIds.add(traceId);
+        }
+    }
+
+    private static LogLevel parseLevel(byte[] data, int start, int length) {
+        switch (length) {
+            case 4:
+                if (matches(data, start, "INFO")) {
+                    return LogLevel.INFO;
+                }
+                return matches(data, start, "WARN") ? LogLevel.WARN : null;
+            case 5:
+                if (matches(data, start, "TRACE")) {
+                    return LogLevel.TRACE;
+                }
+                if (matches(data, start, "DEBUG")) {
+                    return LogLevel.DEBUG;
+                }
+                if (matches(data, start, "ERROR")) {
+                    return LogLevel.ERROR;
+                }
+                return matches(data, start, "FATAL") ? LogLevel.FATAL : null;
+            case 7:
+                return matches(data, start, "WARNING") ? LogLevel.WARN : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Pattern布局中级别之后的单词，形如"INFO  com.example.Service - msg"，去掉方括号
+     */
+    private static String patternLogger(byte[] data, int from, int end) {
+        int pos = from;
+        while (pos < end && (data[pos] == ' ' || data[pos] == '\t' || data[pos] == ']')) {
+            pos++;
+        }
+        if (pos < end && data[pos] == '[') {
+            pos++;
+        }
+        int tokenStart = pos;
+        while (pos < end && pos - tokenStart < MAX_TOKEN_LENGTH && isLoggerChar(data[pos])) {
+            pos++;
+        }
+        return pos > tokenStart && isLetter(data[tokenStart])
+                ? new String(data, tokenStart, pos - tokenStart, StandardCharsets.UTF_8)
+                : null;
+    }
+
+    private static String jsonField(byte[] data, int start, int end, String prefix) {
+        int pos = indexOf(data, start, end, prefix);
+        if (pos < 0) {
+            return null;
+        }
+        int valueStart = pos + prefix.length();
+        int valueEnd = valueStart;
+        while (valueEnd < end && data[valueEnd] != '"' && valueEnd - valueStart < MAX_TOKEN_LENGTH) {
+            valueEnd++;
+        }
+        return valueEnd > valueStart ? new String(data, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8)
+                : null;
+    }
+
+    /**
+     * 匹配trace[_-]?id后接可选引号、'='或':'，再接可选引号和空格的形式，取其后的十六进制或字母数字值
+     */
+    private static String traceId(byte[] data, int start, int end) {
+        for (int pos = start; pos + 7 < end; pos++) {
+            if (!matchesIgnoreCase(data, pos, "trace")) {
+                continue;
+            }
+            int p = pos + 5;
+            if (data[p] == '_' || data[p] == '-') {
+                p++;
+            }
+            if (p + 2 > end || !matchesIgnoreCase(data, p, "id")) {
+                continue;
+            }
+            p += 2;
+            if (p < end && data[p] == '"') {
+                p++;
+            }
+            if (p >= end || (data[p] != '=' && data[p] != ':')) {
+                continue;
+            }
+            p++;
+            while (p < end && (data[p] == ' ' || data[p] == '"')) {
+                p++;
+            }
+            int valueStart = p;
+            while (p < end && p - valueStart < MAX_TOKEN_LENGTH && (isLetter(data[p]) || isDigit(data[p])
+                    || data[p] == '-')) {
+                p++;
+            }
+            if (p > valueStart) {
+                return new String(data, valueStart, p - valueStart, StandardCharsets.US_ASCII);
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(byte[] data, int start, int end, String ascii) {
+        int last = end - ascii.length();
+        for (int pos = start; pos <= last; pos++) {
+            if (matches(data, pos, ascii)) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(byte[] data, int pos, String ascii) {
+        if (pos + ascii.length() > data.length) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (data[pos + i] != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesIgnoreCase(byte[] data, int pos, String lowerAscii) {
+        if (pos + lowerAscii.length() > data.length) {
+            return false;
+        }
+        for (int i = 0; i < lowerAscii.length(); i++) {
+            if ((data[pos + i] | 0x20) != lowerAscii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUpper(byte b) {
+        return b >= 'A' && b <= 'Z';
+    }
+
+    private static boolean isLetter(byte b) {
+        return isUpper(b) || (b >= 'a' && b <= 'z');
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isLoggerChar(byte b) {
+        return isLetter(b) || isDigit(b) || b == '.' || b == '_' || b == '$';
+    }
+}
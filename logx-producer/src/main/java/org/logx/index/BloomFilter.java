@@ -0,0 +1,85 @@
+package org.logx.index;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 定长布隆过滤器
+ * <p>
+ * 哈希采用UTF-8字节上的64位FNV-1a，高低32位做双重哈希得到k个位置，算法固定，
+ * 其他语言的查询工具按同样方式计算即可复用索引。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] words;
+    private final int numBits;
+    private final int numHashes;
+
+    /**
+     * 按预期元素数创建，每个元素约10位，误判率约1%
+     *
+     * @param expectedEntries 预期元素数
+     * @return 布隆过滤器
+     */
+    public static BloomFilter forEntries(int expectedEntries) {
+        int bits = Math.max(64, expectedEntries * 10);
+        return new BloomFilter(new long[(bits + 63) >>> 6], 7);
+    }
+
+    BloomFilter(long[] words, int numHashes) {
+        this.words = words;
+        this.numBits = words.length * 64;
+        this.numHashes = numHashes;
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numBits);
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * 判断元素是否可能存在
+     *
+     * @param value 元素
+     * @return false表示一定不存在，true表示可能存在
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static long hash(String value) {
+        long hash = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    long[] getWords() {
+        return words;
+    }
+
+    int getNumHashes() {
+        return numHashes;
+    }
+}
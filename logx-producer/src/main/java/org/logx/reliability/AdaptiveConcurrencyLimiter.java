@@ -0,0 +1,233 @@
+package org.logx.reliability;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自适应上传并发限制器（AIMD）
+ * <p>
+ * 限制同时在途的上传数，并根据观测到的上传耗时和限流响应自动调整上限：
+ * <ul>
+ * <li>加性增：上传成功且耗时没有明显高于基线时，每完成约一个上限数量的上传，上限加1</li>
+ * <li>乘性减：遇到限流（503 SlowDown、429等）、超时，或耗时超过基线的latencyTolerance倍时，上限乘以backoffRatio</li>
+ * </ul>
+ * 基线耗时取成功上传耗时的慢速指数平均，只在耗时正常时更新，避免拥塞期间基线被拉高。
+ * 同一次拥塞往往同时导致多个在途上传失败，因此一个基线耗时内最多减一次。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final double BASELINE_SMOOTHING = 0.05;
+    private static final long MIN_DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private double baselineNanos;
+    private long lastDecreaseNanos;
+
+    private final AtomicLong increases = new AtomicLong();
+    private final AtomicLong decreases = new AtomicLong();
+    private final AtomicLong throttledResponses = new AtomicLong();
+    private final AtomicLong waitedAcquires = new AtomicLong();
+
+    /**
+     * @param initialLimit 初始并发数
+     * @param minLimit 并发下限
+     * @param maxLimit 并发上限
+     * @param latencyTolerance 耗时超过基线的倍数时视为拥塞
+     * @param backoffRatio 拥塞时并发数的缩减比例（0-1）
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double latencyTolerance,
+            double backoffRatio) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("invalid concurrency bounds: " + minLimit + ".." + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = Math.max(1.0, latencyTolerance);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 申请一个上传名额，在途上传已达上限时等待
+     *
+     * @param timeoutMs 最长等待时间
+     * @return 是否获得名额，超时返回false
+     * @throws InterruptedException 等待期间被中断
+     */
+    public synchronized boolean acquire(long timeoutMs) throws InterruptedException {
+        if (inFlight >= (int) limit) {
+            waitedAcquires.incrementAndGet();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (inFlight >= (int) limit) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    return false;
+                }
+                wait(remainingMs);
+            }
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * 上传成功，归还名额并按耗时调整上限
+     *
+     * @param elapsedNanos 上传耗时
+     */
+    public synchronized void onSuccess(long elapsedNanos) {
+        release();
+        if (baselineNanos == 0) {
+            baselineNanos = elapsedNanos;
+        }
+        if (elapsedNanos > baselineNanos * latencyTolerance) {
+            decrease("latency " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "ms above baseline "
+                    + TimeUnit.NANOSECONDS.toMillis((long) baselineNanos) + "ms");
+            return;
+        }
+        baselineNanos += (elapsedNanos - baselineNanos) * BASELINE_SMOOTHING;
+        // 只有名额确实被用满时才说明上限在约束吞吐，此时才值得继续增加
+        if (limit < maxLimit && inFlight + 1 >= (int) limit) {
+            int before = (int) limit;
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+            if ((int) limit > before) {
+                increases.incrementAndGet();
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 上传因限流或超时失败，归还名额并缩减上限
+     */
+    public synchronized void onThrottled() {
+        release();
+        throttledResponses.incrementAndGet();
+        decrease("throttled by storage");
+    }
+
+    /**
+     * 上传因与拥塞无关的原因失败（如参数错误、熔断拒绝），只归还名额
+     */
+    public synchronized void onIgnored() {
+        release();
+    }
+
+    private void release() {
+        if (inFlight > 0) {
+            inFlight--;
+        }
+        notifyAll();
+    }
+
+    private void decrease(String reason) {
+        long now = System.nanoTime();
+        long interval = Math.max((long) baselineNanos, MIN_DECREASE_INTERVAL_NANOS);
+        if (lastDecreaseNanos != 0 && now - lastDecreaseNanos < interval) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        double next = Math.max(minLimit, limit * backoffRatio);
+        if ((int) next < (int) limit) {
+            decreases.incrementAndGet();
+            logger.debug("Upload concurrency {} -> {} ({})", (int) limit, (int) next, reason);
+        }
+        limit = next;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized ConcurrencyMetrics getMetrics() {
+        return new ConcurrencyMetrics((int) limit, inFlight, TimeUnit.NANOSECONDS.toMillis((long) baselineNanos),
+                increases.get(), decreases.get(), throttledResponses.get(), waitedAcquires.get());
+    }
+
+    /**
+     * 自适应并发统计指标
+     */
+    public static class ConcurrencyMetrics {
+        private final int limit;
+        private final int inFlight;
+        private final long baselineLatencyMs;
+        private final long increases;
+        private final long decreases;
+        private final long throttledResponses;
+        private final long waitedAcquires;
+
+        public ConcurrencyMetrics(int limit, int inFlight, long baselineLatencyMs, long increases, long decreases,
+                long throttledResponses, long waitedAcquires) {
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.baselineLatencyMs = baselineLatencyMs;
+            this.increases = increases;
+            this.decreases = decreases;
+            this.throttledResponses = throttledResponses;
+            this.waitedAcquires = waitedAcquires;
+        }
+
+        /**
+         * 当前并发上限
+         */
+        public int getLimit() {
+            return limit;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public long getBaselineLatencyMs() {
+            return baselineLatencyMs;
+        }
+
+        public long getIncreases() {
+            return increases;
+        }
+
+        public long getDecreases() {
+            return decreases;
+        }
+
+        public long getThrottledResponses() {
+            return throttledResponses;
+        }
+
+        /**
+         * 因名额用满而等待的上传数
+         */
+        public long getWaitedAcquires() {
+            return waitedAcquires;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "ConcurrencyMetrics{limit=%d, inFlight=%d, baseline=%dms, increases=%d, decreases=%d, "
+                            + "throttled=%d, waited=%d}",
+                    limit, inFlight, baselineLatencyMs, increases, decreases, throttledResponses, waitedAcquires);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.logx.reliability;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 存储服务熔断器
+ * <p>
+ * 按最近若干次上传的结果统计失败率，超时或耗时超过慢调用阈值的上传也计为失败。
+ * <ul>
+ * <li>CLOSED：正常放行，窗口内失败率达到阈值后转为OPEN</li>
+ * <li>OPEN：直接拒绝，调用方立即转入兜底，不再等待网络超时；持续openDurationMs后转为HALF_OPEN</li>
+ * <li>HALF_OPEN：只放行一次探测上传，成功则恢复CLOSED，失败则重新OPEN</li>
+ * </ul>
+ * 每次 {@link #tryAcquire()} 返回许可后，调用方必须带着该许可以 {@link #onSuccess(long, long)} 或
+ * {@link #onFailure(long, long)} 报告结果。许可记录发放时的代次，状态切换或重新发放探测后代次递增，
+ * 早于当前代次的结果（例如熔断前发出、熔断后才返回的上传）会被忽略，不会决定半开探测的结果。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * 熔断中，未发放许可
+     */
+    public static final long NO_PERMIT = -1L;
+
+    private final String name;
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long slowCallNanos;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private int windowCount;
+    private int windowIndex;
+    private int windowFailures;
+    private long openedAtNanos;
+    private long probeStartedNanos;
+    private boolean probeInFlight;
+    private long generation;
+
+    private final AtomicLong rejectedCalls = new AtomicLong();
+    private final AtomicLong openedCount = new AtomicLong();
+
+    /**
+     * @param name 名称，用于日志
+     * @param windowSize 统计失败率的最近调用数
+     * @param minimumCalls 窗口内至少积累的调用数，不足时不熔断
+     * @param failureRatePercent 触发熔断的失败率百分比
+     * @param slowCallMs 慢调用阈值，耗时超过该值的成功调用也计为失败，小于等于0表示不检查
+     * @param openDurationMs 熔断后等待多久放行探测调用
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRatePercent, long slowCallMs,
+            long openDurationMs) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, windowSize));
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallNanos = slowCallMs > 0 ? TimeUnit.MILLISECONDS.toNanos(slowCallMs) : Long.MAX_VALUE;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+    }
+
+    /**
+     * 申请发起一次调用
+     *
+     * @return 放行时返回许可，报告结果时原样传回；{@link #NO_PERMIT} 表示熔断中，调用方应直接走兜底
+     */
+    public synchronized long tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return generation;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                    rejectedCalls.incrementAndGet();
+                    return NO_PERMIT;
+                }
+                transitionTo(State.HALF_OPEN);
+                return startProbe();
+            default:
+                if (probeInFlight && System.nanoTime() - probeStartedNanos < openDurationNanos) {
+                    rejectedCalls.incrementAndGet();
+                    return NO_PERMIT;
+                }
+                return startProbe();
+        }
+    }
+
+    /**
+     * 探测调用迟迟没有结果时（例如底层请求挂起），超过openDurationMs后允许发起新的探测，旧探测的结果随之作废
+     */
+    private long startProbe() {
+        probeInFlight = true;
+        probeStartedNanos = System.nanoTime();
+        return ++generation;
+    }
+
+    /**
+     * 报告调用成功
+     *
+     * @param permit {@link #tryAcquire()} 发放的许可
+     * @param elapsedNanos 调用耗时
+     */
+    public void onSuccess(long permit, long elapsedNanos) {
+        record(permit, elapsedNanos <= slowCallNanos);
+    }
+
+    /**
+     * 报告调用失败
+     *
+     * @param permit {@link #tryAcquire()} 发放的许可
+     * @param elapsedNanos 调用耗时
+     */
+    public void onFailure(long permit, long elapsedNanos) {
+        record(permit, false);
+    }
+
+    private synchronized void record(long permit, boolean success) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            if (success) {
+                resetWindow();
+                transitionTo(State.CLOSED);
+            } else {
+                open();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        if (windowCount == window.length && !window[windowIndex]) {
+            windowFailures--;
+        }
+        window[windowIndex] = success;
+        if (!success) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+        if (windowCount < window.length) {
+            windowCount++;
+        }
+        if (windowCount >= minimumCalls && windowFailures * 100 >= failureRatePercent * windowCount) {
+            open();
+        }
+    }
+
+    private void open() {
+        openedAtNanos = System.nanoTime();
+        openedCount.incrementAndGet();
+        resetWindow();
+        transitionTo(State.OPEN);
+    }
+
+    private void resetWindow() {
+        windowCount = 0;
+        windowIndex = 0;
+        windowFailures = 0;
+    }
+
+    private void transitionTo(State next) {
+        if (state != next) {
+            logger.warn("Circuit breaker {} {} -> {}", name, state, next);
+            state = next;
+            generation++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized CircuitBreakerMetrics getMetrics() {
+        int failureRate = windowCount == 0 ? 0 : windowFailures * 100 / windowCount;
+        return new CircuitBreakerMetrics(state, failureRate, rejectedCalls.get(), openedCount.get());
+    }
+
+    /**
+     * 熔断器统计指标
+     */
+    public static class CircuitBreakerMetrics {
+        private final State state;
+        private final int failureRatePercent;
+        private final long rejectedCalls;
+        private final long openedCount;
+
+        public CircuitBreakerMetrics(State state, int failureRatePercent, long rejectedCalls, long openedCount) {
+            this.state = state;
+            this.failureRatePercent = failureRatePercent;
+            this.rejectedCalls = rejectedCalls;
+            this.openedCount = openedCount;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * 当前窗口内的失败率百分比
+         */
+        public int getFailureRatePercent() {
+            return failureRatePercent;
+        }
+
+        /**
+         * 熔断期间被直接转入兜底的调用数
+         */
+        public long getRejectedCalls() {
+            return rejectedCalls;
+        }
+
+        public long getOpenedCount() {
+            return openedCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CircuitBreakerMetrics{state=%s, failureRate=%d%%, rejected=%d, opened=%d}", state,
+                    failureRatePercent, rejectedCalls, openedCount);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.logx.reliability;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 无锁令牌桶
+ * <p>
+ * 以GCRA（通用信元速率算法）实现：只维护一个"理论到达时间"，每次申请按令牌数把它向后推，
+ * 推过当前时间加突发容量的部分就是需要等待的时间。状态只有一个 {@link AtomicLong}，申请只需一次CAS，
+ * 令牌充足时不加锁也不阻塞。
+ * <p>
+ * 单次申请超过剩余令牌时允许透支，透支部分由申请者自身及后续申请者等待偿还，
+ * 因此大请求不会被永久饿死，长期平均速率仍不超过上限。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long permitsPerSecond;
+    private final double nanosPerPermit;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    /**
+     * @param permitsPerSecond 每秒令牌数，必须大于0
+     * @param burstPermits 桶容量，即空闲后允许一次性突发的令牌数
+     */
+    public TokenBucket(long permitsPerSecond, long burstPermits) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.nanosPerPermit = (double) NANOS_PER_SECOND / permitsPerSecond;
+        this.burstNanos = (long) (Math.max(1, burstPermits) * nanosPerPermit);
+        // 初始时桶是满的
+        this.theoreticalArrivalNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * 预留令牌，不等待
+     *
+     * @param permits 令牌数
+     * @return 调用方需要等待的纳秒数，0表示令牌充足
+     */
+    public long reserve(long permits) {
+        long cost = (long) (Math.max(0, permits) * nanosPerPermit);
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalNanos.get();
+            long next = (tat - now > 0 ? tat : now) + cost;
+            if (theoreticalArrivalNanos.compareAndSet(tat, next)) {
+                return Math.max(0L, next - burstNanos - now);
+            }
+        }
+    }
+
+    /**
+     * 申请令牌，必要时阻塞等待
+     *
+     * @param permits 令牌数
+     * @return 实际等待的纳秒数
+     * @throws InterruptedException 等待期间被中断
+     */
+    public long acquire(long permits) throws InterruptedException {
+        long waitNanos = reserve(permits);
+        park(waitNanos);
+        return waitNanos;
+    }
+
+    /**
+     * 阻塞指定时间，期间被中断时抛出异常
+     *
+     * @param nanos 纳秒数
+     * @throws InterruptedException 等待期间被中断
+     */
+    static void park(long nanos) throws InterruptedException {
+        if (nanos <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    public long getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+}
@@ -0,0 +1,109 @@
+package org.logx.reliability;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 上传速率限制器
+ * <p>
+ * 同时限制每秒字节数和每秒PUT请求数，两者各用一个 {@link TokenBucket}，一次上传等待两者中较长的时间。
+ * 桶容量为burstMs内的配额，积压清空时允许短时突发，之后回落到配置的平均速率，避免日志上传长时间占满共享出口带宽。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class UploadRateLimiter {
+
+    private final TokenBucket bytesBucket;
+    private final TokenBucket putsBucket;
+    private final AtomicLong throttledUploads = new AtomicLong();
+    private final AtomicLong throttledNanos = new AtomicLong();
+
+    /**
+     * @param maxBytesPerSecond 每秒字节数上限，小于等于0表示不限制
+     * @param maxPutsPerSecond 每秒PUT请求数上限，小于等于0表示不限制
+     * @param burstMs 允许突发的配额对应的时长
+     */
+    public UploadRateLimiter(long maxBytesPerSecond, long maxPutsPerSecond, long burstMs) {
+        long burst = Math.max(1L, burstMs);
+        this.bytesBucket = maxBytesPerSecond > 0
+                ? new TokenBucket(maxBytesPerSecond, maxBytesPerSecond * burst / 1000)
+                : null;
+        this.putsBucket = maxPutsPerSecond > 0
+                ? new TokenBucket(maxPutsPerSecond, Math.max(1L, maxPutsPerSecond * burst / 1000))
+                : null;
+    }
+
+    public boolean isUnlimited() {
+        return bytesBucket == null && putsBucket == null;
+    }
+
+    /**
+     * 为一次上传申请配额，必要时阻塞等待
+     *
+     * @param bytes 上传字节数
+     * @throws InterruptedException 等待期间被中断
+     */
+    public void acquire(long bytes) throws InterruptedException {
+        long waitNanos = Math.max(bytesBucket != null ? bytesBucket.reserve(bytes) : 0L,
+                putsBucket != null ? putsBucket.reserve(1) : 0L);
+        if (waitNanos <= 0) {
+            return;
+        }
+        throttledUploads.incrementAndGet();
+        throttledNanos.addAndGet(waitNanos);
+        TokenBucket.park(waitNanos);
+    }
+
+    public RateLimitMetrics getMetrics() {
+        return new RateLimitMetrics(bytesBucket != null ? bytesBucket.getPermitsPerSecond() : 0L,
+                putsBucket != null ? putsBucket.getPermitsPerSecond() : 0L, throttledUploads.get(),
+                TimeUnit.NANOSECONDS.toMillis(throttledNanos.get()));
+    }
+
+    /**
+     * 上传限速统计指标
+     */
+    public static class RateLimitMetrics {
+        private final long maxBytesPerSecond;
+        private final long maxPutsPerSecond;
+        private final long throttledUploads;
+        private final long throttledMillis;
+
+        public RateLimitMetrics(long maxBytesPerSecond, long maxPutsPerSecond, long throttledUploads,
+                long throttledMillis) {
+            this.maxBytesPerSecond = maxBytesPerSecond;
+            this.maxPutsPerSecond = maxPutsPerSecond;
+            this.throttledUploads = throttledUploads;
+            this.throttledMillis = throttledMillis;
+        }
+
+        public long getMaxBytesPerSecond() {
+            return maxBytesPerSecond;
+        }
+
+        public long getMaxPutsPerSecond() {
+            return maxPutsPerSecond;
+        }
+
+        /**
+         * 因限速而等待过的上传数
+         */
+        public long getThrottledUploads() {
+            return throttledUploads;
+        }
+
+        /**
+         * 累计因限速等待的时间
+         */
+        public long getThrottledMillis() {
+            return throttledMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RateLimitMetrics{maxBytesPerSecond=%d, maxPutsPerSecond=%d, throttled=%d, "
+                    + "throttledMillis=%d}", maxBytesPerSecond, maxPutsPerSecond, throttledUploads, throttledMillis);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.logx.retry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 哈希时间轮
+ * <p>
+ * 单个后台线程按固定刻度推进，延迟任务按到期刻度散列到环形槽位中，添加和到期处理均为常数时间，
+ * 大量等待中的重试只占用内存中的一个条目，不占用线程。到期任务在时间轮线程上执行，
+ * 因此任务本身应只做派发（例如提交到上传线程池），不能阻塞。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class HashedTimerWheel implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedTimerWheel.class);
+
+    private final long tickNanos;
+    private final List<Timeout>[] wheel;
+    private final int mask;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean closed;
+    private long tick;
+
+    /**
+     * @param name 时间轮线程名称
+     * @param tickMs 刻度，决定定时精度
+     * @param wheelSize 槽位数，向上取整为2的幂
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HashedTimerWheel(String name, long tickMs, int wheelSize) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMs));
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.wheel = new List[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 在指定延迟后执行任务
+     *
+     * @param task 任务，在时间轮线程上执行
+     * @param delayMs 延迟毫秒数
+     * @return 是否已接受，时间轮关闭后返回false
+     */
+    public boolean schedule(Runnable task, long delayMs) {
+        if (closed) {
+            return false;
+        }
+        long deadline = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMs));
+        Timeout timeout = new Timeout(task, deadline);
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        // 与close并发时：若close已取走该任务则由close执行；否则撤回，交由调用方走降级路径
+        if (closed && incoming.remove(timeout)) {
+            pending.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 等待执行的任务数
+     *
+     * @return 任务数
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    private void run() {
+        while (!closed) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                continue;
+            }
+            transferIncoming();
+            expire(wheel[(int) (tick & mask)], deadline);
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = incoming.poll();
+            if (timeout == null) {
+                return;
+            }
+            long targetTick = Math.max(tick, timeout.deadlineNanos / tickNanos);
+            timeout.remainingRounds = (targetTick - tick) / wheel.length;
+            wheel[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket, long deadline) {
+        Iterator<Timeout> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timeout timeout = it.next();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                continue;
+            }
+            it.remove();
+            if (timeout.deadlineNanos <= deadline) {
+                pending.decrementAndGet();
+                runSafely(timeout.task);
+            } else {
+                wheel[(int) ((tick + 1) & mask)].add(timeout);
+            }
+        }
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            logger.error("Timer task failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 停止时间轮，尚未到期的任务立即在调用线程上执行，由任务自行判断是否已关闭
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Timeout> remaining = new ArrayList<>();
+        for (List<Timeout> bucket : wheel) {
+            remaining.addAll(bucket);
+            bucket.clear();
+        }
+        for (Timeout timeout = incoming.poll(); timeout != null; timeout = incoming.poll()) {
+            remaining.add(timeout);
+        }
+        for (Timeout timeout : remaining) {
+            pending.decrementAndGet();
+            runSafely(timeout.task);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private static final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+
+        Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.logx.retry;
+
+import org.logx.exception.StorageException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 把上传失败归类为 {@link StorageException}
+ * <p>
+ * 存储适配器已经给出的 {@link StorageException} 原样使用；其余异常按类型推断：
+ * 超时与IO异常视为网络错误，参数错误视为客户端错误，其他视为可重试的未知错误。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class StorageErrorClassifier {
+
+    private StorageErrorClassifier() {
+    }
+
+    /**
+     * 归类异常
+     *
+     * @param error 上传失败的异常，可以是 {@link ExecutionException} 等包装异常
+     * @return 归类后的存储异常
+     */
+    public static StorageException classify(Throwable error) {
+        Throwable cause = unwrap(error);
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof StorageException) {
+                return (StorageException) t;
+            }
+        }
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        if (cause instanceof TimeoutException || cause instanceof IOException || cause.getCause() instanceof IOException) {
+            return StorageException.networkError(message, cause);
+        }
+        if (cause instanceof IllegalArgumentException) {
+            return new StorageException(message, StorageException.ErrorType.CLIENT_ERROR, null, cause, false);
+        }
+        return new StorageException(message, StorageException.ErrorType.UNKNOWN_ERROR, cause);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof ExecutionException || current instanceof CompletionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
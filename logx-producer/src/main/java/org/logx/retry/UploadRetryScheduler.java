@@ -0,0 +1,342 @@
+package org.logx.retry;
+
+import org.logx.exception.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 上传重试调度器
+ * <p>
+ * 每次尝试在调用方提供的上传线程池中执行，失败后按 {@link StorageErrorClassifier} 归类，
+ * 由 {@link RetryStrategy} 判断是否重试及退避时间，再通过 {@link HashedTimerWheel} 到期后重新派发，
+ * 等待退避期间不占用任何上传线程。重试耗尽或错误不可重试时返回的Future以最后一次的异常失败，由调用方转入兜底。
+ * <p>
+ * 可选的对冲请求：一次尝试的耗时超过近期成功上传耗时的指定百分位后，再并行发出一次相同的上传，
+ * 先成功的一方完成本次上传（同一对象键重复写入是幂等的）。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class UploadRetryScheduler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadRetryScheduler.class);
+
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int MIN_HEDGE_SAMPLES = 20;
+
+    /**
+     * 一次阻塞的上传尝试
+     */
+    @FunctionalInterface
+    public interface UploadAttempt {
+        void run() throws Exception;
+    }
+
+    private final RetryStrategy strategy;
+    private final HashedTimerWheel timerWheel;
+    private final int hedgePercentile;
+    private final long hedgeMinDelayMs;
+    private volatile boolean closed;
+
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int latencyIndex;
+    private long cachedHedgeDelayMs = -1L;
+
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong recoveredByRetry = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong nonRetryable = new AtomicLong();
+    private final AtomicLong hedgedRequests = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    /**
+     * @param strategy 重试策略
+     * @param hedgePercentile 触发对冲请求的耗时百分位（1-99），小于等于0表示不对冲
+     * @param hedgeMinDelayMs 对冲请求的最小等待时间
+     */
+    public UploadRetryScheduler(RetryStrategy strategy, int hedgePercentile, long hedgeMinDelayMs) {
+        this.strategy = strategy;
+        this.hedgePercentile = Math.min(99, hedgePercentile);
+        this.hedgeMinDelayMs = Math.max(1, hedgeMinDelayMs);
+        this.timerWheel = new HashedTimerWheel("logx-retry-timer", 10, 512);
+    }
+
+    /**
+     * 提交一次上传
+     *
+     * @param key 对象键，用于日志
+     * @param attempt 单次上传尝试，失败时抛出异常
+     * @param executor 执行上传尝试的线程池
+     * @return 上传最终成功时完成，重试耗尽或不可重试时以 {@link StorageException} 失败
+     */
+    public CompletableFuture<Void> submit(String key, UploadAttempt attempt, Executor executor) {
+        Upload upload = new Upload(key, attempt, executor);
+        dispatch(upload, 1);
+        return upload.result;
+    }
+
+    private void dispatch(Upload upload, int attemptNumber) {
+        if (closed && attemptNumber > 1) {
+            upload.fail(upload.lastError);
+            return;
+        }
+        upload.startAttempt(attemptNumber);
+        try {
+            upload.executor.execute(() -> runAttempt(upload, attemptNumber, false));
+        } catch (RejectedExecutionException e) {
+            upload.fail(StorageErrorClassifier.classify(e));
+            return;
+        }
+        long hedgeDelayMs = hedgeDelayMs();
+        if (hedgeDelayMs > 0) {
+            timerWheel.schedule(() -> hedge(upload, attemptNumber), hedgeDelayMs);
+        }
+    }
+
+    private void hedge(Upload upload, int attemptNumber) {
+        if (closed || !upload.startHedge(attemptNumber)) {
+            return;
+        }
+        hedgedRequests.incrementAndGet();
+        try {
+            upload.executor.execute(() -> runAttempt(upload, attemptNumber, true));
+        } catch (RejectedExecutionException e) {
+            upload.attemptFinished(attemptNumber);
+        }
+    }
+
+    private void runAttempt(Upload upload, int attemptNumber, boolean hedged) {
+        if (upload.result.isDone()) {
+            upload.attemptFinished(attemptNumber);
+            return;
+        }
+        attempts.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            upload.attempt.run();
+            recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            upload.attemptFinished(attemptNumber);
+            if (upload.succeeded.compareAndSet(false, true)) {
+                if (attemptNumber > 1) {
+                    recoveredByRetry.incrementAndGet();
+                }
+                if (hedged) {
+                    hedgeWins.incrementAndGet();
+                }
+                upload.result.complete(null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            upload.lastError = StorageErrorClassifier.classify(e);
+            if (upload.attemptFinished(attemptNumber)) {
+                upload.fail(upload.lastError);
+            }
+        } catch (Exception e) {
+            StorageException error = StorageErrorClassifier.classify(e);
+            upload.lastError = error;
+            if (upload.attemptFinished(attemptNumber)) {
+                onAttemptFailed(upload, attemptNumber, error);
+            }
+        }
+    }
+
+    private void onAttemptFailed(Upload upload, int attemptNumber, StorageException error) {
+        if (upload.result.isDone()) {
+            return;
+        }
+        if (closed || !strategy.shouldRetry(error, attemptNumber)) {
+            if (attemptNumber > strategy.getMaxRetries()) {
+                exhausted.incrementAndGet();
+            } else if (!closed) {
+                nonRetryable.incrementAndGet();
+            }
+            upload.fail(error);
+            return;
+        }
+        long delayMs = strategy.calculateDelay(attemptNumber + 1).toMillis();
+        retries.incrementAndGet();
+        logger.debug("Upload attempt {} for {} failed ({}), retrying in {}ms", attemptNumber, upload.key,
+                error.getErrorType(), delayMs);
+        if (!timerWheel.schedule(() -> dispatch(upload, attemptNumber + 1), delayMs)) {
+            upload.fail(error);
+        }
+    }
+
+    private synchronized void recordLatency(long millis) {
+        latencies[latencyIndex] = millis;
+        latencyIndex = (latencyIndex + 1) % LATENCY_SAMPLES;
+        if (latencyCount < LATENCY_SAMPLES) {
+            latencyCount++;
+        }
+        if (latencyIndex % 32 == 0) {
+            cachedHedgeDelayMs = -1L;
+        }
+    }
+
+    /**
+     * 按近期成功上传耗时的百分位计算对冲等待时间，样本不足或未启用时返回0
+     */
+    private synchronized long hedgeDelayMs() {
+        if (hedgePercentile <= 0 || latencyCount < MIN_HEDGE_SAMPLES) {
+            return 0L;
+        }
+        if (cachedHedgeDelayMs < 0) {
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            long percentile = sorted[Math.min(latencyCount - 1, latencyCount * hedgePercentile / 100)];
+            cachedHedgeDelayMs = Math.max(hedgeMinDelayMs, percentile);
+        }
+        return cachedHedgeDelayMs;
+    }
+
+    /**
+     * 停止调度，等待中的重试立即以最后一次的异常失败，交由调用方转入兜底
+     */
+    @Override
+    public void close() {
+        closed = true;
+        timerWheel.close();
+    }
+
+    public UploadRetryMetrics getMetrics() {
+        return new UploadRetryMetrics(attempts.get(), retries.get(), recoveredByRetry.get(), exhausted.get(),
+                nonRetryable.get(), hedgedRequests.get(), hedgeWins.get(), timerWheel.getPendingCount());
+    }
+
+    /**
+     * 一次上传及其在途尝试
+     */
+    private static final class Upload {
+        private final String key;
+        private final UploadAttempt attempt;
+        private final Executor executor;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private final AtomicBoolean succeeded = new AtomicBoolean();
+        private volatile StorageException lastError;
+        private int currentAttempt;
+        private int inFlight;
+        private boolean hedged;
+
+        Upload(String key, UploadAttempt attempt, Executor executor) {
+            this.key = key;
+            this.attempt = attempt;
+            this.executor = executor;
+        }
+
+        synchronized void startAttempt(int attemptNumber) {
+            currentAttempt = attemptNumber;
+            inFlight = 1;
+            hedged = false;
+        }
+
+        synchronized boolean startHedge(int attemptNumber) {
+            if (result.isDone() || hedged || currentAttempt != attemptNumber || inFlight == 0) {
+                return false;
+            }
+            hedged = true;
+            inFlight++;
+            return true;
+        }
+
+        /**
+         * @return 本轮尝试是否已全部结束
+         */
+        synchronized boolean attemptFinished(int attemptNumber) {
+            if (currentAttempt != attemptNumber || inFlight == 0) {
+                return false;
+            }
+            return --inFlight == 0;
+        }
+
+        void fail(StorageException error) {
+            result.completeExceptionally(error != null ? error
+                    : new StorageException("Upload aborted for " + key, StorageException.ErrorType.UNKNOWN_ERROR));
+        }
+    }
+
+    /**
+     * 上传重试统计指标
+     */
+    public static class UploadRetryMetrics {
+        private final long attempts;
+        private final long retries;
+        private final long recoveredByRetry;
+        private final long exhausted;
+        private final long nonRetryable;
+        private final long hedgedRequests;
+        private final long hedgeWins;
+        private final int pendingRetries;
+
+        public UploadRetryMetrics(long attempts, long retries, long recoveredByRetry, long exhausted,
+                long nonRetryable, long hedgedRequests, long hedgeWins, int pendingRetries) {
+            this.attempts = attempts;
+            this.retries = retries;
+            this.recoveredByRetry = recoveredByRetry;
+            this.exhausted = exhausted;
+            this.nonRetryable = nonRetryable;
+            this.hedgedRequests = hedgedRequests;
+            this.hedgeWins = hedgeWins;
+            this.pendingRetries = pendingRetries;
+        }
+
+        public long getAttempts() {
+            return attempts;
+        }
+
+        public long getRetries() {
+            return retries;
+        }
+
+        /**
+         * 首次失败、重试后成功的上传数
+         */
+        public long getRecoveredByRetry() {
+            return recoveredByRetry;
+        }
+
+        public long getExhausted() {
+            return exhausted;
+        }
+
+        public long getNonRetryable() {
+            return nonRetryable;
+        }
+
+        public long getHedgedRequests() {
+            return hedgedRequests;
+        }
+
+        /**
+         * 由对冲请求先完成的上传数
+         */
+        public long getHedgeWins() {
+            return hedgeWins;
+        }
+
+        /**
+         * 时间轮中等待的重试与对冲任务数
+         */
+        public int getPendingRetries() {
+            return pendingRetries;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "UploadRetryMetrics{attempts=%d, retries=%d, recovered=%d, exhausted=%d, nonRetryable=%d, "
+                            + "hedged=%d, hedgeWins=%d, pending=%d}",
+                    attempts, retries, recoveredByRetry, exhausted, nonRetryable, hedgedRequests, hedgeWins,
+                    pendingRetries);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.logx.spool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.MappedByteBuffer;
+
+/**
+ * 内存映射缓冲释放工具
+ * <p>
+ * JDK没有公开的unmap接口，删除已映射的段文件前需要主动释放映射，否则在Windows上无法删除文件，
+ * 在Linux上磁盘空间也要等到GC回收缓冲后才释放。JDK9+使用Unsafe.invokeCleaner，JDK8使用DirectBuffer.cleaner()。
+ * 释放失败时静默降级为等待GC回收。调用方必须保证释放后不再访问该缓冲。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+final class MappedBufferCleaner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedBufferCleaner.class);
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", java.nio.ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+        } catch (Exception e) {
+            invokeCleaner = null;
+            unsafe = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private MappedBufferCleaner() {
+    }
+
+    static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                return;
+            }
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                Method clean = cleaner.getClass().getMethod("clean");
+                clean.setAccessible(true);
+                clean.invoke(cleaner);
+            }
+        } catch (Exception e) {
+            logger.debug("Unable to unmap buffer explicitly, leaving it to GC: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package org.logx.spool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 环形队列的磁盘溢出缓冲
+ * <p>
+ * 队列满时生产线程把事件顺序追加到内存映射的溢出段（只做一次内存拷贝，不等待队列容量），
+ * 后台回灌线程在队列恢复容量后按写入顺序把事件重新投递给 {@link Sink}。
+ * 存在积压期间新事件也应写入溢出缓冲（见 {@link #hasBacklog()}），以保持先进先出。
+ * <p>
+ * 段文件布局：int magic | int readOffset，之后为若干条 {@code int length | long timestampMs | payload}，
+ * length最后写入，为0表示数据结束。readOffset在每轮回灌后更新，进程异常退出或关闭超时后残留的段
+ * 在下次打开时从该位置继续回灌，已投递的事件不会重复；溢出缓冲只用于削峰，不做fsync。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class OverflowSpill implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverflowSpill.class);
+
+    static final int MAGIC = 0x4C58534D;
+    static final int SEGMENT_HEADER_BYTES = 8;
+    private static final int READ_OFFSET_POSITION = 4;
+    static final int RECORD_HEADER_BYTES = 12;
+    static final String FILE_SUFFIX = ".ovf";
+
+    private static final long IDLE_WAIT_MS = 100L;
+    private static final long RETRY_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    /**
+     * 回灌目标
+     */
+    public interface Sink {
+        /**
+         * 尝试投递一个事件，队列已满时立即返回false
+         *
+         * @param payload 事件内容
+         * @param timestampMs 事件原始时间戳
+         * @return 是否投递成功
+         */
+        boolean offer(byte[] payload, long timestampMs);
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxBytes;
+    private final Sink sink;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dataAvailable = lock.newCondition();
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private final AtomicLong nextSegmentId;
+    private Segment tail;
+    private long backlogBytes;
+    private volatile boolean backlog;
+    private volatile boolean closing;
+    private volatile long drainDeadlineNanos;
+    private Thread drainer;
+
+    private final AtomicLong spilledMessages = new AtomicLong();
+    private final AtomicLong drainedMessages = new AtomicLong();
+    private final AtomicLong rejectedMessages = new AtomicLong();
+    private final AtomicLong recoveredSegments = new AtomicLong();
+
+    private OverflowSpill(Path directory, int segmentBytes, long maxBytes, Sink sink) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        this.sink = sink;
+        Files.createDirectories(directory);
+        this.nextSegmentId = new AtomicLong(recoverSegments() + 1);
+        this.backlog = !segments.isEmpty();
+    }
+
+    /**
+     * 打开溢出目录，残留的段会在 {@link #start()} 后继续回灌
+     *
+     * @param directory 段文件目录
+     * @param segmentBytes 单个段的大小
+     * @param maxBytes 积压上限，超过后 {@link #append(byte[], long)} 返回false
+     * @param sink 回灌目标
+     * @return 溢出缓冲
+     * @throws IOException 目录不可用
+     */
+    public static OverflowSpill open(Path directory, int segmentBytes, long maxBytes, Sink sink) throws IOException {
+        Objects.requireNonNull(directory, "directory cannot be null");
+        Objects.requireNonNull(sink, "sink cannot be null");
+        if (segmentBytes <= SEGMENT_HEADER_BYTES + RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        return new OverflowSpill(directory, segmentBytes, maxBytes, sink);
+    }
+
+    private long recoverSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "spill-*" + FILE_SUFFIX)) {
+            for (Path file : stream) {
+                if (parseId(file) >= 0) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(OverflowSpill::parseId));
+
+        long maxId = -1;
+        for (Path file : files) {
+            maxId = Math.max(maxId, parseId(file));
+            try {
+                Segment segment = Segment.recover(file);
+                if (segment.writePosition > segment.readPosition) {
+                    segments.addLast(segment);
+                    backlogBytes += segment.writePosition - segment.readPosition;
+                    recoveredSegments.incrementAndGet();
+                } else {
+                    segment.release(true);
+                }
+            } catch (IOException e) {
+                logger.error("Skipping unreadable spill segment {}: {}", file, e.getMessage());
+            }
+        }
+        if (!segments.isEmpty()) {
+            logger.warn("Recovered {} spill segments ({} bytes) from {}", segments.size(), backlogBytes, directory);
+        }
+        return maxId;
+    }
+
+    private static long parseId(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith("spill-") || !name.endsWith(FILE_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(6, name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 启动回灌线程
+     */
+    public synchronized void start() {
+        if (drainer != null) {
+            return;
+        }
+        drainer = new Thread(this::drainLoop, "logx-spill-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * 是否存在尚未回灌的积压
+     *
+     * @return 有积压时返回true，此时新事件应直接写入溢出缓冲以保持顺序
+     */
+    public boolean hasBacklog() {
+        return backlog;
+    }
+
+    /**
+     * 追加一个事件
+     *
+     * @param payload 事件内容
+     * @param timestampMs 事件时间戳
+     * @return 写入成功返回true；已关闭、超过积压上限或磁盘写入失败时返回false
+     */
+    public boolean append(byte[] payload, long timestampMs) {
+        int size = RECORD_HEADER_BYTES + payload.length;
+        lock.lock();
+        try {
+            if (closing || backlogBytes + size > maxBytes) {
+                rejectedMessages.incrementAndGet();
+                return false;
+            }
+            if (tail == null || tail.writePosition + size > tail.capacity) {
+                int capacity = Math.max(segmentBytes, SEGMENT_HEADER_BYTES + size);
+                tail = Segment.create(directory.resolve(fileName(nextSegmentId.getAndIncrement())), capacity);
+                segments.addLast(tail);
+            }
+            tail.write(payload, timestampMs);
+            backlogBytes += size;
+            backlog = true;
+            spilledMessages.incrementAndGet();
+            dataAvailable.signal();
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to create spill segment in {}: {}", directory, e.getMessage());
+            rejectedMessages.incrementAndGet();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String fileName(long id) {
+        return String.format("spill-%020d%s", id, FILE_SUFFIX);
+    }
+
+    private void drainLoop() {
+        while (true) {
+            Segment head;
+            int limit;
+            lock.lock();
+            try {
+                head = segments.peekFirst();
+                if (head == null) {
+                    backlog = false;
+                    if (closing) {
+                        return;
+                    }
+                    dataAvailable.await(IDLE_WAIT_MS, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                limit = head.writePosition;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            int position = head.readPosition;
+            int drained = 0;
+            while (position < limit) {
+                int length = head.mapped.getInt(position);
+                long timestampMs = head.mapped.getLong(position + 4);
+                byte[] payload = new byte[length];
+                ByteBuffer reader = head.mapped.duplicate();
+                reader.position(position + RECORD_HEADER_BYTES);
+                reader.get(payload);
+                if (!offerWithRetry(payload, timestampMs)) {
+                    break;
+                }
+                position += RECORD_HEADER_BYTES + length;
+                drained++;
+            }
+
+            lock.lock();
+            try {
+                backlogBytes -= position - head.readPosition;
+                head.commitReadPosition(position);
+                drainedMessages.addAndGet(drained);
+                if (head.readPosition == head.writePosition) {
+                    segments.pollFirst();
+                    if (head == tail) {
+                        tail = null;
+                    }
+                    head.release(true);
+                }
+                if (segments.isEmpty()) {
+                    backlog = false;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (closing && System.nanoTime() - drainDeadlineNanos > 0) {
+                return;
+            }
+        }
+    }
+
+    private boolean offerWithRetry(byte[] payload, long timestampMs) {
+        while (!sink.offer(payload, timestampMs)) {
+            if (closing && System.nanoTime() - drainDeadlineNanos > 0) {
+                return false;
+            }
+            LockSupport.parkNanos(RETRY_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * 停止接受新事件，在超时内尽量回灌积压，剩余数据保留在磁盘上供下次启动继续回灌
+     *
+     * @param drainTimeoutMs 回灌等待时间
+     */
+    public void close(long drainTimeoutMs) {
+        lock.lock();
+        try {
+            if (closing) {
+                return;
+            }
+            drainDeadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+            closing = true;
+            dataAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        Thread t;
+        synchronized (this) {
+            t = drainer;
+        }
+        if (t != null) {
+            try {
+                t.join(drainTimeoutMs + 1000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        lock.lock();
+        try {
+            if (!segments.isEmpty()) {
+                logger.warn("Spill closed with {} bytes still pending in {}, they will be replayed on next start",
+                        backlogBytes, directory);
+            }
+            for (Segment segment : segments) {
+                segment.release(false);
+            }
+            segments.clear();
+            tail = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        close(0L);
+    }
+
+    public SpillMetrics getMetrics() {
+        lock.lock();
+        try {
+            return new SpillMetrics(spilledMessages.get(), drainedMessages.get(), rejectedMessages.get(),
+                    backlogBytes, segments.size(), recoveredSegments.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 溢出段；写入位置由锁保护，读取位置只由回灌线程推进
+     */
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer mapped;
+        private final ByteBuffer writer;
+        private final int capacity;
+        private int writePosition;
+        private int readPosition;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer mapped) {
+            this.path = path;
+            this.channel = channel;
+            this.mapped = mapped;
+            this.writer = mapped.duplicate();
+            this.capacity = mapped.capacity();
+            this.writePosition = SEGMENT_HEADER_BYTES;
+            this.readPosition = SEGMENT_HEADER_BYTES;
+        }
+
+        static Segment create(Path path, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                Segment segment = new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+                segment.mapped.putInt(READ_OFFSET_POSITION, SEGMENT_HEADER_BYTES);
+                segment.mapped.putInt(0, MAGIC);
+                return segment;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                Files.deleteIfExists(path);
+                throw e;
+            }
+        }
+
+        static Segment recover(Path path) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+            if (size < SEGMENT_HEADER_BYTES || size > Integer.MAX_VALUE) {
+                channel.close();
+                throw new IOException("Invalid spill segment size " + size + ": " + path);
+            }
+            MappedByteBuffer mapped;
+            try {
+                mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            Segment segment = new Segment(path, channel, mapped);
+            if (mapped.getInt(0) != MAGIC) {
+                segment.release(false);
+                throw new IOException("Not a spill segment: " + path);
+            }
+            int savedReadOffset = mapped.getInt(READ_OFFSET_POSITION);
+            int readPosition = SEGMENT_HEADER_BYTES;
+            int position = SEGMENT_HEADER_BYTES;
+            while (position + RECORD_HEADER_BYTES <= segment.capacity) {
+                int length = segment.mapped.getInt(position);
+                if (length <= 0 || position + RECORD_HEADER_BYTES + length > segment.capacity) {
+                    break;
+                }
+                position += RECORD_HEADER_BYTES + length;
+                // 只接受落在记录边界上的回灌位置，损坏的头部退化为从头回灌
+                if (position == savedReadOffset) {
+                    readPosition = position;
+                }
+            }
+            segment.writePosition = position;
+            segment.readPosition = readPosition;
+            return segment;
+        }
+
+        /**
+         * 推进回灌位置并写回段头，重新打开时从该位置继续
+         */
+        void commitReadPosition(int position) {
+            readPosition = position;
+            mapped.putInt(READ_OFFSET_POSITION, position);
+        }
+
+        void write(byte[] payload, long timestampMs) {
+            int position = writePosition;
+            writer.position(position + 4);
+            writer.putLong(timestampMs);
+            writer.put(payload);
+            writer.putInt(position, payload.length);
+            writePosition = position + RECORD_HEADER_BYTES + payload.length;
+        }
+
+        void release(boolean delete) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close spill segment {}: {}", path, e.getMessage());
+            }
+            MappedBufferCleaner.unmap(mapped);
+            if (delete) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete spill segment {}: {}", path, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 溢出缓冲统计指标
+     */
+    public static class SpillMetrics {
+        private final long spilledMessages;
+        private final long drainedMessages;
+        private final long rejectedMessages;
+        private final long backlogBytes;
+        private final int liveSegments;
+        private final long recoveredSegments;
+
+        public SpillMetrics(long spilledMessages, long drainedMessages, long rejectedMessages, long backlogBytes,
+                int liveSegments, long recoveredSegments) {
+            this.spilledMessages = spilledMessages;
+            this.drainedMessages = drainedMessages;
+            this.rejectedMessages = rejectedMessages;
+            this.backlogBytes = backlogBytes;
+            this.liveSegments = liveSegments;
+            this.recoveredSegments = recoveredSegments;
+        }
+
+        public long getSpilledMessages() {
+            return spilledMessages;
+        }
+
+        public long getDrainedMessages() {
+            return drainedMessages;
+        }
+
+        public long getRejectedMessages() {
+            return rejectedMessages;
+        }
+
+        public long getBacklogBytes() {
+            return backlogBytes;
+        }
+
+        public int getLiveSegments() {
+            return liveSegments;
+        }
+
+        public long getRecoveredSegments() {
+            return recoveredSegments;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "SpillMetrics{spilled=%d, drained=%d, rejected=%d, backlogBytes=%d, segments=%d, recovered=%d}",
+                    spilledMessages, drainedMessages, rejectedMessages, backlogBytes, liveSegments,
+                    recoveredSegments);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.logx.spool;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 预写日志中的一条批次记录
+ * <p>
+ * 新追加的记录直接持有内存中的批次数据；启动恢复出的记录只持有位置信息，
+ * 上传线程调用 {@link #readPayload()} 时才从映射文件中读出，避免积压较大时一次性加载到堆内。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class SpoolRecord {
+
+    private final SpoolSegment segment;
+    private final int position;
+    private final String key;
+    private final byte[] payload;
+    private final int payloadOffset;
+    private final int payloadLength;
+    private final int originalSize;
+    private final boolean compressed;
+    private final int messageCount;
+    private final AtomicBoolean acknowledged = new AtomicBoolean(false);
+
+    SpoolRecord(SpoolSegment segment, int position, String key, byte[] payload, int payloadOffset,
+            int payloadLength, int originalSize, boolean compressed, int messageCount) {
+        this.segment = segment;
+        this.position = position;
+        this.key = key;
+        this.payload = payload;
+        this.payloadOffset = payloadOffset;
+        this.payloadLength = payloadLength;
+        this.originalSize = originalSize;
+        this.compressed = compressed;
+        this.messageCount = messageCount;
+    }
+
+    /**
+     * 读取批次数据
+     *
+     * @return 批次数据
+     * @throws IOException 所在段已释放
+     */
+    public byte[] readPayload() throws IOException {
+        if (payload != null) {
+            return payload;
+        }
+        return segment.readPayload(payloadOffset, payloadLength);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getPayloadLength() {
+        return payloadLength;
+    }
+
+    public int getOriginalSize() {
+        return originalSize;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public int getMessageCount() {
+        return messageCount;
+    }
+
+    SpoolSegment getSegment() {
+        return segment;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    boolean markAcknowledged() {
+        return acknowledged.compareAndSet(false, true);
+    }
+}
@@ -0,0 +1,299 @@
+package org.logx.spool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * 预写日志段
+ * <p>
+ * 每个段是一个预分配并整体内存映射的文件，记录顺序追加。文件布局：
+ * <pre>
+ * 段头:  int magic | int version
+ * 记录:  int bodyLength | int crc32(body) | byte state | body
+ * body:  short keyLength | key(UTF-8) | byte flags | int originalSize | int messageCount | payload
+ * </pre>
+ * bodyLength最后写入，为0表示段内数据结束；state为0表示未确认，上传成功后原地改写为1。
+ * 追加只由持有WriteAheadSpool锁的线程执行，确认、读取、刷盘与删除通过段自身的锁与释放映射互斥。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+final class SpoolSegment {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpoolSegment.class);
+
+    static final int MAGIC = 0x4C58574C;
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_BYTES = 8;
+    static final int RECORD_HEADER_BYTES = 9;
+    static final int STATE_OFFSET = 8;
+    static final byte STATE_PENDING = 0;
+    static final byte STATE_ACKED = 1;
+    static final String FILE_SUFFIX = ".wal";
+
+    private final long id;
+    private final Path path;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final ByteBuffer writer;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final CRC32 crc = new CRC32();
+    private volatile boolean sealed;
+    private volatile boolean dirty;
+    private boolean closed;
+
+    private SpoolSegment(long id, Path path, FileChannel channel, MappedByteBuffer mapped) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.mapped = mapped;
+        this.capacity = mapped.capacity();
+        this.writer = mapped.duplicate();
+    }
+
+    static String fileName(long id) {
+        return String.format("spool-%020d%s", id, FILE_SUFFIX);
+    }
+
+    static long parseId(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith("spool-") || !name.endsWith(FILE_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(6, name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 创建新段并写入段头
+     */
+    static SpoolSegment create(Path dir, long id, int capacity) throws IOException {
+        Path path = dir.resolve(fileName(id));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            SpoolSegment segment = new SpoolSegment(id, path, channel, mapped);
+            segment.writer.putInt(MAGIC);
+            segment.writer.putInt(VERSION);
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    /**
+     * 打开已有段，扫描出全部未确认记录；遇到校验失败的尾部（写入中途崩溃）即停止扫描
+     */
+    static SpoolSegment recover(Path path, long id, List<SpoolRecord> pendingOut) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < SEGMENT_HEADER_BYTES || size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Invalid spool segment size " + size + ": " + path);
+        }
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        SpoolSegment segment = new SpoolSegment(id, path, channel, mapped);
+        if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+            segment.close(false);
+            throw new IOException("Not a spool segment: " + path);
+        }
+
+        List<SpoolRecord> found = new ArrayList<>();
+        int position = SEGMENT_HEADER_BYTES;
+        while (position + RECORD_HEADER_BYTES <= segment.capacity) {
+            int bodyLength = mapped.getInt(position);
+            if (bodyLength <= 0 || position + RECORD_HEADER_BYTES + bodyLength > segment.capacity) {
+                break;
+            }
+            int expectedCrc = mapped.getInt(position + 4);
+            ByteBuffer body = mapped.duplicate();
+            body.position(position + RECORD_HEADER_BYTES);
+            body.limit(position + RECORD_HEADER_BYTES + bodyLength);
+            CRC32 checksum = new CRC32();
+            checksum.update(body.slice());
+            if ((int) checksum.getValue() != expectedCrc) {
+                logger.warn("Spool segment {} has a torn record at offset {}, ignoring the rest", path, position);
+                break;
+            }
+            if (mapped.get(position + STATE_OFFSET) == STATE_PENDING) {
+                found.add(segment.readRecord(position, bodyLength));
+            }
+            position += RECORD_HEADER_BYTES + bodyLength;
+        }
+        segment.writer.position(Math.min(position, segment.capacity));
+        segment.pending.set(found.size());
+        segment.sealed = true;
+        pendingOut.addAll(found);
+        return segment;
+    }
+
+    private SpoolRecord readRecord(int position, int bodyLength) {
+        ByteBuffer body = mapped.duplicate();
+        body.position(position + RECORD_HEADER_BYTES);
+        int keyLength = body.getShort() & 0xffff;
+        byte[] keyBytes = new byte[keyLength];
+        body.get(keyBytes);
+        byte flags = body.get();
+        int originalSize = body.getInt();
+        int messageCount = body.getInt();
+        int payloadOffset = body.position();
+        int payloadLength = bodyLength - (payloadOffset - position - RECORD_HEADER_BYTES);
+        return new SpoolRecord(this, position, new String(keyBytes, StandardCharsets.UTF_8), null,
+                payloadOffset, payloadLength, originalSize, (flags & 1) != 0, messageCount);
+    }
+
+    static int recordSize(byte[] keyBytes, int payloadLength) {
+        return RECORD_HEADER_BYTES + 2 + keyBytes.length + 1 + 4 + 4 + payloadLength;
+    }
+
+    /**
+     * 追加一条记录，空间不足时返回null。调用方须持有WriteAheadSpool的锁
+     */
+    SpoolRecord append(String key, byte[] keyBytes, byte[] payload, int originalSize, boolean compressed,
+            int messageCount) {
+        int position = writer.position();
+        int size = recordSize(keyBytes, payload.length);
+        if (position + size > capacity) {
+            return null;
+        }
+        int bodyStart = position + RECORD_HEADER_BYTES;
+        writer.position(bodyStart);
+        writer.putShort((short) keyBytes.length);
+        writer.put(keyBytes);
+        writer.put(compressed ? (byte) 1 : (byte) 0);
+        writer.putInt(originalSize);
+        writer.putInt(messageCount);
+        int payloadOffset = writer.position();
+        writer.put(payload);
+        int end = writer.position();
+
+        ByteBuffer body = mapped.duplicate();
+        body.position(bodyStart);
+        body.limit(end);
+        crc.reset();
+        crc.update(body);
+
+        writer.putInt(position + 4, (int) crc.getValue());
+        writer.put(position + STATE_OFFSET, STATE_PENDING);
+        writer.putInt(position, end - bodyStart);
+        pending.incrementAndGet();
+        dirty = true;
+        return new SpoolRecord(this, position, key, payload, payloadOffset, payload.length, originalSize,
+                compressed, messageCount);
+    }
+
+    /**
+     * 将记录标记为已确认
+     *
+     * @return 该段是否已封存且全部确认，可以删除
+     */
+    boolean acknowledge(int position) {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            mapped.put(position + STATE_OFFSET, STATE_ACKED);
+        }
+        return pending.decrementAndGet() == 0 && sealed;
+    }
+
+    synchronized byte[] readPayload(int payloadOffset, int payloadLength) throws IOException {
+        if (closed) {
+            throw new IOException("Spool segment already released: " + path);
+        }
+        byte[] data = new byte[payloadLength];
+        ByteBuffer reader = mapped.duplicate();
+        reader.position(payloadOffset);
+        reader.get(data);
+        return data;
+    }
+
+    /**
+     * 封存段，之后不再追加
+     *
+     * @return 封存时是否已全部确认，可以删除
+     */
+    boolean seal() {
+        sealed = true;
+        return pending.get() == 0;
+    }
+
+    /**
+     * 将脏页刷到磁盘
+     */
+    synchronized void force() {
+        if (closed || !dirty) {
+            return;
+        }
+        dirty = false;
+        mapped.force();
+    }
+
+    /**
+     * 关闭段并释放映射
+     *
+     * @param delete 是否同时删除文件
+     */
+    synchronized void close(boolean delete) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!delete && dirty) {
+            mapped.force();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close spool segment {}: {}", path, e.getMessage());
+        }
+        MappedBufferCleaner.unmap(mapped);
+        if (delete) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Failed to delete spool segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    long getId() {
+        return id;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int getPending() {
+        return pending.get();
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+}
@@ -0,0 +1,343 @@
+package org.logx.spool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于内存映射分段文件的预写日志（持久化队列）
+ * <p>
+ * 位于批处理队列与上传线程之间：压缩后的批次在提交上传前先顺序追加到当前段，
+ * 上传成功（或已转入兜底文件）后原地确认；段封存且全部确认后整体删除。
+ * 进程崩溃或被kill -9后，下次启动时 {@link #open(Path, int, long)} 会扫描残留段并返回未确认的记录，
+ * 由引擎以原对象键重新上传，重复上传只会覆盖同名对象。
+ * <p>
+ * 追加直接写入映射内存，不经过额外的用户态缓冲和write系统调用；刷盘由后台线程按fsyncIntervalMs批量执行，
+ * 该值小于等于0时每次追加后同步刷盘。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class WriteAheadSpool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadSpool.class);
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long fsyncIntervalMs;
+    private final List<SpoolSegment> segments = new CopyOnWriteArrayList<>();
+    private final List<SpoolRecord> recovered;
+    private final AtomicLong nextSegmentId;
+    private final ScheduledExecutorService flusher;
+    private SpoolSegment active;
+    private volatile boolean closed;
+
+    private final AtomicLong appendedRecords = new AtomicLong();
+    private final AtomicLong appendedBytes = new AtomicLong();
+    private final AtomicLong acknowledgedRecords = new AtomicLong();
+    private final AtomicLong segmentsCreated = new AtomicLong();
+    private final AtomicLong segmentsDeleted = new AtomicLong();
+    private final AtomicLong fsyncCount = new AtomicLong();
+
+    private WriteAheadSpool(Path directory, int segmentBytes, long fsyncIntervalMs) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        Files.createDirectories(directory);
+
+        List<SpoolRecord> pending = new ArrayList<>();
+        long maxId = recoverSegments(pending);
+        this.recovered = Collections.unmodifiableList(pending);
+        this.nextSegmentId = new AtomicLong(maxId + 1);
+
+        if (fsyncIntervalMs > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "logx-spool-flusher");
+                t.setDaemon(true);
+                return t;
+            });
+            this.flusher.scheduleWithFixedDelay(this::sync, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * 打开（或创建）预写日志目录，并恢复上次未确认的记录
+     *
+     * @param directory 段文件目录
+     * @param segmentBytes 单个段的预分配大小
+     * @param fsyncIntervalMs 批量刷盘间隔，小于等于0表示每次追加后同步刷盘
+     * @return 预写日志
+     * @throws IOException 目录不可用
+     */
+    public static WriteAheadSpool open(Path directory, int segmentBytes, long fsyncIntervalMs) throws IOException {
+        Objects.requireNonNull(directory, "directory cannot be null");
+        if (segmentBytes <= SpoolSegment.SEGMENT_HEADER_BYTES + SpoolSegment.RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        return new WriteAheadSpool(directory, segmentBytes, fsyncIntervalMs);
+    }
+
+    private long recoverSegments(List<SpoolRecord> pending) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "spool-*" + SpoolSegment.FILE_SUFFIX)) {
+            for (Path file : stream) {
+                if (SpoolSegment.parseId(file) >= 0) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(SpoolSegment::parseId));
+
+        long maxId = -1;
+        for (Path file : files) {
+            long id = SpoolSegment.parseId(file);
+            maxId = Math.max(maxId, id);
+            try {
+                SpoolSegment segment = SpoolSegment.recover(file, id, pending);
+                if (segment.getPending() == 0) {
+                    segment.close(true);
+                } else {
+                    segments.add(segment);
+                }
+            } catch (IOException e) {
+                logger.error("Skipping unreadable spool segment {}: {}", file, e.getMessage());
+            }
+        }
+        if (!pending.isEmpty()) {
+            logger.warn("Recovered {} unacknowledged batches from spool {}", pending.size(), directory);
+        }
+        return maxId;
+    }
+
+    /**
+     * 上次运行遗留、尚未确认的记录，按写入顺序排列
+     *
+     * @return 待重放记录
+     */
+    public List<SpoolRecord> getRecoveredRecords() {
+        return recovered;
+    }
+
+    /**
+     * 追加一个批次
+     *
+     * @param key 对象键，重放时使用同一个键上传
+     * @param data 批次数据
+     * @param originalSize 压缩前大小
+     * @param compressed 是否已压缩
+     * @param messageCount 消息条数
+     * @return 记录句柄，上传完成后交给 {@link #acknowledge(SpoolRecord)}
+     * @throws IOException 创建段文件失败或预写日志已关闭
+     */
+    public synchronized SpoolRecord append(String key, byte[] data, int originalSize, boolean compressed,
+            int messageCount) throws IOException {
+        if (closed) {
+            throw new IOException("Spool is closed");
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > 0xffff) {
+            throw new IOException("Object key too long for spool: " + keyBytes.length);
+        }
+
+        SpoolRecord record = active != null
+                ? active.append(key, keyBytes, data, originalSize, compressed, messageCount)
+                : null;
+        if (record == null) {
+            roll(SpoolSegment.recordSize(keyBytes, data.length));
+            record = active.append(key, keyBytes, data, originalSize, compressed, messageCount);
+        }
+
+        appendedRecords.incrementAndGet();
+        appendedBytes.addAndGet(data.length);
+        if (fsyncIntervalMs <= 0) {
+            active.force();
+            fsyncCount.incrementAndGet();
+        }
+        return record;
+    }
+
+    private void roll(int requiredBytes) throws IOException {
+        SpoolSegment previous = active;
+        int capacity = Math.max(segmentBytes, SpoolSegment.SEGMENT_HEADER_BYTES + requiredBytes);
+        SpoolSegment next = SpoolSegment.create(directory, nextSegmentId.getAndIncrement(), capacity);
+        segments.add(next);
+        active = next;
+        segmentsCreated.incrementAndGet();
+
+        if (previous != null && previous.seal()) {
+            release(previous);
+        }
+    }
+
+    /**
+     * 确认记录已安全送达（上传成功或已写入兜底文件），重复确认会被忽略
+     *
+     * @param record 记录句柄
+     */
+    public void acknowledge(SpoolRecord record) {
+        if (record == null || !record.markAcknowledged()) {
+            return;
+        }
+        acknowledgedRecords.incrementAndGet();
+        SpoolSegment segment = record.getSegment();
+        if (segment.acknowledge(record.getPosition())) {
+            release(segment);
+        }
+    }
+
+    private void release(SpoolSegment segment) {
+        if (segments.remove(segment)) {
+            segment.close(true);
+            segmentsDeleted.incrementAndGet();
+            logger.debug("Spool segment {} fully acknowledged and deleted", segment.getPath());
+        }
+    }
+
+    /**
+     * 将所有段的脏页刷到磁盘
+     */
+    public void sync() {
+        for (SpoolSegment segment : segments) {
+            if (segment.isDirty()) {
+                try {
+                    segment.force();
+                    fsyncCount.incrementAndGet();
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to sync spool segment {}: {}", segment.getPath(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                if (!flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+                    flusher.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                flusher.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (SpoolSegment segment : segments) {
+            boolean drained = segment.getPending() == 0;
+            segment.close(drained);
+            if (drained) {
+                segmentsDeleted.incrementAndGet();
+            }
+        }
+        segments.clear();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public SpoolMetrics getMetrics() {
+        long pending = 0;
+        for (SpoolSegment segment : segments) {
+            pending += segment.getPending();
+        }
+        return new SpoolMetrics(appendedRecords.get(), appendedBytes.get(), acknowledgedRecords.get(), pending,
+                segments.size(), segmentsCreated.get(), segmentsDeleted.get(), fsyncCount.get(), recovered.size());
+    }
+
+    /**
+     * 预写日志统计指标
+     */
+    public static class SpoolMetrics {
+        private final long appendedRecords;
+        private final long appendedBytes;
+        private final long acknowledgedRecords;
+        private final long pendingRecords;
+        private final int liveSegments;
+        private final long segmentsCreated;
+        private final long segmentsDeleted;
+        private final long fsyncCount;
+        private final int recoveredRecords;
+
+        public SpoolMetrics(long appendedRecords, long appendedBytes, long acknowledgedRecords, long pendingRecords,
+                int liveSegments, long segmentsCreated, long segmentsDeleted, long fsyncCount, int recoveredRecords) {
+            this.appendedRecords = appendedRecords;
+            this.appendedBytes = appendedBytes;
+            this.acknowledgedRecords = acknowledgedRecords;
+            this.pendingRecords = pendingRecords;
+            this.liveSegments = liveSegments;
+            this.segmentsCreated = segmentsCreated;
+            this.segmentsDeleted = segmentsDeleted;
+            this.fsyncCount = fsyncCount;
+            this.recoveredRecords = recoveredRecords;
+        }
+
+        public long getAppendedRecords() {
+            return appendedRecords;
+        }
+
+        public long getAppendedBytes() {
+            return appendedBytes;
+        }
+
+        public long getAcknowledgedRecords() {
+            return acknowledgedRecords;
+        }
+
+        public long getPendingRecords() {
+            return pendingRecords;
+        }
+
+        public int getLiveSegments() {
+            return liveSegments;
+        }
+
+        public long getSegmentsCreated() {
+            return segmentsCreated;
+        }
+
+        public long getSegmentsDeleted() {
+            return segmentsDeleted;
+        }
+
+        public long getFsyncCount() {
+            return fsyncCount;
+        }
+
+        public int getRecoveredRecords() {
+            return recoveredRecords;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "SpoolMetrics{appended=%d, bytes=%d, acknowledged=%d, pending=%d, segments=%d, created=%d, "
+                            + "deleted=%d, fsyncs=%d, recovered=%d}",
+                    appendedRecords, appendedBytes, acknowledgedRecords, pendingRecords, liveSegments,
+                    segmentsCreated, segmentsDeleted, fsyncCount, recoveredRecords);
+        }
+    }
+}
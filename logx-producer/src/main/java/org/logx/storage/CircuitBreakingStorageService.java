@@ -0,0 +1,118 @@
+package org.logx.storage;
+
+import org.logx.exception.StorageException;
+import org.logx.reliability.CircuitBreaker;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 带熔断的存储服务
+ * <p>
+ * 包装实际的存储服务，按 {@link CircuitBreaker} 的判定放行上传。熔断期间上传立即以
+ * {@link #CIRCUIT_OPEN_ERROR_CODE} 错误码的 {@link StorageException} 失败，调用方无需等待网络超时即可转入兜底。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class CircuitBreakingStorageService implements StorageService {
+
+    /**
+     * 熔断拒绝时使用的错误码
+     */
+    public static final String CIRCUIT_OPEN_ERROR_CODE = "CIRCUIT_OPEN";
+
+    private final StorageService delegate;
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakingStorageService(StorageService delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * 判断异常是否由熔断拒绝引起
+     *
+     * @param t 异常，可以是包装后的异常
+     * @return 是否为熔断拒绝
+     */
+    public static boolean isCircuitOpen(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StorageException
+                    && CIRCUIT_OPEN_ERROR_CODE.equals(((StorageException) cause).getErrorCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<Void> putObject(String key, byte[] data) {
+        return guard(() -> delegate.putObject(key, data));
+    }
+
+    @Override
+    public CompletableFuture<Void> putObject(String key, Path file, long offset, long length) {
+        return guard(() -> delegate.putObject(key, file, offset, length));
+    }
+
+    private CompletableFuture<Void> guard(Supplier<CompletableFuture<Void>> upload) {
+        long permit = circuitBreaker.tryAcquire();
+        if (permit == CircuitBreaker.NO_PERMIT) {
+            CompletableFuture<Void> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new StorageException("Circuit breaker open for bucket " + getBucketName(),
+                    StorageException.ErrorType.NETWORK_ERROR, CIRCUIT_OPEN_ERROR_CODE, null, false));
+            return rejected;
+        }
+        long start = System.nanoTime();
+        CompletableFuture<Void> future;
+        try {
+            future = upload.get();
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure(permit, System.nanoTime() - start);
+            throw e;
+        }
+        return future.whenComplete((ignored, error) -> {
+            long elapsed = System.nanoTime() - start;
+            if (error == null) {
+                circuitBreaker.onSuccess(permit, elapsed);
+            } else {
+                circuitBreaker.onFailure(permit, elapsed);
+            }
+        });
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public StorageService getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ProtocolType getProtocolType() {
+        return delegate.getProtocolType();
+    }
+
+    @Override
+    public String getBucketName() {
+        return delegate.getBucketName();
+    }
+
+    @Override
+    public String getKeyPrefix() {
+        return delegate.getKeyPrefix();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public boolean supportsProtocol(ProtocolType protocol) {
+        return delegate.supportsProtocol(protocol);
+    }
+}
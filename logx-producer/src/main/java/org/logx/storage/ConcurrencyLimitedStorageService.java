@@ -0,0 +1,138 @@
+package org.logx.storage;
+
+import org.logx.exception.StorageException;
+import org.logx.reliability.AdaptiveConcurrencyLimiter;
+import org.logx.retry.StorageErrorClassifier;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 自适应并发的存储服务
+ * <p>
+ * 每次上传前向 {@link AdaptiveConcurrencyLimiter} 申请名额，名额用满时在上传线程上等待；
+ * 上传结束后按结果反馈给限制器：成功报告耗时，服务端错误（503 SlowDown、429等）和超时视为拥塞，
+ * 其余失败只归还名额。实时上传、分片上传和兜底恢复共用同一个限制器。
+ * <p>
+ * 对象大小差异很大（分片、整批、兜底文件），超过1MB的上传按每MB耗时折算后再报告，
+ * 避免大对象被误判为延迟突增。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class ConcurrencyLimitedStorageService implements StorageService {
+
+    private static final long LATENCY_UNIT_BYTES = 1024L * 1024L;
+
+    private final StorageService delegate;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final long acquireTimeoutMs;
+
+    /**
+     * @param delegate 实际的存储服务
+     * @param limiter 并发限制器
+     * @param acquireTimeoutMs 等待名额的最长时间，超时后本次上传以可重试的网络错误失败
+     */
+    public ConcurrencyLimitedStorageService(StorageService delegate, AdaptiveConcurrencyLimiter limiter,
+            long acquireTimeoutMs) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public CompletableFuture<Void> putObject(String key, byte[] data) {
+        return limit(data.length, () -> delegate.putObject(key, data));
+    }
+
+    @Override
+    public CompletableFuture<Void> putObject(String key, Path file, long offset, long length) {
+        return limit(length, () -> delegate.putObject(key, file, offset, length));
+    }
+
+    private CompletableFuture<Void> limit(long bytes, Supplier<CompletableFuture<Void>> upload) {
+        boolean acquired;
+        try {
+            acquired = limiter.acquire(acquireTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(StorageException.networkError("Interrupted while waiting for an upload slot", e));
+        }
+        if (!acquired) {
+            return failed(StorageException.networkError(
+                    "Timed out waiting for an upload slot (limit " + limiter.getLimit() + ")", null));
+        }
+        long start = System.nanoTime();
+        CompletableFuture<Void> future;
+        try {
+            future = upload.get();
+        } catch (RuntimeException e) {
+            report(e, bytes, System.nanoTime() - start);
+            throw e;
+        }
+        return future.whenComplete((ignored, error) -> report(error, bytes, System.nanoTime() - start));
+    }
+
+    private void report(Throwable error, long bytes, long elapsedNanos) {
+        if (error == null) {
+            limiter.onSuccess(bytes > LATENCY_UNIT_BYTES ? elapsedNanos * LATENCY_UNIT_BYTES / bytes : elapsedNanos);
+        } else if (isCongestion(error)) {
+            limiter.onThrottled();
+        } else {
+            limiter.onIgnored();
+        }
+    }
+
+    private static boolean isCongestion(Throwable error) {
+        if (CircuitBreakingStorageService.isCircuitOpen(error)) {
+            return false;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return StorageErrorClassifier.classify(error).getErrorType() == StorageException.ErrorType.SERVER_ERROR;
+    }
+
+    private static CompletableFuture<Void> failed(Throwable error) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    public StorageService getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ProtocolType getProtocolType() {
+        return delegate.getProtocolType();
+    }
+
+    @Override
+    public String getBucketName() {
+        return delegate.getBucketName();
+    }
+
+    @Override
+    public String getKeyPrefix() {
+        return delegate.getKeyPrefix();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public boolean supportsProtocol(ProtocolType protocol) {
+        return delegate.supportsProtocol(protocol);
+    }
+}
@@ -0,0 +1,87 @@
+package org.logx.storage;
+
+import org.logx.exception.StorageException;
+import org.logx.reliability.UploadRateLimiter;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 限速的存储服务
+ * <p>
+ * 每次上传前按对象大小向 {@link UploadRateLimiter} 申请配额，配额不足时在上传线程上等待。
+ * 位于存储服务装饰链的最外层，等待限速时不占用并发名额，也不计入上传耗时。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public class RateLimitedStorageService implements StorageService {
+
+    private final StorageService delegate;
+    private final UploadRateLimiter rateLimiter;
+
+    public RateLimitedStorageService(StorageService delegate, UploadRateLimiter rateLimiter) {
+        this.delegate = delegate;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public CompletableFuture<Void> putObject(String key, byte[] data) {
+        CompletableFuture<Void> interrupted = throttle(data.length);
+        return interrupted != null ? interrupted : delegate.putObject(key, data);
+    }
+
+    @Override
+    public CompletableFuture<Void> putObject(String key, Path file, long offset, long length) {
+        CompletableFuture<Void> interrupted = throttle(length);
+        return interrupted != null ? interrupted : delegate.putObject(key, file, offset, length);
+    }
+
+    /**
+     * @return 等待被中断时返回失败的Future，否则返回null
+     */
+    private CompletableFuture<Void> throttle(long bytes) {
+        try {
+            rateLimiter.acquire(bytes);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(StorageException.networkError("Interrupted while rate limited", e));
+            return future;
+        }
+    }
+
+    public UploadRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public StorageService getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ProtocolType getProtocolType() {
+        return delegate.getProtocolType();
+    }
+
+    @Override
+    public String getBucketName() {
+        return delegate.getBucketName();
+    }
+
+    @Override
+    public String getKeyPrefix() {
+        return delegate.getKeyPrefix();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public boolean supportsProtocol(ProtocolType protocol) {
+        return delegate.supportsProtocol(protocol);
+    }
+}
@@ -1,5 +1,10 @@
 package org.logx.storage;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -21,6 +26,40 @@ public interface StorageService extends StorageInterface {
      */
     CompletableFuture<Void> putObject(String key, byte[] data);
 
+    /**
+     * 把文件中的一段区间按字节原样上传为对象
+     * <p>
+     * 用于兜底重传：内容不经解码或重新格式化，压缩数据保持原有编码。
+     * 默认实现通过FileChannel把区间读入内存后调用 {@link #putObject(String, byte[])}，
+     * 支持流式请求体的适配器应覆盖为直接从文件流式上传。
+     *
+     * @param key    对象键
+     * @param file   文件路径
+     * @param offset 区间起始偏移
+     * @param length 区间长度
+     * @return CompletableFuture表示异步操作结果
+     */
+    default CompletableFuture<Void> putObject(String key, Path file, long offset, long length) {
+        if (length > Integer.MAX_VALUE - 8) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalArgumentException("Region too large: " + length));
+            return future;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of file " + file);
+                }
+            }
+        } catch (IOException e) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        return putObject(key, buffer.array());
+    }
+
     /**
      * 获取协议类型
      *
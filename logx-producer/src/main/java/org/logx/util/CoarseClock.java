@@ -0,0 +1,75 @@
+package org.logx.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 粗粒度毫秒时钟
+ * <p>
+ * 由一个后台线程约每毫秒刷新一次缓存的时间，读取只是一次volatile读。部分虚拟化环境
+ * （clocksource为xen、hpet、acpi_pm等）下 {@link System#currentTimeMillis()} 会陷入内核，
+ * 每条日志读一次时钟的成本明显；批次年龄、告警限流和对象键时间只需要毫秒级精度，可以使用该时钟。
+ * <p>
+ * 刷新线程按引用计数启停：队列启动时 {@link #retain()}，关闭时 {@link #release()}，
+ * 没有使用方时不保留后台线程，{@link #currentTimeMillis()} 直接读系统时钟。
+ * 缓存值可能落后系统时钟一个刷新周期加上线程调度延迟。
+ *
+ * @author OSS Appender Team
+ * @since 1.0.0
+ */
+public final class CoarseClock {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static volatile long cachedMillis;
+    private static volatile boolean ticking;
+    private static int users;
+    private static volatile Thread ticker;
+
+    private CoarseClock() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * 当前毫秒时间，刷新线程运行时返回缓存值，否则读系统时钟
+     */
+    public static long currentTimeMillis() {
+        return ticking ? cachedMillis : System.currentTimeMillis();
+    }
+
+    /**
+     * 登记一个使用方，第一个使用方启动刷新线程
+     */
+    public static synchronized void retain() {
+        if (users++ > 0) {
+            return;
+        }
+        cachedMillis = System.currentTimeMillis();
+        Thread thread = new Thread(CoarseClock::tick, "logx-coarse-clock");
+        thread.setDaemon(true);
+        ticker = thread;
+        ticking = true;
+        thread.start();
+    }
+
+    /**
+     * 注销一个使用方，最后一个使用方注销时停止刷新线程
+     */
+    public static synchronized void release() {
+        if (users == 0 || --users > 0) {
+            return;
+        }
+        ticking = false;
+        Thread thread = ticker;
+        ticker = null;
+        LockSupport.unpark(thread);
+    }
+
+    private static void tick() {
+        Thread self = Thread.currentThread();
+        while (ticker == self) {
+            cachedMillis = System.currentTimeMillis();
+            LockSupport.parkNanos(TICK_NANOS);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * IP工具类
@@ -17,6 +19,11 @@ import java.net.UnknownHostException;
 public class IPUtil {
     
     private static final Logger logger = LoggerFactory.getLogger(IPUtil.class);
+
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final AtomicBoolean REFRESHING = new AtomicBoolean(false);
+    private static volatile String cachedIP;
+    private static volatile long cachedAtNanos;
     
     /**
      * 得到本机Ip
@@ -31,4 +38,45 @@ public class IPUtil {
             return InetAddress.getLoopbackAddress().getHostAddress();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 得到缓存的本机Ip
+     * <p>
+     * 首次调用时同步解析，之后直接返回缓存值；缓存超过一分钟后在后台线程重新解析，
+     * 网卡或地址变化后最迟一个刷新周期即可反映到新生成的对象名中，调用线程不会被慢DNS阻塞。
+     *
+     * @return 本机Ip
+     */
+    public static String getCachedLocalIP() {
+        String ip = cachedIP;
+        if (ip == null) {
+            synchronized (IPUtil.class) {
+                if (cachedIP == null) {
+                    cachedIP = getLocalIP();
+                    cachedAtNanos = System.nanoTime();
+                }
+                return cachedIP;
+            }
+        }
+        if (System.nanoTime() - cachedAtNanos > REFRESH_INTERVAL_NANOS && REFRESHING.compareAndSet(false, true)) {
+            Thread refresher = new Thread(IPUtil::refreshCachedIP, "logx-ip-refresh");
+            refresher.setDaemon(true);
+            refresher.start();
+        }
+        return ip;
+    }
+
+    private static void refreshCachedIP() {
+        try {
+            String ip = getLocalIP();
+            String previous = cachedIP;
+            if (ip != null && !ip.equals(previous)) {
+                logger.info("Local IP changed from {} to {}", previous, ip);
+                cachedIP = ip;
+            }
+        } finally {
+            cachedAtNanos = System.nanoTime();
+            REFRESHING.set(false);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.logx.columnar;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.logx.core.EnhancedDisruptorBatchingQueue.LogEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParquetBatchWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void standardReaderReadsAllRowsWithDictionaryColumns() throws Exception {
+        int rows = 500;
+        LogEvent[] events = new LogEvent[rows + 1];
+        for (int i = 0; i < rows; i++) {
+            StructuredEvent event = new StructuredEvent(1760423570000L + i,
+                    i % 10 == 0 ? "ERROR" : "INFO",
+                    "com.example.Service" + (i % 3),
+                    "worker-" + (i % 4),
+                    "request " + i + " done",
+                    i % 2 == 0 ? Collections.singletonMap("traceId", "t" + i) : null,
+                    i % 10 == 0 ? "java.io.IOException: boom\n\tat com.example.Service.call(Service.java:1)\n" : null);
+            events[i] = new LogEvent(StructuredEventCodec.encode(event, 64 * 1024), 0L);
+        }
+        // 混入的文本事件只落message列
+        events[rows] = new LogEvent("plain text line\n".getBytes(StandardCharsets.UTF_8), 1760423579999L);
+
+        Path file = tempDir.resolve("batch.parquet");
+        Files.write(file, ParquetBatchWriter.write(events, 0, events.length));
+        org.apache.hadoop.fs.Path hadoopPath = new org.apache.hadoop.fs.Path(file.toUri());
+        Configuration conf = new Configuration();
+
+        List<Group> groups = new ArrayList<Group>();
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(hadoopPath, conf))) {
+            ParquetMetadata footer = reader.getFooter();
+            assertEquals(rows + 1, reader.getRecordCount());
+            assertEquals(7, footer.getFileMetaData().getSchema().getFieldCount());
+            for (ColumnChunkMetaData column : footer.getBlocks().get(0).getColumns()) {
+                String name = column.getPath().toDotString();
+                if (name.equals("level") || name.equals("logger") || name.equals("thread")) {
+                    assertTrue(column.hasDictionaryPage(), name);
+                }
+            }
+
+            MessageType schema = footer.getFileMetaData().getSchema();
+            MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(schema);
+            PageReadStore rowGroup;
+            while ((rowGroup = reader.readNextRowGroup()) != null) {
+                RecordReader<Group> records = columnIO.getRecordReader(rowGroup, new GroupRecordConverter(schema));
+                for (long i = 0; i < rowGroup.getRowCount(); i++) {
+                    groups.add(records.read());
+                }
+            }
+        }
+        assertEquals(rows + 1, groups.size());
+
+        Group first = groups.get(0);
+        assertEquals(1760423570000L, first.getLong("timestamp", 0));
+        assertEquals("ERROR", first.getString("level", 0));
+        assertEquals("com.example.Service0", first.getString("logger", 0));
+        assertEquals("worker-0", first.getString("thread", 0));
+        assertEquals("request 0 done", first.getString("message", 0));
+        assertEquals("{\"traceId\":\"t0\"}", first.getString("mdc", 0));
+        assertTrue(first.getString("throwable", 0).startsWith("java.io.IOException: boom"));
+
+        Group second = groups.get(1);
+        assertEquals("INFO", second.getString("level", 0));
+        assertEquals(0, second.getFieldRepetitionCount("mdc"));
+        assertEquals(0, second.getFieldRepetitionCount("throwable"));
+
+        Group text = groups.get(rows);
+        assertEquals(1760423579999L, text.getLong("timestamp", 0));
+        assertEquals("plain text line", text.getString("message", 0));
+        assertEquals("", text.getString("level", 0));
+    }
+
+    @Test
+    public void codecRoundTripsAndTruncatesOversizedFields() {
+        StructuredEvent event = new StructuredEvent(42L, "WARN", "com.example.A", "main", "héllo wörld",
+                Collections.singletonMap("user", "ü"), null);
+        StructuredEvent decoded = StructuredEventCodec.decode(StructuredEventCodec.encode(event, 1024), 0L);
+        assertEquals(42L, decoded.getTimestampMs());
+        assertEquals("WARN", decoded.getLevel());
+        assertEquals("com.example.A", decoded.getLogger());
+        assertEquals("main", decoded.getThread());
+        assertEquals("héllo wörld", decoded.getMessage());
+        assertEquals("ü", decoded.getMdc().get("user"));
+        assertNull(decoded.getThrowable());
+
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            big.append("line ").append(i).append('\n');
+        }
+        StructuredEvent oversized = new StructuredEvent(1L, "ERROR", "l", "t", "short message", null, big.toString());
+        byte[] encoded = StructuredEventCodec.encode(oversized, 1024);
+        assertTrue(encoded.length <= 1024);
+        StructuredEvent truncated = StructuredEventCodec.decode(encoded, 0L);
+        assertEquals("short message", truncated.getMessage());
+        assertTrue(truncated.getThrowable().endsWith("...[truncated]"));
+    }
+}
@@ -138,6 +138,301 @@ public class EnhancedDisruptorBatchingQueueTest {
         testQueue.close();
     }
 
+    @Test
+    void testGarbageFreeSubmitCopiesIntoSlotBuffers() {
+        StringBuilder received = new StringBuilder();
+        EnhancedDisruptorBatchingQueue.BatchConsumer collecting = (batchData, originalSize, compressed, messageCount) -> {
+            synchronized (received) {
+                received.append(new String(batchData, java.nio.charset.StandardCharsets.UTF_8));
+            }
+            return true;
+        };
+        EnhancedDisruptorBatchingQueue.Config config = new EnhancedDisruptorBatchingQueue.Config()
+                .queueCapacity(1024)
+                .batchMaxMessages(10)
+                .maxMessageAgeMs(30000)
+                .enableCompression(false)
+                .enableSharding(false)
+                .garbageFree(true);
+        EnhancedDisruptorBatchingQueue testQueue = new EnhancedDisruptorBatchingQueue(config, collecting, testStorageService);
+        testQueue.start();
+
+        // 同一个缓冲区反复写入不同内容，入队后立即被覆盖
+        byte[] reused = new byte[64];
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            byte[] line = ("line-" + i + "\u0007\n").getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            System.arraycopy(line, 0, reused, 8, line.length);
+            int length = LogPayloadSanitizer.sanitizeInPlace(reused, 8, line.length, 1024);
+            assertTrue(testQueue.submit(reused, 8, length));
+            java.util.Arrays.fill(reused, (byte) 'x');
+            expected.append("line-").append(i).append('\n');
+        }
+        testQueue.close();
+
+        synchronized (received) {
+            assertEquals(expected.toString(), received.toString());
+        }
+    }
+
+    @Test
+    void testSubmitDirectBuildsBatchOnCallingThread() {
+        java.util.List<String> batchThreads = new java.util.concurrent.CopyOnWriteArrayList<>();
+        EnhancedDisruptorBatchingQueue.BatchConsumer recording = (batchData, originalSize, compressed, messageCount) -> {
+            batchThreads.add(Thread.currentThread().getName() + ":" + messageCount);
+            return true;
+        };
+        EnhancedDisruptorBatchingQueue.Config config = new EnhancedDisruptorBatchingQueue.Config()
+                .queueCapacity(1024)
+                .batchMaxMessages(10)
+                .maxMessageAgeMs(30000)
+                .enableSharding(false);
+        EnhancedDisruptorBatchingQueue testQueue = new EnhancedDisruptorBatchingQueue(config, recording, testStorageService);
+        assertFalse(testQueue.submitDirect("before start".getBytes()));
+        testQueue.start();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(testQueue.submitDirect(("direct " + i).getBytes()));
+        }
+
+        // 第10条在调用线程上触发批次，无需等待消费线程
+        assertEquals(java.util.Collections.singletonList(Thread.currentThread().getName() + ":10"), batchThreads);
+        testQueue.close();
+    }
+
+    @Test
+    void testProducerMicroBatchPublishesFullAndStaleBuffers() throws Exception {
+        java.util.concurrent.atomic.AtomicInteger delivered = new java.util.concurrent.atomic.AtomicInteger();
+        EnhancedDisruptorBatchingQueue.BatchConsumer counting = (batchData, originalSize, compressed, messageCount) -> {
+            delivered.addAndGet(messageCount);
+            return true;
+        };
+        EnhancedDisruptorBatchingQueue.Config config = new EnhancedDisruptorBatchingQueue.Config()
+                .queueCapacity(1024)
+                .batchMaxMessages(10)
+                .maxMessageAgeMs(30000)
+                .multiProducer(false)
+                .producerBatchSize(8)
+                .producerBatchMaxDelayMs(20)
+                .enableSharding(false);
+        EnhancedDisruptorBatchingQueue testQueue = new EnhancedDisruptorBatchingQueue(config, counting, testStorageService);
+        testQueue.start();
+
+        // 两个满批次（16条）在调用线程上发布，第17-20条留在线程缓冲中，线程随即结束
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                assertTrue(testQueue.submit(("micro " + i).getBytes()));
+            }
+        });
+        producer.start();
+        producer.join();
+
+        // 调度线程在最大延迟后冲刷滞留事件，凑满第二个10条批次
+        long deadline = System.currentTimeMillis() + 5000;
+        while (delivered.get() < 20 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(20, delivered.get());
+        testQueue.close();
+    }
+
+    @Test
+    void testProducerMicroBatchReportsDropsOfBufferedEvents() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        java.util.concurrent.atomic.AtomicInteger delivered = new java.util.concurrent.atomic.AtomicInteger();
+        EnhancedDisruptorBatchingQueue.BatchConsumer blocking = (batchData, originalSize, compressed, messageCount) -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.addAndGet(messageCount);
+            return true;
+        };
+        java.util.concurrent.atomic.AtomicLong droppedBytes = new java.util.concurrent.atomic.AtomicLong();
+        EnhancedDisruptorBatchingQueue.Config config = new EnhancedDisruptorBatchingQueue.Config()
+                .queueCapacity(1024)
+                .batchMaxMessages(10)
+                .maxMessageAgeMs(30000)
+                .blockOnFull(false)
+                .producerBatchSize(8)
+                .producerBatchMaxDelayMs(20)
+                .bufferedDropListener(droppedBytes::addAndGet)
+                .enableSharding(false);
+        EnhancedDisruptorBatchingQueue testQueue = new EnhancedDisruptorBatchingQueue(config, blocking, testStorageService);
+        testQueue.start();
+
+        // 消费线程卡在第一个批次上，队列写满后微批次冲刷时的事件被丢弃
+        int total = 5000;
+        byte[] payload = "dropped?".getBytes();
+        for (int i = 0; i < total; i++) {
+            assertTrue(testQueue.submit(payload.clone()));
+        }
+        release.countDown();
+        testQueue.close();
+
+        assertTrue(droppedBytes.get() > 0);
+        assertEquals(0, droppedBytes.get() % payload.length);
+        assertEquals(total, delivered.get() + droppedBytes.get() / payload.length);
+    }
+
+    @Test
+    void testShardedRingsMergeAllProducerThreads() throws Exception {
+        java.util.concurrent.atomic.AtomicInteger delivered = new java.util.concurrent.atomic.AtomicInteger();
+        EnhancedDisruptorBatchingQueue.BatchConsumer counting = (batchData, originalSize, compressed, messageCount) -> {
+            delivered.addAndGet(messageCount);
+            return true;
+        };
+        // 4个线程争用2个分片，多出的线程回退到共享队列
+        EnhancedDisruptorBatchingQueue.Config config = new EnhancedDisruptorBatchingQueue.Config()
+                .queueCapacity(4096)
+                .batchMaxMessages(100)
+                .maxMessageAgeMs(30000)
+                .producerMode(ProducerMode.SHARDED)
+                .producerRings(2)
+                .enableSharding(false);
+        assertTrue(config.isMultiProducer());
+        EnhancedDisruptorBatchingQueue testQueue = new EnhancedDisruptorBatchingQueue(config, counting, testStorageService);
+        testQueue.start();
+
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            int id = t;
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 2500; i++) {
+                    assertTrue(testQueue.submit(("producer " + id + " event " + i).getBytes()));
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        testQueue.close();
+        assertEquals(10000, delivered.get());
+    }
+
+    @Test
+    void testShardedRingsFitWithinQueueCapacity() {
+        int[][] cases = {{4096, 8, 3}, {8192, 2, 2}, {1024, 4, 0}, {65536, 16, 16}};
+        for (int[] c : cases) {
+            EnhancedDisruptorBatchingQueue.Config config = new EnhancedDisruptorBatchingQueue.Config()
+                    .queueCapacity(c[0])
+                    .producerMode(ProducerMode.SHARDED)
+                    .producerRings(c[1])
+                    .enableSharding(false);
+            EnhancedDisruptorBatchingQueue testQueue = new EnhancedDisruptorBatchingQueue(config, testConsumer,
+                    testStorageService);
+            assertEquals(c[2], testQueue.getProducerRingCount(), "queueCapacity " + c[0]);
+            assertTrue(testQueue.getTotalCapacity() <= c[0], "total " + testQueue.getTotalCapacity());
+        }
+
+        // 微批次只发布到共享队列，分片模式不生效，共享队列保留全部容量
+        EnhancedDisruptorBatchingQueue batched = new EnhancedDisruptorBatchingQueue(
+                new EnhancedDisruptorBatchingQueue.Config()
+                        .queueCapacity(8192)
+                        .producerMode(ProducerMode.SHARDED)
+                        .producerRings(4)
+                        .producerBatchSize(8)
+                        .enableSharding(false),
+                testConsumer, testStorageService);
+        assertEquals(0, batched.getProducerRingCount());
+        assertEquals(8192, batched.getTotalCapacity());
+    }
+
+    @Test
+    void testShardedRingKeepsPerThreadOrderWhenFull() throws Exception {
+        java.util.List<String> lines = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+        EnhancedDisruptorBatchingQueue.BatchConsumer slow = (batchData, originalSize, compressed, messageCount) -> {
+            for (String line : new String(batchData, java.nio.charset.StandardCharsets.UTF_8).split("\n")) {
+                lines.add(line);
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        };
+        // 分片只有1024个槽位，慢消费者使分片反复写满，写满后的事件不能越过分片先进入批次
+        EnhancedDisruptorBatchingQueue.Config config = new EnhancedDisruptorBatchingQueue.Config()
+                .queueCapacity(4096)
+                .batchMaxMessages(100)
+                .maxMessageAgeMs(30000)
+                .enableCompression(false)
+                .producerMode(ProducerMode.SHARDED)
+                .producerRings(2)
+                .enableSharding(false);
+        EnhancedDisruptorBatchingQueue testQueue = new EnhancedDisruptorBatchingQueue(config, slow, testStorageService);
+        testQueue.start();
+
+        Thread[] producers = new Thread[2];
+        for (int t = 0; t < producers.length; t++) {
+            int id = t;
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    assertTrue(testQueue.submit(("p" + id + "-" + i).getBytes()));
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        testQueue.close();
+
+        int[] next = new int[producers.length];
+        for (String line : lines) {
+            int id = line.charAt(1) - '0';
+            assertEquals("p" + id + "-" + next[id], line);
+            next[id]++;
+        }
+        assertArrayEquals(new int[] {5000, 5000}, next);
+    }
+
+    @Test
+    void testEventsAcceptedDuringCloseAreDelivered() throws Exception {
+        EnhancedDisruptorBatchingQueue.Config[] configs = {
+                new EnhancedDisruptorBatchingQueue.Config().producerMode(ProducerMode.SHARDED).producerRings(2),
+                new EnhancedDisruptorBatchingQueue.Config().producerBatchSize(8).producerBatchMaxDelayMs(20)
+        };
+        for (EnhancedDisruptorBatchingQueue.Config config : configs) {
+            java.util.concurrent.atomic.AtomicLong delivered = new java.util.concurrent.atomic.AtomicLong();
+            EnhancedDisruptorBatchingQueue.BatchConsumer counting = (batchData, originalSize, compressed, messageCount) -> {
+                delivered.addAndGet(messageCount);
+                return true;
+            };
+            config.queueCapacity(8192).batchMaxMessages(100).maxMessageAgeMs(30000).enableSharding(false);
+            EnhancedDisruptorBatchingQueue testQueue = new EnhancedDisruptorBatchingQueue(config, counting, testStorageService);
+            testQueue.start();
+
+            // 生产者一直提交到被拒绝为止，close期间被接受的事件也必须送达
+            java.util.concurrent.atomic.AtomicLong accepted = new java.util.concurrent.atomic.AtomicLong();
+            CountDownLatch running = new CountDownLatch(4);
+            Thread[] producers = new Thread[4];
+            for (int t = 0; t < producers.length; t++) {
+                producers[t] = new Thread(() -> {
+                    running.countDown();
+                    while (testQueue.submit("closing".getBytes())) {
+                        accepted.incrementAndGet();
+                    }
+                });
+                producers[t].start();
+            }
+            running.await();
+            Thread.sleep(50);
+            testQueue.close();
+            for (Thread producer : producers) {
+                producer.join(5000);
+                assertFalse(producer.isAlive());
+            }
+
+            assertTrue(accepted.get() > 0);
+            assertEquals(accepted.get(), delivered.get());
+        }
+    }
+
     @Test
     void testQueueClose() {
         queue.start();
@@ -0,0 +1,47 @@
+package org.logx.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogPayloadSanitizerTest {
+
+    private static String sanitizeInPlace(String input, int maxBytes) {
+        byte[] utf8 = input.getBytes(StandardCharsets.UTF_8);
+        // 前后各留几个字节，确认只处理[offset, offset + length)
+        byte[] buf = new byte[utf8.length + 6];
+        Arrays.fill(buf, (byte) 'x');
+        System.arraycopy(utf8, 0, buf, 3, utf8.length);
+        int length = LogPayloadSanitizer.sanitizeInPlace(buf, 3, utf8.length, maxBytes);
+        assertEquals('x', buf[buf.length - 1]);
+        return new String(buf, 3, length, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void removesC0C1AndDelButKeepsNewlineTabAndNbsp() {
+        String input = "a\u0000b\u0085c\u009Fd\u007Fe f\tg\nh\u001B";
+        assertEquals("abcde f\tg\nh", sanitizeInPlace(input, 1024));
+        assertArrayEquals(LogPayloadSanitizer.sanitize(input, 1024).bytes,
+                sanitizeInPlace(input, 1024).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void truncationBacksOffToCharacterBoundary() {
+        // "ab"后跟3字节的"中"和4字节的表情符号
+        String input = "ab中😀";
+        assertEquals("ab", sanitizeInPlace(input, 3));
+        assertEquals("ab", sanitizeInPlace(input, 4));
+        assertEquals("ab中", sanitizeInPlace(input, 5));
+        assertEquals("ab中", sanitizeInPlace(input, 8));
+        assertEquals(input, sanitizeInPlace(input, 9));
+        assertEquals("é", sanitizeInPlace("éé", 3));
+    }
+
+    @Test
+    public void truncationAppliesAfterControlCharactersAreRemoved() {
+        assertEquals("abc", sanitizeInPlace("\u0001a\u0085b\u007Fc", 3));
+    }
+}
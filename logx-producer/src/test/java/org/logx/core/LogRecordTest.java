@@ -0,0 +1,98 @@
+package org.logx.core;
+
+import org.junit.jupiter.api.Test;
+import org.logx.columnar.StructuredEvent;
+import org.logx.columnar.StructuredEventCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogRecordTest {
+
+    @Test
+    public void pooledRecordEncodesStructuredPayloadWithLazyMessage() {
+        LogRecordPool pool = new LogRecordPool(2);
+        LogRecord first = pool.acquire();
+        LogRecord second = pool.acquire();
+        LogRecord overflow = pool.acquire();
+        assertNotSame(first, second);
+        assertEquals(1, pool.getOverflowAllocations());
+        pool.release(overflow);
+        pool.release(second);
+
+        AtomicInteger formatCalls = new AtomicInteger();
+        LogRecord.MessageFormatter formatter = (source, target) -> {
+            formatCalls.incrementAndGet();
+            target.append("order ").append(source).append(" créé");
+        };
+        first.setTimestampMs(1760423570123L)
+                .setLevel(LogRecord.levelOf("warn"))
+                .setLoggerName("com.example.Orders")
+                .setThreadName("worker-1")
+                .setMessage(42, formatter)
+                .putContext("traceId", "abc")
+                .putContext("ignored", null)
+                .setThrown(new IllegalStateException("boom"));
+        assertEquals(0, formatCalls.get());
+
+        StructuredEvent decoded = StructuredEventCodec.decode(StructuredEventCodec.encode(first, 64 * 1024), 0L);
+        assertEquals(1, formatCalls.get());
+        assertEquals(1760423570123L, decoded.getTimestampMs());
+        assertEquals("WARN", decoded.getLevel());
+        assertEquals("com.example.Orders", decoded.getLogger());
+        assertEquals("worker-1", decoded.getThread());
+        assertEquals("order 42 créé", decoded.getMessage());
+        assertEquals(1, decoded.getMdc().size());
+        assertEquals("abc", decoded.getMdc().get("traceId"));
+        assertTrue(decoded.getThrowable().startsWith("java.lang.IllegalStateException: boom"));
+
+        byte[] truncated = StructuredEventCodec.encode(first, 200);
+        assertTrue(truncated.length <= 200);
+        assertTrue(StructuredEventCodec.decode(truncated, 0L).getThrowable().endsWith("...[truncated]"));
+
+        pool.release(first);
+        assertNull(first.getLoggerName());
+        assertEquals(0, first.getContextSize());
+        assertSame(first, pool.acquire());
+    }
+
+    @Test
+    public void textEncodingStripsControlCharactersAndTruncates() {
+        LogRecord record = new LogRecord()
+                .setTimestampMs(0L)
+                .setLevel(LogRecord.LEVEL_INFO)
+                .setLoggerName("app")
+                .setThreadName("main")
+                .setMessage("line\u0007 with \ttab");
+
+        String text = new String(LogRecordTextEncoder.encode(record, 1024), StandardCharsets.UTF_8);
+        assertTrue(text.matches("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.000 \\[main] INFO  app - line with \ttab\n"),
+                text);
+
+        byte[] limited = LogRecordTextEncoder.encode(record.setMessage("ééééé"), 45);
+        assertTrue(limited.length <= 45);
+        assertFalse(new String(limited, StandardCharsets.UTF_8).contains("�"));
+    }
+
+    @Test
+    public void encodeToReusesThreadLocalBuffer() {
+        LogRecord record = new LogRecord()
+                .setTimestampMs(0L)
+                .setLevel(LogRecord.LEVEL_INFO)
+                .setLoggerName("app")
+                .setThreadName("main")
+                .setMessage("hello");
+
+        Utf8Buffer text = LogRecordTextEncoder.encodeTo(record, 1024);
+        assertArrayEquals(LogRecordTextEncoder.encode(record, 1024), text.toByteArray());
+        assertSame(text, LogRecordTextEncoder.encodeTo(record, 1024));
+
+        Utf8Buffer structured = StructuredEventCodec.encodeTo(record, 1024);
+        byte[] payload = Arrays.copyOf(structured.array(), structured.size());
+        assertEquals("hello", StructuredEventCodec.decode(payload, 0L).getMessage());
+        assertSame(structured, StructuredEventCodec.encodeTo(record, 1024));
+    }
+}
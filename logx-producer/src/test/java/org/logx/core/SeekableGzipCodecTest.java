@@ -0,0 +1,79 @@
+package org.logx.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeekableGzipCodecTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void readsAsMultiMemberGzipAndByBlock() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 300 * 1024; i++) {
+            text.append("2025-10-14 14:32:50.").append(i % 1000).append(" INFO com.example.Service - event ")
+                    .append(i).append('\n');
+        }
+        byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = SeekableGzipCodec.compress(data, 0, data.length, 16 * 1024);
+
+        assertArrayEquals(data, gunzip(compressed));
+
+        Path file = dir.resolve("batch.log.gz");
+        Files.write(file, compressed);
+        try (SeekableGzipReader reader = SeekableGzipReader.open(file)) {
+            assertEquals(16 * 1024, reader.getBlockSize());
+            assertEquals((data.length + 16 * 1024 - 1) / (16 * 1024), reader.getBlockCount());
+            assertEquals(data.length, reader.getUncompressedLength());
+
+            int last = reader.getBlockCount() - 1;
+            assertArrayEquals(Arrays.copyOfRange(data, last * 16 * 1024, data.length), reader.readBlock(last));
+            assertEquals(5, reader.blockForOffset(5 * 16 * 1024 + 1));
+
+            long offset = 3 * 16 * 1024 - 100;
+            assertArrayEquals(Arrays.copyOfRange(data, (int) offset, (int) offset + 40000), reader.read(offset, 40000));
+            assertArrayEquals(Arrays.copyOfRange(data, data.length - 10, data.length), reader.read(data.length - 10, 100));
+        }
+
+        byte[] empty = SeekableGzipCodec.compress(new byte[0], 0, 0, 16 * 1024);
+        assertEquals(0, gunzip(empty).length);
+        assertEquals(0, SeekableGzipReader.open(empty).getBlockCount());
+    }
+
+    @Test
+    public void rejectsPlainGzipAndCorruptedBlocks() throws Exception {
+        byte[] data = new byte[64 * 1024];
+        Arrays.fill(data, (byte) 'x');
+        assertThrows(IOException.class, () -> SeekableGzipReader.open(BatchCodec.compress(data)));
+
+        byte[] compressed = SeekableGzipCodec.compress(data, 0, data.length, 8 * 1024);
+        compressed[12] ^= 0x55;
+        SeekableGzipReader reader = SeekableGzipReader.open(compressed);
+        assertThrows(IOException.class, () -> reader.readBlock(0));
+        assertArrayEquals(Arrays.copyOfRange(data, 8 * 1024, 16 * 1024), reader.readBlock(1));
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+        return out.toByteArray();
+    }
+}
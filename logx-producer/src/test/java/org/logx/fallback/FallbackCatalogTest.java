@@ -0,0 +1,91 @@
+package org.logx.fallback;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FallbackCatalogTest {
+
+    @TempDir
+    Path dir;
+
+    private Path write(String key, int size, long modifiedMs) throws IOException {
+        Path file = dir.resolve(key);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedMs));
+        return file;
+    }
+
+    @Test
+    public void startupScanOrdersFilesByAgeAndExpiresFromTheHead() throws IOException {
+        long now = System.currentTimeMillis();
+        write("logx/2025/10/02/new.log.gz", 30, now);
+        write("logx/2025/10/01/old.log.gz", 10, now - TimeUnit.DAYS.toMillis(10));
+        write("logx/2025/10/01/older.log.gz", 20, now - TimeUnit.DAYS.toMillis(20));
+        write("fallback-00000000000000000001.seg", 40, now);
+
+        FallbackCatalog catalog = FallbackCatalog.scan(dir, ".log.gz");
+        assertEquals(3, catalog.size());
+        assertEquals(60, catalog.getTotalBytes());
+        assertEquals("logx/2025/10/01/older.log.gz", catalog.snapshot().get(0).getKey());
+
+        List<FallbackCatalog.Entry> expired = catalog.pollExpired(now - TimeUnit.DAYS.toMillis(7));
+        assertEquals(2, expired.size());
+        assertEquals("logx/2025/10/01/old.log.gz", expired.get(1).getKey());
+        assertEquals(1, catalog.size());
+        assertEquals(30, catalog.getTotalBytes());
+    }
+
+    @Test
+    public void managerCatalogsEveryExtensionTheKeyTemplateProduces() throws IOException {
+        long now = System.currentTimeMillis();
+        write("logx/2025/10/01/text.log.gz", 10, now - 1000);
+        write("logx/2025/10/01/columnar.parquet", 20, now);
+        write("logx/2025/10/01/notes.txt", 40, now);
+
+        try (FallbackManager manager = new FallbackManager(dir.toString(), "logx")) {
+            FallbackCatalog catalog = manager.getCatalog();
+            assertEquals(2, catalog.size());
+            assertEquals(30, catalog.getTotalBytes());
+            assertEquals("logx/2025/10/01/columnar.parquet", catalog.snapshot().get(1).getKey());
+
+            assertEquals(2, FallbackFileCleaner.cleanupExpiredFiles(catalog, -1));
+            assertFalse(Files.exists(dir.resolve("logx/2025/10/01/columnar.parquet")));
+            assertTrue(Files.exists(dir.resolve("logx/2025/10/01/notes.txt")));
+        }
+    }
+
+    @Test
+    public void registeredFilesAreTrackedAndCleanedWithoutRescanning() throws IOException {
+        FallbackCatalog catalog = FallbackCatalog.scan(dir, ".log.gz");
+        assertEquals(0, catalog.size());
+
+        long now = System.currentTimeMillis();
+        Path a = write("logx/a.log.gz", 8, now);
+        Path b = write("logx/b.log.gz", 8, now);
+        write("logx/unregistered.log.gz", 8, now);
+        catalog.add(a, 8);
+        catalog.add(b, 8);
+        assertEquals(2, catalog.size());
+        assertTrue(catalog.remove(a));
+        assertFalse(catalog.remove(a));
+
+        assertEquals(1, FallbackFileCleaner.cleanupExpiredFiles(catalog, -1));
+        assertEquals(0, catalog.size());
+        assertEquals(0, catalog.getTotalBytes());
+        assertFalse(Files.exists(b));
+        assertTrue(Files.exists(a));
+
+        catalog.reconcile();
+        assertEquals(2, catalog.size());
+    }
+}
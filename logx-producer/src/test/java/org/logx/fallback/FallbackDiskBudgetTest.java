@@ -0,0 +1,59 @@
+package org.logx.fallback;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FallbackDiskBudgetTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void evictsOldestSegmentsToStayWithinMaxBytes() {
+        try (FallbackManager manager = new FallbackManager(dir.toString(), "logx", 4096, 16 * 1024, 0L)) {
+            for (int i = 0; i < 100; i++) {
+                assertTrue(manager.writeFallbackFile("logx/" + i + ".log.gz", new byte[500]));
+            }
+            FallbackDiskBudget budget = manager.getDiskBudget();
+            assertTrue(budget.getUsedBytes() <= 16 * 1024 + 1024, "used: " + budget.getUsedBytes());
+
+            FallbackDiskBudget.DiskBudgetMetrics metrics = budget.getMetrics();
+            assertTrue(metrics.getEvictedSegments() > 0);
+            assertEquals(0, metrics.getRejectedWrites());
+
+            List<FallbackRecord> pending = manager.getSegmentStore().getPendingRecords();
+            assertEquals("logx/99.log.gz", pending.get(pending.size() - 1).getKey());
+            assertNotEquals("logx/0.log.gz", pending.get(0).getKey());
+            assertEquals(100 - pending.size(), manager.getSegmentStore().getMetrics().getEvictedRecords());
+        }
+    }
+
+    @Test
+    public void evictsOlderStandaloneFilesFirstAndRejectsWhenNothingIsLeft() throws IOException {
+        Path legacy = dir.resolve("logx/old.log.gz");
+        Files.createDirectories(legacy.getParent());
+        Files.write(legacy, new byte[3000]);
+        Files.setLastModifiedTime(legacy, FileTime.fromMillis(System.currentTimeMillis() - 60_000L));
+
+        try (FallbackManager manager = new FallbackManager(dir.toString(), "logx", 4096, 4096, 0L)) {
+            assertEquals(3000, manager.getDiskBudget().getUsedBytes());
+
+            assertTrue(manager.writeFallbackFile("logx/new.log.gz", new byte[2000]));
+            assertFalse(Files.exists(legacy));
+            assertEquals(0, manager.getCatalog().size());
+            assertEquals(1, manager.getDiskBudget().getMetrics().getEvictedFiles());
+
+            assertFalse(manager.writeFallbackFile("logx/huge.log.gz", new byte[8192]));
+            assertEquals(1, manager.getDiskBudget().getMetrics().getRejectedWrites());
+            assertEquals(1, manager.getSegmentStore().getPendingRecords().size());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.logx.fallback;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FallbackSegmentStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<Path> files(String glob) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+            for (Path p : stream) {
+                files.add(p);
+            }
+        }
+        return files;
+    }
+
+    @Test
+    public void pendingRecordsAreReadBackByOffsetAfterReopen() throws IOException {
+        FallbackSegmentStore store = FallbackSegmentStore.open(dir, 1024 * 1024);
+        FallbackRecord first = store.append("logx/a.log.gz", bytes("batch-a"));
+        store.append("logx/b.log.gz", bytes("batch-b"));
+        store.append("logx/c.log.gz", new byte[] {0, 1, 2, (byte) 0xFF});
+        store.acknowledge(first);
+        store.close();
+
+        try (FallbackSegmentStore reopened = FallbackSegmentStore.open(dir, 1024 * 1024)) {
+            List<FallbackRecord> pending = reopened.getPendingRecords();
+            assertEquals(2, pending.size());
+            assertEquals("logx/b.log.gz", pending.get(0).getKey());
+            assertArrayEquals(bytes("batch-b"), reopened.read(pending.get(0)));
+            assertEquals("logx/c.log.gz", pending.get(1).getKey());
+            assertArrayEquals(new byte[] {0, 1, 2, (byte) 0xFF}, reopened.read(pending.get(1)));
+
+            pending.forEach(reopened::acknowledge);
+            assertEquals(0, reopened.getMetrics().getSegments());
+            assertTrue(files("*.seg").isEmpty());
+            assertTrue(files("*.idx").isEmpty());
+        }
+    }
+
+    @Test
+    public void manyBatchesShareFewSegmentFiles() throws IOException {
+        try (FallbackSegmentStore store = FallbackSegmentStore.open(dir, 4096)) {
+            List<FallbackRecord> records = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                records.add(store.append("logx/" + i + ".log.gz", new byte[200]));
+            }
+            int segmentFiles = files("*.seg").size();
+            assertTrue(segmentFiles > 1 && segmentFiles < 10, "segments: " + segmentFiles);
+            assertEquals(100, store.getMetrics().getPendingRecords());
+
+            for (int i = 0; i < 50; i++) {
+                store.acknowledge(records.get(i));
+            }
+            assertTrue(files("*.seg").size() < segmentFiles);
+            assertEquals(50, store.getPendingRecords().size());
+        }
+    }
+
+    @Test
+    public void tornTailIsIgnoredAndCorruptionIsDetected() throws IOException {
+        FallbackSegmentStore store = FallbackSegmentStore.open(dir, 1024 * 1024);
+        FallbackRecord record = store.append("logx/a.log.gz", bytes("intact"));
+        FallbackRecord damaged = store.append("logx/b.log.gz", bytes("damaged"));
+        store.close();
+
+        Path segment = files("*.seg").get(0);
+        Files.delete(files("*.idx").get(0));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), damaged.getOffset() + damaged.getRecordLength() - 1);
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 7}), channel.size());
+        }
+
+        try (FallbackSegmentStore reopened = FallbackSegmentStore.open(dir, 1024 * 1024)) {
+            List<FallbackRecord> pending = reopened.getPendingRecords();
+            assertEquals(2, pending.size());
+            assertEquals(record.getOffset(), pending.get(0).getOffset());
+            assertArrayEquals(bytes("intact"), reopened.read(pending.get(0)));
+            assertThrows(IOException.class, () -> reopened.read(pending.get(1)));
+            assertEquals(1, reopened.getMetrics().getCorruptedRecords());
+        }
+    }
+}
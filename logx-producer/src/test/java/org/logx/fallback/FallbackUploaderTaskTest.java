@@ -0,0 +1,168 @@
+package org.logx.fallback;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.logx.storage.StorageService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+public class FallbackUploaderTaskTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void uploadsPendingRecordsInParallelAndPersistsProgress() throws Exception {
+        Set<String> uploaded = ConcurrentHashMap.newKeySet();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        StorageService storage = mock(StorageService.class, CALLS_REAL_METHODS);
+        doAnswer(invocation -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            Thread.sleep(20);
+            uploaded.add(invocation.getArgument(0));
+            inFlight.decrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }).when(storage).putObject(anyString(), any(byte[].class));
+
+        try (FallbackManager manager = new FallbackManager(dir.toString(), "logx")) {
+            for (int i = 0; i < 12; i++) {
+                assertTrue(manager.writeFallbackFile("logx/" + i + ".log.gz", new byte[64]));
+            }
+            try (FallbackUploaderTask task = new FallbackUploaderTask(storage, manager, 7, 4, 0L, 5000L)) {
+                task.run();
+                assertEquals(12, task.getMetrics().getUploadedRecords());
+            }
+            assertEquals(12, uploaded.size());
+            assertTrue(maxInFlight.get() > 1 && maxInFlight.get() <= 4, "max in flight: " + maxInFlight.get());
+            assertEquals(0, manager.getSegmentStore().getMetrics().getPendingRecords());
+        }
+
+        try (FallbackManager reopened = new FallbackManager(dir.toString(), "logx")) {
+            assertTrue(reopened.getSegmentStore().getPendingRecords().isEmpty());
+        }
+    }
+
+    @Test
+    public void stopsRoundOnFailureAndKeepsRecordsPending() throws Exception {
+        StorageService storage = mock(StorageService.class, CALLS_REAL_METHODS);
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IllegalStateException("503 SlowDown"));
+        doReturn(failure).when(storage).putObject(anyString(), any(byte[].class));
+
+        try (FallbackManager manager = new FallbackManager(dir.toString(), "logx")) {
+            for (int i = 0; i < 20; i++) {
+                manager.writeFallbackFile("logx/" + i + ".log.gz", new byte[16]);
+            }
+            try (FallbackUploaderTask task = new FallbackUploaderTask(storage, manager, 7, 2, 0L, 5000L)) {
+                task.run();
+                assertTrue(task.getMetrics().getFailedUploads() <= 2);
+            }
+            assertEquals(20, manager.getSegmentStore().getPendingRecords().size());
+        }
+
+        try (FallbackManager reopened = new FallbackManager(dir.toString(), "logx")) {
+            FallbackSegmentStore store = reopened.getSegmentStore();
+            assertEquals(20, store.getPendingRecords().size());
+            assertEquals(0, store.getMetrics().getInterruptedRecords());
+            store.markInProgress(store.getPendingRecords().get(0));
+        }
+
+        try (FallbackManager reopened = new FallbackManager(dir.toString(), "logx")) {
+            assertEquals(20, reopened.getSegmentStore().getPendingRecords().size());
+            assertEquals(1, reopened.getSegmentStore().getMetrics().getInterruptedRecords());
+        }
+    }
+
+    @Test
+    public void transientReadFailureKeepsRecordForNextRound() throws Exception {
+        Set<String> uploaded = ConcurrentHashMap.newKeySet();
+        StorageService storage = mock(StorageService.class, CALLS_REAL_METHODS);
+        doAnswer(invocation -> {
+            uploaded.add(invocation.getArgument(0));
+            return CompletableFuture.completedFuture(null);
+        }).when(storage).putObject(anyString(), any(byte[].class));
+
+        try (FallbackManager real = new FallbackManager(dir.toString(), "logx")) {
+            assertTrue(real.writeFallbackFile("logx/0.log.gz", new byte[64]));
+            FallbackSegmentStore store = spy(real.getSegmentStore());
+            doThrow(new IOException("Input/output error")).doCallRealMethod().when(store).locatePayload(any());
+            FallbackManager manager = spy(real);
+            doReturn(store).when(manager).getSegmentStore();
+
+            try (FallbackUploaderTask task = new FallbackUploaderTask(storage, manager, 7, 1, 0L, 5000L)) {
+                task.run();
+                assertTrue(uploaded.isEmpty());
+                assertEquals(1, store.getPendingRecords().size());
+                assertEquals(1, task.getMetrics().getFailedUploads());
+
+                task.run();
+                assertEquals(Collections.singleton("logx/0.log.gz"), uploaded);
+                assertTrue(store.getPendingRecords().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void legacyGzipFileIsReplayedByteExactUnderItsOriginalKey() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("line-1\nline-2\n".getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] original = compressed.toByteArray();
+        Path legacy = dir.resolve("logx/2025/10/14/143250200-applogx-10.0.0.1-abc12345.log.gz");
+        Files.createDirectories(legacy.getParent());
+        Files.write(legacy, original);
+
+        Map<String, byte[]> uploaded = new ConcurrentHashMap<>();
+        StorageService storage = mock(StorageService.class, CALLS_REAL_METHODS);
+        doAnswer(invocation -> {
+            uploaded.put(invocation.getArgument(0), invocation.getArgument(1));
+            return CompletableFuture.completedFuture(null);
+        }).when(storage).putObject(anyString(), any(byte[].class));
+
+        try (FallbackManager manager = new FallbackManager(dir.toString(), "logx");
+                FallbackUploaderTask task = new FallbackUploaderTask(storage, manager, 7)) {
+            task.run();
+        }
+
+        byte[] sent = uploaded.get("logx/2025/10/14/143250200-applogx-10.0.0.1-abc12345.log.gz");
+        assertNotNull(sent, "uploaded keys: " + uploaded.keySet());
+        assertArrayEquals(original, sent);
+        assertFalse(Files.exists(legacy));
+    }
+
+    @Test
+    public void rateLimiterCapsThroughput() throws Exception {
+        FallbackRateLimiter limiter = new FallbackRateLimiter(100_000L);
+        long start = System.nanoTime();
+        for (int i = 0; i < 30; i++) {
+            limiter.acquire(10_000L);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        assertTrue(elapsedMs >= 1500, "elapsed " + elapsedMs + "ms");
+        assertTrue(limiter.getThrottledMillis() > 0);
+    }
+}
@@ -0,0 +1,58 @@
+package org.logx.fallback;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectKeyTemplateTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void rendersPartitionedLayoutAndRoundTripsThroughFallbackPath() {
+        ObjectKeyTemplate template = ObjectKeyTemplate.compile(
+                "{prefix}/{service}/{yyyy}/{MM}/{dd}/{HH}/{host}-{seq}.{ext}", "order-service");
+        long now = System.currentTimeMillis();
+        String key = template.render("/logs/", now);
+
+        String hourPath = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ofPattern("yyyy/MM/dd/HH"));
+        assertTrue(key.startsWith("logs/order-service/" + hourPath + "/"), key);
+        assertTrue(key.matches(".*/[^/]+-[0-9a-f]{16}\\.log\\.gz"), key);
+        assertNotEquals(key, template.render("/logs/", now));
+
+        Path file = ObjectNameGenerator.toFallbackFile(dir, key);
+        assertTrue(file.startsWith(dir));
+        assertEquals(key, ObjectNameGenerator.toObjectKey(dir, file));
+    }
+
+    @Test
+    public void seqStaysUniqueBeyond65536KeysInOneHourBucket() {
+        ObjectKeyTemplate template = ObjectKeyTemplate.compile(
+                "{prefix}/{service}/{yyyy}/{MM}/{dd}/{HH}/{host}-{seq}.{ext}", "order-service");
+        long now = System.currentTimeMillis();
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 70_000; i++) {
+            assertTrue(keys.add(template.render("logs", now)), "duplicate key after " + i + " renders");
+        }
+    }
+
+    @Test
+    public void rejectsInvalidTemplates() {
+        assertThrows(IllegalArgumentException.class, () -> ObjectKeyTemplate.compile("{prefix}/{yyyy}/{host}.{ext}", null));
+        assertThrows(IllegalArgumentException.class, () -> ObjectKeyTemplate.compile("{prefix}/{level}/{seq}", null));
+        assertThrows(IllegalArgumentException.class, () -> ObjectKeyTemplate.compile("{prefix}/{seq", null));
+        assertThrows(IllegalArgumentException.class, () -> ObjectKeyTemplate.compile("/{prefix}/{seq}", null));
+        assertEquals(ObjectKeyTemplate.DEFAULT_TEMPLATE, ObjectKeyTemplate.compile(" ", null).getTemplate());
+    }
+}
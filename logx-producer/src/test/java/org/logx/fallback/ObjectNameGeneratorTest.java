@@ -0,0 +1,45 @@
+package org.logx.fallback;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectNameGeneratorTest {
+
+    private static final Pattern NAME = Pattern.compile(
+            "logs/app/(\\d{4}/\\d{2}/\\d{2})/(\\d{9})-applogx-[^-]+-([0-9a-f]{16})\\.log\\.gz");
+
+    @Test
+    public void keepsTheDocumentedLayoutAndLocalTime() {
+        LocalDateTime before = LocalDateTime.now();
+        String name = ObjectNameGenerator.generateObjectName("/logs/app/");
+        LocalDateTime after = LocalDateTime.now();
+
+        Matcher matcher = NAME.matcher(name);
+        assertTrue(matcher.matches(), name);
+        String date = matcher.group(1);
+        assertTrue(date.equals(before.format(DateTimeFormatter.ofPattern("yyyy/MM/dd")))
+                || date.equals(after.format(DateTimeFormatter.ofPattern("yyyy/MM/dd"))), name);
+        int time = Integer.parseInt(matcher.group(2));
+        int lower = Integer.parseInt(before.format(DateTimeFormatter.ofPattern("HHmmssSSS")));
+        int upper = Integer.parseInt(after.format(DateTimeFormatter.ofPattern("HHmmssSSS")));
+        assertTrue(lower > upper || (time >= lower && time <= upper), name + " not within " + lower + ".." + upper);
+
+        assertTrue(ObjectNameGenerator.generateObjectName(null).startsWith("logx/"));
+    }
+
+    @Test
+    public void generatesUniqueNamesWithinTheSameMillisecond() {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(names.add(ObjectNameGenerator.generateObjectName("logs/app")));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.logx.index;
+
+import org.junit.jupiter.api.Test;
+import org.logx.core.BatchCodec;
+import org.logx.core.EnhancedDisruptorBatchingQueue;
+import org.logx.core.EnhancedDisruptorBatchingQueue.BatchSummary;
+import org.logx.core.EnhancedDisruptorBatchingQueue.LogEvent;
+import org.logx.index.BatchIndex.LogLevel;
+import org.logx.storage.StorageService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+
+public class BatchIndexBuilderTest {
+
+    @Test
+    public void indexesLevelsLoggersTraceIdsAndOffsets() throws Exception {
+        String[] lines = {
+                "2025-10-14 14:32:50.200 [main] INFO  com.example.OrderService - created traceId=4bf92f3577b34da6\n",
+                "2025-10-14 14:32:50.201 [main] ERROR com.example.PaymentClient - timeout\n"
+                        + "java.io.IOException: timeout\n\tat com.example.PaymentClient.call(PaymentClient.java:42)\n",
+                "{\"ts\":1760423570202,\"level\":\"WARN\",\"logger\":\"com.example.Inventory\",\"trace_id\":\"a1b2c3\"}\n",
+                "plain line without a level\n"
+        };
+        LogEvent[] events = new LogEvent[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            events[i] = new LogEvent(lines[i].getBytes(StandardCharsets.UTF_8), 1000L + i);
+        }
+        int[] offsets = new int[lines.length];
+        byte[] data = BatchCodec.serialize(events, 0, lines.length, offsets);
+
+        BatchIndex index = BatchIndex.decode(BatchIndexBuilder.build(data, offsets, 1000L, 1003L).encode());
+
+        assertEquals(1000L, index.getMinTimestampMs());
+        assertEquals(1003L, index.getMaxTimestampMs());
+        assertEquals(4, index.getEventCount());
+        assertEquals(1, index.getLevelCount(LogLevel.INFO));
+        assertEquals(1, index.getLevelCount(LogLevel.ERROR));
+        assertEquals(1, index.getLevelCount(LogLevel.WARN));
+        assertEquals(1, index.getLevelCount(LogLevel.UNKNOWN));
+        assertEquals(0, index.getLevelCount(LogLevel.DEBUG));
+
+        assertTrue(index.mightContainTraceId("4bf92f3577b34da6"));
+        assertTrue(index.mightContainTraceId("a1b2c3"));
+        assertFalse(index.mightContainTraceId("ffffffffffffffff"));
+        assertTrue(index.mightContainLogger("com.example.OrderService"));
+        assertTrue(index.mightContainLogger("com.example.PaymentClient"));
+        assertTrue(index.mightContainLogger("com.example.Inventory"));
+        assertFalse(index.mightContainLogger("com.example.Unrelated"));
+
+        for (int i = 0; i < lines.length; i++) {
+            String event = new String(data, index.getEventOffset(i), lines[i].length(), StandardCharsets.UTF_8);
+            assertEquals(lines[i], event);
+        }
+        assertThrows(java.io.IOException.class, () -> BatchIndex.decode(new byte[]{1, 2, 3, 4, 5}));
+    }
+
+    @Test
+    public void queuePassesEventOffsetsAndTimeRangeWhenSidecarIndexEnabled() throws Exception {
+        List<BatchSummary> summaries = new CopyOnWriteArrayList<>();
+        EnhancedDisruptorBatchingQueue.BatchConsumer consumer = new EnhancedDisruptorBatchingQueue.BatchConsumer() {
+            @Override
+            public boolean processBatch(byte[] batchData, int originalSize, boolean compressed, int messageCount) {
+                fail("sidecar index enabled but batch delivered without summary");
+                return true;
+            }
+
+            @Override
+            public boolean processBatch(byte[] batchData, int originalSize, boolean compressed, int messageCount,
+                    BatchSummary summary) {
+                assertEquals(messageCount, summary.getEventOffsets().length);
+                summaries.add(summary);
+                return true;
+            }
+        };
+        EnhancedDisruptorBatchingQueue.Config config = new EnhancedDisruptorBatchingQueue.Config()
+                .queueCapacity(1024)
+                .sidecarIndex(true);
+        long before = System.currentTimeMillis();
+        try (EnhancedDisruptorBatchingQueue queue = new EnhancedDisruptorBatchingQueue(config, consumer,
+                mock(StorageService.class, CALLS_REAL_METHODS))) {
+            queue.start();
+            assertTrue(queue.submit("first\n".getBytes(StandardCharsets.UTF_8)));
+            assertTrue(queue.submit("second".getBytes(StandardCharsets.UTF_8)));
+            assertTrue(queue.submit("third\n".getBytes(StandardCharsets.UTF_8)));
+        }
+        long after = System.currentTimeMillis();
+
+        // 关闭时处理器缓冲可能分两次冲刷，逐个批次校验偏移，再校验拼接结果
+        StringBuilder all = new StringBuilder();
+        for (BatchSummary summary : summaries) {
+            String text = new String(summary.getData(), StandardCharsets.UTF_8);
+            int[] offsets = summary.getEventOffsets();
+            for (int i = 0; i < offsets.length; i++) {
+                assertTrue(offsets[i] == 0 || text.charAt(offsets[i] - 1) == '\n', text);
+            }
+            assertTrue(summary.getMinTimestampMs() >= before);
+            assertTrue(summary.getMinTimestampMs() <= summary.getMaxTimestampMs());
+            assertTrue(summary.getMaxTimestampMs() <= after);
+            all.append(text);
+        }
+        assertEquals("first\nsecond\nthird\n", all.toString());
+        assertEquals(3, summaries.stream().mapToInt(summary -> summary.getEventOffsets().length).sum());
+    }
+}
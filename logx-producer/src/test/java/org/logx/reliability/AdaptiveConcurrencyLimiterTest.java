@@ -0,0 +1,75 @@
+package org.logx.reliability;
+
+import org.junit.jupiter.api.Test;
+import org.logx.exception.StorageException;
+import org.logx.storage.ConcurrencyLimitedStorageService;
+import org.logx.storage.StorageService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void growsAdditivelyWhileSaturatedAndBlocksAtTheLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4, 2.0, 0.5);
+        long latency = TimeUnit.MILLISECONDS.toNanos(20);
+
+        assertTrue(limiter.acquire(0));
+        assertTrue(limiter.acquire(0));
+        assertFalse(limiter.acquire(0));
+
+        for (int i = 0; i < 20 && limiter.getLimit() < 4; i++) {
+            limiter.onSuccess(latency);
+            assertTrue(limiter.acquire(0));
+            while (limiter.getMetrics().getInFlight() < limiter.getLimit()) {
+                assertTrue(limiter.acquire(0));
+            }
+        }
+        assertEquals(4, limiter.getLimit());
+        assertFalse(limiter.acquire(0));
+        assertEquals(2, limiter.getMetrics().getIncreases());
+    }
+
+    @Test
+    public void cutsMultiplicativelyOnThrottlingButIgnoresClientErrors() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, 2.0, 0.5);
+        StorageService delegate = mock(StorageService.class, CALLS_REAL_METHODS);
+        doAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            if (key.startsWith("slowdown")) {
+                result.completeExceptionally(StorageException.serverError("503 SlowDown", "SlowDown", null));
+            } else if (key.startsWith("bad")) {
+                result.completeExceptionally(StorageException.clientError("400 InvalidArgument", "InvalidArgument"));
+            } else {
+                result.complete(null);
+            }
+            return result;
+        }).when(delegate).putObject(anyString(), any(byte[].class));
+        ConcurrencyLimitedStorageService service = new ConcurrencyLimitedStorageService(delegate, limiter, 1000);
+
+        service.putObject("ok", new byte[16]);
+        service.putObject("bad", new byte[16]);
+        assertEquals(8, limiter.getLimit());
+
+        service.putObject("slowdown-1", new byte[16]);
+        assertEquals(4, limiter.getLimit());
+        // 同一次拥塞内的多个失败只缩减一次
+        service.putObject("slowdown-2", new byte[16]);
+        assertEquals(4, limiter.getLimit());
+
+        Thread.sleep(150);
+        service.putObject("slowdown-3", new byte[16]);
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getMetrics().getInFlight());
+        assertEquals(3, limiter.getMetrics().getThrottledResponses());
+    }
+}
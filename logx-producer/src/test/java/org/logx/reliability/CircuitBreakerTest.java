@@ -0,0 +1,108 @@
+package org.logx.reliability;
+
+import org.junit.jupiter.api.Test;
+import org.logx.storage.CircuitBreakingStorageService;
+import org.logx.storage.StorageService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void opensOnFailureRateAndFailsFastWithoutCallingStorage() {
+        AtomicInteger calls = new AtomicInteger();
+        StorageService delegate = mock(StorageService.class, CALLS_REAL_METHODS);
+        doAnswer(invocation -> {
+            calls.incrementAndGet();
+            CompletableFuture<Void> failure = new CompletableFuture<>();
+            failure.completeExceptionally(new IllegalStateException("503 SlowDown"));
+            return failure;
+        }).when(delegate).putObject(anyString(), any(byte[].class));
+
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 50, 0L, 60_000L);
+        StorageService storage = new CircuitBreakingStorageService(delegate, breaker);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ExecutionException.class, () -> storage.putObject("k", new byte[1]).get());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        long start = System.nanoTime();
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> storage.putObject("k", new byte[1]).get());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+        assertTrue(CircuitBreakingStorageService.isCircuitOpen(rejected));
+        assertEquals(4, calls.get());
+        assertEquals(1, breaker.getMetrics().getRejectedCalls());
+        assertEquals(1, breaker.getMetrics().getOpenedCount());
+    }
+
+    @Test
+    public void singleProbeClosesOrReopensTheBreaker() throws Exception {
+        AtomicBoolean healthy = new AtomicBoolean(false);
+        StorageService delegate = mock(StorageService.class, CALLS_REAL_METHODS);
+        doAnswer(invocation -> {
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            if (healthy.get()) {
+                result.complete(null);
+            } else {
+                result.completeExceptionally(new IllegalStateException("connection refused"));
+            }
+            return result;
+        }).when(delegate).putObject(anyString(), any(byte[].class));
+
+        CircuitBreaker breaker = new CircuitBreaker("test", 4, 2, 50, 0L, 50L);
+        StorageService storage = new CircuitBreakingStorageService(delegate, breaker);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ExecutionException.class, () -> storage.putObject("k", new byte[1]).get());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(80);
+        long probe = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.NO_PERMIT, probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.NO_PERMIT, breaker.tryAcquire());
+        breaker.onFailure(probe, 0L);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(80);
+        healthy.set(true);
+        storage.putObject("k", new byte[1]).get();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(2, breaker.getMetrics().getOpenedCount());
+    }
+
+    @Test
+    public void lateResultsFromBeforeOpeningDoNotDecideTheProbe() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", 4, 2, 50, 0L, 50L);
+        long lateSuccess = breaker.tryAcquire();
+        long lateFailure = breaker.tryAcquire();
+        breaker.onFailure(breaker.tryAcquire(), 0L);
+        breaker.onFailure(breaker.tryAcquire(), 0L);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(80);
+        long probe = breaker.tryAcquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess(lateSuccess, 0L);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onFailure(lateFailure, 0L);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess(probe, 0L);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onFailure(lateFailure, 0L);
+        assertEquals(0, breaker.getMetrics().getFailureRatePercent());
+    }
+}
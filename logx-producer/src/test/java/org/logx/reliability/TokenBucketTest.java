@@ -0,0 +1,64 @@
+package org.logx.reliability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    @Test
+    public void allowsBurstThenChargesOverdraftAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(1000, 500);
+
+        assertEquals(0L, bucket.reserve(500));
+        long wait = bucket.reserve(250);
+        // 透支250个令牌，按每秒1000个偿还约需250ms
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(200) && wait <= TimeUnit.MILLISECONDS.toNanos(250),
+                "wait was " + wait);
+        assertTrue(bucket.reserve(1) > wait);
+    }
+
+    @Test
+    public void concurrentReservationsNeverExceedTheRate() throws Exception {
+        TokenBucket bucket = new TokenBucket(10_000, 1);
+        int threads = 8;
+        int perThread = 1000;
+        AtomicLong maxWait = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < perThread; i++) {
+                        long wait = bucket.reserve(1);
+                        maxWait.accumulateAndGet(wait, Math::max);
+                    }
+                });
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            long elapsed = System.nanoTime() - begin;
+
+            // 8000个令牌在每秒10000个的速率下约需0.8秒，最后一个预留者必须等待到那时
+            long expected = TimeUnit.MILLISECONDS.toNanos(800);
+            assertTrue(maxWait.get() + elapsed >= expected - TimeUnit.MILLISECONDS.toNanos(5),
+                    "maxWait=" + maxWait.get() + " elapsed=" + elapsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
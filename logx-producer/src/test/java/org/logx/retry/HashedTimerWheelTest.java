@@ -0,0 +1,48 @@
+package org.logx.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedTimerWheelTest {
+
+    @Test
+    public void everyAcceptedTaskRunsWhenScheduleRacesClose() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            HashedTimerWheel wheel = new HashedTimerWheel("test-wheel", 10, 64);
+            AtomicInteger accepted = new AtomicInteger();
+            AtomicInteger executed = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService producers = Executors.newFixedThreadPool(4);
+            for (int t = 0; t < 4; t++) {
+                producers.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < 500; i++) {
+                        if (wheel.schedule(executed::incrementAndGet, 60_000)) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+            wheel.close();
+            producers.shutdown();
+            assertTrue(producers.awaitTermination(5, TimeUnit.SECONDS));
+
+            assertFalse(wheel.schedule(executed::incrementAndGet, 0));
+            assertEquals(accepted.get(), executed.get());
+            assertEquals(0, wheel.getPendingCount());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.logx.retry;
+
+import org.junit.jupiter.api.Test;
+import org.logx.exception.StorageException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UploadRetrySchedulerTest {
+
+    @Test
+    public void retriesTransientFailuresAndFailsFastOnClientErrors() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        RetryStrategy strategy = new ExponentialBackoffRetry(3, Duration.ofMillis(20), 2.0, Duration.ofMillis(100), 0.0);
+        try (UploadRetryScheduler scheduler = new UploadRetryScheduler(strategy, 0, 200)) {
+            AtomicInteger transientCalls = new AtomicInteger();
+            scheduler.submit("a.log.gz", () -> {
+                if (transientCalls.incrementAndGet() < 3) {
+                    throw StorageException.serverError("503 SlowDown", "SlowDown", null);
+                }
+            }, executor).get(5, TimeUnit.SECONDS);
+            assertEquals(3, transientCalls.get());
+
+            AtomicInteger clientCalls = new AtomicInteger();
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> scheduler.submit("b.log.gz", () -> {
+                        clientCalls.incrementAndGet();
+                        throw StorageException.clientError("400 InvalidArgument", "InvalidArgument");
+                    }, executor).get(5, TimeUnit.SECONDS));
+            assertEquals(1, clientCalls.get());
+            assertEquals(StorageException.ErrorType.CLIENT_ERROR,
+                    ((StorageException) failure.getCause()).getErrorType());
+
+            UploadRetryScheduler.UploadRetryMetrics metrics = scheduler.getMetrics();
+            assertEquals(2, metrics.getRetries());
+            assertEquals(1, metrics.getRecoveredByRetry());
+            assertEquals(1, metrics.getNonRetryable());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void hedgedRequestCompletesUploadWhenPrimaryHangs() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch release = new CountDownLatch(1);
+        RetryStrategy strategy = new ExponentialBackoffRetry(0, Duration.ofMillis(20), 2.0, Duration.ofMillis(100), 0.0);
+        try (UploadRetryScheduler scheduler = new UploadRetryScheduler(strategy, 90, 50)) {
+            for (int i = 0; i < 20; i++) {
+                scheduler.submit("warmup-" + i, () -> {
+                }, executor).get(5, TimeUnit.SECONDS);
+            }
+
+            AtomicInteger calls = new AtomicInteger();
+            long start = System.nanoTime();
+            scheduler.submit("slow.log.gz", () -> {
+                if (calls.incrementAndGet() == 1) {
+                    release.await(10, TimeUnit.SECONDS);
+                }
+            }, executor).get(5, TimeUnit.SECONDS);
+
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+            assertEquals(2, calls.get());
+            assertEquals(1, scheduler.getMetrics().getHedgeWins());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
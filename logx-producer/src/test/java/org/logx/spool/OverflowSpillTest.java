@@ -0,0 +1,139 @@
+package org.logx.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverflowSpillTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void awaitDrained(OverflowSpill spill) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (spill.hasBacklog() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(spill.hasBacklog());
+    }
+
+    @Test
+    public void drainsInWriteOrderOnceSinkAcceptsAgain() throws Exception {
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean accepting = new AtomicBoolean(false);
+        OverflowSpill spill = OverflowSpill.open(dir, 256, 1024 * 1024, (payload, ts) -> {
+            if (!accepting.get()) {
+                return false;
+            }
+            received.add(new String(payload, StandardCharsets.UTF_8) + "@" + ts);
+            return true;
+        });
+        spill.start();
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(spill.append(bytes("event-" + i), i));
+        }
+        assertTrue(spill.hasBacklog());
+        assertTrue(spill.getMetrics().getLiveSegments() > 1);
+
+        accepting.set(true);
+        awaitDrained(spill);
+
+        assertEquals(50, received.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals("event-" + i + "@" + i, received.get(i));
+        }
+        OverflowSpill.SpillMetrics metrics = spill.getMetrics();
+        assertEquals(50, metrics.getSpilledMessages());
+        assertEquals(50, metrics.getDrainedMessages());
+        assertEquals(0, metrics.getBacklogBytes());
+        assertEquals(0, metrics.getLiveSegments());
+        spill.close(1000);
+    }
+
+    @Test
+    public void undrainedEventsSurviveReopen() throws Exception {
+        OverflowSpill spill = OverflowSpill.open(dir, 4096, 1024 * 1024, (payload, ts) -> false);
+        spill.start();
+        spill.append(bytes("a"), 1);
+        spill.append(bytes("b"), 2);
+        spill.close(50);
+
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        OverflowSpill reopened = OverflowSpill.open(dir, 4096, 1024 * 1024, (payload, ts) -> {
+            received.add(new String(payload, StandardCharsets.UTF_8));
+            return true;
+        });
+        assertTrue(reopened.hasBacklog());
+        assertEquals(1, reopened.getMetrics().getRecoveredSegments());
+        reopened.start();
+        awaitDrained(reopened);
+        reopened.close(1000);
+
+        assertEquals(2, received.size());
+        assertEquals("a", received.get(0));
+        assertEquals("b", received.get(1));
+    }
+
+    @Test
+    public void partiallyDrainedSegmentResumesAfterReopen() throws Exception {
+        List<String> first = Collections.synchronizedList(new ArrayList<>());
+        OverflowSpill spill = OverflowSpill.open(dir, 4096, 1024 * 1024, (payload, ts) -> {
+            if (first.size() >= 3) {
+                return false;
+            }
+            first.add(new String(payload, StandardCharsets.UTF_8));
+            return true;
+        });
+        for (int i = 0; i < 10; i++) {
+            assertTrue(spill.append(bytes("event-" + i), i));
+        }
+        spill.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (first.size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // 回灌超时，已投递3条，剩余7条留在段中
+        spill.close(50);
+        assertEquals(3, first.size());
+
+        List<String> replayed = Collections.synchronizedList(new ArrayList<>());
+        OverflowSpill reopened = OverflowSpill.open(dir, 4096, 1024 * 1024, (payload, ts) -> {
+            replayed.add(new String(payload, StandardCharsets.UTF_8));
+            return true;
+        });
+        reopened.start();
+        awaitDrained(reopened);
+        reopened.close(1000);
+
+        assertEquals(7, replayed.size());
+        for (int i = 0; i < 7; i++) {
+            assertEquals("event-" + (i + 3), replayed.get(i));
+        }
+    }
+
+    @Test
+    public void rejectsAppendsBeyondMaxBytes() throws IOException {
+        OverflowSpill spill = OverflowSpill.open(dir, 4096, 64, (payload, ts) -> false);
+        assertTrue(spill.append(new byte[20], 1));
+        assertTrue(spill.append(new byte[20], 2));
+        assertFalse(spill.append(new byte[20], 3));
+        assertEquals(1, spill.getMetrics().getRejectedMessages());
+        spill.close(0);
+        assertFalse(spill.append(new byte[1], 4));
+    }
+}
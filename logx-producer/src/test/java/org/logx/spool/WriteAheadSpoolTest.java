@@ -0,0 +1,106 @@
+package org.logx.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteAheadSpoolTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.wal")) {
+            for (Path p : stream) {
+                files.add(p);
+            }
+        }
+        return files;
+    }
+
+    @Test
+    public void unacknowledgedRecordsAreReplayedAfterReopen() throws IOException {
+        WriteAheadSpool spool = WriteAheadSpool.open(dir, 64 * 1024, 0);
+        SpoolRecord first = spool.append("k/1.log.gz", bytes("batch-1"), 7, true, 3);
+        spool.append("k/2.log.gz", bytes("batch-2"), 7, false, 4);
+        spool.append("k/3.log.gz", bytes("batch-3"), 7, true, 5);
+        spool.acknowledge(first);
+        spool.close();
+
+        try (WriteAheadSpool reopened = WriteAheadSpool.open(dir, 64 * 1024, 0)) {
+            List<SpoolRecord> recovered = reopened.getRecoveredRecords();
+            assertEquals(2, recovered.size());
+            assertEquals("k/2.log.gz", recovered.get(0).getKey());
+            assertArrayEquals(bytes("batch-2"), recovered.get(0).readPayload());
+            assertFalse(recovered.get(0).isCompressed());
+            assertEquals(4, recovered.get(0).getMessageCount());
+            assertEquals("k/3.log.gz", recovered.get(1).getKey());
+            assertArrayEquals(bytes("batch-3"), recovered.get(1).readPayload());
+
+            recovered.forEach(reopened::acknowledge);
+            assertEquals(0, reopened.getMetrics().getPendingRecords());
+        }
+
+        try (WriteAheadSpool third = WriteAheadSpool.open(dir, 64 * 1024, 0)) {
+            assertTrue(third.getRecoveredRecords().isEmpty());
+        }
+    }
+
+    @Test
+    public void fullyAcknowledgedSegmentsAreDeletedOnRoll() throws IOException {
+        byte[] payload = new byte[100];
+        try (WriteAheadSpool spool = WriteAheadSpool.open(dir, 256, 50)) {
+            List<SpoolRecord> records = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                records.add(spool.append("key-" + i, payload, 100, true, 1));
+            }
+            assertTrue(spool.getMetrics().getSegmentsCreated() >= 3);
+
+            records.forEach(spool::acknowledge);
+            spool.append("key-last", payload, 100, true, 1);
+
+            assertEquals(1, segmentFiles().size());
+            assertEquals(1, spool.getMetrics().getPendingRecords());
+        }
+    }
+
+    @Test
+    public void tornTailRecordIsIgnored() throws IOException {
+        try (WriteAheadSpool spool = WriteAheadSpool.open(dir, 4096, 0)) {
+            spool.append("good", bytes("complete batch"), 14, false, 1);
+            spool.append("torn", bytes("half written batch"), 18, false, 1);
+        }
+
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            ByteBuffer content = ByteBuffer.allocate((int) size);
+            channel.read(content, 0);
+            byte[] raw = content.array();
+            int tornPayload = new String(raw, StandardCharsets.ISO_8859_1).indexOf("half written");
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), tornPayload);
+        }
+
+        try (WriteAheadSpool reopened = WriteAheadSpool.open(dir, 4096, 0)) {
+            assertEquals(1, reopened.getRecoveredRecords().size());
+            assertEquals("good", reopened.getRecoveredRecords().get(0).getKey());
+        }
+    }
+}
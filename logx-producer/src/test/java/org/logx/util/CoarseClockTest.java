@@ -0,0 +1,25 @@
+package org.logx.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoarseClockTest {
+
+    @Test
+    public void cachedTimeAdvancesWhileRetainedAndFallsBackAfterRelease() throws Exception {
+        CoarseClock.retain();
+        try {
+            long first = CoarseClock.currentTimeMillis();
+            assertTrue(Math.abs(System.currentTimeMillis() - first) < 1000);
+            Thread.sleep(50);
+            long second = CoarseClock.currentTimeMillis();
+            assertTrue(second - first >= 20, "cached clock did not advance: " + (second - first));
+        } finally {
+            CoarseClock.release();
+        }
+
+        // 同一JVM中其他测试的队列可能仍持有时钟，这里只校验释放后读数仍然有效
+        assertTrue(Math.abs(System.currentTimeMillis() - CoarseClock.currentTimeMillis()) < 1000);
+    }
+}
@@ -1,5 +1,6 @@
 package org.logx.storage.s3;
 
+import org.logx.exception.StorageException;
 import org.logx.storage.ProtocolType;
 import org.logx.storage.StorageConfig;
 import org.logx.storage.StorageService;
@@ -7,6 +8,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
@@ -14,7 +17,13 @@ import software.amazon.awssdk.services.s3.S3ClientBuilder;
 import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -136,28 +145,8 @@ public final class S3StorageServiceAdapter implements StorageService, AutoClosea
                 throw new IllegalStateException("S3 client has been closed");
             }
             
-            // 设置正确的Content-Type
-            String contentType = "text/plain; charset=utf-8";
-            // 如果数据是gzip压缩的，设置相应的Content-Type
-            if (data.length > 2 && data[0] == (byte) 0x1f && data[1] == (byte) 0x8b) {
-                contentType = "application/gzip";
-            }
-
-            PutObjectRequest.Builder requestBuilder = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .contentLength((long) data.length)
-                    .contentType(contentType);
-
-            // SF S3特殊处理：设置文件有效期元数据，默认保存一年
-            // 当ossType为SF_S3时，需要设置X-Delete-After元数据
-            if ("SF_S3".equals(ossType)) {
-                Map<String, String> metadata = new HashMap<>();
-                metadata.put("X-Delete-After", "157680000");
-                requestBuilder.metadata(metadata);
-            }
-
-            PutObjectRequest putRequest = requestBuilder.build();
+            PutObjectRequest putRequest = buildPutRequest(key, data.length,
+                    data.length > 2 && isGzip(data[0], data[1]));
             RequestBody requestBody = RequestBody.fromBytes(data);
 
             // 同步执行上传（调用方已经在uploadExecutor线程中）
@@ -184,10 +173,106 @@ public final class S3StorageServiceAdapter implements StorageService, AutoClosea
                 endpoint, bucketName, key, data.length, e.getMessage());
             // 返回失败的Future，由核心层处理重试和错误处理
             CompletableFuture<Void> future = new CompletableFuture<>();
-            future.completeExceptionally(
-                new RuntimeException("Failed to upload object to S3: " + e.getMessage(), e));
+            future.completeExceptionally(toStorageException(e));
+            return future;
+        }
+    }
+
+    /**
+     * 直接从文件区间流式上传，请求体按需打开FileChannel顺序读取，不把数据整体读入堆内存
+     */
+    @Override
+    public CompletableFuture<Void> putObject(String key, Path file, long offset, long length) {
+        ensureInitialized();
+
+        if (key == null || key.trim().isEmpty()) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalArgumentException("Key cannot be null or empty"));
             return future;
         }
+
+        try {
+            if (s3Client == null) {
+                throw new IllegalStateException("S3 client has been closed");
+            }
+
+            ByteBuffer magic = ByteBuffer.allocate(2);
+            if (length > 2) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    int read;
+                    do {
+                        read = channel.read(magic, offset + magic.position());
+                    } while (read > 0 && magic.hasRemaining());
+                }
+            }
+            boolean gzip = !magic.hasRemaining() && isGzip(magic.get(0), magic.get(1));
+
+            PutObjectRequest putRequest = buildPutRequest(key, length, gzip);
+            RequestBody requestBody = RequestBody.fromContentProvider(
+                    () -> new FileRegionInputStream(file, offset, length), length, putRequest.contentType());
+            s3Client.putObject(putRequest, requestBody);
+
+            logger.debug("Successfully streamed object: endpoint={}, bucket={}, key={}, size={} bytes",
+                endpoint, bucketName, key, length);
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to stream object to S3. Endpoint: {}, Bucket: {}, Key: {}, Size: {} bytes, Error: {}",
+                endpoint, bucketName, key, length, e.getMessage());
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(toStorageException(e));
+            return future;
+        }
+    }
+
+    /**
+     * 把SDK异常归类为 {@link StorageException}，供核心层判断是否重试：
+     * 5xx、429和网络错误可重试，401/403为认证错误，其余4xx为客户端错误
+     */
+    static StorageException toStorageException(Exception e) {
+        String message = "Failed to upload object to S3: " + e.getMessage();
+        if (e instanceof AwsServiceException) {
+            AwsServiceException serviceException = (AwsServiceException) e;
+            int status = serviceException.statusCode();
+            String errorCode = serviceException.awsErrorDetails() != null
+                    ? serviceException.awsErrorDetails().errorCode()
+                    : String.valueOf(status);
+            if (status >= 500 || status == 429 || serviceException.isThrottlingException()) {
+                return StorageException.serverError(message, errorCode, e);
+            }
+            if (status == 401 || status == 403) {
+                return new StorageException(message, StorageException.ErrorType.AUTHENTICATION_ERROR, errorCode, e,
+                        false);
+            }
+            return new StorageException(message, StorageException.ErrorType.CLIENT_ERROR, errorCode, e, false);
+        }
+        if (e instanceof SdkClientException || e instanceof IOException) {
+            return StorageException.networkError(message, e);
+        }
+        return new StorageException(message, StorageException.ErrorType.UNKNOWN_ERROR, e);
+    }
+
+    private static boolean isGzip(byte first, byte second) {
+        return first == (byte) 0x1f && second == (byte) 0x8b;
+    }
+
+    private PutObjectRequest buildPutRequest(String key, long contentLength, boolean gzip) {
+        // 设置正确的Content-Type，gzip压缩的数据使用application/gzip
+        String contentType = gzip ? "application/gzip" : "text/plain; charset=utf-8";
+
+        PutObjectRequest.Builder requestBuilder = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentLength(contentLength)
+                .contentType(contentType);
+
+        // SF S3特殊处理：设置文件有效期元数据，默认保存一年
+        // 当ossType为SF_S3时，需要设置X-Delete-After元数据
+        if ("SF_S3".equals(ossType)) {
+            Map<String, String> metadata = new HashMap<>();
+            metadata.put("X-Delete-After", "157680000");
+            requestBuilder.metadata(metadata);
+        }
+        return requestBuilder.build();
     }
 
     @Override
@@ -229,4 +314,53 @@ public final class S3StorageServiceAdapter implements StorageService, AutoClosea
         return ADAPTER_TYPE == protocol;
     }
 
-}
\ No newline at end of file
+    /**
+     * 文件区间的只读输入流，SDK重试时会重新创建
+     */
+    private static final class FileRegionInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        FileRegionInputStream(Path file, long offset, long length) {
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int n = read(single, 0, 1);
+            return n < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int toRead = (int) Math.min(len, end - position);
+            int n = channel.read(ByteBuffer.wrap(b, off, toRead), position);
+            if (n < 0) {
+                throw new IOException("Unexpected end of file while streaming region");
+            }
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, end - position);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}